@@ -1,20 +1,26 @@
 // Importieren der notwendigen Pakete und Komponenten
-import React, { useEffect, useState } from 'react';
-import { Form, Button} from 'react-bootstrap';
+import React, { useEffect, useRef, useState } from 'react';
+import { Form, Button, ListGroup } from 'react-bootstrap';
 import axios from 'axios';
 import { ToastContainer, toast } from 'react-toastify';
 import 'react-toastify/dist/ReactToastify.css';
 
+// Anzeigetext eines Kunden im Suchfeld
+const kundeAnzeige = (kunde) => `${kunde.vorname} ${kunde.nachname}`;
+
 // BuchungsForm-Komponente: Ein Formular zum Erstellen oder Bearbeiten einer Buchung.
 const BuchungsForm = ({ onSubmit, initialValues = {}, handleClose, isEditing = false }) => {
 
-    // State-Variablen für Kunden und Fahrzeuge
-    const [kunden, setKunden] = useState([]);
+    // State-Variablen für die Kundensuche und Fahrzeuge
+    const [kundenSuche, setKundenSuche] = useState('');
+    const [kundenTreffer, setKundenTreffer] = useState([]);
+    const letzteSuche = useRef(0);
     const [fahrzeuge, setFahrzeuge] = useState([]);
+    // Vom Server berechnete Gesamtpreise je Fahrzeug-ID für den gewählten Zeitraum
+    const [preise, setPreise] = useState({});
 
-    // Beim ersten Rendering Kunden und Fahrzeuge abrufen
+    // Beim ersten Rendering Fahrzeuge abrufen; Kunden werden über die Suche geladen
     useEffect(() => {
-        fetchKunden();
         fetchFahrzeuge();
     }, []);
 
@@ -36,15 +42,34 @@ const BuchungsForm = ({ onSubmit, initialValues = {}, handleClose, isEditing = f
         toast.error(message, { autoClose: 5000, position: toast.POSITION.BOTTOM_RIGHT });
     };
 
-    // Funktion zum Abrufen der Kunden von der API
-    const fetchKunden = async () => {
-        try {
-            const response = await axios.get('/kunden');
-            setKunden(response.data);
-        } catch (error) {
-            console.error('Fehler beim Abrufen der Kunden:', error);
+    // Typeahead: Kunden nach kurzer Tipppause über den Suchindex des Servers abrufen;
+    // verspätete Antworten älterer Eingaben werden verworfen
+    useEffect(() => {
+        const eingabe = kundenSuche.trim();
+        if (!eingabe || (buchung.kunde && eingabe === kundeAnzeige(buchung.kunde))) {
+            setKundenTreffer([]);
+            return;
         }
-    };
+        const suche = ++letzteSuche.current;
+        const timer = setTimeout(async () => {
+            try {
+                const response = await axios.get('/kunden/search', { params: { q: eingabe, limit: 8 } });
+                if (suche === letzteSuche.current) {
+                    setKundenTreffer(response.data);
+                }
+            } catch (error) {
+                console.error('Fehler bei der Kundensuche:', error);
+            }
+        }, 150);
+        return () => clearTimeout(timer);
+    }, [kundenSuche]);
+
+    // Beim Bearbeiten den bereits gewählten Kunden im Suchfeld anzeigen
+    useEffect(() => {
+        if (initialValues && initialValues.kunde) {
+            setKundenSuche(kundeAnzeige(initialValues.kunde));
+        }
+    }, [initialValues]);
 
     // Funktion zum Abrufen der Fahrzeuge von der API
     const fetchFahrzeuge = async () => {
@@ -65,6 +90,41 @@ const BuchungsForm = ({ onSubmit, initialValues = {}, handleClose, isEditing = f
         fahrzeug: null,
     });
 
+    // Sobald ein Zeitraum gewählt ist, nur noch die in diesem Zeitraum freien Fahrzeuge anbieten
+    useEffect(() => {
+        if (!isEditing && buchung.startdatum && buchung.enddatum && buchung.startdatum <= buchung.enddatum) {
+            fetchVerfuegbareFahrzeuge(buchung.startdatum, buchung.enddatum);
+        }
+    }, [buchung.startdatum, buchung.enddatum, isEditing]);
+
+    // Funktion zum Abrufen der im Zeitraum verfügbaren Fahrzeuge von der API
+    const fetchVerfuegbareFahrzeuge = async (startdatum, enddatum) => {
+        try {
+            const response = await axios.get('/fahrzeuge/verfuegbar', { params: { startdatum, enddatum } });
+            setFahrzeuge(response.data);
+            fetchPreise(response.data, startdatum, enddatum);
+        } catch (error) {
+            console.error('Fehler beim Abrufen der verfügbaren Fahrzeuge:', error);
+        }
+    };
+
+    // Preise aller angebotenen Fahrzeuge für den Zeitraum in einem Aufruf vom Server holen
+    const fetchPreise = async (angeboteneFahrzeuge, startdatum, enddatum) => {
+        try {
+            const anfragen = angeboteneFahrzeuge.map((fahrzeug) => ({ fahrzeugId: fahrzeug.id, startdatum, enddatum }));
+            const response = await axios.post('/buchungen/quote', anfragen);
+            const neuePreise = {};
+            response.data.forEach((angebot) => {
+                if (angebot.gesamtpreis !== null) {
+                    neuePreise[angebot.fahrzeugId] = angebot.gesamtpreis;
+                }
+            });
+            setPreise(neuePreise);
+        } catch (error) {
+            console.error('Fehler beim Abrufen der Preise:', error);
+        }
+    };
+
     // Möglichkeiten für den Buchungsstatus
     const buchungsstatusOptions = [
         'Reserviert',
@@ -78,13 +138,19 @@ const BuchungsForm = ({ onSubmit, initialValues = {}, handleClose, isEditing = f
         setBuchung({ ...buchung, [e.target.name]: e.target.value });
     };
 
-    // Event-Handler, um den ausgewählten Kunden zu aktualisieren
-    const handleKundeChange = (event) => {
-        const selectedKundeId = event.target.value;
-        const selectedKunde = kunden.find(
-            (kunde) => kunde.id.toString() === selectedKundeId
-        );
-        setBuchung({ ...buchung, kunde: selectedKunde });
+    // Event-Handler für das Suchfeld; eine geänderte Eingabe hebt die bisherige Auswahl auf
+    const handleKundeSucheChange = (event) => {
+        setKundenSuche(event.target.value);
+        if (buchung.kunde) {
+            setBuchung({ ...buchung, kunde: null });
+        }
+    };
+
+    // Event-Handler, um einen Kunden aus den Suchtreffern zu übernehmen
+    const handleKundeSelect = (kunde) => {
+        setBuchung({ ...buchung, kunde: { id: kunde.id, vorname: kunde.vorname, nachname: kunde.nachname } });
+        setKundenSuche(kundeAnzeige(kunde));
+        setKundenTreffer([]);
     };
 
     // Event-Handler, um das ausgewählte Fahrzeug zu aktualisieren
@@ -106,23 +172,6 @@ const BuchungsForm = ({ onSubmit, initialValues = {}, handleClose, isEditing = f
         return `${year}-${month}-${day}`;
     };
 
-    // Funktion, um den Gesamtpreis zu berechnen
-    const calculateGesamtpreis = () => {
-        if (!buchung.startdatum || !buchung.enddatum || !buchung.fahrzeug) {
-            return 0;
-        }
-
-        const startDatumObj = new Date(buchung.startdatum);
-        const endDatumObj = new Date(buchung.enddatum);
-
-        const start = new Date(Date.UTC(startDatumObj.getFullYear(), startDatumObj.getMonth(), startDatumObj.getDate()));
-        const end = new Date(Date.UTC(endDatumObj.getFullYear(), endDatumObj.getMonth(), endDatumObj.getDate()));
-
-        const days = (end - start) / (1000 * 60 * 60 * 24) + 1;
-
-        return days * buchung.fahrzeug.preis;
-    };
-
     // Event-Handler für das Absenden des Formulars
     const handleSubmit = async (e) => {
         e.preventDefault();
@@ -155,17 +204,21 @@ const BuchungsForm = ({ onSubmit, initialValues = {}, handleClose, isEditing = f
             }
         }
 
-        const gesamtpreis = calculateGesamtpreis();
-
-        // Aktualisierte Buchungsdaten erstellen und das Enddatum korrekt überschreiben
-        const updatedBuchung = { ...buchung, gesamtpreis, enddatum: buchung.enddatum };
+        // Den Gesamtpreis berechnet der Server beim Speichern nach dem aktuellen Tarif
+        const updatedBuchung = { ...buchung, enddatum: buchung.enddatum };
 
         // Versuch, die Buchung zu speichern
         try {
             await onSubmit(updatedBuchung);
             handleClose && handleClose();
         } catch (error) {
-            showToast('Ein Fehler ist beim Speichern der Buchung aufgetreten.');
+            if (error.response && error.response.status === 409 && error.response.data && error.response.data.konfliktBuchungId) {
+                showToast('Das Fahrzeug wurde in diesem Zeitraum gerade anderweitig gebucht. Bitte wählen Sie ein anderes Fahrzeug oder ändern Sie das Datum.');
+            } else if (error.response && error.response.status === 409) {
+                showToast('Die Buchung wurde inzwischen geändert. Bitte laden Sie die Seite neu und wiederholen Sie die Änderung.');
+            } else {
+                showToast('Ein Fehler ist beim Speichern der Buchung aufgetreten.');
+            }
         }
     };
 
@@ -177,20 +230,25 @@ const BuchungsForm = ({ onSubmit, initialValues = {}, handleClose, isEditing = f
             <Form.Group>
                 <Form.Label>Kunde</Form.Label>
                 <Form.Control
-                    as='select'
+                    type='text'
                     name='kunde'
-                    value={buchung.kunde?.id}
-                    onChange={handleKundeChange}
+                    placeholder='Name, E-Mail, Telefon oder PLZ'
+                    autoComplete='off'
+                    value={kundenSuche}
+                    onChange={handleKundeSucheChange}
                     disabled={isEditing}
                     required
-                >
-                    <option value=''>Kunde auswählen</option>
-                    {kunden.map((kunde) => (
-                        <option key={kunde.id} value={kunde.id}>
-                            {kunde.vorname} {kunde.nachname}
-                        </option>
-                    ))}
-                </Form.Control>
+                />
+                {kundenTreffer.length > 0 && (
+                    <ListGroup>
+                        {kundenTreffer.map((kunde) => (
+                            <ListGroup.Item key={kunde.id} action onClick={() => handleKundeSelect(kunde)}>
+                                {kunde.vorname} {kunde.nachname}
+                                <small className='text-muted'> {kunde.email} · {kunde.plz}</small>
+                            </ListGroup.Item>
+                        ))}
+                    </ListGroup>
+                )}
             </Form.Group>
             <Form.Group>
                 <Form.Label>Fahrzeug</Form.Label>
@@ -206,6 +264,7 @@ const BuchungsForm = ({ onSubmit, initialValues = {}, handleClose, isEditing = f
                     {fahrzeuge.map((fahrzeug) => (
                         <option key={fahrzeug.id} value={fahrzeug.id}>
                             {fahrzeug.marke} {fahrzeug.modell}
+                            {preise[fahrzeug.id] !== undefined && ` – ${preise[fahrzeug.id].toFixed(2)} €`}
                         </option>
                     ))}
                 </Form.Control>
@@ -74,6 +74,10 @@ const FahrzeugForm = ({ onSubmit, initialValues = {}, handleClose }) => {
             await onSubmit(fahrzeug);
             handleClose && handleClose();
         } catch (error) {
+            if (error.response && error.response.status === 409) {
+                showToast('Das Fahrzeug wurde inzwischen geändert. Bitte laden Sie die Seite neu und wiederholen Sie die Änderung.');
+                return;
+            }
             showToast('Ein Fehler ist beim Speichern des Fahrzeugs aufgetreten');
         }
     };
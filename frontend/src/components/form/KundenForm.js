@@ -67,6 +67,10 @@ const KundenForm = ({ onSubmit, initialValues = {}, handleClose }) => {
             await onSubmit(updatedKunde);
             handleClose && handleClose();
         } catch (error) {
+            if (error.response && error.response.status === 409) {
+                showToast('Der Kunde wurde inzwischen geändert. Bitte laden Sie die Seite neu und wiederholen Sie die Änderung.');
+                return;
+            }
             showToast('Ein Fehler ist beim Speichern des Kunden aufgetreten');
         }
     };
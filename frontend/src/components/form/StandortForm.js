@@ -51,6 +51,10 @@ const StandortForm = ({ onSubmit, initialValues = {}, handleClose }) => {
             await onSubmit(standort);
             handleClose && handleClose();
         } catch (error) {
+            if (error.response && error.response.status === 409) {
+                showToast('Der Standort wurde inzwischen geändert. Bitte laden Sie die Seite neu und wiederholen Sie die Änderung.');
+                return;
+            }
             showToast('Ein Fehler ist beim Speichern des Standorts aufgetreten.');
         }
     };
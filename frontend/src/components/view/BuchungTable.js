@@ -2,6 +2,8 @@
 import React, { useState, useEffect } from 'react';
 import { useTable } from 'react-table';
 import axios from 'axios';
+import useLiveAenderungen from './useLiveAenderungen';
+import teilaenderung from './teilaenderung';
 import { Modal, Button } from 'react-bootstrap';
 import BuchungsForm from '../form/BuchungsForm';
 import { AiOutlineEdit, AiOutlineDelete } from 'react-icons/ai';
@@ -27,20 +29,29 @@ const BuchungTable = () => {
         setData(response.data);
     };
 
+    // Änderungen aller Nutzer kommen per WebSocket; neu geladen wird nur, wenn keine Verbindung besteht.
+    const live = useLiveAenderungen('buchungen', setData, fetchData);
+
     // Methoden zum Hinzufügen, Aktualisieren und Löschen von Buchungen über die API.
     const handleAdd = async (buchung) => {
         await axios.post('/buchungen', buchung);
-        fetchData();
+        if (!live.current) {
+            fetchData();
+        }
     };
 
     const handleUpdate = async (id, buchung) => {
-        await axios.put(`/buchungen/${id}`, buchung);
-        fetchData();
+        await teilaenderung(`/buchungen/${id}`, buchung, ['startdatum', 'enddatum', 'buchungsstatus'], ['kunde', 'fahrzeug']);
+        if (!live.current) {
+            fetchData();
+        }
     };
 
     const handleDelete = async (id) => {
         await axios.delete(`/buchungen/${id}`);
-        fetchData();
+        if (!live.current) {
+            fetchData();
+        }
     };
 
     // Methoden, um das Bearbeitungsformular und das Bestätigungsfenster zum Löschen anzuzeigen.
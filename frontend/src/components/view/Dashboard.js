@@ -12,46 +12,24 @@ const Dashboard = () => {
 
     // Verwendet den useState-Hook von React, um den Zustand der Komponente zu verwalten.
     const [kundenAnzahl, setKundenAnzahl] = useState(0);
-    const [buchungen, setBuchungen] = useState([]);
-    const [fahrzeuge, setFahrzeuge] = useState([]);
+    const [currentMonthBookings, setCurrentMonthBookings] = useState(0);
+    const [fahrzeugStandorte, setFahrzeugStandorte] = useState([]);
+    const [beliebtesteFahrzeuge, setBeliebtesteFahrzeuge] = useState([]);
 
     // Verwendet den useEffect-Hook, um Daten zu holen, wenn die Komponente gemountet wird.
     useEffect(() => {
-        // Funktion, um Daten von der Server-API zu holen.
+        // Funktion, um die vom Server gezählten Kennzahlen zu holen.
         const fetchData = async () => {
-            const responseKunden = await axios.get('/kunden');
-            setKundenAnzahl(responseKunden.data.length);
-
-            const responseBuchungen = await axios.get('/buchungen');
-            setBuchungen(responseBuchungen.data);
-
-            const responseFahrzeuge = await axios.get('/fahrzeuge');
-            setFahrzeuge(responseFahrzeuge.data);
+            const response = await axios.get('/dashboard');
+            setKundenAnzahl(response.data.kundenAnzahl);
+            setCurrentMonthBookings(response.data.buchungenAktuellerMonat);
+            setFahrzeugStandorte(response.data.standorte);
+            setBeliebtesteFahrzeuge(response.data.beliebtesteFahrzeuge);
         };
 
         fetchData();
     }, []);
 
-    // Berechnungen für die verschiedenen Kennzahlen
-    const currentMonth = new Date().getMonth();
-    const currentMonthBookings = buchungen.filter(
-        (buchung) =>
-            new Date(buchung.startdatum).getMonth() === currentMonth
-    ).length;
-
-    const fahrzeugStandorte = fahrzeuge.reduce((acc, fahrzeug) => {
-        const { standort } = fahrzeug;
-        const standortName = standort.name;
-        const kapazitaet = standort.kapazitaet;
-        const index = acc.findIndex((item) => item.standort === standortName);
-        if (index === -1) {
-            acc.push({ standort: standortName, count: 1, kapazitaet });
-        } else {
-            acc[index].count += 1;
-        }
-        return acc;
-    }, []);
-
     // Logik für das Erstellen und Rendern der Diagramme.
     const createDoughnutCharts = (standorte) => {
         return standorte.map((standort, index) => {
@@ -95,16 +73,7 @@ const Dashboard = () => {
 
 
 
-    // beliebtesteFahrzeuge sortiert nach Buchungsanzahl
-    const beliebtesteFahrzeuge = fahrzeuge
-        .map((fahrzeug) => ({
-            name: fahrzeug.marke + ' ' + fahrzeug.modell,
-            buchungen: buchungen.filter(
-                (buchung) => buchung.fahrzeug.id === fahrzeug.id
-            ).length,
-        }))
-        .sort((a, b) => b.buchungen - a.buchungen);
-
+    // beliebtesteFahrzeuge kommen bereits nach Buchungsanzahl sortiert vom Server
     const barData = {
         labels: beliebtesteFahrzeuge.map((fahrzeug) => fahrzeug.name),
         datasets: [
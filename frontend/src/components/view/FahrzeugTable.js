@@ -2,6 +2,8 @@
 import React, { useState, useEffect } from 'react';
 import { useTable, useFilters, useSortBy } from 'react-table';
 import axios from 'axios';
+import useLiveAenderungen from './useLiveAenderungen';
+import teilaenderung from './teilaenderung';
 import {Modal, Button} from 'react-bootstrap';
 import FahrzeugForm from "../form/FahrzeugForm";
 import { AiOutlineEdit, AiOutlineDelete } from 'react-icons/ai';
@@ -27,20 +29,29 @@ const FahrzeugTable = () => {
         setData(response.data);
     };
 
+    // Änderungen aller Nutzer kommen per WebSocket; neu geladen wird nur, wenn keine Verbindung besteht.
+    const live = useLiveAenderungen('fahrzeuge', setData, fetchData);
+
     // Methoden zum Hinzufügen, Aktualisieren und Löschen von Fahrzeugen über die API.
     const handleAdd = async (fahrzeug) => {
         await axios.post('/fahrzeuge', fahrzeug);
-        fetchData();
+        if (!live.current) {
+            fetchData();
+        }
     };
 
     const handleUpdate = async (id, fahrzeug) => {
-        await axios.put(`/fahrzeuge/${id}`, fahrzeug);
-        fetchData();
+        await teilaenderung(`/fahrzeuge/${id}`, fahrzeug, ['marke', 'modell', 'typ', 'baujahr', 'farbe', 'preis'], ['standort']);
+        if (!live.current) {
+            fetchData();
+        }
     };
 
     const handleDelete = async (id) => {
         await axios.delete(`/fahrzeuge/${id}`);
-        fetchData();
+        if (!live.current) {
+            fetchData();
+        }
     };
 
     // Eine generische Textfilterfunktion
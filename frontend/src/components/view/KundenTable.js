@@ -2,6 +2,8 @@
 import React, { useState, useEffect } from 'react';
 import { useTable } from 'react-table';
 import axios from 'axios';
+import useLiveAenderungen from './useLiveAenderungen';
+import teilaenderung from './teilaenderung';
 import { Modal, Button } from 'react-bootstrap';
 import KundenForm from "../form/KundenForm";
 import { AiOutlineEdit, AiOutlineDelete } from 'react-icons/ai';
@@ -27,20 +29,30 @@ const KundenTable = () => {
         setData(response.data);
     };
 
+    // Änderungen aller Nutzer kommen per WebSocket; neu geladen wird nur, wenn keine Verbindung besteht.
+    const live = useLiveAenderungen('kunden', setData, fetchData);
+
     // Methoden zum Hinzufügen, Aktualisieren und Löschen von Kunden über die API.
     const handleAdd = async (kunde) => {
         await axios.post('/kunden', kunde);
-        fetchData();
+        if (!live.current) {
+            fetchData();
+        }
     };
 
     const handleUpdate = async (id, kunde) => {
-        await axios.put(`/kunden/${id}`, kunde);
-        fetchData();
+        await teilaenderung(`/kunden/${id}`, kunde, ['vorname', 'nachname', 'geburtsdatum', 'adresse', 'stadt', 'plz', 'land',
+            'telefonnummer', 'email']);
+        if (!live.current) {
+            fetchData();
+        }
     };
 
     const handleDelete = async (id) => {
         await axios.delete(`/kunden/${id}`);
-        fetchData();
+        if (!live.current) {
+            fetchData();
+        }
     };
 
     // Methoden zum Anzeigen des Bearbeitungsformulars und der Löschbestätigung.
@@ -1,14 +1,17 @@
 import { useContext } from 'react';
 import { AuthContext } from '../security/AuthProvider';
 import {NavLink} from "react-router-dom";
+import axios from "axios";
 
 // Die Navbar-Komponente zeigt das Navigationsmenü der Anwendung.
 const Navbar = () => {
     const { isAuthenticated, setIsAuthenticated } = useContext(AuthContext);
 
     // Die handleLogout-Funktion wird ausgeführt, wenn der Logout-Button gedrückt wird.
-    // Sie setzt den Authentifizierungsstatus auf false und entfernt das Token aus dem lokalen Speicher.
+    // Sie meldet das Token beim Server ab, setzt den Authentifizierungsstatus auf false und entfernt das Token aus dem lokalen Speicher.
     const handleLogout = () => {
+        const token = localStorage.getItem('token');
+        axios.post('/logout', null, { headers: { Authorization: `Bearer ${token}` } }).catch((error) => console.error('Fehler beim Abmelden:', error));
         setIsAuthenticated(false);
         localStorage.removeItem('token');
     }
@@ -2,6 +2,8 @@
 import React, { useState, useEffect } from 'react';
 import { useTable } from 'react-table';
 import axios from 'axios';
+import useLiveAenderungen from './useLiveAenderungen';
+import teilaenderung from './teilaenderung';
 import { Modal, Button } from 'react-bootstrap';
 import StandortForm from "../form/StandortForm";
 import { AiOutlineEdit, AiOutlineDelete } from 'react-icons/ai';
@@ -27,20 +29,30 @@ const StandortTable = () => {
         setData(response.data);
     };
 
+    // Änderungen aller Nutzer kommen per WebSocket; neu geladen wird nur, wenn keine Verbindung besteht.
+    const live = useLiveAenderungen('standorte', setData, fetchData);
+
     // Methoden zum Hinzufügen, Aktualisieren und Löschen von Kunden über die API.
     const handleAdd = async (standort) => {
         await axios.post('/standorte', standort);
-        fetchData();
+        if (!live.current) {
+            fetchData();
+        }
     };
 
     const handleUpdate = async (id, standort) => {
-        await axios.put(`/standorte/${id}`, standort);
-        fetchData();
+        await teilaenderung(`/standorte/${id}`, standort, ['name', 'kapazitaet', 'adresse', 'stadt', 'plz', 'land',
+            'telefonnummer', 'oeffnungszeiten']);
+        if (!live.current) {
+            fetchData();
+        }
     };
 
     const handleDelete = async (id) => {
         await axios.delete(`/standorte/${id}`);
-        fetchData();
+        if (!live.current) {
+            fetchData();
+        }
     };
 
     // Methoden zum Anzeigen des Bearbeitungsformulars und der Löschbestätigung.
@@ -0,0 +1,17 @@
+import axios from 'axios';
+
+// Speichert einen bearbeiteten Eintrag per PATCH (JSON Merge Patch): nur die erlaubten Felder, Zuordnungen als
+// { id }, dazu die Version, mit der der Eintrag geladen wurde. Hat ihn inzwischen jemand anderes geändert,
+// antwortet der Server mit 409 statt die Änderung zu überschreiben.
+const teilaenderung = (url, eintrag, felder, zuordnungen = []) => {
+    const patch = { version: eintrag.version };
+    felder.filter((feld) => feld in eintrag).forEach((feld) => {
+        patch[feld] = eintrag[feld];
+    });
+    zuordnungen.filter((feld) => feld in eintrag).forEach((feld) => {
+        patch[feld] = eintrag[feld] ? { id: eintrag[feld].id } : null;
+    });
+    return axios.patch(url, patch, { headers: { 'Content-Type': 'application/merge-patch+json' } });
+};
+
+export default teilaenderung;
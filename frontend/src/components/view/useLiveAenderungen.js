@@ -0,0 +1,71 @@
+import { useEffect, useRef } from 'react';
+import { Client } from '@stomp/stompjs';
+
+// Adresse des STOMP-Endpunkts; im Entwicklungsmodus läuft das Backend auf Port 8080
+const brokerURL = process.env.REACT_APP_WS_URL
+    || `${window.location.protocol === 'https:' ? 'wss' : 'ws'}://${window.location.hostname}:8080/ws`;
+
+// Wendet die vom Server gesammelten Änderungen auf die lokale Liste an, statt sie komplett neu zu laden.
+const anwenden = (daten, aenderungen) => {
+    const neu = [...daten];
+    const positionen = new Map(neu.map((eintrag, index) => [eintrag.id, index]));
+    const geloescht = new Set();
+    aenderungen.forEach(({ aktion, id, daten: eintrag }) => {
+        if (aktion === 'geloescht') {
+            geloescht.add(id);
+        } else if (positionen.has(id)) {
+            neu[positionen.get(id)] = eintrag;
+            geloescht.delete(id);
+        } else {
+            positionen.set(id, neu.length);
+            neu.push(eintrag);
+        }
+    });
+    return geloescht.size === 0 ? neu : neu.filter((eintrag) => !geloescht.has(eintrag.id));
+};
+
+// Abonniert /topic/<pfad> und hält die Tabellendaten aktuell, auch bei Änderungen aus anderen Browsern.
+// Liefert eine Ref, die angibt, ob die Verbindung steht; ohne Verbindung laden die Tabellen wie bisher selbst neu.
+const useLiveAenderungen = (pfad, setData, fetchData) => {
+    const verbunden = useRef(false);
+
+    useEffect(() => {
+        let wiederverbunden = false;
+        const client = new Client({
+            brokerURL,
+            reconnectDelay: 5000,
+            beforeConnect: () => {
+                client.connectHeaders = { Authorization: `Bearer ${localStorage.getItem('token')}` };
+            },
+            onConnect: () => {
+                verbunden.current = true;
+                // Nach einer Unterbrechung die verpassten Änderungen nachholen
+                if (wiederverbunden) {
+                    fetchData();
+                }
+                wiederverbunden = true;
+                client.subscribe(`/topic/${pfad}`, (nachricht) => {
+                    const sendung = JSON.parse(nachricht.body);
+                    if (sendung.neuLaden) {
+                        fetchData();
+                    } else {
+                        setData((daten) => anwenden(daten, sendung.aenderungen));
+                    }
+                });
+            },
+            onWebSocketClose: () => {
+                verbunden.current = false;
+            },
+        });
+        client.activate();
+        return () => {
+            verbunden.current = false;
+            client.deactivate();
+        };
+        // eslint-disable-next-line react-hooks/exhaustive-deps
+    }, [pfad]);
+
+    return verbunden;
+};
+
+export default useLiveAenderungen;
@@ -6,6 +6,28 @@ import './index.css';
 import './darkmode.css'; // Importieren der Darkmode-Stile
 import App from './App';
 import reportWebVitals from './reportWebVitals';
+import axios from 'axios';
+
+// Das beim Login erhaltene Token bei jeder Anfrage an das Backend mitsenden
+axios.interceptors.request.use((config) => {
+    const token = localStorage.getItem('token');
+    if (token) {
+        config.headers.Authorization = `Bearer ${token}`;
+    }
+    return config;
+});
+
+// Abgelaufene oder abgemeldete Tokens entfernen und zur Login-Seite wechseln
+axios.interceptors.response.use(
+    (response) => response,
+    (error) => {
+        if (error.response && error.response.status === 401 && !error.config.url.endsWith('/login')) {
+            localStorage.removeItem('token');
+            window.location.assign('/login');
+        }
+        return Promise.reject(error);
+    }
+);
 
 const rootElement = document.getElementById('root');
 
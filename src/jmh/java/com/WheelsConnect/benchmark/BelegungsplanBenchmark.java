@@ -0,0 +1,120 @@
+package com.WheelsConnect.benchmark;
+
+import com.WheelsConnect.model.Standort;
+import com.WheelsConnect.repository.BuchungIntervall;
+import com.WheelsConnect.repository.BuchungRepository;
+import com.WheelsConnect.repository.FahrzeugRepository;
+import com.WheelsConnect.repository.FahrzeugStammdaten;
+import com.WheelsConnect.service.Belegungsplan;
+import com.WheelsConnect.service.BuchungIndex;
+import com.WheelsConnect.service.StammdatenCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Jahresauswertung des {@link Belegungsplan} über alle Standorte und für einen Standort, wie sie
+ * {@code GET /dashboard/belegung} liefert. Die Übereinstimmung mit naivem Zählen prüft {@code BelegungsplanTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BelegungsplanBenchmark {
+
+    private static final LocalDate START = LocalDate.now().withDayOfMonth(1);
+    private static final int FAHRZEUGE_JE_STANDORT = 10;
+
+    @Param({"200"})
+    public int standorte;
+
+    @Param({"40000"})
+    public int buchungen;
+
+    private Belegungsplan belegungsplan;
+
+    @Setup
+    public void setUp() {
+        Random zufall = new Random(7);
+        List<Standort> standortListe = new ArrayList<>();
+        List<FahrzeugStammdaten> fahrzeuge = new ArrayList<>();
+        for (long standortId = 1; standortId <= standorte; standortId++) {
+            Standort standort = new Standort("Standort " + standortId, "Straße " + standortId, "030");
+            standort.setId(standortId);
+            standort.setKapazitaet(20);
+            standortListe.add(standort);
+            for (int i = 0; i < FAHRZEUGE_JE_STANDORT; i++) {
+                fahrzeuge.add(new Stammdaten(standortId * 100 + i, standortId));
+            }
+        }
+        List<BuchungIntervall> intervalle = new ArrayList<>();
+        for (long id = 1; id <= buchungen; id++) {
+            LocalDate von = START.plusDays(zufall.nextInt(365));
+            long fahrzeugId = (1 + zufall.nextInt(standorte)) * 100L + zufall.nextInt(FAHRZEUGE_JE_STANDORT);
+            intervalle.add(new Intervall(id, fahrzeugId, von, von.plusDays(zufall.nextInt(10))));
+        }
+
+        BuchungRepository buchungRepository = mock(BuchungRepository.class);
+        when(buchungRepository.findAktiveIntervalle()).thenReturn(intervalle);
+        FahrzeugRepository fahrzeugRepository = mock(FahrzeugRepository.class);
+        when(fahrzeugRepository.findAllStammdaten()).thenReturn(fahrzeuge);
+        StammdatenCache stammdatenCache = mock(StammdatenCache.class);
+        when(stammdatenCache.standorte()).thenReturn(standortListe);
+
+        BuchungIndex buchungIndex = new BuchungIndex(buchungRepository);
+        buchungIndex.laden();
+        belegungsplan = new Belegungsplan(buchungIndex, fahrzeugRepository, stammdatenCache);
+        belegungsplan.laden();
+    }
+
+    @Benchmark
+    public Belegungsplan.Auswertung alleStandorteEinJahr() {
+        return belegungsplan.auswerten(START, START.plusDays(364), null);
+    }
+
+    @Benchmark
+    public Belegungsplan.Auswertung einStandortEinJahr() {
+        return belegungsplan.auswerten(START, START.plusDays(364), 1L);
+    }
+
+    private record Intervall(Long getId, Long getFahrzeugId, LocalDate getStartdatum, LocalDate getEnddatum)
+            implements BuchungIntervall {
+    }
+
+    private record Stammdaten(Long getId, Long getStandortId) implements FahrzeugStammdaten {
+
+        @Override
+        public String getMarke() {
+            return "VW";
+        }
+
+        @Override
+        public String getModell() {
+            return "Golf";
+        }
+
+        @Override
+        public Double getPreis() {
+            return 50.0;
+        }
+    }
+}
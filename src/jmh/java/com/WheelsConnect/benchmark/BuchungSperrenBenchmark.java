@@ -0,0 +1,146 @@
+package com.WheelsConnect.benchmark;
+
+import com.WheelsConnect.LeereTransaktionen;
+import com.WheelsConnect.controller.BuchungController;
+import com.WheelsConnect.controller.Teilaenderungen;
+import com.WheelsConnect.model.Buchung;
+import com.WheelsConnect.model.Fahrzeug;
+import com.WheelsConnect.repository.BuchungRepository;
+import com.WheelsConnect.service.BuchungIndex;
+import com.WheelsConnect.service.DashboardStatistik;
+import com.WheelsConnect.service.FahrzeugSperren;
+import com.WheelsConnect.service.LiveAenderungen;
+import com.WheelsConnect.service.Preisberechnung;
+import com.WheelsConnect.service.StammdatenCache;
+import com.WheelsConnect.service.TarifRegeln;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URISyntaxException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * {@code createBuchung} aus einem und aus allen Threads, jeder Thread bucht sein eigenes Fahrzeug ohne Überschneidung.
+ * Mit {@code streifen=1} teilen sich alle Fahrzeuge eine Sperre; der Abstand zu den gestreiften Sperren zeigt, was
+ * die Streifen bringen. Das Repository speichert nicht, {@code latenzMikros} steht für die Datenbank.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BuchungSperrenBenchmark {
+
+    private static final LocalDate START = LocalDate.of(2023, 7, 1);
+    private static final int FENSTER = 100;
+
+    @Param({"1", "1024"})
+    public int streifen;
+
+    @Param({"0", "50"})
+    public int latenzMikros;
+
+    private final AtomicLong naechstesFahrzeug = new AtomicLong();
+    private BuchungIndex buchungIndex;
+    private BuchungController buchungController;
+
+    @Setup
+    public void setUp() {
+        long latenzNanos = TimeUnit.MICROSECONDS.toNanos(latenzMikros);
+        AtomicLong naechsteId = new AtomicLong();
+        // Mocks ohne Aufrufprotokoll, sonst wächst der Heap mit jeder Buchung
+        BuchungRepository buchungRepository = mock(BuchungRepository.class, withSettings().stubOnly());
+        when(buchungRepository.findAktiveIntervalle()).thenReturn(List.of());
+        when(buchungRepository.saveAndFlush(any(Buchung.class))).thenAnswer(aufruf -> {
+            Buchung buchung = aufruf.getArgument(0);
+            if (latenzNanos > 0) {
+                LockSupport.parkNanos(latenzNanos);
+            }
+            buchung.setId(naechsteId.incrementAndGet());
+            return buchung;
+        });
+
+        buchungIndex = new BuchungIndex(buchungRepository);
+        buchungIndex.laden();
+        StammdatenCache stammdatenCache = mock(StammdatenCache.class, withSettings().stubOnly());
+        when(stammdatenCache.fahrzeug(anyLong())).thenReturn(Optional.of(new Fahrzeug()));
+        buchungController = new BuchungController(buchungRepository, buchungIndex, new FahrzeugSperren(streifen), null,
+                mock(DashboardStatistik.class, withSettings().stubOnly()), null, new Preisberechnung(new TarifRegeln(1.0, null, null, null), stammdatenCache),
+                mock(LiveAenderungen.class, withSettings().stubOnly()), null,
+                new Teilaenderungen(new ObjectMapper(), null, new LeereTransaktionen()), new SimpleMeterRegistry());
+    }
+
+    /**
+     * Ein Fahrzeug je Thread mit einem rollierenden Fenster gebuchter Tage: bevor ein Tag neu gebucht wird, verlässt
+     * die alte Buchung dieses Tages den Index. So bleibt der Index über die ganze Messung gleich groß.
+     */
+    @State(Scope.Thread)
+    public static class Fahrer {
+
+        private final long[] fenster = new long[FENSTER];
+        private Fahrzeug fahrzeug;
+        private int tag;
+
+        Buchung naechsteBuchung(BuchungIndex buchungIndex, AtomicLong naechstesFahrzeug) {
+            if (fahrzeug == null) {
+                fahrzeug = new Fahrzeug();
+                fahrzeug.setId(naechstesFahrzeug.incrementAndGet());
+            }
+            if (fenster[tag] != 0) {
+                buchungIndex.entfernen(fenster[tag]);
+            }
+            LocalDate datum = START.plusDays(tag);
+            Buchung buchung = new Buchung(datum, datum, 0, null, fahrzeug);
+            buchung.setBuchungsstatus("Reserviert");
+            return buchung;
+        }
+
+        void gebucht(Buchung buchung) {
+            fenster[tag] = buchung.getId();
+            tag = (tag + 1) % FENSTER;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int einThread(Fahrer fahrer) throws URISyntaxException {
+        return buchen(fahrer);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public int alleThreads(Fahrer fahrer) throws URISyntaxException {
+        return buchen(fahrer);
+    }
+
+    private int buchen(Fahrer fahrer) throws URISyntaxException {
+        Buchung buchung = fahrer.naechsteBuchung(buchungIndex, naechstesFahrzeug);
+        int status = buchungController.createBuchung(buchung).getStatusCode().value();
+        fahrer.gebucht(buchung);
+        return status;
+    }
+}
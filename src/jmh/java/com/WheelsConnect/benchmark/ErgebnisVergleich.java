@@ -0,0 +1,64 @@
+package com.WheelsConnect.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Vergleicht zwei JSON-Ergebnisse von JMH, z.B. von zwei Commits:
+ * {@code java -cp <test-classpath> com.WheelsConnect.benchmark.ErgebnisVergleich alt.json neu.json}.
+ * Als Änderung markiert wird nur, was außerhalb der Fehlerbalken beider Läufe liegt.
+ */
+public final class ErgebnisVergleich {
+
+    private ErgebnisVergleich() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Aufruf: ErgebnisVergleich <alt.json> <neu.json>");
+            System.exit(2);
+        }
+        Map<String, JsonNode> alt = lesen(new File(args[0]));
+        Map<String, JsonNode> neu = lesen(new File(args[1]));
+
+        System.out.printf("%-75s %14s %14s %9s%n", "Benchmark", "alt", "neu", "Änderung");
+        neu.forEach((name, ergebnis) -> {
+            JsonNode vorher = alt.get(name);
+            JsonNode metrik = ergebnis.get("primaryMetric");
+            String einheit = metrik.get("scoreUnit").asText();
+            double wert = metrik.get("score").asDouble();
+            if (vorher == null) {
+                System.out.printf("%-75s %14s %14s %9s%n", name, "-", format(wert, einheit), "neu");
+                return;
+            }
+            JsonNode metrikVorher = vorher.get("primaryMetric");
+            double wertVorher = metrikVorher.get("score").asDouble();
+            double abstand = Math.abs(wert - wertVorher);
+            boolean signifikant = abstand > metrik.get("scoreError").asDouble(0) + metrikVorher.get("scoreError").asDouble(0);
+            System.out.printf("%-75s %14s %14s %+8.1f%%%s%n", name, format(wertVorher, einheit), format(wert, einheit),
+                    (wert - wertVorher) / wertVorher * 100, signifikant ? "" : " ~");
+        });
+    }
+
+    private static Map<String, JsonNode> lesen(File datei) throws IOException {
+        Map<String, JsonNode> ergebnisse = new LinkedHashMap<>();
+        for (JsonNode ergebnis : new ObjectMapper().readTree(datei)) {
+            StringBuilder name = new StringBuilder(ergebnis.get("benchmark").asText().replace("com.WheelsConnect.benchmark.", ""));
+            JsonNode parameter = ergebnis.get("params");
+            if (parameter != null) {
+                parameter.fields().forEachRemaining(feld -> name.append(' ').append(feld.getKey()).append('=').append(feld.getValue().asText()));
+            }
+            ergebnisse.put(name.toString(), ergebnis);
+        }
+        return ergebnisse;
+    }
+
+    private static String format(double wert, String einheit) {
+        return String.format("%.2f %s", wert, einheit);
+    }
+}
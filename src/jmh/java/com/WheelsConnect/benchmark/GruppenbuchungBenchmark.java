@@ -0,0 +1,154 @@
+package com.WheelsConnect.benchmark;
+
+import com.WheelsConnect.controller.BuchungController;
+import com.WheelsConnect.controller.Teilaenderungen;
+import com.WheelsConnect.model.Buchung;
+import com.WheelsConnect.model.Fahrzeug;
+import com.WheelsConnect.model.Kunde;
+import com.WheelsConnect.model.Standort;
+import com.WheelsConnect.repository.BuchungRepository;
+import com.WheelsConnect.repository.FahrzeugRepository;
+import com.WheelsConnect.repository.KundeRepository;
+import com.WheelsConnect.repository.StandortRepository;
+import com.WheelsConnect.service.Aenderungen;
+import com.WheelsConnect.service.BuchungIndex;
+import com.WheelsConnect.service.DashboardStatistik;
+import com.WheelsConnect.service.FahrzeugSperren;
+import com.WheelsConnect.service.Gruppenbuchung;
+import com.WheelsConnect.service.LiveAenderungen;
+import com.WheelsConnect.service.Preisberechnung;
+import com.WheelsConnect.service.StammdatenCache;
+import com.WheelsConnect.service.TarifRegeln;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.net.URISyntaxException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Anlegen einer Gruppe von Buchungen über {@code POST /buchungen} je Buchung gegenüber {@code POST /buchungen/batch},
+ * jeweils über die Controller-Methode gegen H2, ohne HTTP. Jeder Aufruf bucht dieselben Fahrzeuge einen Tag später,
+ * damit keine Konflikte entstehen. Buchungen je Sekunde = Gruppengröße / gemessene Zeit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GruppenbuchungBenchmark {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    @Param({"20", "200"})
+    public int gruppe;
+
+    private ConfigurableApplicationContext context;
+    private BuchungController buchungController;
+    private List<Fahrzeug> fahrzeuge;
+    private Kunde kunde;
+    private int tag;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(RepositoryBenchmark.Persistenz.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:gruppenbuchung;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "logging.level.root=WARN")
+                .run();
+        BuchungRepository buchungRepository = context.getBean(BuchungRepository.class);
+
+        Standort standort = context.getBean(StandortRepository.class).save(new Standort("Mitte", "Hauptstraße 1", "030"));
+        List<Fahrzeug> neu = new ArrayList<>();
+        for (int i = 0; i < gruppe; i++) {
+            Fahrzeug fahrzeug = new Fahrzeug("VW", "Golf", "Kompakt", 2022, "blau", standort);
+            fahrzeug.setPreis(59.0);
+            neu.add(fahrzeug);
+        }
+        fahrzeuge = context.getBean(FahrzeugRepository.class).saveAll(neu);
+        kunde = context.getBean(KundeRepository.class).save(new Kunde(null, "Firma", "Beispiel GmbH", null, "Weg 1", "Berlin", "10115", "DE", null, null));
+
+        StammdatenCache stammdatenCache = mock(StammdatenCache.class);
+        Map<Long, Fahrzeug> jeId = fahrzeuge.stream().collect(Collectors.toMap(Fahrzeug::getId, Function.identity()));
+        when(stammdatenCache.fahrzeug(anyLong())).thenAnswer(aufruf -> Optional.ofNullable(jeId.get(aufruf.<Long>getArgument(0))));
+        BuchungIndex buchungIndex = new BuchungIndex(buchungRepository);
+        buchungIndex.laden();
+        FahrzeugSperren fahrzeugSperren = new FahrzeugSperren();
+        Preisberechnung preisberechnung = new Preisberechnung(new TarifRegeln(1.0, null, null, null), stammdatenCache);
+        DashboardStatistik dashboardStatistik = mock(DashboardStatistik.class);
+        LiveAenderungen liveAenderungen = mock(LiveAenderungen.class);
+        Gruppenbuchung gruppenbuchung = new Gruppenbuchung(context.getBean(DataSource.class), buchungIndex, fahrzeugSperren,
+                preisberechnung, dashboardStatistik, liveAenderungen, context.getBean(Aenderungen.class), stammdatenCache,
+                context.getBean(KundeRepository.class), context.getBean(PlatformTransactionManager.class));
+        buchungController = new BuchungController(buchungRepository, buchungIndex, fahrzeugSperren, null, dashboardStatistik,
+                null, preisberechnung, liveAenderungen, gruppenbuchung,
+                new Teilaenderungen(new ObjectMapper(), null, context.getBean(PlatformTransactionManager.class)), new SimpleMeterRegistry());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int einzeln() throws URISyntaxException {
+        int angelegt = 0;
+        for (Buchung buchung : naechsteGruppe()) {
+            if (buchungController.createBuchung(buchung).getStatusCode().value() == 201) {
+                angelegt++;
+            }
+        }
+        return angelegt;
+    }
+
+    @Benchmark
+    public ResponseEntity batch() {
+        return buchungController.createBuchungen(naechsteGruppe());
+    }
+
+    private List<Buchung> naechsteGruppe() {
+        LocalDate datum = START.plusDays(tag++);
+        List<Buchung> buchungen = new ArrayList<>(gruppe);
+        for (Fahrzeug fahrzeug : fahrzeuge) {
+            Buchung buchung = new Buchung(datum, datum, 0, kunde, fahrzeug);
+            buchung.setBuchungsstatus("Reserviert");
+            buchungen.add(buchung);
+        }
+        return buchungen;
+    }
+}
@@ -0,0 +1,74 @@
+package com.WheelsConnect.benchmark;
+
+import com.WheelsConnect.model.Kunde;
+import com.WheelsConnect.repository.KundeRepository;
+import com.WheelsConnect.service.KundenSuche;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Suche-beim-Tippen über die {@link KundenSuche}: Präfixe, Vor- und Nachname, Tippfehler, E-Mail, Telefonnummer
+ * und PLZ, reihum über eine feste Liste von Eingaben.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KundenSucheBenchmark {
+
+    private static final String[] VORNAMEN = {"Anna", "Ben", "Clara", "David", "Emma", "Felix", "Greta", "Hannah",
+            "Jonas", "Lena", "Lukas", "Marie", "Noah", "Paul", "Sophie", "Tim"};
+    private static final String[] NACHNAMEN = {"Schmidt", "Schneider", "Fischer", "Weber", "Meyer", "Wagner", "Becker",
+            "Schulz", "Hoffmann", "Koch", "Richter", "Klein", "Wolf", "Neumann", "Schwarz", "Braun"};
+    private static final String[] EINGABEN = {"schmi", "lena wag", "hoffmann", "jonas k", "emma.fischer1234", "0301",
+            "80331", "brau"};
+
+    @Param({"100000"})
+    public int kunden;
+
+    private KundenSuche kundenSuche;
+    private int naechste;
+
+    @Setup
+    public void setUp() {
+        Random zufall = new Random(42);
+        List<Kunde> liste = new ArrayList<>();
+        for (long id = 1; id <= kunden; id++) {
+            String vorname = VORNAMEN[zufall.nextInt(VORNAMEN.length)];
+            String nachname = NACHNAMEN[zufall.nextInt(NACHNAMEN.length)];
+            liste.add(new Kunde(id, vorname, nachname, LocalDate.of(1990, 1, 1), "Hauptstraße 1", "Berlin",
+                    String.valueOf(10_000 + zufall.nextInt(90_000)), "Deutschland",
+                    "0" + (100_000_000 + zufall.nextInt(900_000_000)), (vorname + "." + nachname + id + "@example.com").toLowerCase()));
+        }
+        KundeRepository kundeRepository = mock(KundeRepository.class);
+        when(kundeRepository.findAll()).thenReturn(liste);
+        kundenSuche = new KundenSuche(kundeRepository);
+        kundenSuche.laden();
+    }
+
+    @Benchmark
+    public List<KundenSuche.Treffer> suchen() {
+        naechste = (naechste + 1) % EINGABEN.length;
+        return kundenSuche.suchen(EINGABEN[naechste], 10);
+    }
+}
@@ -0,0 +1,53 @@
+package com.WheelsConnect.benchmark;
+
+import com.WheelsConnect.security.LoginDrossel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Abweisung eines Login-Versuchs durch die {@link LoginDrossel}: ein Cache-Zugriff und ein Vergleich, kein
+ * Datenbankaufruf. Alle 1024 Adressen haben ihr Kontingent bereits verbraucht, die Uhr steht still.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoginDrosselBenchmark {
+
+    private static final int ADRESSEN = 1024;
+
+    private LoginDrossel drossel;
+    private String[] adressen;
+    private int naechste;
+
+    @Setup
+    public void setUp() {
+        LoginDrossel.Regel regel = new LoginDrossel.Regel(5, 1);
+        drossel = new LoginDrossel(new SimpleMeterRegistry(), regel, regel, () -> 0L);
+        adressen = new String[ADRESSEN];
+        for (int i = 0; i < ADRESSEN; i++) {
+            adressen[i] = "10.0." + (i / 256) + "." + (i % 256);
+            for (int j = 0; j < regel.kapazitaet(); j++) {
+                drossel.ipPruefen(adressen[i]);
+            }
+        }
+    }
+
+    @Benchmark
+    public long abweisen() {
+        return drossel.ipPruefen(adressen[naechste++ & (ADRESSEN - 1)]);
+    }
+}
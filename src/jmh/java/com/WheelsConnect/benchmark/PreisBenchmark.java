@@ -0,0 +1,98 @@
+package com.WheelsConnect.benchmark;
+
+import com.WheelsConnect.model.Fahrzeug;
+import com.WheelsConnect.model.Standort;
+import com.WheelsConnect.service.Preisberechnung;
+import com.WheelsConnect.service.StammdatenCache;
+import com.WheelsConnect.service.Tarif;
+import com.WheelsConnect.service.TarifRegeln;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Preisberechnung nach dem Tarif aus {@code application.properties}: ein einzelner Preis und ein Aufruf von
+ * {@code /buchungen/quote} mit 100 Anfragen.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PreisBenchmark {
+
+    private static final LocalDate START = LocalDate.of(2023, 1, 1);
+    private static final int ANFRAGEN = 1024;
+
+    private Tarif tarif;
+    private Preisberechnung preisberechnung;
+    private LocalDate[] startdaten;
+    private LocalDate[] enddaten;
+    private List<Preisberechnung.Anfrage> quote;
+    private int naechste;
+
+    @Setup
+    public void setUp() {
+        TarifRegeln regeln = new TarifRegeln(1.15,
+                List.of(new TarifRegeln.Saison("06-15", "09-15", 1.2), new TarifRegeln.Saison("12-20", "01-06", 1.1)),
+                List.of(new TarifRegeln.Langzeit(7, 0.1), new TarifRegeln.Langzeit(28, 0.2)),
+                Map.of(1L, 0.1));
+        tarif = Tarif.kompilieren(regeln);
+
+        Random zufall = new Random(42);
+        startdaten = new LocalDate[ANFRAGEN];
+        enddaten = new LocalDate[ANFRAGEN];
+        for (int i = 0; i < ANFRAGEN; i++) {
+            startdaten[i] = START.plusDays(zufall.nextInt(730));
+            enddaten[i] = startdaten[i].plusDays(zufall.nextInt(30));
+        }
+
+        Map<Long, Fahrzeug> fahrzeuge = new HashMap<>();
+        Standort standort = new Standort("Flughafen", "Terminal 1", "030");
+        standort.setId(1L);
+        for (long id = 1; id <= 100; id++) {
+            Fahrzeug fahrzeug = new Fahrzeug("VW", "Golf", "Kompakt", 2021, "blau", id % 2 == 0 ? standort : null);
+            fahrzeug.setId(id);
+            fahrzeug.setPreis(39.0 + id);
+            fahrzeuge.put(id, fahrzeug);
+        }
+        preisberechnung = new Preisberechnung(regeln, new StammdatenCache(null, null) {
+            @Override
+            public Optional<Fahrzeug> fahrzeug(Long id) {
+                return Optional.ofNullable(fahrzeuge.get(id));
+            }
+        });
+        quote = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            quote.add(new Preisberechnung.Anfrage(id, startdaten[(int) id], enddaten[(int) id]));
+        }
+    }
+
+    @Benchmark
+    public double preis() {
+        int i = naechste++ & (ANFRAGEN - 1);
+        return tarif.preis(49.0, 1L, startdaten[i], enddaten[i]);
+    }
+
+    @Benchmark
+    public List<Preisberechnung.Angebot> quoteMit100Anfragen() {
+        return preisberechnung.angebote(quote);
+    }
+}
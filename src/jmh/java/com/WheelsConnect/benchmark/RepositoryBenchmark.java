@@ -0,0 +1,149 @@
+package com.WheelsConnect.benchmark;
+
+import com.WheelsConnect.model.Buchung;
+import com.WheelsConnect.model.Fahrzeug;
+import com.WheelsConnect.model.Kunde;
+import com.WheelsConnect.model.Standort;
+import com.WheelsConnect.repository.BuchungIntervall;
+import com.WheelsConnect.repository.BuchungRepository;
+import com.WheelsConnect.repository.FahrzeugRepository;
+import com.WheelsConnect.repository.KundeRepository;
+import com.WheelsConnect.repository.StandortRepository;
+import com.WheelsConnect.service.Aenderungen;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository-Abfragen der Buchungs-Endpunkte gegen eine eingebettete H2-Datenbank mit 1.000 Fahrzeugen und
+ * 20.000 Buchungen. Gestartet wird nur die Persistenzschicht, ohne Webserver.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    private static final int STANDORTE = 10;
+    private static final int FAHRZEUGE = 1_000;
+    private static final int KUNDEN = 2_000;
+    private static final int BUCHUNGEN = 20_000;
+
+    private ConfigurableApplicationContext context;
+    private BuchungRepository buchungRepository;
+    private FahrzeugRepository fahrzeugRepository;
+    private List<Long> buchungIds;
+    private List<Long> standortIds;
+    private int naechste;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(Persistenz.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "logging.level.root=WARN")
+                .run();
+        buchungRepository = context.getBean(BuchungRepository.class);
+        fahrzeugRepository = context.getBean(FahrzeugRepository.class);
+
+        Random zufall = new Random(42);
+        List<Standort> standorte = new ArrayList<>();
+        for (int i = 0; i < STANDORTE; i++) {
+            standorte.add(new Standort("Standort " + i, "Straße " + i, "030"));
+        }
+        standorte = context.getBean(StandortRepository.class).saveAll(standorte);
+        standortIds = standorte.stream().map(Standort::getId).toList();
+
+        List<Fahrzeug> fahrzeuge = new ArrayList<>();
+        String[] typen = {"Kompakt", "Kombi", "SUV", "Transporter"};
+        for (int i = 0; i < FAHRZEUGE; i++) {
+            Fahrzeug fahrzeug = new Fahrzeug("Marke " + (i % 20), "Modell " + i, typen[i % typen.length], 2015 + i % 9, "blau",
+                    standorte.get(i % STANDORTE));
+            fahrzeug.setPreis(30.0 + i % 70);
+            fahrzeuge.add(fahrzeug);
+        }
+        fahrzeuge = fahrzeugRepository.saveAll(fahrzeuge);
+
+        List<Kunde> kunden = new ArrayList<>();
+        for (int i = 0; i < KUNDEN; i++) {
+            kunden.add(new Kunde(null, "Vorname" + i, "Nachname" + i, null, "Weg " + i, "Berlin", "10115", "DE", null, null));
+        }
+        kunden = context.getBean(KundeRepository.class).saveAll(kunden);
+
+        List<Buchung> buchungen = new ArrayList<>();
+        for (int i = 0; i < BUCHUNGEN; i++) {
+            LocalDate von = LocalDate.of(2023, 1, 1).plusDays(zufall.nextInt(365));
+            Buchung buchung = new Buchung(von, von.plusDays(zufall.nextInt(7)), 100, kunden.get(zufall.nextInt(KUNDEN)),
+                    fahrzeuge.get(zufall.nextInt(FAHRZEUGE)));
+            buchung.setBuchungsstatus(i % 10 == 0 ? "Storniert" : "Reserviert");
+            buchungen.add(buchung);
+        }
+        buchungIds = buchungRepository.saveAll(buchungen).stream().map(Buchung::getId).toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Buchung> buchungMitZuordnungen() {
+        return buchungRepository.findById(buchungIds.get(naechste++ % buchungIds.size()));
+    }
+
+    @Benchmark
+    public List<Fahrzeug> fahrzeugFilter() {
+        return fahrzeugRepository.findByFilter(standortIds.get(naechste++ % STANDORTE), "SUV", null, 80.0);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<BuchungIntervall> aktiveIntervalle() {
+        return buchungRepository.findAktiveIntervalle();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<BuchungRepository.AnzahlJeMonat> buchungenJeMonat() {
+        return buchungRepository.countJeMonat();
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan("com.WheelsConnect.model")
+    @EnableJpaRepositories("com.WheelsConnect.repository")
+    @Import(Aenderungen.class)
+    static class Persistenz {
+    }
+}
@@ -0,0 +1,79 @@
+package com.WheelsConnect.benchmark;
+
+import com.WheelsConnect.service.Aenderungen;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Start der Persistenzschicht gegen eine bestehende H2-Datenbank: früher mit Schemaabgleich durch Hibernate
+ * ({@code ddl-auto=update}), jetzt mit Flyway (nur Abgleich der Historie) und {@code ddl-auto=validate}. Die Differenz
+ * ist die beim Start gesparte Zeit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SchemaStartBenchmark {
+
+    private static final String URL = "jdbc:h2:mem:schemastart;DB_CLOSE_DELAY=-1";
+
+    @Setup
+    public void setUp() {
+        Flyway.configure().dataSource(URL, "sa", "").locations("classpath:db/migration/h2").load().migrate();
+    }
+
+    @Benchmark
+    public void mitSchemaabgleich() {
+        starten("spring.flyway.enabled=false", "spring.jpa.hibernate.ddl-auto=update").close();
+    }
+
+    @Benchmark
+    public void flywayUndValidierung() {
+        starten("spring.flyway.enabled=true", "spring.jpa.hibernate.ddl-auto=validate").close();
+    }
+
+    private ConfigurableApplicationContext starten(String flyway, String ddlAuto) {
+        return new SpringApplicationBuilder(Persistenz.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + URL,
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "spring.flyway.locations=classpath:db/migration/h2",
+                        flyway,
+                        ddlAuto,
+                        "logging.level.root=WARN")
+                .run();
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan({"com.WheelsConnect.model", "com.WheelsConnect.security"})
+    @EnableJpaRepositories("com.WheelsConnect.repository")
+    @Import(Aenderungen.class)
+    static class Persistenz {
+    }
+}
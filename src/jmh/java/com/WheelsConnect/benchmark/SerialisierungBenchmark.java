@@ -0,0 +1,74 @@
+package com.WheelsConnect.benchmark;
+
+import com.WheelsConnect.model.Buchung;
+import com.WheelsConnect.model.Fahrzeug;
+import com.WheelsConnect.model.Kunde;
+import com.WheelsConnect.model.Standort;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON-Serialisierung von Buchungen samt Kunde, Fahrzeug und Standort mit einem ObjectMapper, der wie der von
+ * Spring Boot konfiguriert ist.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerialisierungBenchmark {
+
+    private ObjectWriter writer;
+    private Buchung buchung;
+    private List<Buchung> seite;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writer();
+
+        Standort standort = new Standort("Berlin Mitte", "Hauptstraße 1", "030");
+        standort.setId(1L);
+        seite = new ArrayList<>();
+        for (long id = 1; id <= 50; id++) {
+            Fahrzeug fahrzeug = new Fahrzeug("VW", "Golf " + id, "Kompakt", 2021, "blau", standort);
+            fahrzeug.setId(id);
+            fahrzeug.setPreis(49.9);
+            Kunde kunde = new Kunde(id, "Anna", "Schmidt " + id, LocalDate.of(1990, 4, 12), "Weg " + id, "Berlin",
+                    "10115", "DE", "030 1234", "anna" + id + "@example.org");
+            Buchung eintrag = new Buchung(LocalDate.of(2023, 7, 1), LocalDate.of(2023, 7, 4), 199.6, kunde, fahrzeug);
+            eintrag.setId(id);
+            eintrag.setBuchungsstatus("Reserviert");
+            seite.add(eintrag);
+        }
+        buchung = seite.get(0);
+    }
+
+    @Benchmark
+    public byte[] eineBuchung() throws IOException {
+        return writer.writeValueAsBytes(buchung);
+    }
+
+    @Benchmark
+    public byte[] seiteMit50Buchungen() throws IOException {
+        return writer.writeValueAsBytes(seite);
+    }
+}
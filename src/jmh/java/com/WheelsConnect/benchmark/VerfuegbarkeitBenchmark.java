@@ -0,0 +1,98 @@
+package com.WheelsConnect.benchmark;
+
+import com.WheelsConnect.repository.BuchungIntervall;
+import com.WheelsConnect.repository.BuchungRepository;
+import com.WheelsConnect.service.BuchungIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verfügbarkeitsprüfung über den {@link BuchungIndex}, wie sie {@code check-availability}, die Fahrzeugsuche und
+ * {@code createBuchung} ausführen.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VerfuegbarkeitBenchmark {
+
+    private static final LocalDate START = LocalDate.of(2023, 1, 1);
+    private static final int ANFRAGEN = 1024;
+
+    @Param({"1000"})
+    public int fahrzeuge;
+
+    @Param({"10", "200"})
+    public int buchungenJeFahrzeug;
+
+    private BuchungIndex buchungIndex;
+    private long[] fahrzeugIds;
+    private LocalDate[] startdaten;
+    private LocalDate[] enddaten;
+    private int naechste;
+
+    @Setup
+    public void setUp() {
+        Random zufall = new Random(42);
+        List<BuchungIntervall> intervalle = new ArrayList<>();
+        long buchungId = 0;
+        for (long fahrzeugId = 1; fahrzeugId <= fahrzeuge; fahrzeugId++) {
+            LocalDate von = START;
+            for (int i = 0; i < buchungenJeFahrzeug; i++) {
+                von = von.plusDays(1 + zufall.nextInt(4));
+                LocalDate bis = von.plusDays(zufall.nextInt(5));
+                intervalle.add(new Intervall(++buchungId, fahrzeugId, von, bis));
+                von = bis;
+            }
+        }
+        BuchungRepository buchungRepository = mock(BuchungRepository.class);
+        when(buchungRepository.findAktiveIntervalle()).thenReturn(intervalle);
+        buchungIndex = new BuchungIndex(buchungRepository);
+        buchungIndex.laden();
+
+        fahrzeugIds = new long[ANFRAGEN];
+        startdaten = new LocalDate[ANFRAGEN];
+        enddaten = new LocalDate[ANFRAGEN];
+        for (int i = 0; i < ANFRAGEN; i++) {
+            fahrzeugIds[i] = 1 + zufall.nextInt(fahrzeuge);
+            startdaten[i] = START.plusDays(zufall.nextInt(buchungenJeFahrzeug * 5));
+            enddaten[i] = startdaten[i].plusDays(zufall.nextInt(7));
+        }
+    }
+
+    @Benchmark
+    public boolean istVerfuegbar() {
+        int i = naechste++ & (ANFRAGEN - 1);
+        return buchungIndex.istVerfuegbar(fahrzeugIds[i], startdaten[i], enddaten[i]);
+    }
+
+    @Benchmark
+    public Long findeKonfliktOhneEigeneBuchung() {
+        int i = naechste++ & (ANFRAGEN - 1);
+        return buchungIndex.findeKonflikt(fahrzeugIds[i], startdaten[i], enddaten[i], 1L);
+    }
+
+    private record Intervall(Long getId, Long getFahrzeugId, LocalDate getStartdatum, LocalDate getEnddatum)
+            implements BuchungIntervall {
+    }
+}
@@ -0,0 +1,98 @@
+package com.WheelsConnect.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Lässt höchstens {@code erlaubt} Verbindungen gleichzeitig aus dem Pool. Wartende Threads parken fair an einem
+ * {@link Semaphore}; das blockiert bei virtuellen Threads keinen Träger-Thread, anders als das Warten im Hikari-Pool.
+ */
+public class BegrenzteDataSource extends DelegatingDataSource {
+
+    private final Semaphore freie;
+    private final long wartezeitNanos;
+
+    public BegrenzteDataSource(DataSource dataSource, int erlaubt, Duration wartezeit) {
+        super(dataSource);
+        this.freie = new Semaphore(erlaubt, true);
+        this.wartezeitNanos = wartezeit.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        belegen();
+        return freigebenBeimSchliessen(super::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        belegen();
+        return freigebenBeimSchliessen(() -> super.getConnection(username, password));
+    }
+
+    public int getFreie() {
+        return freie.availablePermits();
+    }
+
+    private void belegen() throws SQLException {
+        try {
+            if (!freie.tryAcquire(wartezeitNanos, TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException("Keine Datenbankverbindung innerhalb von "
+                        + TimeUnit.NANOSECONDS.toMillis(wartezeitNanos) + " ms frei");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Warten auf eine Datenbankverbindung unterbrochen", e);
+        }
+    }
+
+    private Connection freigebenBeimSchliessen(Verbindungsquelle quelle) throws SQLException {
+        Connection verbindung;
+        try {
+            verbindung = quelle.oeffnen();
+        } catch (SQLException | RuntimeException e) {
+            freie.release();
+            throw e;
+        }
+        AtomicBoolean geschlossen = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, methode, argumente) -> {
+                    switch (methode.getName()) {
+                        case "equals":
+                            return proxy == argumente[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            break;
+                    }
+                    if ("close".equals(methode.getName()) && geschlossen.compareAndSet(false, true)) {
+                        try {
+                            verbindung.close();
+                        } finally {
+                            freie.release();
+                        }
+                        return null;
+                    }
+                    try {
+                        return methode.invoke(verbindung, argumente);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    @FunctionalInterface
+    private interface Verbindungsquelle {
+        Connection oeffnen() throws SQLException;
+    }
+}
@@ -0,0 +1,111 @@
+package com.WheelsConnect.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * {@code /actuator/hibernate}: die teuersten HQL-Abfragen nach Gesamtzeit, Lade- und Fetch-Zähler je Entity,
+ * Trefferquoten des Second-Level-Caches und die zuletzt über der Schwelle gelaufenen SQL-Anweisungen.
+ * {@code DELETE} setzt alle Zähler und den Puffer zurück.
+ */
+@Endpoint(id = "hibernate")
+public class HibernateStatistikEndpoint {
+
+    private static final int STANDARD_ANZAHL = 20;
+
+    private final Statistics statistics;
+    private final LangsameAbfragen langsameAbfragen;
+
+    public HibernateStatistikEndpoint(EntityManagerFactory entityManagerFactory, LangsameAbfragen langsameAbfragen) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.langsameAbfragen = langsameAbfragen;
+    }
+
+    @ReadOperation
+    public Bericht bericht(@Nullable Integer anzahl) {
+        int grenze = anzahl == null ? STANDARD_ANZAHL : anzahl;
+        List<Abfrage> abfragen = Arrays.stream(statistics.getQueries())
+                .map(hql -> abfrage(hql, statistics.getQueryStatistics(hql)))
+                .sorted(Comparator.comparingLong(Abfrage::gesamtMillis).reversed())
+                .limit(grenze)
+                .toList();
+        List<Entitaet> entitaeten = Arrays.stream(statistics.getEntityNames())
+                .map(name -> entitaet(name, statistics.getEntityStatistics(name)))
+                .sorted(Comparator.comparingLong(Entitaet::geladen).reversed())
+                .toList();
+        List<CacheRegion> regionen = Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .map(region -> cacheRegion(region, statistics.getDomainDataRegionStatistics(region)))
+                .toList();
+        return new Bericht(statistics.isStatisticsEnabled(), statistics.getStart(),
+                new Gesamt(statistics.getQueryExecutionCount(), statistics.getQueryExecutionMaxTime(), statistics.getQueryExecutionMaxTimeQueryString(),
+                        statistics.getPrepareStatementCount(), statistics.getEntityLoadCount(), statistics.getEntityFetchCount(),
+                        statistics.getCollectionLoadCount(), statistics.getCollectionFetchCount(),
+                        quote(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount()),
+                        quote(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount())),
+                abfragen, entitaeten, regionen,
+                new Langsam(langsameAbfragen.getSchwelleMillis(), langsameAbfragen.getGesamt(), langsameAbfragen.eintraege()));
+    }
+
+    @DeleteOperation
+    public void zuruecksetzen() {
+        statistics.clear();
+        langsameAbfragen.leeren();
+    }
+
+    private static Abfrage abfrage(String hql, QueryStatistics werte) {
+        return new Abfrage(hql, werte.getExecutionCount(), werte.getExecutionTotalTime(), werte.getExecutionAvgTime(),
+                werte.getExecutionMaxTime(), werte.getExecutionRowCount());
+    }
+
+    private static Entitaet entitaet(String name, EntityStatistics werte) {
+        return new Entitaet(name.substring(name.lastIndexOf('.') + 1), werte.getLoadCount(), werte.getFetchCount(),
+                werte.getInsertCount(), werte.getUpdateCount(), werte.getDeleteCount(), werte.getOptimisticFailureCount());
+    }
+
+    private static CacheRegion cacheRegion(String name, CacheRegionStatistics werte) {
+        return new CacheRegion(name, werte.getHitCount(), werte.getMissCount(), werte.getPutCount(),
+                quote(werte.getHitCount(), werte.getMissCount()));
+    }
+
+    private static Double quote(long treffer, long fehlschlaege) {
+        return treffer + fehlschlaege == 0 ? null : (double) treffer / (treffer + fehlschlaege);
+    }
+
+    public record Bericht(boolean aktiv, Instant seit, Gesamt gesamt, List<Abfrage> abfragen, List<Entitaet> entitaeten,
+                          List<CacheRegion> cache, Langsam langsameAbfragen) {
+    }
+
+    /**
+     * Eine Fetch-Zahl nahe der Lade-Zahl deutet auf nachgeladene Assoziationen (N+1) hin.
+     */
+    public record Gesamt(long abfragen, long maxMillis, String langsamsteAbfrage, long anweisungen, long entitaetenGeladen,
+                         long entitaetenNachgeladen, long collectionsGeladen, long collectionsNachgeladen,
+                         Double secondLevelTrefferquote, Double queryCacheTrefferquote) {
+    }
+
+    public record Abfrage(String hql, long ausfuehrungen, long gesamtMillis, long mittelMillis, long maxMillis, long zeilen) {
+    }
+
+    public record Entitaet(String name, long geladen, long nachgeladen, long eingefuegt, long geaendert, long geloescht,
+                           long versionskonflikte) {
+    }
+
+    public record CacheRegion(String name, long treffer, long fehlschlaege, long eingetragen, Double trefferquote) {
+    }
+
+    public record Langsam(long schwelleMillis, long gesamt, List<LangsameAbfragen.Abfrage> letzte) {
+    }
+}
@@ -0,0 +1,46 @@
+package com.WheelsConnect.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Diagnose für langsame Datenbankzugriffe ({@code wheelsconnect.hibernate-statistik.aktiv=true}): Hibernate sammelt
+ * Statistiken, die als {@code hibernate.*}-Metriken und unter {@code /actuator/hibernate} erscheinen, und jede
+ * SQL-Anweisung über {@code langsam-ab} landet im Ringpuffer {@link LangsameAbfragen}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "wheelsconnect.hibernate-statistik", name = "aktiv", havingValue = "true")
+public class HibernateStatistikKonfiguration {
+
+    @Bean
+    public static LangsameAbfragen langsameAbfragen(Environment environment) {
+        return new LangsameAbfragen(environment.getProperty("wheelsconnect.hibernate-statistik.puffer", Integer.class, 100),
+                environment.getProperty("wheelsconnect.hibernate-statistik.langsam-ab", Duration.class, Duration.ofMillis(200)));
+    }
+
+    @Bean
+    public static BeanPostProcessor protokollierendeDataSource(ObjectProvider<LangsameAbfragen> langsameAbfragen) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ProtokollierendeDataSource) {
+                    return bean;
+                }
+                return new ProtokollierendeDataSource(dataSource, langsameAbfragen.getObject());
+            }
+        };
+    }
+
+    @Bean
+    public HibernateStatistikEndpoint hibernateStatistikEndpoint(EntityManagerFactory entityManagerFactory, LangsameAbfragen langsameAbfragen) {
+        return new HibernateStatistikEndpoint(entityManagerFactory, langsameAbfragen);
+    }
+}
@@ -0,0 +1,73 @@
+package com.WheelsConnect.config;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ringpuffer der letzten SQL-Anweisungen, die länger als {@code schwelle} liefen. Schreiben kostet ein
+ * {@code getAndIncrement} und einen Array-Zugriff; bei vollem Puffer werden die ältesten Einträge überschrieben.
+ */
+public class LangsameAbfragen {
+
+    private final AtomicReferenceArray<Abfrage> puffer;
+    private final AtomicLong naechste = new AtomicLong();
+    private final long schwelleNanos;
+
+    public LangsameAbfragen(int groesse, Duration schwelle) {
+        this.puffer = new AtomicReferenceArray<>(groesse);
+        this.schwelleNanos = schwelle.toNanos();
+    }
+
+    /**
+     * Nimmt die Anweisung nur auf, wenn sie die Schwelle überschreitet. Von den Parametern wird nur der Typ
+     * gespeichert, damit keine Kundendaten im Puffer landen.
+     */
+    public void pruefen(String sql, List<String> parameter, int batch, long dauerNanos) {
+        if (dauerNanos < schwelleNanos) {
+            return;
+        }
+        Abfrage abfrage = new Abfrage(Instant.now(), dauerNanos / 1e6, sql, List.copyOf(parameter), batch);
+        puffer.set((int) (naechste.getAndIncrement() % puffer.length()), abfrage);
+    }
+
+    public long getSchwelleMillis() {
+        return Duration.ofNanos(schwelleNanos).toMillis();
+    }
+
+    public long getGesamt() {
+        return naechste.get();
+    }
+
+    /**
+     * Die gepufferten Einträge, neueste zuerst.
+     */
+    public List<Abfrage> eintraege() {
+        List<Abfrage> eintraege = new ArrayList<>(puffer.length());
+        for (int i = 0; i < puffer.length(); i++) {
+            Abfrage abfrage = puffer.get(i);
+            if (abfrage != null) {
+                eintraege.add(abfrage);
+            }
+        }
+        eintraege.sort(Comparator.comparing(Abfrage::zeitpunkt).reversed());
+        return eintraege;
+    }
+
+    public void leeren() {
+        for (int i = 0; i < puffer.length(); i++) {
+            puffer.set(i, null);
+        }
+    }
+
+    /**
+     * @param parameter Typen der gebundenen Parameter in Reihenfolge, z.B. {@code [LocalDate, LocalDate, Long]}
+     * @param batch     Anzahl der Parametersätze bei {@code executeBatch}, sonst 0
+     */
+    public record Abfrage(Instant zeitpunkt, double dauerMillis, String sql, List<String> parameter, int batch) {
+    }
+}
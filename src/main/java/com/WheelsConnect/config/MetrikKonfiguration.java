@@ -0,0 +1,38 @@
+package com.WheelsConnect.config;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Ergänzt {@code http.server.requests} um den Tag {@code handler} (z.B. {@code BuchungController.createBuchung}),
+ * damit sich Latenzen je Controller-Methode auswerten lassen, auch wenn mehrere Methoden dieselbe URI bedienen.
+ * Histogramme und Prometheus-Export sind in application.properties eingestellt.
+ */
+@Configuration
+public class MetrikKonfiguration {
+
+    @Bean
+    public ServerRequestObservationConvention serverRequestObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                return super.getLowCardinalityKeyValues(context).and(KeyValue.of("handler", handler(context)));
+            }
+        };
+    }
+
+    private static String handler(ServerRequestObservationContext context) {
+        if (context.getCarrier() != null
+                && context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod methode) {
+            return methode.getBeanType().getSimpleName() + "." + methode.getMethod().getName();
+        }
+        return "none";
+    }
+}
@@ -0,0 +1,118 @@
+package com.WheelsConnect.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Misst jede {@code execute*}-Anweisung auf Verbindungen dieser DataSource und meldet sie an {@link LangsameAbfragen}.
+ * Gemessen wird bis zur Rückgabe des Treibers, das Lesen eines {@code ResultSet} zählt nicht mit.
+ */
+public class ProtokollierendeDataSource extends DelegatingDataSource {
+
+    private final LangsameAbfragen langsameAbfragen;
+
+    public ProtokollierendeDataSource(DataSource dataSource, LangsameAbfragen langsameAbfragen) {
+        super(dataSource);
+        this.langsameAbfragen = langsameAbfragen;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return verbindung(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return verbindung(super.getConnection(username, password));
+    }
+
+    private Connection verbindung(Connection verbindung) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, methode, argumente) -> {
+                    switch (methode.getName()) {
+                        case "equals":
+                            return proxy == argumente[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            break;
+                    }
+                    Object ergebnis = aufrufen(verbindung, methode, argumente);
+                    if (ergebnis instanceof Statement anweisung && methode.getName().startsWith("prepare")) {
+                        return anweisung(anweisung, methode.getReturnType(), (String) argumente[0]);
+                    }
+                    if (ergebnis instanceof Statement anweisung && "createStatement".equals(methode.getName())) {
+                        return anweisung(anweisung, Statement.class, null);
+                    }
+                    return ergebnis;
+                });
+    }
+
+    private Statement anweisung(Statement anweisung, Class<?> typ, String sql) {
+        Class<?>[] schnittstellen = typ == CallableStatement.class ? new Class<?>[]{CallableStatement.class}
+                : typ == PreparedStatement.class ? new Class<?>[]{PreparedStatement.class} : new Class<?>[]{Statement.class};
+        List<String> parameter = new ArrayList<>();
+        int[] batch = new int[1];
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), schnittstellen, (proxy, methode, argumente) -> {
+            String name = methode.getName();
+            switch (name) {
+                case "equals":
+                    return proxy == argumente[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "clearParameters":
+                    parameter.clear();
+                    break;
+                case "addBatch":
+                    batch[0]++;
+                    break;
+                case "clearBatch":
+                    batch[0] = 0;
+                    break;
+                default:
+                    if (name.startsWith("set") && argumente != null && argumente.length >= 2 && argumente[0] instanceof Integer index && index > 0) {
+                        parameterTyp(parameter, index, "setNull".equals(name) || argumente[1] == null ? "null" : argumente[1].getClass().getSimpleName());
+                    }
+            }
+            if (!name.startsWith("execute")) {
+                return aufrufen(anweisung, methode, argumente);
+            }
+            long beginn = System.nanoTime();
+            try {
+                return aufrufen(anweisung, methode, argumente);
+            } finally {
+                String text = sql != null ? sql : argumente != null && argumente.length > 0 && argumente[0] instanceof String s ? s : "";
+                langsameAbfragen.pruefen(text, parameter, "executeBatch".equals(name) ? batch[0] : 0, System.nanoTime() - beginn);
+                if ("executeBatch".equals(name)) {
+                    batch[0] = 0;
+                }
+            }
+        });
+    }
+
+    private static void parameterTyp(List<String> parameter, int index, String typ) {
+        while (parameter.size() < index) {
+            parameter.add("?");
+        }
+        parameter.set(index - 1, typ);
+    }
+
+    private static Object aufrufen(Object ziel, Method methode, Object[] argumente) throws Throwable {
+        try {
+            return methode.invoke(ziel, argumente);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
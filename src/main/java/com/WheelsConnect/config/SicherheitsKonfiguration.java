@@ -0,0 +1,39 @@
+package com.WheelsConnect.config;
+
+import com.WheelsConnect.security.LoginDrossel;
+import com.WheelsConnect.security.LoginDrosselFilter;
+import com.WheelsConnect.security.TokenFilter;
+import com.WheelsConnect.security.Tokens;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+@Configuration
+public class SicherheitsKonfiguration {
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+
+    /**
+     * Unter {@code /api} exportiert Spring Data REST keine Repositories mehr, der Pfad bleibt trotzdem geschützt.
+     * Von {@code /actuator} ist nur {@code health} für Load-Balancer und Orchestrierung ohne Anmeldung erreichbar;
+     * Caches, Hibernate-Statistiken und Metriken verlangen ein Token.
+     */
+    @Bean
+    public FilterRegistrationBean<TokenFilter> tokenFilter(Tokens tokens) {
+        FilterRegistrationBean<TokenFilter> registrierung = new FilterRegistrationBean<>(new TokenFilter(tokens, "/actuator/health"));
+        registrierung.addUrlPatterns("/buchungen/*", "/fahrzeuge/*", "/kunden/*", "/standorte/*", "/dashboard/*", "/api/*", "/actuator/*");
+        return registrierung;
+    }
+
+    @Bean
+    public FilterRegistrationBean<LoginDrosselFilter> loginDrosselFilter(LoginDrossel loginDrossel) {
+        FilterRegistrationBean<LoginDrosselFilter> registrierung = new FilterRegistrationBean<>(new LoginDrosselFilter(loginDrossel));
+        registrierung.addUrlPatterns("/login");
+        return registrierung;
+    }
+}
@@ -0,0 +1,61 @@
+package com.WheelsConnect.config;
+
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Zugriff auf virtuelle Threads, solange das Projekt noch für Java 17 übersetzt wird. Die API wird per Reflection
+ * gesucht und steht erst ab einer Laufzeit mit Java 21 zur Verfügung.
+ */
+public final class VirtuelleThreads {
+
+    private VirtuelleThreads() {
+    }
+
+    public static boolean verfuegbar() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Executor, der jede Aufgabe in einem eigenen virtuellen Thread mit Namen {@code <praefix><n>} ausführt.
+     */
+    public static ExecutorService executor(String praefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderTyp = Class.forName("java.lang.Thread$Builder");
+            builder = builderTyp.getMethod("name", String.class, long.class).invoke(builder, praefix, 0L);
+            ThreadFactory threadFactory = (ThreadFactory) builderTyp.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, threadFactory);
+        } catch (NoSuchMethodException | ClassNotFoundException e) {
+            throw new IllegalStateException("Virtuelle Threads benötigen mindestens Java 21, laufend ist Java "
+                    + Runtime.version().feature(), e);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Virtuelle Threads konnten nicht erzeugt werden", e);
+        }
+    }
+
+    /**
+     * Jetty-Threadpool für den Betrieb auf virtuellen Threads: Acceptor und Selector blockieren dauerhaft in
+     * {@code accept}/{@code select} und bleiben deshalb auf wenigen Plattform-Threads, sonst belegten sie Träger-Threads.
+     * Die Bearbeitung der Anfragen gibt Jetty selbst an virtuelle Threads ab; die Begrenzung der Datenbankzugriffe
+     * übernimmt {@link BegrenzteDataSource}.
+     */
+    static final class JettyPool extends QueuedThreadPool {
+
+        JettyPool() {
+            super(Math.max(16, 2 * Runtime.getRuntime().availableProcessors()));
+            setName("jetty-plattform");
+            setUseVirtualThreads(true);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.WheelsConnect.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.jetty.JettyServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Optionaler Betrieb auf virtuellen Threads ({@code wheelsconnect.virtuelle-threads.aktiv=true}, Laufzeit ab Java 21):
+ * Jetty bearbeitet jede Anfrage in einem eigenen virtuellen Thread, ebenso asynchrone Aufgaben wie gestreamte
+ * Antworten. Damit nicht beliebig viele Threads gleichzeitig auf MySQL zugreifen, wird die DataSource auf
+ * {@code db-parallelitaet} Verbindungen begrenzt (Standard: die Größe des Hikari-Pools).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "wheelsconnect.virtuelle-threads", name = "aktiv", havingValue = "true")
+public class VirtuelleThreadsKonfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtuelleThreadsKonfiguration.class);
+
+    @Bean
+    public WebServerFactoryCustomizer<JettyServletWebServerFactory> virtuelleJettyThreads() {
+        return factory -> {
+            log.info("Jetty bearbeitet Anfragen auf virtuellen Threads");
+            factory.setThreadPool(new VirtuelleThreads.JettyPool());
+        };
+    }
+
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, "taskExecutor"})
+    public AsyncTaskExecutor virtuelleTaskExecutor() {
+        return new TaskExecutorAdapter(VirtuelleThreads.executor("async-virtuell-"));
+    }
+
+    @Bean
+    public static BeanPostProcessor begrenzteDataSource(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof BegrenzteDataSource) {
+                    return bean;
+                }
+                int poolGroesse = bean instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+                int erlaubt = environment.getProperty("wheelsconnect.virtuelle-threads.db-parallelitaet", Integer.class, poolGroesse);
+                Duration wartezeit = environment.getProperty("wheelsconnect.virtuelle-threads.db-wartezeit", Duration.class, Duration.ofSeconds(30));
+                log.info("Datenbankzugriffe von {} auf {} gleichzeitige Verbindungen begrenzt", beanName, erlaubt);
+                return new BegrenzteDataSource(dataSource, erlaubt, wartezeit);
+            }
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package com.WheelsConnect.config;
+
+import com.WheelsConnect.controller.BedingteAnfragen;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebKonfiguration implements WebMvcConfigurer {
+
+    private final BedingteAnfragen bedingteAnfragen;
+
+    public WebKonfiguration(BedingteAnfragen bedingteAnfragen) {
+        this.bedingteAnfragen = bedingteAnfragen;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(bedingteAnfragen);
+    }
+}
@@ -0,0 +1,68 @@
+package com.WheelsConnect.config;
+
+import com.WheelsConnect.security.Tokens;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+
+/**
+ * STOMP über WebSocket unter {@code /ws} für die Live-Änderungen. Clients melden sich beim CONNECT mit demselben
+ * Bearer-Token wie bei der REST-API an und dürfen nur abonnieren, nicht selbst an die Topics senden.
+ */
+@Configuration
+@EnableWebSocketMessageBroker
+public class WebSocketKonfiguration implements WebSocketMessageBrokerConfigurer {
+
+    private final Tokens tokens;
+    private final String[] erlaubteUrspruenge;
+
+    public WebSocketKonfiguration(Tokens tokens, @Value("${wheelsconnect.live.erlaubte-urspruenge:http://localhost:*}") String[] erlaubteUrspruenge) {
+        this.tokens = tokens;
+        this.erlaubteUrspruenge = erlaubteUrspruenge;
+    }
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.addEndpoint("/ws").setAllowedOriginPatterns(erlaubteUrspruenge);
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        registry.enableSimpleBroker("/topic");
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+                if (accessor == null) {
+                    return message;
+                }
+                if (StompCommand.SEND.equals(accessor.getCommand())) {
+                    throw new MessageDeliveryException(message, "Senden an Topics ist nicht erlaubt");
+                }
+                if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+                    String header = accessor.getFirstNativeHeader("Authorization");
+                    String token = header != null && header.startsWith("Bearer ") ? header.substring(7) : null;
+                    if (tokens.pruefen(token).isEmpty()) {
+                        throw new MessageDeliveryException(message, "Anmeldung erforderlich");
+                    }
+                }
+                return message;
+            }
+        });
+    }
+}
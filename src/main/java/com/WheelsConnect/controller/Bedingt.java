@@ -0,0 +1,26 @@
+package com.WheelsConnect.controller;
+
+import com.WheelsConnect.repository.VersionsAbfrage;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Markiert GET-Endpunkte, die {@code If-None-Match}/{@code If-Modified-Since} beantworten, siehe {@link BedingteAnfragen}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bedingt {
+
+    /**
+     * Entitätstypen, deren Änderungen die Antwort einer Liste beeinflussen.
+     */
+    Class<?>[] value() default {};
+
+    /**
+     * Für Einzelabrufe ({@code /{id}}) das Repository, das den Versionsstand des Eintrags liefert.
+     */
+    Class<? extends VersionsAbfrage> eintrag() default VersionsAbfrage.class;
+}
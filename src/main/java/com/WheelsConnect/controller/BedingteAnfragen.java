@@ -0,0 +1,68 @@
+package com.WheelsConnect.controller;
+
+import com.WheelsConnect.repository.VersionsAbfrage;
+import com.WheelsConnect.service.Aenderungen;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Beantwortet bedingte GET-Anfragen auf {@link Bedingt}-Endpunkte mit 304, bevor der Controller eine Zeile lädt.
+ * Listen verwenden die Änderungsstempel aus {@link Aenderungen}, Einzelabrufe die Versionsspalten des Eintrags.
+ * {@code Cache-Control: no-cache} sorgt dafür, dass der Browser jede Antwort vor der Wiederverwendung prüfen lässt.
+ */
+@Component
+public class BedingteAnfragen implements HandlerInterceptor {
+
+    private final Aenderungen aenderungen;
+    private final ListableBeanFactory beanFactory;
+
+    public BedingteAnfragen(Aenderungen aenderungen, ListableBeanFactory beanFactory) {
+        this.aenderungen = aenderungen;
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod methode) || !("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()))) {
+            return true;
+        }
+        Bedingt bedingt = methode.getMethodAnnotation(Bedingt.class);
+        if (bedingt == null) {
+            return true;
+        }
+
+        Aenderungen.Stand stand = bedingt.eintrag() == VersionsAbfrage.class
+                ? aenderungen.stand(bedingt.value())
+                : eintragsstand(request, bedingt.eintrag());
+        if (stand == null) {
+            // ungültige oder unbekannte Id: die Fehlerbehandlung bleibt beim Controller
+            return true;
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        long geaendertAm = stand.geaendertAm() == null ? -1 : stand.geaendertAm().toEpochMilli();
+        return !new ServletWebRequest(request, response).checkNotModified(stand.etag(), geaendertAm);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Aenderungen.Stand eintragsstand(HttpServletRequest request, Class<? extends VersionsAbfrage> repository) {
+        Map<String, String> pfad = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        Long id;
+        try {
+            id = Long.valueOf(pfad.get("id"));
+        } catch (RuntimeException e) {
+            return null;
+        }
+        List<Object[]> zeilen = beanFactory.getBean(repository).findVersionsstand(id);
+        return zeilen.isEmpty() ? null : aenderungen.eintrag(zeilen.get(0));
+    }
+}
@@ -1,34 +1,158 @@
 package com.WheelsConnect.controller;
 
 import com.WheelsConnect.model.Buchung;
+import com.WheelsConnect.model.Fahrzeug;
+import com.WheelsConnect.model.Kunde;
+import com.WheelsConnect.model.Standort;
 import com.WheelsConnect.repository.BuchungRepository;
+import com.WheelsConnect.service.BuchungExport;
+import com.WheelsConnect.service.BuchungIndex;
+import com.WheelsConnect.service.Buchungszeitraum;
+import com.WheelsConnect.service.DashboardStatistik;
+import com.WheelsConnect.service.Gruppenbuchung;
+import com.WheelsConnect.service.LiveAenderungen;
+import com.WheelsConnect.service.FahrzeugSperren;
+import com.WheelsConnect.service.Preisberechnung;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/buchungen")
 public class BuchungController {
 
+    public static final String METRIK_VERFUEGBARKEIT = "wheelsconnect.verfuegbarkeit";
+    public static final String METRIK_ANLEGEN = "wheelsconnect.buchung.anlegen";
+    public static final String METRIK_GRUPPE = "wheelsconnect.buchung.gruppe";
+
+    private static final Set<String> SORTIERBAR = Set.of("startdatum", "enddatum", "gesamtpreis", "buchungsstatus");
+    private static final Set<String> PATCHBAR = Set.of("startdatum", "enddatum", "buchungsstatus", "kunde", "fahrzeug");
+    // hängen nicht vom übrigen Stand der Buchung ab, Patches nur dieser Felder werden bei Versionskonflikten wiederholt
+    private static final Set<String> VERTAUSCHBAR = Set.of("buchungsstatus");
+
     private final BuchungRepository buchungRepository;
+    private final BuchungIndex buchungIndex;
+    private final FahrzeugSperren fahrzeugSperren;
+    private final ListenAntworten listenAntworten;
+    private final DashboardStatistik dashboardStatistik;
+    private final BuchungExport buchungExport;
+    private final Preisberechnung preisberechnung;
+    private final LiveAenderungen liveAenderungen;
+    private final Gruppenbuchung gruppenbuchung;
+    private final Teilaenderungen teilaenderungen;
+    private final MeterRegistry meterRegistry;
+    private final Counter verfuegbar;
+    private final Counter belegt;
 
-    public BuchungController(BuchungRepository buchungRepository) {
+    public BuchungController(BuchungRepository buchungRepository, BuchungIndex buchungIndex, FahrzeugSperren fahrzeugSperren,
+                             ListenAntworten listenAntworten, DashboardStatistik dashboardStatistik, BuchungExport buchungExport,
+                             Preisberechnung preisberechnung, LiveAenderungen liveAenderungen, Gruppenbuchung gruppenbuchung,
+                             Teilaenderungen teilaenderungen, MeterRegistry meterRegistry) {
         this.buchungRepository = buchungRepository;
+        this.buchungIndex = buchungIndex;
+        this.fahrzeugSperren = fahrzeugSperren;
+        this.listenAntworten = listenAntworten;
+        this.dashboardStatistik = dashboardStatistik;
+        this.buchungExport = buchungExport;
+        this.preisberechnung = preisberechnung;
+        this.liveAenderungen = liveAenderungen;
+        this.gruppenbuchung = gruppenbuchung;
+        this.teilaenderungen = teilaenderungen;
+        this.meterRegistry = meterRegistry;
+        this.verfuegbar = Counter.builder(METRIK_VERFUEGBARKEIT).tag("ergebnis", "verfuegbar")
+                .description("Verfügbarkeitsprüfungen").register(meterRegistry);
+        this.belegt = Counter.builder(METRIK_VERFUEGBARKEIT).tag("ergebnis", "belegt")
+                .description("Verfügbarkeitsprüfungen").register(meterRegistry);
     }
 
     @GetMapping
+    @Bedingt({Buchung.class, Kunde.class, Fahrzeug.class, Standort.class})
     public List<Buchung> getBuchungen() {
         return buchungRepository.findAll();
     }
 
+    @GetMapping(params = "limit")
+    @Bedingt({Buchung.class, Kunde.class, Fahrzeug.class, Standort.class})
+    public ResponseEntity<List<Buchung>> getBuchungenSeite(@RequestParam(required = false) String after, @RequestParam int limit,
+                                                           @RequestParam(required = false) String sort, Filter filter) {
+        return listenAntworten.seite(Buchung.class, filter.alsSpecification(), sort, SORTIERBAR, BuchungRepository.MIT_ZUORDNUNGEN, after, limit);
+    }
+
+    @GetMapping(params = {"stream=true", "!limit"})
+    @Bedingt({Buchung.class, Kunde.class, Fahrzeug.class, Standort.class})
+    public ResponseEntity<StreamingResponseBody> streamBuchungen(@RequestParam(required = false) String sort, Filter filter) {
+        return listenAntworten.stream(Buchung.class, filter.alsSpecification(), sort, SORTIERBAR, BuchungRepository.MIT_ZUORDNUNGEN);
+    }
+
+    /**
+     * Export für die Buchhaltung als {@code format=csv} oder {@code format=ndjson}, bei passendem
+     * {@code Accept-Encoding} gzip-komprimiert. Filter wie bei der Liste: {@code von} ≤ Startdatum, Enddatum ≤ {@code bis}.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBuchungen(@RequestParam(defaultValue = "csv") String format,
+                                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate von,
+                                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate bis,
+                                                                 @RequestParam(required = false) String buchungsstatus,
+                                                                 @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        BuchungExport.Format exportFormat;
+        MediaType mediaType;
+        if ("csv".equalsIgnoreCase(format)) {
+            exportFormat = BuchungExport.Format.CSV;
+            mediaType = new MediaType("text", "csv", StandardCharsets.UTF_8);
+        } else if ("ndjson".equalsIgnoreCase(format)) {
+            exportFormat = BuchungExport.Format.NDJSON;
+            mediaType = new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+        } else {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unbekanntes Format '" + format + "'");
+        }
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+
+        StreamingResponseBody body = ausgabe -> {
+            if (!gzip) {
+                buchungExport.exportieren(exportFormat, von, bis, buchungsstatus, ausgabe);
+                return;
+            }
+            try (OutputStream komprimiert = new GZIPOutputStream(ausgabe, 64 * 1024)) {
+                buchungExport.exportieren(exportFormat, von, bis, buchungsstatus, komprimiert);
+            }
+        };
+
+        ResponseEntity.BodyBuilder antwort = ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"buchungen." + exportFormat.name().toLowerCase(Locale.ROOT) + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            antwort.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return antwort.body(body);
+    }
+
     @GetMapping("/{id}")
+    @Bedingt(eintrag = BuchungRepository.class)
     public Buchung getBuchung(@PathVariable Long id) {
         return buchungRepository.findById(id).orElseThrow(RuntimeException::new);
     }
@@ -39,38 +163,265 @@ public class BuchungController {
         LocalDate startdatum = LocalDate.parse(request.get("startdatum"));
         LocalDate enddatum = LocalDate.parse(request.get("enddatum"));
 
-        List<Buchung> conflictingBuchungen = buchungRepository.findByFahrzeugIdAndStartdatumLessThanEqualAndEnddatumGreaterThanEqual(fahrzeugId, enddatum, startdatum);
+        boolean available = buchungIndex.istVerfuegbar(fahrzeugId, startdatum, enddatum);
+        (available ? verfuegbar : belegt).increment();
 
         Map<String, Boolean> response = new HashMap<>();
-        response.put("available", conflictingBuchungen.isEmpty());
+        response.put("available", available);
 
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Preise für bis zu {@value Preisberechnung#MAX_ANFRAGEN} Paare aus Fahrzeug und Zeitraum in einem Aufruf,
+     * z.B. für alle Fahrzeuge einer Verfügbarkeitssuche.
+     */
+    @PostMapping("/quote")
+    public List<Preisberechnung.Angebot> quote(@RequestBody List<Preisberechnung.Anfrage> anfragen) {
+        if (anfragen.size() > Preisberechnung.MAX_ANFRAGEN) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Höchstens " + Preisberechnung.MAX_ANFRAGEN + " Anfragen pro Aufruf");
+        }
+        return preisberechnung.angebote(anfragen);
+    }
+
+    /**
+     * Misst die Dauer unter {@value #METRIK_ANLEGEN}, getrennt nach Ergebnis (angelegt, konflikt, ungueltig, fehler).
+     */
     @PostMapping
     public ResponseEntity createBuchung(@RequestBody Buchung buchung) throws URISyntaxException {
-        Buchung savedBuchung = buchungRepository.save(buchung);
-        return ResponseEntity.created(new URI("/buchungen/" + savedBuchung.getId())).body(savedBuchung);
+        Timer.Sample messung = Timer.start(meterRegistry);
+        ResponseEntity antwort = null;
+        try {
+            antwort = anlegen(buchung);
+            return antwort;
+        } finally {
+            messung.stop(Timer.builder(METRIK_ANLEGEN).tag("ergebnis", ergebnis(antwort))
+                    .description("Dauer von createBuchung").register(meterRegistry));
+        }
+    }
+
+    private ResponseEntity anlegen(Buchung buchung) {
+        String ungueltig = Buchungszeitraum.pruefen(buchung.getStartdatum(), buchung.getEnddatum());
+        if (ungueltig != null) {
+            return ResponseEntity.badRequest().body(ungueltig);
+        }
+        // Der Preis wird immer nach dem Tarif berechnet, ein vom Client gesendeter Wert zählt nicht
+        OptionalDouble gesamtpreis = gesamtpreis(buchung);
+        if (gesamtpreis.isEmpty()) {
+            return ResponseEntity.badRequest().body("Das Fahrzeug existiert nicht");
+        }
+        buchung.setGesamtpreis(gesamtpreis.getAsDouble());
+
+        // Prüfen und Speichern unter der Sperre des Fahrzeugs, damit zwei gleichzeitige Buchungen nicht beide durchgehen.
+        // Wie bei PUT und PATCH erst die Verbindung der Transaktion, dann die Sperre
+        return teilaenderungen.einmal(() -> {
+            teilaenderungen.bisZumAbschluss(fahrzeugSperren.sperren(fahrzeugId(buchung)));
+            Long konflikt = findeKonflikt(buchung, null);
+            if (konflikt != null) {
+                return konfliktAntwort(konflikt);
+            }
+            Buchung savedBuchung = buchungRepository.saveAndFlush(buchung);
+            teilaenderungen.nachCommit(() -> {
+                buchungIndex.aktualisieren(savedBuchung);
+                dashboardStatistik.buchungGezaehlt(savedBuchung.getStartdatum(), fahrzeugId(savedBuchung), 1);
+                liveAenderungen.angelegt(Buchung.class, savedBuchung.getId(), savedBuchung);
+            });
+            return ResponseEntity.created(URI.create("/buchungen/" + savedBuchung.getId())).body(savedBuchung);
+        });
     }
 
+    /**
+     * Legt bis zu {@value Gruppenbuchung#MAX_BUCHUNGEN} Buchungen auf einmal an, entweder alle oder keine. Bei
+     * ungültigen (400) oder belegten (409) Buchungen nennt {@code probleme} je Position der Anfrage die Ursache.
+     * Die Dauer wird unter {@value #METRIK_GRUPPE} gemessen.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity createBuchungen(@RequestBody List<Buchung> buchungen) {
+        if (buchungen.isEmpty() || buchungen.size() > Gruppenbuchung.MAX_BUCHUNGEN || buchungen.contains(null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Erwartet werden 1 bis " + Gruppenbuchung.MAX_BUCHUNGEN + " Buchungen");
+        }
+        Timer.Sample messung = Timer.start(meterRegistry);
+        ResponseEntity antwort = null;
+        try {
+            Gruppenbuchung.Ergebnis ergebnis = gruppenbuchung.anlegen(buchungen);
+            antwort = switch (ergebnis.status()) {
+                case ANGELEGT -> ResponseEntity.status(HttpStatus.CREATED).body(ergebnis.buchungen());
+                case UNGUELTIG -> ResponseEntity.badRequest()
+                        .body(problemAntwort("Ungültige Buchungen, es wurde keine angelegt", ergebnis.probleme()));
+                case KONFLIKT -> ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(problemAntwort("Belegte Fahrzeuge, es wurde keine Buchung angelegt", ergebnis.probleme()));
+            };
+            return antwort;
+        } finally {
+            messung.stop(Timer.builder(METRIK_GRUPPE).tag("ergebnis", ergebnis(antwort))
+                    .description("Dauer von createBuchungen").register(meterRegistry));
+        }
+    }
+
+    /**
+     * Ersetzt die Buchung; die erwartete Version kommt wie bei {@code PATCH} aus {@code If-Match} oder dem Feld
+     * {@code version}.
+     */
     @PutMapping("/{id}")
-    public ResponseEntity updateBuchung(@PathVariable Long id, @RequestBody Buchung buchung) {
-        Buchung currentBuchung = buchungRepository.findById(id).orElseThrow(RuntimeException::new);
-        currentBuchung.setStartdatum(buchung.getStartdatum());
-        currentBuchung.setEnddatum(buchung.getEnddatum());
-        currentBuchung.setGesamtpreis(buchung.getGesamtpreis());
-        currentBuchung.setBuchungsstatus(buchung.getBuchungsstatus());
-        currentBuchung.setKunde(buchung.getKunde());
-        currentBuchung.setFahrzeug(buchung.getFahrzeug());
-        currentBuchung = buchungRepository.save(currentBuchung);
+    public ResponseEntity updateBuchung(@PathVariable Long id, @RequestBody Buchung buchung,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        String ungueltig = Buchungszeitraum.pruefen(buchung.getStartdatum(), buchung.getEnddatum());
+        if (ungueltig != null) {
+            return ResponseEntity.badRequest().body(ungueltig);
+        }
+        OptionalDouble gesamtpreis = gesamtpreis(buchung);
+        if (gesamtpreis.isEmpty()) {
+            return ResponseEntity.badRequest().body("Das Fahrzeug existiert nicht");
+        }
 
-        return ResponseEntity.ok(currentBuchung);
+        return teilaenderungen.einmal(() -> {
+            Buchung currentBuchung = buchungRepository.findById(id).orElseThrow(RuntimeException::new);
+            teilaenderungen.versionPruefen(currentBuchung, Buchung::getVersion, buchung.getVersion(), ifMatch);
+
+            // Altes und neues Fahrzeug bis nach dem Commit sperren, falls die Buchung umgebucht wird; die Verbindung
+            // hält die Transaktion schon, Reihenfolge wie beim Anlegen
+            teilaenderungen.bisZumAbschluss(fahrzeugSperren.sperren(fahrzeugId(currentBuchung), fahrzeugId(buchung)));
+            Long konflikt = findeKonflikt(buchung, id);
+            if (konflikt != null) {
+                return konfliktAntwort(konflikt);
+            }
+            LocalDate altesStartdatum = currentBuchung.getStartdatum();
+            Long altesFahrzeugId = fahrzeugId(currentBuchung);
+            currentBuchung.setStartdatum(buchung.getStartdatum());
+            currentBuchung.setEnddatum(buchung.getEnddatum());
+            currentBuchung.setGesamtpreis(gesamtpreis.getAsDouble());
+            currentBuchung.setBuchungsstatus(buchung.getBuchungsstatus());
+            currentBuchung.setKunde(buchung.getKunde());
+            currentBuchung.setFahrzeug(buchung.getFahrzeug());
+            Buchung gespeichert = buchungRepository.saveAndFlush(currentBuchung);
+            teilaenderungen.nachCommit(() -> {
+                buchungIndex.aktualisieren(gespeichert);
+                dashboardStatistik.buchungGezaehlt(altesStartdatum, altesFahrzeugId, -1);
+                dashboardStatistik.buchungGezaehlt(gespeichert.getStartdatum(), fahrzeugId(gespeichert), 1);
+                liveAenderungen.geaendert(Buchung.class, id, gespeichert);
+            });
+            return ResponseEntity.ok(gespeichert);
+        });
+    }
+
+    /**
+     * Ändert nur die übergebenen Felder, siehe {@link Teilaenderungen}. Der Preis wird neu berechnet, wenn sich
+     * Zeitraum oder Fahrzeug ändern; Zeitraum und Verfügbarkeit werden wie bei {@code PUT} geprüft.
+     */
+    @PatchMapping(value = "/{id}", consumes = {Teilaenderungen.MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity patchBuchung(@PathVariable Long id, @RequestBody JsonNode patch,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return teilaenderungen.wiederholen(patch, ifMatch, VERTAUSCHBAR, () -> {
+            Buchung buchung = buchungRepository.findById(id).orElseThrow(RuntimeException::new);
+            LocalDate altesStartdatum = buchung.getStartdatum();
+            Long altesFahrzeugId = fahrzeugId(buchung);
+            teilaenderungen.anwenden(buchung, Buchung::getVersion, patch, ifMatch, PATCHBAR);
+            String ungueltig = Buchungszeitraum.pruefen(buchung.getStartdatum(), buchung.getEnddatum());
+            if (ungueltig != null) {
+                return ResponseEntity.badRequest().body(ungueltig);
+            }
+            if (patch.has("startdatum") || patch.has("enddatum") || patch.has("fahrzeug")) {
+                OptionalDouble gesamtpreis = gesamtpreis(buchung);
+                if (gesamtpreis.isEmpty()) {
+                    return ResponseEntity.badRequest().body("Das Fahrzeug existiert nicht");
+                }
+                buchung.setGesamtpreis(gesamtpreis.getAsDouble());
+            }
+
+            // bis nach dem Commit sperren, sonst prüft die nächste Buchung gegen einen Index ohne diese Änderung
+            teilaenderungen.bisZumAbschluss(fahrzeugSperren.sperren(altesFahrzeugId, fahrzeugId(buchung)));
+            Long konflikt = findeKonflikt(buchung, id);
+            if (konflikt != null) {
+                return konfliktAntwort(konflikt);
+            }
+            Buchung gespeichert = buchungRepository.saveAndFlush(buchung);
+            teilaenderungen.nachCommit(() -> {
+                buchungIndex.aktualisieren(gespeichert);
+                dashboardStatistik.buchungGezaehlt(altesStartdatum, altesFahrzeugId, -1);
+                dashboardStatistik.buchungGezaehlt(gespeichert.getStartdatum(), fahrzeugId(gespeichert), 1);
+                liveAenderungen.geaendert(Buchung.class, id, gespeichert);
+            });
+            return ResponseEntity.ok(gespeichert);
+        });
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity deleteBuchung(@PathVariable Long id) {
-        buchungRepository.deleteById(id);
+        Buchung buchung = buchungRepository.findById(id).orElseThrow(RuntimeException::new);
+        buchungRepository.delete(buchung);
+        buchungIndex.entfernen(id);
+        dashboardStatistik.buchungGezaehlt(buchung.getStartdatum(), fahrzeugId(buchung), -1);
+        liveAenderungen.geloescht(Buchung.class, id);
         return ResponseEntity.ok().build();
     }
-}
 
+    private Long findeKonflikt(Buchung buchung, Long ausgenommen) {
+        if (fahrzeugId(buchung) == null || BuchungIndex.STORNIERT.equals(buchung.getBuchungsstatus())) {
+            return null;
+        }
+        return buchungIndex.findeKonflikt(fahrzeugId(buchung), buchung.getStartdatum(), buchung.getEnddatum(), ausgenommen);
+    }
+
+    private OptionalDouble gesamtpreis(Buchung buchung) {
+        Long fahrzeugId = fahrzeugId(buchung);
+        return fahrzeugId == null ? OptionalDouble.of(0) : preisberechnung.gesamtpreis(fahrzeugId, buchung.getStartdatum(), buchung.getEnddatum());
+    }
+
+    private static String ergebnis(ResponseEntity antwort) {
+        if (antwort == null) {
+            return "fehler";
+        }
+        return switch (antwort.getStatusCode().value()) {
+            case 201 -> "angelegt";
+            case 409 -> "konflikt";
+            case 400 -> "ungueltig";
+            default -> "fehler";
+        };
+    }
+
+    private static ResponseEntity<Map<String, Object>> konfliktAntwort(Long konfliktBuchungId) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Das Fahrzeug ist im angegebenen Zeitraum bereits gebucht");
+        response.put("konfliktBuchungId", konfliktBuchungId);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    private static Map<String, Object> problemAntwort(String meldung, List<Gruppenbuchung.Problem> probleme) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", meldung);
+        response.put("probleme", probleme);
+        return response;
+    }
+
+    private static Long fahrzeugId(Buchung buchung) {
+        return buchung.getFahrzeug() == null ? null : buchung.getFahrzeug().getId();
+    }
+
+    /**
+     * Optionale Filter der Listen-Endpunkte; {@code von}/{@code bis} begrenzen Start- bzw. Enddatum.
+     */
+    public record Filter(String buchungsstatus, Long kundeId, Long fahrzeugId,
+                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate von,
+                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate bis) {
+
+        Specification<Buchung> alsSpecification() {
+            Specification<Buchung> filter = Specification.where(null);
+            if (buchungsstatus != null) {
+                filter = filter.and((root, query, cb) -> cb.equal(root.get("buchungsstatus"), buchungsstatus));
+            }
+            if (kundeId != null) {
+                filter = filter.and((root, query, cb) -> cb.equal(root.get("kunde").get("id"), kundeId));
+            }
+            if (fahrzeugId != null) {
+                filter = filter.and((root, query, cb) -> cb.equal(root.get("fahrzeug").get("id"), fahrzeugId));
+            }
+            if (von != null) {
+                filter = filter.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("startdatum"), von));
+            }
+            if (bis != null) {
+                filter = filter.and((root, query, cb) -> cb.lessThanOrEqualTo(root.get("enddatum"), bis));
+            }
+            return filter;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.WheelsConnect.controller;
+
+import com.WheelsConnect.service.Belegungsplan;
+import com.WheelsConnect.service.DashboardStatistik;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/dashboard")
+public class DashboardController {
+
+    private final DashboardStatistik dashboardStatistik;
+    private final Belegungsplan belegungsplan;
+
+    public DashboardController(DashboardStatistik dashboardStatistik, Belegungsplan belegungsplan) {
+        this.dashboardStatistik = dashboardStatistik;
+        this.belegungsplan = belegungsplan;
+    }
+
+    @GetMapping
+    public Map<String, Object> getDashboard(@RequestParam(defaultValue = "10") int top) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("kundenAnzahl", dashboardStatistik.getKundenAnzahl());
+        response.put("buchungenAktuellerMonat", dashboardStatistik.getBuchungenImMonat(YearMonth.now()));
+        response.put("standorte", dashboardStatistik.getStandortAuslastung());
+        response.put("beliebtesteFahrzeuge", dashboardStatistik.getBeliebtesteFahrzeuge(Math.max(0, Math.min(top, 100))));
+        return response;
+    }
+
+    /**
+     * Tägliche Belegung je Standort von {@code von} bis {@code bis} inklusive; die Tageswerte stehen als Arrays
+     * ab {@code von} in der Antwort.
+     */
+    @GetMapping("/belegung")
+    public ResponseEntity<?> getBelegung(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate von,
+                                         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate bis,
+                                         @RequestParam(required = false) Long standortId) {
+        if (bis.isBefore(von)) {
+            return ResponseEntity.badRequest().body("Das Enddatum darf nicht vor dem Startdatum liegen");
+        }
+        if (bis.toEpochDay() - von.toEpochDay() >= Belegungsplan.MAX_TAGE) {
+            return ResponseEntity.badRequest().body("Höchstens " + Belegungsplan.MAX_TAGE + " Tage pro Abfrage");
+        }
+        return ResponseEntity.ok(belegungsplan.auswerten(von, bis, standortId));
+    }
+}
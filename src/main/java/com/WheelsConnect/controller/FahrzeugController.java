@@ -1,58 +1,223 @@
 package com.WheelsConnect.controller;
 
+import com.WheelsConnect.model.Buchung;
 import com.WheelsConnect.model.Fahrzeug;
+import com.WheelsConnect.model.Standort;
 import com.WheelsConnect.repository.FahrzeugRepository;
+import com.WheelsConnect.service.Belegungsplan;
+import com.WheelsConnect.service.BuchungIndex;
+import com.WheelsConnect.service.DashboardStatistik;
+import com.WheelsConnect.service.FahrzeugKatalog;
+import com.WheelsConnect.service.LiveAenderungen;
+import com.WheelsConnect.service.StammdatenCache;
+import com.WheelsConnect.service.StammdatenImport;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/fahrzeuge")
 public class FahrzeugController {
 
+    private static final Set<String> SORTIERBAR = Set.of("marke", "modell", "typ", "baujahr", "farbe", "preis");
+    private static final Set<String> PATCHBAR = Set.of("marke", "modell", "typ", "baujahr", "farbe", "preis", "standort");
+
     private final FahrzeugRepository fahrzeugRepository;
+    private final BuchungIndex buchungIndex;
+    private final ListenAntworten listenAntworten;
+    private final DashboardStatistik dashboardStatistik;
+    private final StammdatenCache stammdatenCache;
+    private final StammdatenImport stammdatenImport;
+    private final LiveAenderungen liveAenderungen;
+    private final Belegungsplan belegungsplan;
+    private final FahrzeugKatalog fahrzeugKatalog;
+    private final Teilaenderungen teilaenderungen;
 
-    public FahrzeugController(FahrzeugRepository fahrzeugRepository) {
+    public FahrzeugController(FahrzeugRepository fahrzeugRepository, BuchungIndex buchungIndex, ListenAntworten listenAntworten,
+                              DashboardStatistik dashboardStatistik, StammdatenCache stammdatenCache, StammdatenImport stammdatenImport,
+                              LiveAenderungen liveAenderungen, Belegungsplan belegungsplan, FahrzeugKatalog fahrzeugKatalog,
+                              Teilaenderungen teilaenderungen) {
         this.fahrzeugRepository = fahrzeugRepository;
+        this.buchungIndex = buchungIndex;
+        this.listenAntworten = listenAntworten;
+        this.dashboardStatistik = dashboardStatistik;
+        this.stammdatenCache = stammdatenCache;
+        this.stammdatenImport = stammdatenImport;
+        this.liveAenderungen = liveAenderungen;
+        this.belegungsplan = belegungsplan;
+        this.fahrzeugKatalog = fahrzeugKatalog;
+        this.teilaenderungen = teilaenderungen;
     }
 
     @GetMapping
+    @Bedingt({Fahrzeug.class, Standort.class})
     public List<Fahrzeug> getFahrzeuge() {
-        return fahrzeugRepository.findAll();
+        return stammdatenCache.fahrzeuge();
+    }
+
+    @GetMapping(params = "limit")
+    @Bedingt({Fahrzeug.class, Standort.class})
+    public ResponseEntity<List<Fahrzeug>> getFahrzeugeSeite(@RequestParam(required = false) String after, @RequestParam int limit,
+                                                            @RequestParam(required = false) String sort, Filter filter) {
+        return listenAntworten.seite(Fahrzeug.class, filter.alsSpecification(), sort, SORTIERBAR, FahrzeugRepository.MIT_ZUORDNUNGEN, after, limit);
+    }
+
+    @GetMapping(params = {"stream=true", "!limit"})
+    @Bedingt({Fahrzeug.class, Standort.class})
+    public ResponseEntity<StreamingResponseBody> streamFahrzeuge(@RequestParam(required = false) String sort, Filter filter) {
+        return listenAntworten.stream(Fahrzeug.class, filter.alsSpecification(), sort, SORTIERBAR, FahrzeugRepository.MIT_ZUORDNUNGEN);
+    }
+
+    @GetMapping("/verfuegbar")
+    @Bedingt({Fahrzeug.class, Standort.class, Buchung.class})
+    public ResponseEntity<?> getVerfuegbareFahrzeuge(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startdatum,
+                                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate enddatum,
+                                                     @RequestParam(required = false) Long standortId,
+                                                     @RequestParam(required = false) String typ,
+                                                     @RequestParam(required = false) String marke,
+                                                     @RequestParam(required = false) Double maxPreis) {
+        if (enddatum.isBefore(startdatum)) {
+            return ResponseEntity.badRequest().body("Das Enddatum darf nicht vor dem Startdatum liegen");
+        }
+
+        // Stammdatenfilter kommen aus dem Cache bzw. der Datenbank, die Belegung wird nur noch im Index geprüft
+        List<Fahrzeug> verfuegbar = stammdatenCache.fahrzeuge(standortId, typ, marke, maxPreis).stream()
+                .filter(fahrzeug -> buchungIndex.istVerfuegbar(fahrzeug.getId(), startdatum, enddatum))
+                .toList();
+
+        return ResponseEntity.ok(verfuegbar);
+    }
+
+    /**
+     * Facettensuche, z.B. {@code ?marke=BMW&marke=Audi&typ=SUV&maxPreis=120}: Werte eines Merkmals mit ODER,
+     * Merkmale untereinander mit UND. Liefert eine Seite der Treffer und die Facettenzahlen aller Merkmale.
+     */
+    @GetMapping("/search")
+    public FahrzeugKatalog.Ergebnis suchen(FahrzeugKatalog.Suche suche, @RequestParam(required = false) Long after,
+                                           @RequestParam(defaultValue = "100") int limit) {
+        return fahrzeugKatalog.suchen(suche, after, Math.min(Math.max(limit, 0), FahrzeugKatalog.MAX_ERGEBNISSE));
     }
 
     @GetMapping("/{id}")
+    @Bedingt(eintrag = FahrzeugRepository.class)
     public Fahrzeug getFahrzeug(@PathVariable Long id) {
-        return fahrzeugRepository.findById(id).orElseThrow(RuntimeException::new);
+        return stammdatenCache.fahrzeug(id).orElseThrow(RuntimeException::new);
     }
 
     @PostMapping
     public ResponseEntity createFahrzeug(@RequestBody Fahrzeug fahrzeug) throws URISyntaxException {
         Fahrzeug savedFahrzeug = fahrzeugRepository.save(fahrzeug);
+        dashboardStatistik.fahrzeugGespeichert(savedFahrzeug);
+        belegungsplan.fahrzeugGespeichert(savedFahrzeug);
+        fahrzeugKatalog.gespeichert(savedFahrzeug);
+        stammdatenCache.fahrzeugGeaendert(savedFahrzeug.getId());
+        liveAenderungen.angelegt(Fahrzeug.class, savedFahrzeug.getId(), savedFahrzeug);
         return ResponseEntity.created(new URI("/fahrzeuge/" + savedFahrzeug.getId())).body(savedFahrzeug);
     }
 
+    /**
+     * Massenimport als CSV mit Kopfzeile oder NDJSON. Standorte werden über {@code standortId} oder den eindeutigen
+     * Namen in {@code standort} zugeordnet; die Antwort enthält die abgelehnten Zeilen mit Begründung.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public StammdatenImport.ImportErgebnis importFahrzeuge(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                           InputStream eingabe) throws IOException {
+        StammdatenImport.ImportErgebnis ergebnis = stammdatenImport.fahrzeuge(eingabe, StammdatenImport.Format.aus(contentType));
+        if (ergebnis.angelegt() > 0) {
+            belegungsplan.fahrzeugeImportiert();
+            fahrzeugKatalog.laden();
+            liveAenderungen.neuLaden(Fahrzeug.class);
+        }
+        return ergebnis;
+    }
+
+    /**
+     * Ersetzt das Fahrzeug; Versionsprüfung wie bei {@code PATCH}, siehe {@link Teilaenderungen#versionPruefen}.
+     */
     @PutMapping("/{id}")
-    public ResponseEntity updateFahrzeug(@PathVariable Long id, @RequestBody Fahrzeug fahrzeug) {
-        Fahrzeug currentFahrzeug = fahrzeugRepository.findById(id).orElseThrow(RuntimeException::new);
-        currentFahrzeug.setMarke(fahrzeug.getMarke());
-        currentFahrzeug.setModell(fahrzeug.getModell());
-        currentFahrzeug.setTyp(fahrzeug.getTyp());
-        currentFahrzeug.setBaujahr(fahrzeug.getBaujahr());
-        currentFahrzeug.setFarbe(fahrzeug.getFarbe());
-        currentFahrzeug.setStandort(fahrzeug.getStandort());
-        currentFahrzeug = fahrzeugRepository.save(currentFahrzeug);
+    public ResponseEntity updateFahrzeug(@PathVariable Long id, @RequestBody Fahrzeug fahrzeug,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return teilaenderungen.einmal(() -> {
+            Fahrzeug currentFahrzeug = fahrzeugRepository.findById(id).orElseThrow(RuntimeException::new);
+            teilaenderungen.versionPruefen(currentFahrzeug, Fahrzeug::getVersion, fahrzeug.getVersion(), ifMatch);
+            currentFahrzeug.setMarke(fahrzeug.getMarke());
+            currentFahrzeug.setModell(fahrzeug.getModell());
+            currentFahrzeug.setTyp(fahrzeug.getTyp());
+            currentFahrzeug.setBaujahr(fahrzeug.getBaujahr());
+            currentFahrzeug.setFarbe(fahrzeug.getFarbe());
+            currentFahrzeug.setStandort(fahrzeug.getStandort());
+            Fahrzeug gespeichert = fahrzeugRepository.saveAndFlush(currentFahrzeug);
+            teilaenderungen.nachCommit(() -> {
+                dashboardStatistik.fahrzeugGespeichert(gespeichert);
+                belegungsplan.fahrzeugGespeichert(gespeichert);
+                fahrzeugKatalog.gespeichert(gespeichert);
+                stammdatenCache.fahrzeugGeaendert(id);
+                liveAenderungen.geaendert(Fahrzeug.class, id, gespeichert);
+            });
+            return ResponseEntity.ok(gespeichert);
+        });
+    }
 
-        return ResponseEntity.ok(currentFahrzeug);
+    /**
+     * Ändert nur die übergebenen Felder, siehe {@link Teilaenderungen}.
+     */
+    @PatchMapping(value = "/{id}", consumes = {Teilaenderungen.MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity patchFahrzeug(@PathVariable Long id, @RequestBody JsonNode patch,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return teilaenderungen.wiederholen(patch, ifMatch, Set.of(), () -> {
+            Fahrzeug fahrzeug = fahrzeugRepository.findById(id).orElseThrow(RuntimeException::new);
+            teilaenderungen.anwenden(fahrzeug, Fahrzeug::getVersion, patch, ifMatch, PATCHBAR);
+            Fahrzeug gespeichert = fahrzeugRepository.saveAndFlush(fahrzeug);
+            teilaenderungen.nachCommit(() -> {
+                dashboardStatistik.fahrzeugGespeichert(gespeichert);
+                belegungsplan.fahrzeugGespeichert(gespeichert);
+                fahrzeugKatalog.gespeichert(gespeichert);
+                stammdatenCache.fahrzeugGeaendert(id);
+                liveAenderungen.geaendert(Fahrzeug.class, id, gespeichert);
+            });
+            return ResponseEntity.ok(gespeichert);
+        });
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity deleteFahrzeug(@PathVariable Long id) {
         fahrzeugRepository.deleteById(id);
+        dashboardStatistik.fahrzeugGeloescht(id);
+        belegungsplan.fahrzeugGeloescht(id);
+        fahrzeugKatalog.geloescht(id);
+        stammdatenCache.fahrzeugGeaendert(id);
+        liveAenderungen.geloescht(Fahrzeug.class, id);
         return ResponseEntity.ok().build();
     }
+
+    public record Filter(String marke, String typ, Long standortId) {
+
+        Specification<Fahrzeug> alsSpecification() {
+            Specification<Fahrzeug> filter = Specification.where(null);
+            if (marke != null) {
+                filter = filter.and((root, query, cb) -> cb.equal(root.get("marke"), marke));
+            }
+            if (typ != null) {
+                filter = filter.and((root, query, cb) -> cb.equal(root.get("typ"), typ));
+            }
+            if (standortId != null) {
+                filter = filter.and((root, query, cb) -> cb.equal(root.get("standort").get("id"), standortId));
+            }
+            return filter;
+        }
+    }
 }
@@ -2,29 +2,82 @@ package com.WheelsConnect.controller;
 
 import com.WheelsConnect.model.Kunde;
 import com.WheelsConnect.repository.KundeRepository;
+import com.WheelsConnect.service.DashboardStatistik;
+import com.WheelsConnect.service.KundenSuche;
+import com.WheelsConnect.service.LiveAenderungen;
+import com.WheelsConnect.service.StammdatenImport;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/kunden")
 public class KundeController {
 
+    private static final Set<String> SORTIERBAR = Set.of("vorname", "nachname", "geburtsdatum", "stadt", "plz", "land", "email");
+    private static final Set<String> PATCHBAR = Set.of("vorname", "nachname", "geburtsdatum", "adresse", "stadt", "plz", "land",
+            "telefonnummer", "email");
+
     private final KundeRepository kundeRepository;
+    private final ListenAntworten listenAntworten;
+    private final DashboardStatistik dashboardStatistik;
+    private final StammdatenImport stammdatenImport;
+    private final LiveAenderungen liveAenderungen;
+    private final KundenSuche kundenSuche;
+    private final Teilaenderungen teilaenderungen;
 
-    public KundeController(KundeRepository kundeRepository) {
+    public KundeController(KundeRepository kundeRepository, ListenAntworten listenAntworten, DashboardStatistik dashboardStatistik,
+                           StammdatenImport stammdatenImport, LiveAenderungen liveAenderungen, KundenSuche kundenSuche,
+                           Teilaenderungen teilaenderungen) {
         this.kundeRepository = kundeRepository;
+        this.listenAntworten = listenAntworten;
+        this.dashboardStatistik = dashboardStatistik;
+        this.stammdatenImport = stammdatenImport;
+        this.liveAenderungen = liveAenderungen;
+        this.kundenSuche = kundenSuche;
+        this.teilaenderungen = teilaenderungen;
     }
 
     @GetMapping
+    @Bedingt(Kunde.class)
     public List<Kunde> getKunden() {
         return kundeRepository.findAll();
     }
 
+    @GetMapping(params = "limit")
+    @Bedingt(Kunde.class)
+    public ResponseEntity<List<Kunde>> getKundenSeite(@RequestParam(required = false) String after, @RequestParam int limit,
+                                                      @RequestParam(required = false) String sort, Filter filter) {
+        return listenAntworten.seite(Kunde.class, filter.alsSpecification(), sort, SORTIERBAR, new String[0], after, limit);
+    }
+
+    @GetMapping(params = {"stream=true", "!limit"})
+    @Bedingt(Kunde.class)
+    public ResponseEntity<StreamingResponseBody> streamKunden(@RequestParam(required = false) String sort, Filter filter) {
+        return listenAntworten.stream(Kunde.class, filter.alsSpecification(), sort, SORTIERBAR, new String[0]);
+    }
+
+    /**
+     * Typeahead über Vorname, Nachname, E-Mail, Telefonnummer und PLZ aus dem Suchindex im Speicher, ohne Datenbankzugriff.
+     */
+    @GetMapping("/search")
+    public List<KundenSuche.Treffer> suchen(@RequestParam String q, @RequestParam(defaultValue = "10") int limit) {
+        return kundenSuche.suchen(q, Math.min(Math.max(limit, 1), KundenSuche.MAX_TREFFER));
+    }
+
     @GetMapping("/{id}")
+    @Bedingt(eintrag = KundeRepository.class)
     public Kunde getKunde(@PathVariable Long id) {
         return kundeRepository.findById(id).orElseThrow(RuntimeException::new);
     }
@@ -32,29 +85,97 @@ public class KundeController {
     @PostMapping
     public ResponseEntity createKunde(@RequestBody Kunde kunde) throws URISyntaxException {
         Kunde savedKunde = kundeRepository.save(kunde);
+        dashboardStatistik.kundeAngelegt();
+        kundenSuche.gespeichert(savedKunde);
+        liveAenderungen.angelegt(Kunde.class, savedKunde.getId(), savedKunde);
         return ResponseEntity.created(new URI("/kunden/" + savedKunde.getId())).body(savedKunde);
     }
 
+    /**
+     * Massenimport als CSV mit Kopfzeile oder NDJSON; die Antwort enthält die abgelehnten Zeilen mit Begründung.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public StammdatenImport.ImportErgebnis importKunden(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                        InputStream eingabe) throws IOException {
+        StammdatenImport.ImportErgebnis ergebnis = stammdatenImport.kunden(eingabe, StammdatenImport.Format.aus(contentType));
+        if (ergebnis.angelegt() > 0) {
+            kundenSuche.laden();
+            liveAenderungen.neuLaden(Kunde.class);
+        }
+        return ergebnis;
+    }
+
+    /**
+     * Ersetzt den Kunden; Versionsprüfung wie bei {@code PATCH}, siehe {@link Teilaenderungen#versionPruefen}.
+     */
     @PutMapping("/{id}")
-    public ResponseEntity updateKunde(@PathVariable Long id, @RequestBody Kunde kunde) {
-        Kunde currentKunde = kundeRepository.findById(id).orElseThrow(RuntimeException::new);
-        currentKunde.setVorname(kunde.getVorname());
-        currentKunde.setNachname(kunde.getNachname());
-        currentKunde.setGeburtsdatum(kunde.getGeburtsdatum());
-        currentKunde.setAdresse(kunde.getAdresse());
-        currentKunde.setStadt(kunde.getStadt());
-        currentKunde.setPlz(kunde.getPlz());
-        currentKunde.setLand(kunde.getLand());
-        currentKunde.setTelefonnummer(kunde.getTelefonnummer());
-        currentKunde.setEmail(kunde.getEmail());
-        currentKunde = kundeRepository.save(currentKunde);
-
-        return ResponseEntity.ok(currentKunde);
+    public ResponseEntity updateKunde(@PathVariable Long id, @RequestBody Kunde kunde,
+                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return teilaenderungen.einmal(() -> {
+            Kunde currentKunde = kundeRepository.findById(id).orElseThrow(RuntimeException::new);
+            teilaenderungen.versionPruefen(currentKunde, Kunde::getVersion, kunde.getVersion(), ifMatch);
+            currentKunde.setVorname(kunde.getVorname());
+            currentKunde.setNachname(kunde.getNachname());
+            currentKunde.setGeburtsdatum(kunde.getGeburtsdatum());
+            currentKunde.setAdresse(kunde.getAdresse());
+            currentKunde.setStadt(kunde.getStadt());
+            currentKunde.setPlz(kunde.getPlz());
+            currentKunde.setLand(kunde.getLand());
+            currentKunde.setTelefonnummer(kunde.getTelefonnummer());
+            currentKunde.setEmail(kunde.getEmail());
+            Kunde gespeichert = kundeRepository.saveAndFlush(currentKunde);
+            teilaenderungen.nachCommit(() -> {
+                kundenSuche.gespeichert(gespeichert);
+                liveAenderungen.geaendert(Kunde.class, id, gespeichert);
+            });
+            return ResponseEntity.ok(gespeichert);
+        });
+    }
+
+    /**
+     * Ändert nur die übergebenen Felder, siehe {@link Teilaenderungen}.
+     */
+    @PatchMapping(value = "/{id}", consumes = {Teilaenderungen.MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity patchKunde(@PathVariable Long id, @RequestBody JsonNode patch,
+                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return teilaenderungen.wiederholen(patch, ifMatch, Set.of(), () -> {
+            Kunde kunde = kundeRepository.findById(id).orElseThrow(RuntimeException::new);
+            teilaenderungen.anwenden(kunde, Kunde::getVersion, patch, ifMatch, PATCHBAR);
+            Kunde gespeichert = kundeRepository.saveAndFlush(kunde);
+            teilaenderungen.nachCommit(() -> {
+                kundenSuche.gespeichert(gespeichert);
+                liveAenderungen.geaendert(Kunde.class, id, gespeichert);
+            });
+            return ResponseEntity.ok(gespeichert);
+        });
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity deleteKunde(@PathVariable Long id) {
         kundeRepository.deleteById(id);
+        dashboardStatistik.kundeGeloescht();
+        kundenSuche.geloescht(id);
+        liveAenderungen.geloescht(Kunde.class, id);
         return ResponseEntity.ok().build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Optionale Filter der Listen-Endpunkte; {@code nachname} wird als Präfix gesucht.
+     */
+    public record Filter(String nachname, String stadt, String plz) {
+
+        Specification<Kunde> alsSpecification() {
+            Specification<Kunde> filter = Specification.where(null);
+            if (nachname != null) {
+                filter = filter.and((root, query, cb) -> cb.like(root.get("nachname"), nachname + "%"));
+            }
+            if (stadt != null) {
+                filter = filter.and((root, query, cb) -> cb.equal(root.get("stadt"), stadt));
+            }
+            if (plz != null) {
+                filter = filter.and((root, query, cb) -> cb.equal(root.get("plz"), plz));
+            }
+            return filter;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.WheelsConnect.controller;
+
+import com.WheelsConnect.repository.KeysetAbfrage;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Gemeinsame Umsetzung der Listen-Endpunkte: Keyset-Seiten mit dem Cursor der nächsten Seite im Header
+ * {@value #NAECHSTE_SEITE} und JSON-Arrays, die Zeile für Zeile aus der Datenbank in die Antwort geschrieben werden.
+ */
+@Component
+public class ListenAntworten {
+
+    public static final String NAECHSTE_SEITE = "X-Next-After";
+    public static final int MAX_LIMIT = 1000;
+
+    private final KeysetAbfrage keysetAbfrage;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter zeilenWriter;
+
+    public ListenAntworten(KeysetAbfrage keysetAbfrage, ObjectMapper objectMapper) {
+        this.keysetAbfrage = keysetAbfrage;
+        this.objectMapper = objectMapper;
+        // nicht nach jeder Zeile flushen, der Generator puffert selbst
+        this.zeilenWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public <T> ResponseEntity<List<T>> seite(Class<T> typ, Specification<T> filter, String sort, Set<String> sortierbar,
+                                             String[] zuordnungen, String after, int limit) {
+        Sortierung sortierung = Sortierung.parse(sort, sortierbar);
+        int begrenzt = Math.max(1, Math.min(limit, MAX_LIMIT));
+        List<T> zeilen;
+        try {
+            zeilen = keysetAbfrage.seite(typ, filter, sortierung.feld(), sortierung.absteigend(), after, begrenzt, zuordnungen);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        ResponseEntity.BodyBuilder antwort = ResponseEntity.ok();
+        if (zeilen.size() == begrenzt) {
+            antwort.header(NAECHSTE_SEITE, keysetAbfrage.cursor(zeilen.get(zeilen.size() - 1), sortierung.feld()));
+        }
+        return antwort.body(zeilen);
+    }
+
+    public <T> ResponseEntity<StreamingResponseBody> stream(Class<T> typ, Specification<T> filter, String sort, Set<String> sortierbar,
+                                                            String[] zuordnungen) {
+        Sortierung sortierung = Sortierung.parse(sort, sortierbar);
+        StreamingResponseBody body = ausgabe -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(ausgabe)) {
+                generator.writeStartArray();
+                keysetAbfrage.streamen(typ, filter, sortierung.feld(), sortierung.absteigend(), zeile -> {
+                    try {
+                        zeilenWriter.writeValue(generator, zeile);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, zuordnungen);
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Sortierung im Format {@code feld} oder {@code feld,desc}; nur freigegebene Felder sind erlaubt.
+     */
+    record Sortierung(String feld, boolean absteigend) {
+
+        static Sortierung parse(String sort, Set<String> sortierbar) {
+            if (sort == null || sort.isBlank()) {
+                return new Sortierung("id", false);
+            }
+            String[] teile = sort.split(",");
+            String feld = teile[0].trim();
+            if (!"id".equals(feld) && !sortierbar.contains(feld)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Nach '" + feld + "' kann nicht sortiert werden");
+            }
+            return new Sortierung(feld, teile.length > 1 && "desc".equalsIgnoreCase(teile[1].trim()));
+        }
+    }
+}
@@ -2,53 +2,142 @@ package com.WheelsConnect.controller;
 
 import com.WheelsConnect.model.Standort;
 import com.WheelsConnect.repository.StandortRepository;
+import com.WheelsConnect.service.DashboardStatistik;
+import com.WheelsConnect.service.LiveAenderungen;
+import com.WheelsConnect.service.StammdatenCache;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/standorte")
 public class StandortController {
 
+    private static final Set<String> SORTIERBAR = Set.of("name", "kapazitaet", "stadt", "plz", "land");
+    private static final Set<String> PATCHBAR = Set.of("name", "kapazitaet", "adresse", "stadt", "plz", "land",
+            "telefonnummer", "oeffnungszeiten");
+
     private final StandortRepository standortRepository;
+    private final ListenAntworten listenAntworten;
+    private final DashboardStatistik dashboardStatistik;
+    private final StammdatenCache stammdatenCache;
+    private final LiveAenderungen liveAenderungen;
+    private final Teilaenderungen teilaenderungen;
 
-    public StandortController(StandortRepository standortRepository) {
+    public StandortController(StandortRepository standortRepository, ListenAntworten listenAntworten, DashboardStatistik dashboardStatistik,
+                              StammdatenCache stammdatenCache, LiveAenderungen liveAenderungen, Teilaenderungen teilaenderungen) {
         this.standortRepository = standortRepository;
+        this.listenAntworten = listenAntworten;
+        this.dashboardStatistik = dashboardStatistik;
+        this.stammdatenCache = stammdatenCache;
+        this.liveAenderungen = liveAenderungen;
+        this.teilaenderungen = teilaenderungen;
     }
 
     @GetMapping
+    @Bedingt(Standort.class)
     public List<Standort> getStandorte() {
-        return standortRepository.findAll();
+        return stammdatenCache.standorte();
+    }
+
+    @GetMapping(params = "limit")
+    @Bedingt(Standort.class)
+    public ResponseEntity<List<Standort>> getStandorteSeite(@RequestParam(required = false) String after, @RequestParam int limit,
+                                                            @RequestParam(required = false) String sort, Filter filter) {
+        return listenAntworten.seite(Standort.class, filter.alsSpecification(), sort, SORTIERBAR, new String[0], after, limit);
+    }
+
+    @GetMapping(params = {"stream=true", "!limit"})
+    @Bedingt(Standort.class)
+    public ResponseEntity<StreamingResponseBody> streamStandorte(@RequestParam(required = false) String sort, Filter filter) {
+        return listenAntworten.stream(Standort.class, filter.alsSpecification(), sort, SORTIERBAR, new String[0]);
     }
 
     @GetMapping("/{id}")
+    @Bedingt(eintrag = StandortRepository.class)
     public Standort getStandort(@PathVariable Long id) {
-        return standortRepository.findById(id).orElseThrow(RuntimeException::new);
+        return stammdatenCache.standort(id).orElseThrow(RuntimeException::new);
     }
 
     @PostMapping
     public ResponseEntity createStandort(@RequestBody Standort standort) throws URISyntaxException {
         Standort savedStandort = standortRepository.save(standort);
+        dashboardStatistik.standortGespeichert(savedStandort);
+        stammdatenCache.standortGeaendert(savedStandort.getId());
+        liveAenderungen.angelegt(Standort.class, savedStandort.getId(), savedStandort);
         return ResponseEntity.created(new URI("/standorte/" + savedStandort.getId())).body(savedStandort);
     }
 
+    /**
+     * Ersetzt Name und Adresse; Versionsprüfung wie bei {@code PATCH}, siehe {@link Teilaenderungen#versionPruefen}.
+     */
     @PutMapping("/{id}")
-    public ResponseEntity updateStandort(@PathVariable Long id, @RequestBody Standort standort) {
-        Standort currentStandort = standortRepository.findById(id).orElseThrow(RuntimeException::new);
-        currentStandort.setName(standort.getName());
-        currentStandort.setAdresse(standort.getAdresse());
-        currentStandort = standortRepository.save(currentStandort);
+    public ResponseEntity updateStandort(@PathVariable Long id, @RequestBody Standort standort,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return teilaenderungen.einmal(() -> {
+            Standort currentStandort = standortRepository.findById(id).orElseThrow(RuntimeException::new);
+            teilaenderungen.versionPruefen(currentStandort, Standort::getVersion, standort.getVersion(), ifMatch);
+            currentStandort.setName(standort.getName());
+            currentStandort.setAdresse(standort.getAdresse());
+            Standort gespeichert = standortRepository.saveAndFlush(currentStandort);
+            teilaenderungen.nachCommit(() -> {
+                dashboardStatistik.standortGespeichert(gespeichert);
+                stammdatenCache.standortGeaendert(id);
+                liveAenderungen.geaendert(Standort.class, id, gespeichert);
+            });
+            return ResponseEntity.ok(gespeichert);
+        });
+    }
 
-        return ResponseEntity.ok(currentStandort);
+    /**
+     * Ändert nur die übergebenen Felder, siehe {@link Teilaenderungen}.
+     */
+    @PatchMapping(value = "/{id}", consumes = {Teilaenderungen.MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity patchStandort(@PathVariable Long id, @RequestBody JsonNode patch,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return teilaenderungen.wiederholen(patch, ifMatch, Set.of(), () -> {
+            Standort standort = standortRepository.findById(id).orElseThrow(RuntimeException::new);
+            teilaenderungen.anwenden(standort, Standort::getVersion, patch, ifMatch, PATCHBAR);
+            Standort gespeichert = standortRepository.saveAndFlush(standort);
+            teilaenderungen.nachCommit(() -> {
+                dashboardStatistik.standortGespeichert(gespeichert);
+                stammdatenCache.standortGeaendert(id);
+                liveAenderungen.geaendert(Standort.class, id, gespeichert);
+            });
+            return ResponseEntity.ok(gespeichert);
+        });
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity deleteStandort(@PathVariable Long id) {
         standortRepository.deleteById(id);
+        dashboardStatistik.standortGeloescht(id);
+        stammdatenCache.standortGeaendert(id);
+        liveAenderungen.geloescht(Standort.class, id);
         return ResponseEntity.ok().build();
     }
+
+    public record Filter(String stadt, String land) {
+
+        Specification<Standort> alsSpecification() {
+            Specification<Standort> filter = Specification.where(null);
+            if (stadt != null) {
+                filter = filter.and((root, query, cb) -> cb.equal(root.get("stadt"), stadt));
+            }
+            if (land != null) {
+                filter = filter.and((root, query, cb) -> cb.equal(root.get("land"), land));
+            }
+            return filter;
+        }
+    }
 }
@@ -0,0 +1,241 @@
+package com.WheelsConnect.controller;
+
+import com.WheelsConnect.service.FahrzeugSperren;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Gemeinsame Umsetzung der PATCH-Endpunkte nach JSON Merge Patch (RFC 7396): nur die übergebenen Felder werden
+ * geändert, {@code null} leert ein Feld, Zuordnungen werden als {@code {"id": ...}} angegeben. Laden, Ändern und
+ * Speichern laufen in einer Transaktion; da der Eintrag dabei verwaltet bleibt und die Entitäten
+ * {@code @DynamicUpdate} tragen, schreibt Hibernate nur die geänderten Spalten.
+ * <p>
+ * Die erwartete Version kommt aus {@code If-Match} (der ETag von {@code GET /{id}}, dessen erste Zahl die Version des
+ * Eintrags ist) oder aus dem Feld {@code version}. Weicht sie ab oder ändert jemand den Eintrag zwischen Laden und
+ * Speichern, antwortet der Endpunkt mit 409. {@code PUT} prüft die Version genauso ({@link #einmal},
+ * {@link #versionPruefen}).
+ * <p>
+ * Index, Statistik, Caches und Live-Meldungen folgen erst nach dem Commit ({@link #nachCommit}), Fahrzeugsperren
+ * werden erst danach freigegeben ({@link #bisZumAbschluss}); so sieht kein anderer Schreiber einen Stand, der noch
+ * zurückgerollt werden kann. Genommen werden die Sperren erst in der Transaktion, die ihre Verbindung dann schon hat:
+ * Wer auf eine Sperre wartet, hält höchstens eine Verbindung, und wer eine Sperre hält, wartet auf keine mehr.
+ */
+@Component
+public class Teilaenderungen {
+
+    public static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+    public static final int MAX_VERSUCHE = 3;
+
+    private static final String VERSION = "version";
+
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    public Teilaenderungen(ObjectMapper objectMapper, EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Führt {@code versuch} in einer Transaktion aus, die bei einer Antwort außerhalb von 2xx zurückgerollt wird.
+     * Bei einem Versionskonflikt antwortet der Endpunkt mit 409. Ändert der Patch nur Felder aus {@code vertauschbar}
+     * und nennt er keine erwartete Version, hängt er nicht vom übrigen Stand ab; dann wird der Versuch mit frisch
+     * geladenem Eintrag bis zu {@value #MAX_VERSUCHE}-mal wiederholt.
+     */
+    public <R> R wiederholen(JsonNode patch, String ifMatch, Set<String> vertauschbar, Supplier<R> versuch) {
+        return ausfuehren(erwarteteVersion(patch, ifMatch) == null && nurFelder(patch, vertauschbar), versuch);
+    }
+
+    /**
+     * Wie {@link #wiederholen}, aber ohne Wiederholung: für {@code PUT}, dessen Körper alle Felder ersetzt, und zum
+     * Anlegen von Buchungen unter der Fahrzeugsperre.
+     */
+    public <R> R einmal(Supplier<R> versuch) {
+        return ausfuehren(false, versuch);
+    }
+
+    private <R> R ausfuehren(boolean wiederholbar, Supplier<R> versuch) {
+        for (int nummer = 1; ; nummer++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    R ergebnis = versuch.get();
+                    if (ergebnis instanceof ResponseEntity<?> antwort && !antwort.getStatusCode().is2xxSuccessful()) {
+                        status.setRollbackOnly();
+                    }
+                    return ergebnis;
+                });
+            } catch (OptimisticLockingFailureException e) {
+                if (!wiederholbar || nummer >= MAX_VERSUCHE) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT, "Der Eintrag wurde inzwischen geändert, bitte neu laden");
+                }
+            }
+        }
+    }
+
+    /**
+     * Führt {@code aktion} nach dem Commit der laufenden Transaktion aus; nach einem Rollback entfällt sie.
+     */
+    public void nachCommit(Runnable aktion) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                aktion.run();
+            }
+        });
+    }
+
+    /**
+     * Gibt {@code sperre} erst frei, wenn die laufende Transaktion abgeschlossen ist und alle {@link #nachCommit}-Aktionen
+     * gelaufen sind.
+     */
+    public void bisZumAbschluss(FahrzeugSperren.Sperre sperre) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                sperre.close();
+            }
+        });
+    }
+
+    /**
+     * Für {@code PUT}: erwartet wird die Version aus {@code If-Match}, sonst die aus dem Körper ({@code koerperVersion});
+     * ohne beide wird nicht geprüft.
+     */
+    public <T> void versionPruefen(T eintrag, Function<T, Long> version, Long koerperVersion, String ifMatch) {
+        Long erwartet = ausIfMatch(ifMatch);
+        vergleichen(eintrag, version, erwartet != null ? erwartet : koerperVersion);
+    }
+
+    /**
+     * Prüft die erwartete Version und wendet den Patch auf den in dieser Transaktion geladenen {@code eintrag} an.
+     * Felder außerhalb von {@code felder} werden mit 400 abgelehnt.
+     */
+    public <T> T anwenden(T eintrag, Function<T, Long> version, JsonNode patch, String ifMatch, Set<String> felder) {
+        pruefen(patch, felder);
+        vergleichen(eintrag, version, erwarteteVersion(patch, ifMatch));
+
+        ObjectNode aenderung = ((ObjectNode) patch).deepCopy();
+        aenderung.remove(VERSION);
+        // Zuordnungen auf die verwalteten Einträge setzen, Jackson würde nur leere Objekte mit der Id anlegen
+        BeanWrapper felderVon = PropertyAccessorFactory.forBeanPropertyAccess(eintrag);
+        for (SingularAttribute<?, ?> attribut : entityManager.getMetamodel().entity(eintrag.getClass()).getSingularAttributes()) {
+            if (attribut.getPersistentAttributeType() == Attribute.PersistentAttributeType.MANY_TO_ONE && aenderung.has(attribut.getName())) {
+                felderVon.setPropertyValue(attribut.getName(), zuordnung(attribut, aenderung.remove(attribut.getName())));
+            }
+        }
+
+        try {
+            return objectMapper.readerForUpdating(eintrag).readValue(aenderung);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Ungültiger Patch: " + e.getMessage());
+        }
+    }
+
+    private static <T> void vergleichen(T eintrag, Function<T, Long> version, Long erwartet) {
+        if (erwartet != null && !erwartet.equals(version.apply(eintrag))) {
+            throw new OptimisticLockingFailureException("Erwartet Version " + erwartet + ", aktuell " + version.apply(eintrag));
+        }
+    }
+
+    private Object zuordnung(SingularAttribute<?, ?> attribut, JsonNode wert) {
+        if (wert.isNull()) {
+            return null;
+        }
+        if (!wert.path("id").canConvertToLong()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'" + attribut.getName() + "' erwartet {\"id\": <Zahl>} oder null");
+        }
+        Object ziel = entityManager.find(attribut.getJavaType(), wert.get("id").asLong());
+        if (ziel == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, attribut.getJavaType().getSimpleName() + " " + wert.get("id").asLong() + " existiert nicht");
+        }
+        return ziel;
+    }
+
+    private static void pruefen(JsonNode patch, Set<String> felder) {
+        if (patch == null || !patch.isObject()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Erwartet wird ein JSON-Objekt");
+        }
+        for (Iterator<String> namen = patch.fieldNames(); namen.hasNext(); ) {
+            String name = namen.next();
+            if (!felder.contains(name) && !VERSION.equals(name)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Das Feld '" + name + "' kann nicht geändert werden");
+            }
+        }
+    }
+
+    private static boolean nurFelder(JsonNode patch, Set<String> vertauschbar) {
+        if (patch == null || !patch.isObject() || patch.isEmpty()) {
+            return false;
+        }
+        for (Iterator<String> namen = patch.fieldNames(); namen.hasNext(); ) {
+            if (!vertauschbar.contains(namen.next())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Aus {@code If-Match}, z.B. {@code "v3"} oder {@code "v3.7.1"}, sonst aus dem Feld {@code version};
+     * {@code null}, wenn keine Version erwartet wird.
+     */
+    private static Long erwarteteVersion(JsonNode patch, String ifMatch) {
+        Long erwartet = ausIfMatch(ifMatch);
+        if (erwartet != null || patch == null || !patch.has(VERSION)) {
+            return erwartet;
+        }
+        if (!patch.get(VERSION).canConvertToLong()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Die Version muss eine ganze Zahl sein");
+        }
+        return patch.get(VERSION).asLong();
+    }
+
+    /**
+     * Version aus dem ETag in {@code If-Match}; {@code null} ohne Header oder bei {@code *}.
+     */
+    private static Long ausIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String etag = ifMatch.trim();
+        if (etag.contains(",")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "If-Match darf nur einen ETag enthalten");
+        }
+        if (etag.startsWith("W/")) {
+            etag = etag.substring(2);
+        }
+        etag = etag.replace("\"", "");
+        if (etag.startsWith("v")) {
+            etag = etag.substring(1);
+        }
+        int punkt = etag.indexOf('.');
+        try {
+            return Long.valueOf(punkt < 0 ? etag : etag.substring(0, punkt));
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Ungültiger ETag in If-Match: " + ifMatch);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.WheelsConnect.controller;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Versionskonflikte außerhalb von {@link Teilaenderungen}, z.B. beim Löschen eines gerade geänderten Eintrags,
+ * ergeben 409 statt 500.
+ */
+@RestControllerAdvice
+public class Versionskonflikte {
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> konflikt(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("Der Eintrag wurde inzwischen geändert, bitte neu laden");
+    }
+}
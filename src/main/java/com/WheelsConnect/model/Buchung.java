@@ -1,12 +1,16 @@
 package com.WheelsConnect.model;
 
+import com.WheelsConnect.service.AenderungsListener;
 import jakarta.persistence.*;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
-
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
+@DynamicUpdate
+@EntityListeners(AenderungsListener.class)
 @NoArgsConstructor
 @Table(schema = "public")
 public class Buchung {
@@ -19,12 +23,17 @@ public class Buchung {
     private double gesamtpreis;
     private String buchungsstatus;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Kunde kunde;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Fahrzeug fahrzeug;
 
+    @Version
+    @Column(columnDefinition = "bigint default 0 not null")
+    private Long version;
+    private Instant geaendertAm;
+
     // Constructor
     public Buchung(LocalDate startdatum, LocalDate enddatum, double gesamtpreis, Kunde kunde, Fahrzeug fahrzeug) {
         this.startdatum = startdatum;
@@ -92,4 +101,22 @@ public class Buchung {
     public void setFahrzeug(Fahrzeug fahrzeug) {
         this.fahrzeug = fahrzeug;
     }
+
+    @PrePersist
+    @PreUpdate
+    void zeitstempeln() {
+        geaendertAm = Instant.now();
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getGeaendertAm() {
+        return geaendertAm;
+    }
 }
@@ -1,11 +1,19 @@
 package com.WheelsConnect.model;
 
+import com.WheelsConnect.service.AenderungsListener;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
+
+import java.time.Instant;
 
 
 @Entity
+@DynamicUpdate
+@EntityListeners(AenderungsListener.class)
 @NoArgsConstructor
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(schema = "public")
 public class Fahrzeug {
 
@@ -19,9 +27,14 @@ public class Fahrzeug {
     private String farbe;
     private Double preis;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Standort standort;
 
+    @Version
+    @Column(columnDefinition = "bigint default 0 not null")
+    private Long version;
+    private Instant geaendertAm;
+
     // Constructor
     public Fahrzeug(String marke, String modell, String typ, int baujahr, String farbe, Standort standort) {
         this.marke = marke;
@@ -98,4 +111,22 @@ public class Fahrzeug {
     public void setStandort(Standort standort) {
         this.standort = standort;
     }
+
+    @PrePersist
+    @PreUpdate
+    void zeitstempeln() {
+        geaendertAm = Instant.now();
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getGeaendertAm() {
+        return geaendertAm;
+    }
 }
@@ -1,14 +1,21 @@
 package com.WheelsConnect.model;
 
 
+import com.WheelsConnect.service.AenderungsListener;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 
 @Entity
+@DynamicUpdate
+@EntityListeners(AenderungsListener.class)
 @NoArgsConstructor
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(schema = "public")
 public class Kunde {
 
@@ -27,6 +34,11 @@ public class Kunde {
     private String telefonnummer;
     private String email;
 
+    @Version
+    @Column(columnDefinition = "bigint default 0 not null")
+    private Long version;
+    private Instant geaendertAm;
+
     public Kunde(Long id, String vorname, String nachname, LocalDate geburtsdatum, String adresse, String stadt, String plz, String land, String telefonnummer, String email) {
         this.id = id;
         this.vorname = vorname;
@@ -122,5 +134,22 @@ public class Kunde {
     public void setEmail(String email) {
         this.email = email;
     }
-}
 
+    @PrePersist
+    @PreUpdate
+    void zeitstempeln() {
+        geaendertAm = Instant.now();
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getGeaendertAm() {
+        return geaendertAm;
+    }
+}
@@ -1,11 +1,19 @@
 package com.WheelsConnect.model;
 
 
+import com.WheelsConnect.service.AenderungsListener;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
+
+import java.time.Instant;
 
 @Entity
+@DynamicUpdate
+@EntityListeners(AenderungsListener.class)
 @NoArgsConstructor
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(schema = "public")
 public class Standort {
 
@@ -21,6 +29,11 @@ public class Standort {
     private String telefonnummer;
     private String oeffnungszeiten;
 
+    @Version
+    @Column(columnDefinition = "bigint default 0 not null")
+    private Long version;
+    private Instant geaendertAm;
+
     // Constructor
 
     public Standort(String name, String adresse, String telefonnummer) {
@@ -104,4 +117,22 @@ public class Standort {
     public void setTelefonnummer(String telefonnummer) {
         this.telefonnummer = telefonnummer;
     }
+
+    @PrePersist
+    @PreUpdate
+    void zeitstempeln() {
+        geaendertAm = Instant.now();
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getGeaendertAm() {
+        return geaendertAm;
+    }
 }
@@ -0,0 +1,17 @@
+package com.WheelsConnect.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Projektion einer Buchung auf ihren Belegungszeitraum, ohne Kunde und Fahrzeug zu laden.
+ */
+public interface BuchungIntervall {
+
+    Long getId();
+
+    Long getFahrzeugId();
+
+    LocalDate getStartdatum();
+
+    LocalDate getEnddatum();
+}
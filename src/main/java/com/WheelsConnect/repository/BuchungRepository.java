@@ -2,13 +2,59 @@ package com.WheelsConnect.repository;
 
 
 import com.WheelsConnect.model.Buchung;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
+// nicht unter /api: Schreibzugriffe dort umgingen Konfliktprüfung, Preisberechnung und den BuchungIndex
 @Repository
-public interface BuchungRepository extends JpaRepository<Buchung, Long> {
-    List<Buchung> findByFahrzeugIdAndStartdatumLessThanEqualAndEnddatumGreaterThanEqual(Long fahrzeugId, LocalDate enddatum, LocalDate startdatum);
+@RepositoryRestResource(exported = false)
+public interface BuchungRepository extends JpaRepository<Buchung, Long>, VersionsAbfrage {
+
+    // Kunde und Fahrzeug samt Standort werden in derselben Abfrage geladen, da sie immer mit ausgeliefert werden
+    String[] MIT_ZUORDNUNGEN = {"kunde", "fahrzeug", "fahrzeug.standort"};
+
+    @Override
+    @EntityGraph(attributePaths = {"kunde", "fahrzeug", "fahrzeug.standort"})
+    List<Buchung> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"kunde", "fahrzeug", "fahrzeug.standort"})
+    Optional<Buchung> findById(Long id);
+
+    @Query("select b.id as id, b.fahrzeug.id as fahrzeugId, b.startdatum as startdatum, b.enddatum as enddatum from Buchung b " +
+            "where b.fahrzeug is not null and (b.buchungsstatus is null or b.buchungsstatus <> 'Storniert')")
+    List<BuchungIntervall> findAktiveIntervalle();
+
+    @Query("select year(b.startdatum) as jahr, month(b.startdatum) as monat, count(b) as anzahl from Buchung b " +
+            "where b.startdatum is not null group by year(b.startdatum), month(b.startdatum)")
+    List<AnzahlJeMonat> countJeMonat();
+
+    @Query("select b.fahrzeug.id as fahrzeugId, count(b) as anzahl from Buchung b where b.fahrzeug is not null group by b.fahrzeug.id")
+    List<AnzahlJeFahrzeug> countJeFahrzeug();
+
+    @Override
+    @Query("select b.version, b.geaendertAm, k.version, k.geaendertAm, f.version, f.geaendertAm, s.version, s.geaendertAm " +
+            "from Buchung b left join b.kunde k left join b.fahrzeug f left join f.standort s where b.id = :id")
+    List<Object[]> findVersionsstand(@Param("id") Long id);
+
+    interface AnzahlJeMonat {
+        Integer getJahr();
+
+        Integer getMonat();
+
+        Long getAnzahl();
+    }
+
+    interface AnzahlJeFahrzeug {
+        Long getFahrzeugId();
+
+        Long getAnzahl();
+    }
 }
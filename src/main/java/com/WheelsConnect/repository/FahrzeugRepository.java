@@ -2,9 +2,42 @@ package com.WheelsConnect.repository;
 
 
 import com.WheelsConnect.model.Fahrzeug;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
+// nicht unter /api, Änderungen müssen Cache, Katalog und Belegungsplan erreichen
 @Repository
-public interface FahrzeugRepository extends JpaRepository<Fahrzeug, Long> {
+@RepositoryRestResource(exported = false)
+public interface FahrzeugRepository extends JpaRepository<Fahrzeug, Long>, VersionsAbfrage {
+
+    String[] MIT_ZUORDNUNGEN = {"standort"};
+
+    @Override
+    @EntityGraph(attributePaths = "standort")
+    List<Fahrzeug> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "standort")
+    Optional<Fahrzeug> findById(Long id);
+
+    @EntityGraph(attributePaths = "standort")
+    @Query("select f from Fahrzeug f where (:standortId is null or f.standort.id = :standortId) " +
+            "and (:typ is null or f.typ = :typ) and (:marke is null or f.marke = :marke) " +
+            "and (:maxPreis is null or f.preis <= :maxPreis)")
+    List<Fahrzeug> findByFilter(@Param("standortId") Long standortId, @Param("typ") String typ,
+                                @Param("marke") String marke, @Param("maxPreis") Double maxPreis);
+
+    @Query("select f.id as id, f.marke as marke, f.modell as modell, f.preis as preis, f.standort.id as standortId from Fahrzeug f")
+    List<FahrzeugStammdaten> findAllStammdaten();
+
+    @Override
+    @Query("select f.version, f.geaendertAm, s.version, s.geaendertAm from Fahrzeug f left join f.standort s where f.id = :id")
+    List<Object[]> findVersionsstand(@Param("id") Long id);
 }
@@ -0,0 +1,17 @@
+package com.WheelsConnect.repository;
+
+/**
+ * Projektion eines Fahrzeugs auf die Felder, die für Kennzahlen und Preise gebraucht werden.
+ */
+public interface FahrzeugStammdaten {
+
+    Long getId();
+
+    String getMarke();
+
+    String getModell();
+
+    Double getPreis();
+
+    Long getStandortId();
+}
@@ -0,0 +1,203 @@
+package com.WheelsConnect.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.FetchParent;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Listenabfragen mit Keyset-Paginierung ({@code after}/{@code limit}) und als Stream mit fester Fetch-Size.
+ * Sortiert wird immer nach dem gewählten Feld und danach nach der Id, damit der Cursor eindeutig ist; er enthält
+ * beides und bleibt gültig, wenn die Zeile inzwischen gelöscht oder geändert wurde.
+ * Null-Werte stehen wie bei MySQL aufsteigend vorne und absteigend hinten. Die übergebenen Zuordnungen
+ * (z.B. {@code "fahrzeug.standort"}) werden per Fetch-Join in derselben Abfrage geladen.
+ */
+@Component
+public class KeysetAbfrage {
+
+    public static final int FETCH_SIZE = 500;
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    public KeysetAbfrage(EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public <T> List<T> seite(Class<T> typ, Specification<T> filter, String sortFeld, boolean absteigend, String after, int limit,
+                             String... zuordnungen) {
+        return transactionTemplate.execute(status -> abfrage(typ, filter, sortFeld, absteigend, after, zuordnungen)
+                .setMaxResults(limit)
+                .getResultList());
+    }
+
+    /**
+     * Cursor für die Seite nach {@code zeile}: bei Sortierung nach Id die Id, sonst Base64url von {@code id} (Sortwert
+     * {@code null}) bzw. {@code id:sortwert}.
+     */
+    public String cursor(Object zeile, String sortFeld) {
+        Object id = entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(zeile);
+        if ("id".equals(sortFeld)) {
+            return String.valueOf(id);
+        }
+        Object wert = PropertyAccessorFactory.forBeanPropertyAccess(zeile).getPropertyValue(sortFeld);
+        String text = wert == null ? String.valueOf(id) : id + ":" + wert;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reicht alle Treffer nacheinander an den Verbraucher weiter. Der Persistenzkontext wird regelmäßig geleert,
+     * damit der Speicherverbrauch unabhängig von der Tabellengröße bleibt.
+     */
+    public <T> void streamen(Class<T> typ, Specification<T> filter, String sortFeld, boolean absteigend, Consumer<T> verbraucher,
+                             String... zuordnungen) {
+        transactionTemplate.executeWithoutResult(status -> {
+            TypedQuery<T> query = abfrage(typ, filter, sortFeld, absteigend, null, zuordnungen)
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                    .setHint(HibernateHints.HINT_READ_ONLY, true);
+            try (Stream<T> zeilen = query.getResultStream()) {
+                Iterator<T> iterator = zeilen.iterator();
+                int anzahl = 0;
+                while (iterator.hasNext()) {
+                    verbraucher.accept(iterator.next());
+                    if (++anzahl % FETCH_SIZE == 0) {
+                        entityManager.clear();
+                    }
+                }
+            }
+        });
+    }
+
+    private <T> TypedQuery<T> abfrage(Class<T> typ, Specification<T> filter, String sortFeld, boolean absteigend, String after,
+                                      String[] zuordnungen) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(typ);
+        Root<T> root = query.from(typ);
+        fetchJoins(root, zuordnungen);
+
+        List<Predicate> bedingungen = new ArrayList<>();
+        if (filter != null) {
+            Predicate predicate = filter.toPredicate(root, query, cb);
+            if (predicate != null) {
+                bedingungen.add(predicate);
+            }
+        }
+        if (after != null && !after.isBlank()) {
+            bedingungen.add(nachCursor(cb, root, typ, sortFeld, absteigend, after));
+        }
+
+        Path<?> feld = root.get(sortFeld);
+        Path<?> id = root.get("id");
+        query.select(root)
+                .where(bedingungen.toArray(new Predicate[0]))
+                .orderBy(absteigend ? cb.desc(feld) : cb.asc(feld), absteigend ? cb.desc(id) : cb.asc(id));
+        return entityManager.createQuery(query);
+    }
+
+    private static void fetchJoins(Root<?> root, String[] zuordnungen) {
+        Map<String, FetchParent<?, ?>> geladen = new HashMap<>();
+        for (String zuordnung : zuordnungen) {
+            FetchParent<?, ?> parent = root;
+            String pfad = "";
+            for (String attribut : zuordnung.split("\\.")) {
+                pfad = pfad.isEmpty() ? attribut : pfad + "." + attribut;
+                FetchParent<?, ?> vorher = parent;
+                parent = geladen.computeIfAbsent(pfad, p -> vorher.fetch(attribut, JoinType.LEFT));
+            }
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private <T> Predicate nachCursor(CriteriaBuilder cb, Root<T> root, Class<T> typ, String sortFeld, boolean absteigend, String after) {
+        Cursor cursor = "id".equals(sortFeld) ? new Cursor(idLesen(after), null) : Cursor.lesen(after, sortTyp(typ, sortFeld));
+        Path<Long> id = root.get("id");
+        Predicate idDanach = absteigend ? cb.lessThan(id, cursor.id()) : cb.greaterThan(id, cursor.id());
+        if ("id".equals(sortFeld)) {
+            return idDanach;
+        }
+
+        Comparable wert = cursor.wert();
+        Path<Comparable> feld = root.get(sortFeld);
+        if (wert == null) {
+            return absteigend
+                    ? cb.and(cb.isNull(feld), idDanach)
+                    : cb.or(cb.isNotNull(feld), cb.and(cb.isNull(feld), idDanach));
+        }
+        Predicate feldDanach = absteigend ? cb.lessThan(feld, wert) : cb.greaterThan(feld, wert);
+        Predicate gleichUndIdDanach = cb.and(cb.equal(feld, wert), idDanach);
+        return absteigend
+                ? cb.or(feldDanach, gleichUndIdDanach, cb.isNull(feld))
+                : cb.or(feldDanach, gleichUndIdDanach);
+    }
+
+    private Class<?> sortTyp(Class<?> typ, String sortFeld) {
+        return entityManager.getMetamodel().entity(typ).getAttribute(sortFeld).getJavaType();
+    }
+
+    private static long idLesen(String text) {
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Ungültiger Cursor: " + text);
+        }
+    }
+
+    private record Cursor(long id, Comparable<?> wert) {
+
+        static Cursor lesen(String kodiert, Class<?> sortTyp) {
+            try {
+                String text = new String(Base64.getUrlDecoder().decode(kodiert), StandardCharsets.UTF_8);
+                int trenner = text.indexOf(':');
+                if (trenner < 0) {
+                    return new Cursor(Long.parseLong(text), null);
+                }
+                return new Cursor(Long.parseLong(text.substring(0, trenner)), wert(sortTyp, text.substring(trenner + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Ungültiger Cursor: " + kodiert);
+            }
+        }
+
+        private static Comparable<?> wert(Class<?> typ, String text) {
+            if (typ == String.class) {
+                return text;
+            }
+            if (typ == LocalDate.class) {
+                return LocalDate.parse(text);
+            }
+            if (typ == Integer.class || typ == int.class) {
+                return Integer.valueOf(text);
+            }
+            if (typ == Long.class || typ == long.class) {
+                return Long.valueOf(text);
+            }
+            if (typ == Double.class || typ == double.class) {
+                return Double.valueOf(text);
+            }
+            throw new IllegalArgumentException("Nach " + typ.getSimpleName() + " kann nicht geblättert werden");
+        }
+    }
+}
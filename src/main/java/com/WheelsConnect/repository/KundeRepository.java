@@ -3,8 +3,18 @@ package com.WheelsConnect.repository;
 
 import com.WheelsConnect.model.Kunde;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
-public interface KundeRepository extends JpaRepository<Kunde, Long> {
+@RepositoryRestResource(exported = false)
+public interface KundeRepository extends JpaRepository<Kunde, Long>, VersionsAbfrage {
+
+    @Override
+    @Query("select k.version, k.geaendertAm from Kunde k where k.id = :id")
+    List<Object[]> findVersionsstand(@Param("id") Long id);
 }
@@ -2,9 +2,18 @@ package com.WheelsConnect.repository;
 
 import com.WheelsConnect.model.Standort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 
 @Repository
-public interface StandortRepository extends JpaRepository<Standort, Long> {
+@RepositoryRestResource(exported = false)
+public interface StandortRepository extends JpaRepository<Standort, Long>, VersionsAbfrage {
+
+    @Override
+    @Query("select s.version, s.geaendertAm from Standort s where s.id = :id")
+    List<Object[]> findVersionsstand(@Param("id") Long id);
 }
@@ -0,0 +1,12 @@
+package com.WheelsConnect.repository;
+
+import java.util.List;
+
+/**
+ * Liest nur Version und Änderungszeit eines Eintrags samt der Zuordnungen, die mit ihm ausgeliefert werden.
+ * Jede Zeile enthält abwechselnd Version und Änderungszeit; die Liste ist leer, wenn es den Eintrag nicht gibt.
+ */
+public interface VersionsAbfrage {
+
+    List<Object[]> findVersionsstand(Long id);
+}
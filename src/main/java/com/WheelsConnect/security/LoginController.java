@@ -1,27 +1,89 @@
 package com.WheelsConnect.security;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.regex.Pattern;
 
 @RestController
-@RequestMapping("/login")
 public class LoginController {
 
-    @Autowired
-    private UserRepository userRepository;
+    public static final String METRIK = "wheelsconnect.login";
 
-    @PostMapping
+    private static final Pattern BCRYPT = Pattern.compile("\\A\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}");
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final Tokens tokens;
+    private final LoginDrossel loginDrossel;
+    private final Counter erfolgreich;
+    private final Counter fehlgeschlagen;
+
+    public LoginController(UserRepository userRepository, PasswordEncoder passwordEncoder, Tokens tokens, LoginDrossel loginDrossel,
+                           MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.tokens = tokens;
+        this.loginDrossel = loginDrossel;
+        // Gedrosselte Versuche zählt die LoginDrossel unter LoginDrossel.METRIK
+        this.erfolgreich = Counter.builder(METRIK).tag("ergebnis", "erfolg")
+                .description("Anmeldeversuche").register(meterRegistry);
+        this.fehlgeschlagen = Counter.builder(METRIK).tag("ergebnis", "fehlgeschlagen")
+                .description("Anmeldeversuche").register(meterRegistry);
+    }
+
+    /**
+     * Liefert bei Erfolg ein signiertes Token für den {@code Authorization}-Header; alle weiteren Anfragen
+     * werden ohne Datenbankzugriff über das Token geprüft.
+     */
+    @PostMapping("/login")
     public ResponseEntity<?> loginUser(@Valid @RequestBody User user) {
+        // Die IP-Adresse prüft bereits der LoginDrosselFilter, hier noch der Nutzername vor dem Datenbankzugriff
+        long warten = loginDrossel.nutzerPruefen(user.getUsername());
+        if (warten > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(LoginDrossel.sekunden(warten)))
+                    .body("Zu viele Anmeldeversuche, bitte später erneut versuchen");
+        }
+
         User foundUser = userRepository.findByUsername(user.getUsername());
 
-        if (foundUser != null && foundUser.getPassword().equals(user.getPassword())) {
-            return ResponseEntity.ok("Login erfolgreich");
+        if (foundUser != null && user.getPassword() != null && passwortPasst(foundUser, user.getPassword())) {
+            erfolgreich.increment();
+            return ResponseEntity.ok(tokens.ausstellen(foundUser));
         } else {
+            fehlgeschlagen.increment();
             return ResponseEntity.status(401).body("Ungültiger Nutzername oder Passwort");
         }
     }
-}
 
+    @PostMapping("/logout")
+    public ResponseEntity<?> logoutUser(HttpServletRequest request) {
+        tokens.widerrufen(TokenFilter.token(request));
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * Noch im Klartext gespeicherte Passwörter werden beim ersten erfolgreichen Login durch einen BCrypt-Hash ersetzt.
+     */
+    private boolean passwortPasst(User foundUser, String password) {
+        if (BCRYPT.matcher(foundUser.getPassword()).matches()) {
+            return passwordEncoder.matches(password, foundUser.getPassword());
+        }
+        if (!MessageDigest.isEqual(foundUser.getPassword().getBytes(StandardCharsets.UTF_8), password.getBytes(StandardCharsets.UTF_8))) {
+            return false;
+        }
+        foundUser.setPassword(passwordEncoder.encode(password));
+        userRepository.save(foundUser);
+        return true;
+    }
+}
@@ -0,0 +1,117 @@
+package com.WheelsConnect.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-Bucket-Drossel für {@code POST /login}, getrennt nach IP-Adresse und Nutzername. Jeder Eimer ist ein einzelner
+ * {@link AtomicLong} mit dem theoretischen Zeitpunkt der nächsten freien Anfrage (GCRA) und wird per CAS ohne Sperre
+ * fortgeschrieben. Die Eimer liegen in einem begrenzten Caffeine-Cache und verfallen, sobald sie wieder voll wären.
+ */
+@Component
+public class LoginDrossel {
+
+    public static final String METRIK = "wheelsconnect.login.gedrosselt";
+    private static final int MAX_EIMER = 100_000;
+
+    private final Eimer proIp;
+    private final Eimer proNutzer;
+    private final LongSupplier uhr;
+    private final Counter gedrosseltIp;
+    private final Counter gedrosseltNutzer;
+
+    @Autowired
+    public LoginDrossel(MeterRegistry meterRegistry,
+                        @Value("${wheelsconnect.login.ip.kapazitaet:20}") int ipKapazitaet,
+                        @Value("${wheelsconnect.login.ip.pro-minute:10}") int ipProMinute,
+                        @Value("${wheelsconnect.login.nutzer.kapazitaet:5}") int nutzerKapazitaet,
+                        @Value("${wheelsconnect.login.nutzer.pro-minute:3}") int nutzerProMinute) {
+        this(meterRegistry, new Regel(ipKapazitaet, ipProMinute), new Regel(nutzerKapazitaet, nutzerProMinute), System::nanoTime);
+    }
+
+    public LoginDrossel(MeterRegistry meterRegistry, Regel ip, Regel nutzer, LongSupplier uhr) {
+        this.proIp = new Eimer(ip);
+        this.proNutzer = new Eimer(nutzer);
+        this.uhr = uhr;
+        this.gedrosseltIp = Counter.builder(METRIK).tag("grund", "ip")
+                .description("Abgewiesene Anmeldeversuche").register(meterRegistry);
+        this.gedrosseltNutzer = Counter.builder(METRIK).tag("grund", "nutzer")
+                .description("Abgewiesene Anmeldeversuche").register(meterRegistry);
+    }
+
+    /**
+     * 0, wenn der Versuch erlaubt ist, sonst die Wartezeit in Nanosekunden.
+     */
+    public long ipPruefen(String ip) {
+        long warten = proIp.entnehmen(ip, uhr.getAsLong());
+        if (warten > 0) {
+            gedrosseltIp.increment();
+        }
+        return warten;
+    }
+
+    /**
+     * Wie {@link #ipPruefen}; der Nutzername wird ohne Groß-/Kleinschreibung verglichen, da MySQL ihn ebenso sucht.
+     */
+    public long nutzerPruefen(String username) {
+        long warten = proNutzer.entnehmen(username == null ? "" : username.toLowerCase(Locale.ROOT), uhr.getAsLong());
+        if (warten > 0) {
+            gedrosseltNutzer.increment();
+        }
+        return warten;
+    }
+
+    /**
+     * Wert für den {@code Retry-After}-Header.
+     */
+    public static long sekunden(long wartenNanos) {
+        return Math.max(1, (wartenNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Bis zu {@code kapazitaet} Versuche am Stück, danach {@code proMinute} pro Minute.
+     */
+    public record Regel(int kapazitaet, int proMinute) {
+    }
+
+    private static final class Eimer {
+        private final long intervall;
+        private final long toleranz;
+        private final Cache<String, AtomicLong> eimer;
+
+        Eimer(Regel regel) {
+            this.intervall = TimeUnit.MINUTES.toNanos(1) / regel.proMinute();
+            this.toleranz = intervall * (regel.kapazitaet() - 1);
+            this.eimer = Caffeine.newBuilder()
+                    .maximumSize(MAX_EIMER)
+                    .expireAfterAccess(Duration.ofNanos(intervall * regel.kapazitaet()))
+                    .build();
+        }
+
+        long entnehmen(String schluessel, long jetzt) {
+            AtomicLong naechste = eimer.get(schluessel, s -> new AtomicLong(Long.MIN_VALUE));
+            while (true) {
+                long alt = naechste.get();
+                long basis = Math.max(alt, jetzt);
+                long warten = basis - jetzt - toleranz;
+                if (warten > 0) {
+                    return warten;
+                }
+                if (naechste.compareAndSet(alt, basis + intervall)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.WheelsConnect.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Weist Anmeldeversuche einer IP-Adresse ab, bevor der Body gelesen oder die Datenbank gefragt wird.
+ * Hinter einem Proxy muss {@code server.forward-headers-strategy} gesetzt sein, damit die echte Adresse ankommt.
+ */
+public class LoginDrosselFilter extends OncePerRequestFilter {
+
+    private final LoginDrossel loginDrossel;
+
+    public LoginDrosselFilter(LoginDrossel loginDrossel) {
+        this.loginDrossel = loginDrossel;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!"POST".equals(request.getMethod())) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long warten = loginDrossel.ipPruefen(request.getRemoteAddr());
+        if (warten > 0) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(LoginDrossel.sekunden(warten)));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Zu viele Anmeldeversuche, bitte später erneut versuchen");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,61 @@
+package com.WheelsConnect.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Lässt Anfragen auf die geschützten Pfade nur mit gültigem {@code Authorization: Bearer <token>} durch.
+ * Die Prüfung läuft komplett über {@link Tokens}, die Tabelle {@code users} wird dabei nicht gelesen.
+ * Pfade aus {@code offen} und alles darunter bleiben ohne Anmeldung erreichbar.
+ */
+public class TokenFilter extends OncePerRequestFilter {
+
+    public static final String ANGEMELDET = TokenFilter.class.getName() + ".angemeldet";
+    private static final String BEARER = "Bearer ";
+
+    private final Tokens tokens;
+    private final List<String> offen;
+
+    public TokenFilter(Tokens tokens, String... offen) {
+        this.tokens = tokens;
+        this.offen = List.of(offen);
+    }
+
+    public static String token(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        return header != null && header.regionMatches(true, 0, BEARER, 0, BEARER.length()) ? header.substring(BEARER.length()).trim() : null;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // normalisierter Pfad, sonst käme /actuator/health/../caches ungeprüft durch
+        String pfad = request.getServletPath() + (request.getPathInfo() == null ? "" : request.getPathInfo());
+        return offen.stream().anyMatch(frei -> pfad.equals(frei) || pfad.startsWith(frei + "/"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // CORS-Preflights tragen nie einen Authorization-Header
+        if ("OPTIONS".equals(request.getMethod())) {
+            chain.doFilter(request, response);
+            return;
+        }
+        Optional<Tokens.Angemeldet> angemeldet = tokens.pruefen(token(request));
+        if (angemeldet.isEmpty()) {
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Anmeldung erforderlich");
+            return;
+        }
+        request.setAttribute(ANGEMELDET, angemeldet.get());
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,128 @@
+package com.WheelsConnect.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Stellt nach dem Login signierte, ablaufende Tokens aus ({@code base64url(userId:ablauf:tokenId:username).base64url(HMAC-SHA256)})
+ * und prüft sie ohne Datenbankzugriff. Abgemeldete Tokens stehen bis zu ihrem Ablauf in einem kleinen Sperrcache.
+ */
+@Component
+public class Tokens {
+
+    private static final Logger log = LoggerFactory.getLogger(Tokens.class);
+    private static final String ALGORITHMUS = "HmacSHA256";
+    private static final int MAX_WIDERRUFEN = 100_000;
+
+    private final SecretKeySpec schluessel;
+    private final Duration gueltigkeit;
+    private final Clock uhr;
+    private final Cache<String, Boolean> widerrufen;
+    private final ThreadLocal<Mac> macs;
+
+    /**
+     * Ohne {@code wheelsconnect.token.geheimnis} (Base64, mindestens 32 Byte) wird beim Start ein zufälliger Schlüssel
+     * erzeugt; ausgestellte Tokens gelten dann nur bis zum nächsten Neustart und nur auf dieser Instanz.
+     */
+    @Autowired
+    public Tokens(@Value("${wheelsconnect.token.geheimnis:}") String geheimnis,
+                  @Value("${wheelsconnect.token.gueltigkeit:8h}") Duration gueltigkeit) {
+        this(geheimnis.isBlank() ? zufaelligerSchluessel() : Base64.getDecoder().decode(geheimnis.trim()), gueltigkeit, Clock.systemUTC());
+    }
+
+    public Tokens(byte[] geheimnis, Duration gueltigkeit, Clock uhr) {
+        if (geheimnis.length < 32) {
+            throw new IllegalArgumentException("Das Token-Geheimnis muss mindestens 32 Byte lang sein");
+        }
+        this.schluessel = new SecretKeySpec(geheimnis, ALGORITHMUS);
+        this.gueltigkeit = gueltigkeit;
+        this.uhr = uhr;
+        this.widerrufen = Caffeine.newBuilder().expireAfterWrite(gueltigkeit).maximumSize(MAX_WIDERRUFEN).build();
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHMUS);
+                mac.init(schluessel);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    public Ausgestellt ausstellen(User user) {
+        Instant ablauf = uhr.instant().plus(gueltigkeit);
+        String inhalt = user.getId() + ":" + ablauf.getEpochSecond() + ":" + UUID.randomUUID() + ":" + user.getUsername();
+        String kodiert = Base64.getUrlEncoder().withoutPadding().encodeToString(inhalt.getBytes(StandardCharsets.UTF_8));
+        return new Ausgestellt(kodiert + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(signatur(kodiert)), ablauf);
+    }
+
+    /**
+     * Leer, wenn das Token verändert, abgelaufen, widerrufen oder unlesbar ist.
+     */
+    public Optional<Angemeldet> pruefen(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        int punkt = token.indexOf('.');
+        if (punkt <= 0) {
+            return Optional.empty();
+        }
+        try {
+            String kodiert = token.substring(0, punkt);
+            byte[] signatur = Base64.getUrlDecoder().decode(token.substring(punkt + 1));
+            if (!MessageDigest.isEqual(signatur, signatur(kodiert))) {
+                return Optional.empty();
+            }
+            String[] teile = new String(Base64.getUrlDecoder().decode(kodiert), StandardCharsets.UTF_8).split(":", 4);
+            Instant ablauf = Instant.ofEpochSecond(Long.parseLong(teile[1]));
+            if (!uhr.instant().isBefore(ablauf) || widerrufen.getIfPresent(teile[2]) != null) {
+                return Optional.empty();
+            }
+            return Optional.of(new Angemeldet(Long.valueOf(teile[0]), teile[3], teile[2], ablauf));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Sperrt ein gültiges Token bis zu seinem Ablauf; ungültige Tokens werden ignoriert.
+     */
+    public void widerrufen(String token) {
+        pruefen(token).ifPresent(angemeldet -> widerrufen.put(angemeldet.tokenId(), Boolean.TRUE));
+    }
+
+    private byte[] signatur(String kodiert) {
+        return macs.get().doFinal(kodiert.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static byte[] zufaelligerSchluessel() {
+        log.warn("wheelsconnect.token.geheimnis ist nicht gesetzt, Tokens verlieren beim Neustart ihre Gültigkeit");
+        byte[] schluessel = new byte[32];
+        new SecureRandom().nextBytes(schluessel);
+        return schluessel;
+    }
+
+    public record Ausgestellt(String token, Instant ablauf) {
+    }
+
+    public record Angemeldet(Long userId, String username, String tokenId, Instant ablauf) {
+    }
+}
@@ -1,9 +1,12 @@
 package com.WheelsConnect.security;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.stereotype.Repository;
 
+// Passwort-Hashes nicht über Spring Data REST ausliefern
 @Repository
+@RepositoryRestResource(exported = false)
 public interface UserRepository extends JpaRepository<User, Long> {
     User findByUsername(String username);
 }
@@ -0,0 +1,68 @@
+package com.WheelsConnect.service;
+
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Änderungsstempel je Entitätstyp für bedingte GET-Anfragen. Jeder Schreibzugriff zählt den Stempel seines Typs
+ * hoch; ETag und Last-Modified einer Liste ergeben sich daraus, ohne eine Zeile zu laden. Die Start-Id im ETag
+ * sorgt dafür, dass nach einem Neustart keine alten Stände mehr als aktuell gelten.
+ */
+@Service
+public class Aenderungen {
+
+    private final String startId = Long.toString(UUID.randomUUID().getMostSignificantBits() & Long.MAX_VALUE, 36);
+    private final Instant start = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    private final Map<Class<?>, Stempel> stempel = new ConcurrentHashMap<>();
+
+    public void geaendert(Class<?> typ) {
+        Instant jetzt = Instant.now();
+        stempel.merge(typ, new Stempel(1, jetzt), (alt, neu) -> new Stempel(alt.zaehler() + 1, jetzt));
+    }
+
+    /**
+     * Stand einer Antwort, die aus den angegebenen Typen zusammengesetzt ist, z.B. Buchungen mit Kunde und Fahrzeug.
+     */
+    public Stand stand(Class<?>... typen) {
+        StringJoiner etag = new StringJoiner(".", "\"" + startId + "-", "\"");
+        Instant zuletzt = start;
+        for (Class<?> typ : typen) {
+            Stempel aktuell = stempel.get(typ);
+            etag.add(aktuell == null ? "0" : Long.toString(aktuell.zaehler()));
+            if (aktuell != null && aktuell.zeit().isAfter(zuletzt)) {
+                zuletzt = aktuell.zeit();
+            }
+        }
+        return new Stand(etag.toString(), zuletzt);
+    }
+
+    /**
+     * Stand eines einzelnen Eintrags aus einer Zeile von {@link com.WheelsConnect.repository.VersionsAbfrage}.
+     */
+    public Stand eintrag(Object[] zeile) {
+        StringJoiner etag = new StringJoiner(".", "\"v", "\"");
+        Instant zuletzt = null;
+        for (int i = 0; i + 1 < zeile.length; i += 2) {
+            etag.add(String.valueOf(zeile[i]));
+            if (zeile[i + 1] instanceof Instant zeit && (zuletzt == null || zeit.isAfter(zuletzt))) {
+                zuletzt = zeit;
+            }
+        }
+        return new Stand(etag.toString(), zuletzt);
+    }
+
+    private record Stempel(long zaehler, Instant zeit) {
+    }
+
+    /**
+     * {@code geaendertAm} ist {@code null}, wenn kein Änderungszeitpunkt bekannt ist (Zeilen aus der Zeit vor der Versionierung).
+     */
+    public record Stand(String etag, Instant geaendertAm) {
+    }
+}
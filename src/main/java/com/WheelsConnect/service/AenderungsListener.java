@@ -0,0 +1,38 @@
+package com.WheelsConnect.service;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.hibernate.Hibernate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA-Listener der Entitäten, erfasst damit auch Schreibzugriffe über Spring Data REST. Der Stempel wird erst
+ * nach Abschluss der Transaktion erhöht, sonst könnte eine parallele Anfrage den alten Stand unter dem neuen ETag ausliefern.
+ */
+public class AenderungsListener {
+
+    private final Aenderungen aenderungen;
+
+    public AenderungsListener(Aenderungen aenderungen) {
+        this.aenderungen = aenderungen;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void geaendert(Object entity) {
+        Class<?> typ = Hibernate.getClass(entity);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            aenderungen.geaendert(typ);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                aenderungen.geaendert(typ);
+            }
+        });
+    }
+}
@@ -0,0 +1,301 @@
+package com.WheelsConnect.service;
+
+import com.WheelsConnect.model.Fahrzeug;
+import com.WheelsConnect.model.Standort;
+import com.WheelsConnect.repository.FahrzeugRepository;
+import com.WheelsConnect.repository.FahrzeugStammdaten;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Tägliche Belegung je Standort: wie viele Fahrzeuge vermietet bzw. vor Ort sind und wie viel Stellplatzkapazität
+ * frei bleibt. Pro Standort liegt ein Differenz-Array über die Tage (+1 am Start-, -1 am Tag nach dem Enddatum einer
+ * Buchung) mit einem Fenwick-Baum darüber. Eine Buchungsänderung kostet zwei Baum-Updates in O(log n), eine
+ * Auswertung O(log n) für den Anfangswert und danach einen linearen Lauf über die Tage.
+ * Vermietete Fahrzeuge zählen beim Standort, dem sie aktuell zugeordnet sind. Die Tagesachse reicht höchstens über
+ * den {@link Buchungszeitraum} mit einem Jahr Rand; Tage außerhalb werden nicht gezählt.
+ */
+@Service
+public class Belegungsplan implements BuchungIndex.Beobachter {
+
+    public static final int MAX_TAGE = 3 * 366;
+
+    // Anfangsbereich der Tagesachse; Buchungen außerhalb vergrößern sie
+    private static final int VORLAUF_TAGE = 2 * 366;
+    private static final int NACHLAUF_TAGE = 3 * 366;
+
+    private final BuchungIndex buchungIndex;
+    private final FahrzeugRepository fahrzeugRepository;
+    private final StammdatenCache stammdatenCache;
+
+    private final ReadWriteLock sperre = new ReentrantReadWriteLock();
+    private final Map<Long, Long> standortJeFahrzeug = new HashMap<>();
+    private final Map<Long, Integer> fahrzeugeJeStandort = new HashMap<>();
+    private final Map<Long, Achse> achsen = new HashMap<>();
+    private long basis;
+    private int laenge;
+    // fester Rahmen seit dem letzten Zurücksetzen, Hinzufügen und Entfernen schneiden identisch ab
+    private long erster;
+    private long letzter;
+
+    public Belegungsplan(BuchungIndex buchungIndex, FahrzeugRepository fahrzeugRepository, StammdatenCache stammdatenCache) {
+        this.buchungIndex = buchungIndex;
+        this.fahrzeugRepository = fahrzeugRepository;
+        this.stammdatenCache = stammdatenCache;
+    }
+
+    @PostConstruct
+    public void laden() {
+        zurueckgesetzt();
+        buchungIndex.beobachten(this);
+    }
+
+    @Override
+    public void zurueckgesetzt() {
+        List<FahrzeugStammdaten> fahrzeuge = fahrzeugRepository.findAllStammdaten();
+        sperre.writeLock().lock();
+        try {
+            standortJeFahrzeug.clear();
+            fahrzeugeJeStandort.clear();
+            achsen.clear();
+            LocalDate heute = LocalDate.now();
+            basis = heute.toEpochDay() - VORLAUF_TAGE;
+            laenge = VORLAUF_TAGE + NACHLAUF_TAGE;
+            erster = Buchungszeitraum.erstesDatum(heute).minusYears(1).toEpochDay();
+            letzter = Buchungszeitraum.letztesDatum(heute).plusYears(1).toEpochDay();
+            for (FahrzeugStammdaten fahrzeug : fahrzeuge) {
+                zuordnen(fahrzeug.getId(), fahrzeug.getStandortId());
+            }
+        } finally {
+            sperre.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void belegung(long fahrzeugId, long von, long bis, int delta) {
+        sperre.writeLock().lock();
+        try {
+            Long standortId = standortJeFahrzeug.get(fahrzeugId);
+            if (standortId != null) {
+                eintragen(standortId, von, bis, delta);
+            }
+        } finally {
+            sperre.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Neues oder geändertes Fahrzeug; bei einem Standortwechsel ziehen seine Buchungen mit um. Die Sperre des
+     * {@link BuchungIndex} hält Buchungsänderungen dieses Fahrzeugs an, bis seine Intervalle umgetragen sind.
+     */
+    public void fahrzeugGespeichert(Fahrzeug fahrzeug) {
+        Long standortId = fahrzeug.getStandort() == null ? null : fahrzeug.getStandort().getId();
+        try (FahrzeugSperren.Sperre indexSperre = buchungIndex.sperren(fahrzeug.getId())) {
+            sperre.writeLock().lock();
+            try {
+                Long bisher = standortJeFahrzeug.get(fahrzeug.getId());
+                if (standortJeFahrzeug.containsKey(fahrzeug.getId()) && Objects.equals(bisher, standortId)) {
+                    return;
+                }
+                entfernen(fahrzeug.getId());
+                zuordnen(fahrzeug.getId(), standortId);
+                if (standortId != null) {
+                    buchungIndex.intervalle(fahrzeug.getId(), (id, von, bis, delta) -> eintragen(standortId, von, bis, delta));
+                }
+            } finally {
+                sperre.writeLock().unlock();
+            }
+        }
+    }
+
+    public void fahrzeugGeloescht(Long fahrzeugId) {
+        try (FahrzeugSperren.Sperre indexSperre = buchungIndex.sperren(fahrzeugId)) {
+            sperre.writeLock().lock();
+            try {
+                entfernen(fahrzeugId);
+            } finally {
+                sperre.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Nach einem Massenimport; neue Fahrzeuge haben noch keine Buchungen, es ändert sich nur die Zuordnung.
+     */
+    public void fahrzeugeImportiert() {
+        List<FahrzeugStammdaten> fahrzeuge = fahrzeugRepository.findAllStammdaten();
+        sperre.writeLock().lock();
+        try {
+            for (FahrzeugStammdaten fahrzeug : fahrzeuge) {
+                if (!standortJeFahrzeug.containsKey(fahrzeug.getId())) {
+                    zuordnen(fahrzeug.getId(), fahrzeug.getStandortId());
+                }
+            }
+        } finally {
+            sperre.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Belegung aller Standorte (oder nur {@code standortId}) für jeden Tag von {@code von} bis {@code bis} inklusive.
+     */
+    public Auswertung auswerten(LocalDate von, LocalDate bis, Long standortId) {
+        if (bis.isBefore(von) || bis.toEpochDay() - von.toEpochDay() >= MAX_TAGE) {
+            throw new IllegalArgumentException("Der Zeitraum muss 1 bis " + MAX_TAGE + " Tage umfassen");
+        }
+        List<Standort> standorte = stammdatenCache.standorte();
+        int tage = (int) (bis.toEpochDay() - von.toEpochDay() + 1);
+        List<Standortverlauf> verlaeufe = new ArrayList<>();
+        sperre.readLock().lock();
+        try {
+            for (Standort standort : standorte) {
+                if (standortId != null && !standortId.equals(standort.getId())) {
+                    continue;
+                }
+                int fahrzeuge = fahrzeugeJeStandort.getOrDefault(standort.getId(), 0);
+                int[] vermietet = new int[tage];
+                Achse achse = achsen.get(standort.getId());
+                if (achse != null) {
+                    achse.fuellen(von.toEpochDay() - basis, vermietet);
+                }
+                int[] vorOrt = new int[tage];
+                int[] frei = new int[tage];
+                for (int i = 0; i < tage; i++) {
+                    vorOrt[i] = fahrzeuge - vermietet[i];
+                    frei[i] = standort.getKapazitaet() - vorOrt[i];
+                }
+                verlaeufe.add(new Standortverlauf(standort.getId(), standort.getName(), standort.getKapazitaet(), fahrzeuge,
+                        vermietet, vorOrt, frei));
+            }
+        } finally {
+            sperre.readLock().unlock();
+        }
+        return new Auswertung(von, bis, verlaeufe);
+    }
+
+    private void zuordnen(Long fahrzeugId, Long standortId) {
+        standortJeFahrzeug.put(fahrzeugId, standortId);
+        if (standortId != null) {
+            fahrzeugeJeStandort.merge(standortId, 1, Integer::sum);
+        }
+    }
+
+    private void entfernen(Long fahrzeugId) {
+        if (!standortJeFahrzeug.containsKey(fahrzeugId)) {
+            return;
+        }
+        Long standortId = standortJeFahrzeug.remove(fahrzeugId);
+        if (standortId != null) {
+            fahrzeugeJeStandort.merge(standortId, -1, Integer::sum);
+            buchungIndex.intervalle(fahrzeugId, (id, von, bis, delta) -> eintragen(standortId, von, bis, -delta));
+        }
+    }
+
+    private void eintragen(Long standortId, long von, long bis, int delta) {
+        von = Math.max(von, erster);
+        bis = Math.min(bis, letzter);
+        if (von > bis) {
+            return;
+        }
+        // bis + 1 muss auf der Achse liegen, sonst fehlt das -delta nach dem Enddatum
+        if (von < basis || bis + 1 >= basis + laenge) {
+            long neueBasis = Math.min(basis, von - VORLAUF_TAGE);
+            int neueLaenge = (int) (Math.max(basis + laenge, bis + 1 + NACHLAUF_TAGE) - neueBasis);
+            int vorne = (int) (basis - neueBasis);
+            achsen.replaceAll((id, achse) -> achse.erweitert(vorne, neueLaenge));
+            basis = neueBasis;
+            laenge = neueLaenge;
+        }
+        achsen.computeIfAbsent(standortId, id -> new Achse(laenge)).belegen((int) (von - basis), (int) (bis - basis), delta);
+    }
+
+    public record Auswertung(LocalDate von, LocalDate bis, List<Standortverlauf> standorte) {
+    }
+
+    /**
+     * Tageswerte ab {@link Auswertung#von()}; {@code frei} ist die Kapazität abzüglich der Fahrzeuge vor Ort und wird
+     * bei Überbelegung negativ.
+     */
+    public record Standortverlauf(Long standortId, String name, int kapazitaet, int fahrzeuge,
+                                  int[] vermietet, int[] vorOrt, int[] frei) {
+    }
+
+    /**
+     * Differenz-Array mit Fenwick-Baum: {@code praefix(i)} ist die Zahl der an Tag i laufenden Buchungen.
+     */
+    static final class Achse {
+
+        private final int[] differenz;
+        private final int[] baum;
+
+        Achse(int laenge) {
+            this(new int[laenge]);
+        }
+
+        private Achse(int[] differenz) {
+            this.differenz = differenz;
+            this.baum = new int[differenz.length + 1];
+            // Aufbau in O(n): jeder Knoten gibt seine Summe an den Elternknoten weiter
+            for (int i = 1; i <= differenz.length; i++) {
+                baum[i] += differenz[i - 1];
+                int eltern = i + (i & -i);
+                if (eltern <= differenz.length) {
+                    baum[eltern] += baum[i];
+                }
+            }
+        }
+
+        void belegen(int von, int bis, int delta) {
+            addieren(von, delta);
+            addieren(bis + 1, -delta);
+        }
+
+        int praefix(int index) {
+            int summe = 0;
+            for (int i = index + 1; i > 0; i -= i & -i) {
+                summe += baum[i];
+            }
+            return summe;
+        }
+
+        /**
+         * Schreibt die Werte ab Tag {@code start} (relativ zur Achse, auch außerhalb) in {@code ziel}.
+         */
+        void fuellen(long start, int[] ziel) {
+            // erst in long vergleichen, ein Start weit außerhalb der Achse passt nicht in int
+            long erster = Math.max(0, -start);
+            long letzter = Math.min(ziel.length - 1, differenz.length - 1 - start);
+            if (erster > letzter) {
+                return;
+            }
+            int wert = praefix((int) (start + erster));
+            ziel[(int) erster] = wert;
+            for (int i = (int) erster + 1; i <= letzter; i++) {
+                wert += differenz[(int) (start + i)];
+                ziel[i] = wert;
+            }
+        }
+
+        Achse erweitert(int vorne, int neueLaenge) {
+            int[] neu = new int[neueLaenge];
+            System.arraycopy(differenz, 0, neu, vorne, differenz.length);
+            return new Achse(neu);
+        }
+
+        private void addieren(int index, int delta) {
+            differenz[index] += delta;
+            for (int i = index + 1; i < baum.length; i += i & -i) {
+                baum[i] += delta;
+            }
+        }
+    }
+}
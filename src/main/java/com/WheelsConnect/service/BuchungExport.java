@@ -0,0 +1,209 @@
+package com.WheelsConnect.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Export aller Buchungen für die Buchhaltung als CSV oder NDJSON. Gelesen wird per JDBC mit einem Vorwärts-Cursor
+ * und fester Fetch-Size (bei MySQL über {@code useCursorFetch}), jede Zeile wird sofort geschrieben. Kunde, Fahrzeug
+ * und Standort stehen als flache Spalten in der Zeile, es entstehen also keine Entities.
+ */
+@Service
+public class BuchungExport {
+
+    public static final int FETCH_SIZE = 1000;
+
+    public static final String[] SPALTEN = {"id", "startdatum", "enddatum", "gesamtpreis", "buchungsstatus",
+            "kunde_id", "kunde_vorname", "kunde_nachname", "kunde_email",
+            "fahrzeug_id", "fahrzeug_marke", "fahrzeug_modell", "fahrzeug_typ", "standort_id", "standort_name"};
+
+    private static final String SQL = "select b.id, b.startdatum, b.enddatum, b.gesamtpreis, b.buchungsstatus, "
+            + "k.id, k.vorname, k.nachname, k.email, f.id, f.marke, f.modell, f.typ, s.id, s.name "
+            + "from buchung b left join kunde k on k.id = b.kunde_id left join fahrzeug f on f.id = b.fahrzeug_id "
+            + "left join standort s on s.id = f.standort_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public BuchungExport(DataSource dataSource, ObjectMapper objectMapper) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Schreibt alle Buchungen, deren Zeitraum innerhalb von {@code von}–{@code bis} liegt, sortiert nach Id.
+     * Alle Filter sind optional.
+     */
+    public void exportieren(Format format, LocalDate von, LocalDate bis, String buchungsstatus, OutputStream ausgabe) throws IOException {
+        StringBuilder sql = new StringBuilder(SQL);
+        List<Object> parameter = new ArrayList<>();
+        List<String> bedingungen = new ArrayList<>();
+        if (von != null) {
+            bedingungen.add("b.startdatum >= ?");
+            parameter.add(Date.valueOf(von));
+        }
+        if (bis != null) {
+            bedingungen.add("b.enddatum <= ?");
+            parameter.add(Date.valueOf(bis));
+        }
+        if (buchungsstatus != null) {
+            bedingungen.add("b.buchungsstatus = ?");
+            parameter.add(buchungsstatus);
+        }
+        if (!bedingungen.isEmpty()) {
+            sql.append(" where ").append(String.join(" and ", bedingungen));
+        }
+        sql.append(" order by b.id");
+
+        try (Schreiber schreiber = format == Format.CSV ? new CsvSchreiber(ausgabe) : new NdjsonSchreiber(objectMapper, ausgabe)) {
+            schreiber.kopf();
+            Object[] werte = new Object[SPALTEN.length];
+            jdbcTemplate.query(verbindung -> {
+                PreparedStatement abfrage = verbindung.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                for (int i = 0; i < parameter.size(); i++) {
+                    abfrage.setObject(i + 1, parameter.get(i));
+                }
+                return abfrage;
+            }, zeile -> {
+                lesen(zeile, werte);
+                try {
+                    schreiber.zeile(werte);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void lesen(ResultSet zeile, Object[] werte) throws SQLException {
+        for (int i = 0; i < werte.length; i++) {
+            Object wert = zeile.getObject(i + 1);
+            if (wert instanceof Double zahl) {
+                wert = BigDecimal.valueOf(zahl);
+            } else if (wert instanceof Date datum) {
+                wert = datum.toLocalDate();
+            }
+            werte[i] = wert;
+        }
+    }
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private interface Schreiber extends AutoCloseable {
+        void kopf() throws IOException;
+
+        void zeile(Object[] werte) throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private static final class CsvSchreiber implements Schreiber {
+        private final Writer writer;
+
+        CsvSchreiber(OutputStream ausgabe) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(ausgabe, StandardCharsets.UTF_8), 64 * 1024);
+        }
+
+        @Override
+        public void kopf() throws IOException {
+            zeile(SPALTEN);
+        }
+
+        @Override
+        public void zeile(Object[] werte) throws IOException {
+            for (int i = 0; i < werte.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (werte[i] != null) {
+                    feld(werte[i] instanceof BigDecimal zahl ? zahl.toPlainString() : werte[i].toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        private void feld(String text) throws IOException {
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                writer.write(text);
+                return;
+            }
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static final class NdjsonSchreiber implements Schreiber {
+        private final JsonGenerator generator;
+        private boolean leer = true;
+
+        NdjsonSchreiber(ObjectMapper objectMapper, OutputStream ausgabe) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(ausgabe)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .setRootValueSeparator(new SerializedString("\n"));
+        }
+
+        @Override
+        public void kopf() {
+        }
+
+        @Override
+        public void zeile(Object[] werte) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < werte.length; i++) {
+                Object wert = werte[i];
+                generator.writeFieldName(SPALTEN[i]);
+                if (wert == null) {
+                    generator.writeNull();
+                } else if (wert instanceof BigDecimal zahl) {
+                    generator.writeNumber(zahl.toPlainString());
+                } else if (wert instanceof Number zahl) {
+                    generator.writeNumber(zahl.longValue());
+                } else {
+                    generator.writeString(wert.toString());
+                }
+            }
+            generator.writeEndObject();
+            leer = false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!leer) {
+                generator.writeRaw('\n');
+            }
+            generator.close();
+        }
+    }
+}
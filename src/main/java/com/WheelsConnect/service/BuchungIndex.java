@@ -0,0 +1,274 @@
+package com.WheelsConnect.service;
+
+import com.WheelsConnect.model.Buchung;
+import com.WheelsConnect.repository.BuchungIntervall;
+import com.WheelsConnect.repository.BuchungRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Belegungskalender aller Fahrzeuge im Speicher. Pro Fahrzeug wird ein nach Startdatum sortiertes
+ * Intervall-Array gehalten, sodass Verfügbarkeitsprüfungen ohne Datenbankzugriff beantwortet werden.
+ * Stornierte Buchungen werden nicht aufgenommen.
+ */
+@Service
+public class BuchungIndex {
+
+    public static final String STORNIERT = "Storniert";
+
+    private final BuchungRepository buchungRepository;
+
+    // fahrzeugId -> unveränderlicher Belegungsstand; Leser brauchen keine Sperre
+    private final Map<Long, Belegung> belegungen = new ConcurrentHashMap<>();
+
+    // buchungId -> fahrzeugId, damit Änderungen und Löschungen das richtige Fahrzeug finden
+    private final Map<Long, Long> fahrzeugJeBuchung = new ConcurrentHashMap<>();
+
+    private final List<Beobachter> beobachter = new CopyOnWriteArrayList<>();
+
+    // Änderung und Meldung eines Fahrzeugs laufen unter seinem Streifen, damit Beobachter keine Änderung doppelt
+    // oder gar nicht sehen, wenn sie parallel die Intervalle neu einlesen (siehe sperren)
+    private final FahrzeugSperren sperren = new FahrzeugSperren(64);
+
+    public BuchungIndex(BuchungRepository buchungRepository) {
+        this.buchungRepository = buchungRepository;
+    }
+
+    @PostConstruct
+    public void laden() {
+        Map<Long, List<BuchungIntervall>> jeFahrzeug = new HashMap<>();
+        for (BuchungIntervall intervall : buchungRepository.findAktiveIntervalle()) {
+            if (intervall.getStartdatum() != null && intervall.getEnddatum() != null) {
+                jeFahrzeug.computeIfAbsent(intervall.getFahrzeugId(), id -> new ArrayList<>()).add(intervall);
+            }
+        }
+        belegungen.clear();
+        fahrzeugJeBuchung.clear();
+        jeFahrzeug.forEach((fahrzeugId, intervalle) -> {
+            belegungen.put(fahrzeugId, Belegung.aus(intervalle));
+            intervalle.forEach(intervall -> fahrzeugJeBuchung.put(intervall.getId(), fahrzeugId));
+        });
+        for (Beobachter einer : beobachter) {
+            einer.zurueckgesetzt();
+            belegungen.keySet().forEach(fahrzeugId -> intervalle(fahrzeugId, einer));
+        }
+    }
+
+    /**
+     * Meldet dem Beobachter sofort alle aktuellen Intervalle und danach jede Änderung.
+     */
+    public void beobachten(Beobachter neuer) {
+        beobachter.add(neuer);
+        belegungen.keySet().forEach(fahrzeugId -> intervalle(fahrzeugId, neuer));
+    }
+
+    /**
+     * Hält Änderungen an den Intervallen des Fahrzeugs an, bis die Sperre geschlossen wird. Wer unter der Sperre
+     * {@link #intervalle} einliest, bekommt danach genau die späteren Änderungen gemeldet. Beobachter werden unter
+     * dieser Sperre benachrichtigt und dürfen sie daher nicht erst in {@link Beobachter#belegung} anfordern.
+     */
+    public FahrzeugSperren.Sperre sperren(Long fahrzeugId) {
+        return sperren.sperren(fahrzeugId);
+    }
+
+    /**
+     * Meldet alle aktiven Intervalle eines Fahrzeugs mit {@code delta = 1}.
+     */
+    public void intervalle(Long fahrzeugId, Beobachter ziel) {
+        Belegung belegung = belegungen.get(fahrzeugId);
+        if (belegung != null) {
+            for (int i = 0; i < belegung.start.length; i++) {
+                ziel.belegung(fahrzeugId, belegung.start[i], belegung.ende[i], 1);
+            }
+        }
+    }
+
+    public boolean istVerfuegbar(Long fahrzeugId, LocalDate startdatum, LocalDate enddatum) {
+        return findeKonflikt(fahrzeugId, startdatum, enddatum, null) == null;
+    }
+
+    /**
+     * Liefert die Id einer aktiven Buchung, die sich mit dem Zeitraum überschneidet, oder {@code null}.
+     * Die Buchung {@code ausgenommen} wird ignoriert, damit eine Buchung nicht mit sich selbst kollidiert.
+     */
+    public Long findeKonflikt(Long fahrzeugId, LocalDate startdatum, LocalDate enddatum, Long ausgenommen) {
+        Belegung belegung = belegungen.get(fahrzeugId);
+        if (belegung == null) {
+            return null;
+        }
+        return belegung.findeKonflikt(startdatum.toEpochDay(), enddatum.toEpochDay(), ausgenommen == null ? -1 : ausgenommen);
+    }
+
+    public void aktualisieren(Buchung buchung) {
+        entfernen(buchung.getId());
+        if (buchung.getFahrzeug() != null && !STORNIERT.equals(buchung.getBuchungsstatus())) {
+            eintragen(buchung.getId(), buchung.getFahrzeug().getId(), buchung.getStartdatum(), buchung.getEnddatum());
+        }
+    }
+
+    public void entfernen(Long buchungId) {
+        Long fahrzeugId = fahrzeugJeBuchung.remove(buchungId);
+        if (fahrzeugId == null) {
+            return;
+        }
+        try (FahrzeugSperren.Sperre sperre = sperren(fahrzeugId)) {
+            Belegung vorher = belegungen.get(fahrzeugId);
+            int index = vorher == null ? -1 : vorher.index(buchungId);
+            if (index >= 0) {
+                belegungen.put(fahrzeugId, vorher.ohne(buchungId));
+                melden(fahrzeugId, vorher.start[index], vorher.ende[index], -1);
+            }
+        }
+    }
+
+    private void eintragen(Long buchungId, Long fahrzeugId, LocalDate startdatum, LocalDate enddatum) {
+        if (buchungId == null || fahrzeugId == null || startdatum == null || enddatum == null) {
+            return;
+        }
+        try (FahrzeugSperren.Sperre sperre = sperren(fahrzeugId)) {
+            belegungen.compute(fahrzeugId, (id, belegung) -> (belegung == null ? Belegung.LEER : belegung)
+                    .mit(buchungId, startdatum.toEpochDay(), enddatum.toEpochDay()));
+            fahrzeugJeBuchung.put(buchungId, fahrzeugId);
+            melden(fahrzeugId, startdatum.toEpochDay(), enddatum.toEpochDay(), 1);
+        }
+    }
+
+    private void melden(long fahrzeugId, long von, long bis, int delta) {
+        for (Beobachter einer : beobachter) {
+            einer.belegung(fahrzeugId, von, bis, delta);
+        }
+    }
+
+    /**
+     * Empfänger von Belegungsänderungen, z.B. für abgeleitete Auswertungen wie den {@link Belegungsplan}.
+     */
+    @FunctionalInterface
+    public interface Beobachter {
+
+        /**
+         * @param delta 1 für ein neues, -1 für ein entferntes Intervall; Tage als Epoch-Day, Ende inklusive
+         */
+        void belegung(long fahrzeugId, long von, long bis, int delta);
+
+        /**
+         * Der Index wurde neu geladen; anschließend folgen alle Intervalle erneut.
+         */
+        default void zurueckgesetzt() {
+        }
+    }
+
+    /**
+     * Unveränderliche, nach Startdatum sortierte Intervalle eines Fahrzeugs (Tage als Epoch-Day, Ende inklusive).
+     * {@code maxEnde[i]} ist das größte Enddatum unter den Intervallen 0..i und begrenzt die Suche nach links.
+     */
+    static final class Belegung {
+
+        static final Belegung LEER = new Belegung(new long[0], new long[0], new long[0]);
+
+        static Belegung aus(List<BuchungIntervall> intervalle) {
+            intervalle.sort(Comparator.comparing(BuchungIntervall::getStartdatum));
+            int n = intervalle.size();
+            long[] ids = new long[n];
+            long[] starts = new long[n];
+            long[] enden = new long[n];
+            for (int i = 0; i < n; i++) {
+                BuchungIntervall intervall = intervalle.get(i);
+                ids[i] = intervall.getId();
+                starts[i] = intervall.getStartdatum().toEpochDay();
+                enden[i] = intervall.getEnddatum().toEpochDay();
+            }
+            return new Belegung(ids, starts, enden);
+        }
+
+        private final long[] buchungIds;
+        private final long[] start;
+        private final long[] ende;
+        private final long[] maxEnde;
+
+        private Belegung(long[] buchungIds, long[] start, long[] ende) {
+            this.buchungIds = buchungIds;
+            this.start = start;
+            this.ende = ende;
+            this.maxEnde = new long[ende.length];
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < ende.length; i++) {
+                max = Math.max(max, ende[i]);
+                maxEnde[i] = max;
+            }
+        }
+
+        Long findeKonflikt(long von, long bis, long ausgenommen) {
+            // letztes Intervall, das spätestens am Tag "bis" beginnt
+            int i = letzterStartBis(bis);
+            for (; i >= 0 && maxEnde[i] >= von; i--) {
+                if (ende[i] >= von && buchungIds[i] != ausgenommen) {
+                    return buchungIds[i];
+                }
+            }
+            return null;
+        }
+
+        Belegung mit(long buchungId, long von, long bis) {
+            Belegung basis = ohne(buchungId);
+            int n = basis.start.length;
+            int pos = basis.letzterStartBis(von) + 1;
+            long[] ids = new long[n + 1];
+            long[] starts = new long[n + 1];
+            long[] enden = new long[n + 1];
+            einfuegen(basis.buchungIds, ids, pos, buchungId);
+            einfuegen(basis.start, starts, pos, von);
+            einfuegen(basis.ende, enden, pos, bis);
+            return new Belegung(ids, starts, enden);
+        }
+
+        Belegung ohne(long buchungId) {
+            int i = index(buchungId);
+            return i < 0 ? this : new Belegung(ohneIndex(buchungIds, i), ohneIndex(start, i), ohneIndex(ende, i));
+        }
+
+        int index(long buchungId) {
+            for (int i = 0; i < buchungIds.length; i++) {
+                if (buchungIds[i] == buchungId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private int letzterStartBis(long tag) {
+            int links = 0;
+            int rechts = start.length - 1;
+            while (links <= rechts) {
+                int mitte = (links + rechts) >>> 1;
+                if (start[mitte] <= tag) {
+                    links = mitte + 1;
+                } else {
+                    rechts = mitte - 1;
+                }
+            }
+            return rechts;
+        }
+
+        private static void einfuegen(long[] quelle, long[] ziel, int pos, long wert) {
+            System.arraycopy(quelle, 0, ziel, 0, pos);
+            ziel[pos] = wert;
+            System.arraycopy(quelle, pos, ziel, pos + 1, quelle.length - pos);
+        }
+
+        private static long[] ohneIndex(long[] quelle, int index) {
+            long[] ziel = Arrays.copyOf(quelle, quelle.length - 1);
+            System.arraycopy(quelle, index + 1, ziel, index, quelle.length - index - 1);
+            return ziel;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.WheelsConnect.service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Zulässiger Zeitraum einer Buchung oder Preisanfrage. Mietdauer und Kalenderjahre sind begrenzt, damit Tarif,
+ * {@link BuchungIndex} und {@link Belegungsplan} nie mit Daten wie {@code +999999999-12-31} rechnen müssen.
+ */
+public final class Buchungszeitraum {
+
+    public static final int MAX_MIETTAGE = 366;
+    public static final int JAHRE_ZURUECK = 10;
+    public static final int JAHRE_VORAUS = 5;
+
+    private Buchungszeitraum() {
+    }
+
+    /**
+     * Fehlermeldung für eine 400-Antwort oder {@code null}, wenn der Zeitraum zulässig ist.
+     */
+    public static String pruefen(LocalDate startdatum, LocalDate enddatum) {
+        return pruefen(startdatum, enddatum, LocalDate.now());
+    }
+
+    public static String pruefen(LocalDate startdatum, LocalDate enddatum, LocalDate heute) {
+        if (startdatum == null || enddatum == null) {
+            return "Startdatum und Enddatum sind erforderlich";
+        }
+        if (enddatum.isBefore(startdatum)) {
+            return "Das Enddatum darf nicht vor dem Startdatum liegen";
+        }
+        LocalDate frueheste = erstesDatum(heute);
+        LocalDate spaeteste = letztesDatum(heute);
+        if (startdatum.isBefore(frueheste) || enddatum.isAfter(spaeteste)) {
+            return "Der Zeitraum muss zwischen " + frueheste + " und " + spaeteste + " liegen";
+        }
+        if (ChronoUnit.DAYS.between(startdatum, enddatum) + 1 > MAX_MIETTAGE) {
+            return "Eine Buchung darf höchstens " + MAX_MIETTAGE + " Tage dauern";
+        }
+        return null;
+    }
+
+    public static LocalDate erstesDatum(LocalDate heute) {
+        return LocalDate.of(heute.getYear() - JAHRE_ZURUECK, 1, 1);
+    }
+
+    public static LocalDate letztesDatum(LocalDate heute) {
+        return LocalDate.of(heute.getYear() + JAHRE_VORAUS, 12, 31);
+    }
+}
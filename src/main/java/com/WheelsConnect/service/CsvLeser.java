@@ -0,0 +1,102 @@
+package com.WheelsConnect.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Liest CSV Datensatz für Datensatz (RFC 4180: Felder in Anführungszeichen dürfen Trenner, doppelte
+ * Anführungszeichen und Zeilenumbrüche enthalten). Als Trenner wird ';' erkannt, wenn die Kopfzeile mehr
+ * Semikolons als Kommas enthält, wie bei einem Export aus einem deutschen Excel.
+ */
+class CsvLeser {
+
+    private static final int KOPFZEILE_MAX = 64 * 1024;
+
+    private final BufferedReader reader;
+    private final char trenner;
+    private long zeile = 1;
+    private long datensatzZeile;
+
+    CsvLeser(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        this.trenner = trennerErkennen(reader);
+    }
+
+    /**
+     * @return die Felder des nächsten nicht leeren Datensatzes oder {@code null} am Ende der Eingabe
+     */
+    List<String> naechsterDatensatz() throws IOException {
+        List<String> felder;
+        do {
+            felder = lesen();
+        } while (felder != null && felder.size() == 1 && felder.get(0).isBlank());
+        return felder;
+    }
+
+    /**
+     * Zeilennummer, in der der zuletzt gelesene Datensatz beginnt.
+     */
+    long getZeile() {
+        return datensatzZeile;
+    }
+
+    private List<String> lesen() throws IOException {
+        datensatzZeile = zeile;
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> felder = new ArrayList<>();
+        StringBuilder feld = new StringBuilder();
+        boolean inAnfuehrung = false;
+        while (c != -1) {
+            char zeichen = (char) c;
+            if (inAnfuehrung) {
+                if (zeichen == '"') {
+                    int danach = reader.read();
+                    if (danach != '"') {
+                        inAnfuehrung = false;
+                        c = danach;
+                        continue;
+                    }
+                    feld.append('"');
+                } else {
+                    if (zeichen == '\n') {
+                        zeile++;
+                    }
+                    feld.append(zeichen);
+                }
+            } else if (zeichen == '"' && feld.isEmpty()) {
+                inAnfuehrung = true;
+            } else if (zeichen == trenner) {
+                felder.add(feld.toString());
+                feld.setLength(0);
+            } else if (zeichen == '\n') {
+                zeile++;
+                break;
+            } else if (zeichen != '\r') {
+                feld.append(zeichen);
+            }
+            c = reader.read();
+        }
+        felder.add(feld.toString());
+        return felder;
+    }
+
+    private static char trennerErkennen(BufferedReader reader) throws IOException {
+        reader.mark(KOPFZEILE_MAX + 1);
+        int kommas = 0;
+        int semikolons = 0;
+        for (int i = 0, c = reader.read(); i < KOPFZEILE_MAX && c != -1 && c != '\n'; i++, c = reader.read()) {
+            if (c == ',') {
+                kommas++;
+            } else if (c == ';') {
+                semikolons++;
+            }
+        }
+        reader.reset();
+        return semikolons > kommas ? ';' : ',';
+    }
+}
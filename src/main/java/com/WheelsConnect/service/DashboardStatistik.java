@@ -0,0 +1,201 @@
+package com.WheelsConnect.service;
+
+import com.WheelsConnect.model.Fahrzeug;
+import com.WheelsConnect.model.Standort;
+import com.WheelsConnect.repository.BuchungRepository;
+import com.WheelsConnect.repository.FahrzeugRepository;
+import com.WheelsConnect.repository.FahrzeugStammdaten;
+import com.WheelsConnect.repository.KundeRepository;
+import com.WheelsConnect.repository.StandortRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Kennzahlen für das Dashboard. Die Zähler werden einmal beim Start per Aggregatabfrage gefüllt und danach
+ * von den Controllern bei jedem Schreibzugriff fortgeschrieben, sodass eine Abfrage keinen Tabellenscan braucht.
+ */
+@Service
+public class DashboardStatistik {
+
+    private final KundeRepository kundeRepository;
+    private final BuchungRepository buchungRepository;
+    private final FahrzeugRepository fahrzeugRepository;
+    private final StandortRepository standortRepository;
+
+    private final AtomicLong kundenAnzahl = new AtomicLong();
+    private final Map<YearMonth, LongAdder> buchungenJeMonat = new ConcurrentHashMap<>();
+
+    // Fahrzeug- und Standortdaten ändern sich selten; Schreibzugriffe sind über "this" synchronisiert
+    private final Map<Long, FahrzeugEintrag> fahrzeuge = new HashMap<>();
+    private final Map<Long, StandortEintrag> standorte = new HashMap<>();
+    private final Map<Long, Integer> fahrzeugeJeStandort = new HashMap<>();
+    private final Map<Long, Long> buchungenJeFahrzeug = new HashMap<>();
+    private final TreeSet<Rang> rangliste = new TreeSet<>(Comparator.comparingLong(Rang::buchungen).reversed()
+            .thenComparing(Rang::fahrzeugId));
+
+    public DashboardStatistik(KundeRepository kundeRepository, BuchungRepository buchungRepository,
+                              FahrzeugRepository fahrzeugRepository, StandortRepository standortRepository) {
+        this.kundeRepository = kundeRepository;
+        this.buchungRepository = buchungRepository;
+        this.fahrzeugRepository = fahrzeugRepository;
+        this.standortRepository = standortRepository;
+    }
+
+    @PostConstruct
+    public synchronized void laden() {
+        kundenAnzahl.set(kundeRepository.count());
+
+        buchungenJeMonat.clear();
+        for (BuchungRepository.AnzahlJeMonat anzahl : buchungRepository.countJeMonat()) {
+            buchungenJeMonat.computeIfAbsent(YearMonth.of(anzahl.getJahr(), anzahl.getMonat()), monat -> new LongAdder())
+                    .add(anzahl.getAnzahl());
+        }
+
+        standorte.clear();
+        for (Standort standort : standortRepository.findAll()) {
+            standorte.put(standort.getId(), new StandortEintrag(standort.getName(), standort.getKapazitaet()));
+        }
+
+        fahrzeuge.clear();
+        fahrzeugeJeStandort.clear();
+        for (FahrzeugStammdaten fahrzeug : fahrzeugRepository.findAllStammdaten()) {
+            fahrzeugEintragen(fahrzeug.getId(), new FahrzeugEintrag(name(fahrzeug.getMarke(), fahrzeug.getModell()), fahrzeug.getStandortId()));
+        }
+
+        buchungenJeFahrzeug.clear();
+        rangliste.clear();
+        for (BuchungRepository.AnzahlJeFahrzeug anzahl : buchungRepository.countJeFahrzeug()) {
+            buchungenJeFahrzeug.put(anzahl.getFahrzeugId(), anzahl.getAnzahl());
+            rangliste.add(new Rang(anzahl.getAnzahl(), anzahl.getFahrzeugId()));
+        }
+    }
+
+    public void kundeAngelegt() {
+        kundenAnzahl.incrementAndGet();
+    }
+
+    public void kundeGeloescht() {
+        kundenAnzahl.decrementAndGet();
+    }
+
+    /**
+     * Zählt eine Buchung hinzu ({@code delta = 1}) oder heraus ({@code delta = -1}).
+     * Eine Änderung wird als Herausnehmen des alten und Hinzunehmen des neuen Stands gemeldet.
+     */
+    public synchronized void buchungGezaehlt(LocalDate startdatum, Long fahrzeugId, int delta) {
+        if (startdatum != null) {
+            buchungenJeMonat.computeIfAbsent(YearMonth.from(startdatum), monat -> new LongAdder()).add(delta);
+        }
+        if (fahrzeugId != null) {
+            long alt = buchungenJeFahrzeug.getOrDefault(fahrzeugId, 0L);
+            long neu = Math.max(0, alt + delta);
+            rangliste.remove(new Rang(alt, fahrzeugId));
+            if (neu > 0) {
+                buchungenJeFahrzeug.put(fahrzeugId, neu);
+                rangliste.add(new Rang(neu, fahrzeugId));
+            } else {
+                buchungenJeFahrzeug.remove(fahrzeugId);
+            }
+        }
+    }
+
+    public synchronized void fahrzeugGespeichert(Fahrzeug fahrzeug) {
+        Long standortId = fahrzeug.getStandort() == null ? null : fahrzeug.getStandort().getId();
+        fahrzeugEintragen(fahrzeug.getId(), new FahrzeugEintrag(name(fahrzeug.getMarke(), fahrzeug.getModell()), standortId));
+    }
+
+    public synchronized void fahrzeugGeloescht(Long fahrzeugId) {
+        fahrzeugAustragen(fahrzeuge.remove(fahrzeugId));
+        Long anzahl = buchungenJeFahrzeug.remove(fahrzeugId);
+        if (anzahl != null) {
+            rangliste.remove(new Rang(anzahl, fahrzeugId));
+        }
+    }
+
+    public synchronized void standortGespeichert(Standort standort) {
+        standorte.put(standort.getId(), new StandortEintrag(standort.getName(), standort.getKapazitaet()));
+    }
+
+    public synchronized void standortGeloescht(Long standortId) {
+        standorte.remove(standortId);
+    }
+
+    public long getKundenAnzahl() {
+        return kundenAnzahl.get();
+    }
+
+    public long getBuchungenImMonat(YearMonth monat) {
+        LongAdder anzahl = buchungenJeMonat.get(monat);
+        return anzahl == null ? 0 : anzahl.sum();
+    }
+
+    public synchronized List<StandortAuslastung> getStandortAuslastung() {
+        List<StandortAuslastung> auslastung = new ArrayList<>(standorte.size());
+        standorte.forEach((id, standort) -> auslastung.add(
+                new StandortAuslastung(id, standort.name(), getFahrzeugAnzahl(id), standort.kapazitaet())));
+        auslastung.sort(Comparator.comparing(StandortAuslastung::standortId));
+        return auslastung;
+    }
+
+    public synchronized List<FahrzeugRang> getBeliebtesteFahrzeuge(int anzahl) {
+        List<FahrzeugRang> ergebnis = new ArrayList<>(anzahl);
+        Iterator<Rang> iterator = rangliste.iterator();
+        while (iterator.hasNext() && ergebnis.size() < anzahl) {
+            Rang rang = iterator.next();
+            FahrzeugEintrag fahrzeug = fahrzeuge.get(rang.fahrzeugId());
+            if (fahrzeug != null) {
+                ergebnis.add(new FahrzeugRang(rang.fahrzeugId(), fahrzeug.name(), rang.buchungen()));
+            }
+        }
+        return ergebnis;
+    }
+
+    public synchronized int getFahrzeugAnzahl(Long standortId) {
+        return fahrzeugeJeStandort.getOrDefault(standortId, 0);
+    }
+
+    private void fahrzeugEintragen(Long fahrzeugId, FahrzeugEintrag eintrag) {
+        fahrzeugAustragen(fahrzeuge.put(fahrzeugId, eintrag));
+        if (eintrag.standortId() != null) {
+            fahrzeugeJeStandort.merge(eintrag.standortId(), 1, Integer::sum);
+        }
+    }
+
+    private void fahrzeugAustragen(FahrzeugEintrag eintrag) {
+        if (eintrag != null && eintrag.standortId() != null) {
+            fahrzeugeJeStandort.computeIfPresent(eintrag.standortId(), (id, anzahl) -> anzahl > 1 ? anzahl - 1 : null);
+        }
+    }
+
+    private static String name(String marke, String modell) {
+        return marke + " " + modell;
+    }
+
+    private record FahrzeugEintrag(String name, Long standortId) {
+    }
+
+    private record StandortEintrag(String name, int kapazitaet) {
+    }
+
+    private record Rang(long buchungen, Long fahrzeugId) {
+    }
+
+    public record StandortAuslastung(Long standortId, String standort, int count, int kapazitaet) {
+    }
+
+    public record FahrzeugRang(Long fahrzeugId, String name, long buchungen) {
+    }
+}
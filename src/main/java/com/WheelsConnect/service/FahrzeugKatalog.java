@@ -0,0 +1,298 @@
+package com.WheelsConnect.service;
+
+import com.WheelsConnect.model.Fahrzeug;
+import com.WheelsConnect.repository.FahrzeugRepository;
+import jakarta.annotation.PostConstruct;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Facettensuche über den Fuhrpark: je Merkmalswert eine komprimierte Bitmap (Roaring) der Fahrzeug-Ids. Mehrere
+ * Werte eines Merkmals werden mit ODER, verschiedene Merkmale mit UND verknüpft. Die Facettenzahlen eines Merkmals
+ * gelten für die Auswahl ohne dessen eigene Bedingung, damit die Oberfläche auch die Alternativen anzeigen kann.
+ */
+@Service
+public class FahrzeugKatalog {
+
+    public static final int MAX_ERGEBNISSE = 500;
+    // Breite der Preisstufen in den Facettenzahlen
+    static final int PREISSTUFE = 50;
+
+    private final FahrzeugRepository fahrzeugRepository;
+    private final StammdatenCache stammdatenCache;
+
+    private final ReadWriteLock sperre = new ReentrantReadWriteLock();
+    private final Map<Merkmal, Map<String, RoaringBitmap>> werte = new EnumMap<>(Merkmal.class);
+    private final NavigableMap<Double, RoaringBitmap> preise = new TreeMap<>();
+    private final Map<Long, Eintrag> eintraege = new HashMap<>();
+    private final RoaringBitmap alle = new RoaringBitmap();
+
+    public FahrzeugKatalog(FahrzeugRepository fahrzeugRepository, StammdatenCache stammdatenCache) {
+        this.fahrzeugRepository = fahrzeugRepository;
+        this.stammdatenCache = stammdatenCache;
+        for (Merkmal merkmal : Merkmal.values()) {
+            werte.put(merkmal, new TreeMap<>());
+        }
+    }
+
+    @PostConstruct
+    public void laden() {
+        List<Fahrzeug> fahrzeuge = fahrzeugRepository.findAll();
+        sperre.writeLock().lock();
+        try {
+            werte.values().forEach(Map::clear);
+            preise.clear();
+            eintraege.clear();
+            alle.clear();
+            for (Fahrzeug fahrzeug : fahrzeuge) {
+                hinzufuegen(Eintrag.aus(fahrzeug));
+            }
+            werte.values().forEach(bitmaps -> bitmaps.values().forEach(RoaringBitmap::runOptimize));
+        } finally {
+            sperre.writeLock().unlock();
+        }
+    }
+
+    public void gespeichert(Fahrzeug fahrzeug) {
+        Eintrag eintrag = Eintrag.aus(fahrzeug);
+        sperre.writeLock().lock();
+        try {
+            entfernen(fahrzeug.getId());
+            hinzufuegen(eintrag);
+        } finally {
+            sperre.writeLock().unlock();
+        }
+    }
+
+    public void geloescht(Long fahrzeugId) {
+        sperre.writeLock().lock();
+        try {
+            entfernen(fahrzeugId);
+        } finally {
+            sperre.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Bis zu {@code limit} passende Fahrzeuge nach Id aufsteigend ab {@code after}, dazu die Gesamtzahl und die
+     * Facettenzahlen aller Merkmale. Ein negatives {@code after} zählt wie keines.
+     */
+    public Ergebnis suchen(Suche suche, Long after, int limit) {
+        int[] ids;
+        int anzahl;
+        Map<String, Map<String, Integer>> facetten = new LinkedHashMap<>();
+        sperre.readLock().lock();
+        try {
+            Map<Merkmal, RoaringBitmap> bedingungen = new EnumMap<>(Merkmal.class);
+            for (Merkmal merkmal : Merkmal.values()) {
+                RoaringBitmap bedingung = bedingung(merkmal, suche);
+                if (bedingung != null) {
+                    bedingungen.put(merkmal, bedingung);
+                }
+            }
+            RoaringBitmap treffer = verknuepfen(bedingungen, null);
+            anzahl = treffer.getCardinality();
+
+            for (Merkmal merkmal : Merkmal.values()) {
+                RoaringBitmap basis = bedingungen.containsKey(merkmal) ? verknuepfen(bedingungen, merkmal) : treffer;
+                facetten.put(merkmal.schluessel, merkmal == Merkmal.PREIS ? preisFacette(basis) : facette(merkmal, basis));
+            }
+
+            ids = new int[Math.min(limit, anzahl)];
+            PeekableIntIterator iterator = treffer.getIntIterator();
+            // advanceIfNeeded vergleicht vorzeichenlos, ein negativer Cursor würde alles überspringen
+            if (after != null && after >= Integer.MAX_VALUE) {
+                ids = new int[0];
+            } else if (after != null && after >= 0) {
+                iterator.advanceIfNeeded((int) (after + 1));
+            }
+            int gefunden = 0;
+            while (gefunden < ids.length && iterator.hasNext()) {
+                ids[gefunden++] = iterator.next();
+            }
+            if (gefunden < ids.length) {
+                ids = Arrays.copyOf(ids, gefunden);
+            }
+        } finally {
+            sperre.readLock().unlock();
+        }
+
+        List<Fahrzeug> fahrzeuge = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            stammdatenCache.fahrzeug((long) id).ifPresent(fahrzeuge::add);
+        }
+        return new Ergebnis(anzahl, fahrzeuge, facetten);
+    }
+
+    /**
+     * ODER über die gewählten Werte eines Merkmals; {@code null}, wenn das Merkmal nicht eingeschränkt ist.
+     */
+    private RoaringBitmap bedingung(Merkmal merkmal, Suche suche) {
+        if (merkmal == Merkmal.PREIS) {
+            if (suche.minPreis() == null && suche.maxPreis() == null) {
+                return null;
+            }
+            double min = suche.minPreis() == null ? Double.NEGATIVE_INFINITY : suche.minPreis();
+            double max = suche.maxPreis() == null ? Double.POSITIVE_INFINITY : suche.maxPreis();
+            // umgekehrter Bereich oder NaN: keine Treffer statt IllegalArgumentException aus subMap
+            if (!(min <= max)) {
+                return new RoaringBitmap();
+            }
+            NavigableMap<Double, RoaringBitmap> bereich = preise.subMap(min, true, max, true);
+            return FastAggregation.or(bereich.values().iterator());
+        }
+        List<?> gewaehlt = merkmal.auswahl.apply(suche);
+        if (gewaehlt == null || gewaehlt.isEmpty()) {
+            return null;
+        }
+        Map<String, RoaringBitmap> bitmaps = werte.get(merkmal);
+        List<RoaringBitmap> passend = new ArrayList<>(gewaehlt.size());
+        for (Object wert : gewaehlt) {
+            RoaringBitmap bitmap = bitmaps.get(String.valueOf(wert));
+            if (bitmap != null) {
+                passend.add(bitmap);
+            }
+        }
+        return FastAggregation.or(passend.iterator());
+    }
+
+    /**
+     * UND über alle Bedingungen außer {@code ohne}; ohne Bedingungen sind alle Fahrzeuge ein Treffer.
+     */
+    private RoaringBitmap verknuepfen(Map<Merkmal, RoaringBitmap> bedingungen, Merkmal ohne) {
+        List<RoaringBitmap> beteiligt = new ArrayList<>(bedingungen.size());
+        bedingungen.forEach((merkmal, bitmap) -> {
+            if (merkmal != ohne) {
+                beteiligt.add(bitmap);
+            }
+        });
+        if (beteiligt.isEmpty()) {
+            return alle;
+        }
+        return beteiligt.size() == 1 ? beteiligt.get(0) : FastAggregation.and(beteiligt.iterator());
+    }
+
+    private Map<String, Integer> facette(Merkmal merkmal, RoaringBitmap basis) {
+        Map<String, Integer> zahlen = new LinkedHashMap<>();
+        werte.get(merkmal).forEach((wert, bitmap) -> {
+            int anzahl = RoaringBitmap.andCardinality(bitmap, basis);
+            if (anzahl > 0) {
+                zahlen.put(wert, anzahl);
+            }
+        });
+        return zahlen;
+    }
+
+    private Map<String, Integer> preisFacette(RoaringBitmap basis) {
+        Map<String, Integer> zahlen = new LinkedHashMap<>();
+        preise.forEach((preis, bitmap) -> {
+            int anzahl = RoaringBitmap.andCardinality(bitmap, basis);
+            if (anzahl > 0) {
+                long stufe = (long) Math.floor(preis / PREISSTUFE);
+                zahlen.merge(stufe * PREISSTUFE + "-" + (stufe + 1) * PREISSTUFE, anzahl, Integer::sum);
+            }
+        });
+        return zahlen;
+    }
+
+    private void hinzufuegen(Eintrag eintrag) {
+        int id = Math.toIntExact(eintrag.id());
+        eintraege.put(eintrag.id(), eintrag);
+        alle.add(id);
+        eintrag.werte().forEach((merkmal, wert) ->
+                werte.get(merkmal).computeIfAbsent(wert, w -> new RoaringBitmap()).add(id));
+        if (eintrag.preis() != null) {
+            preise.computeIfAbsent(eintrag.preis(), p -> new RoaringBitmap()).add(id);
+        }
+    }
+
+    private void entfernen(Long fahrzeugId) {
+        Eintrag eintrag = eintraege.remove(fahrzeugId);
+        if (eintrag == null) {
+            return;
+        }
+        int id = Math.toIntExact(fahrzeugId);
+        alle.remove(id);
+        eintrag.werte().forEach((merkmal, wert) -> {
+            Map<String, RoaringBitmap> bitmaps = werte.get(merkmal);
+            RoaringBitmap bitmap = bitmaps.get(wert);
+            bitmap.remove(id);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(wert);
+            }
+        });
+        if (eintrag.preis() != null) {
+            RoaringBitmap bitmap = preise.get(eintrag.preis());
+            bitmap.remove(id);
+            if (bitmap.isEmpty()) {
+                preise.remove(eintrag.preis());
+            }
+        }
+    }
+
+    public enum Merkmal {
+        MARKE("marke", Suche::marke),
+        MODELL("modell", Suche::modell),
+        TYP("typ", Suche::typ),
+        FARBE("farbe", Suche::farbe),
+        BAUJAHR("baujahr", Suche::baujahr),
+        STANDORT("standortId", Suche::standortId),
+        PREIS("preis", suche -> null);
+
+        private final String schluessel;
+        private final Function<Suche, List<?>> auswahl;
+
+        Merkmal(String schluessel, Function<Suche, List<?>> auswahl) {
+            this.schluessel = schluessel;
+            this.auswahl = auswahl;
+        }
+    }
+
+    /**
+     * Gewählte Facettenwerte; nicht gesetzte Merkmale schränken nicht ein, der Preisbereich ist inklusiv.
+     */
+    public record Suche(List<String> marke, List<String> modell, List<String> typ, List<String> farbe,
+                        List<Integer> baujahr, List<Long> standortId, Double minPreis, Double maxPreis) {
+    }
+
+    /**
+     * {@code anzahl} ist die Zahl aller Treffer, {@code fahrzeuge} nur die angeforderte Seite.
+     */
+    public record Ergebnis(int anzahl, List<Fahrzeug> fahrzeuge, Map<String, Map<String, Integer>> facetten) {
+    }
+
+    private record Eintrag(Long id, Map<Merkmal, String> werte, Double preis) {
+
+        static Eintrag aus(Fahrzeug fahrzeug) {
+            Map<Merkmal, String> werte = new EnumMap<>(Merkmal.class);
+            eintragen(werte, Merkmal.MARKE, fahrzeug.getMarke());
+            eintragen(werte, Merkmal.MODELL, fahrzeug.getModell());
+            eintragen(werte, Merkmal.TYP, fahrzeug.getTyp());
+            eintragen(werte, Merkmal.FARBE, fahrzeug.getFarbe());
+            eintragen(werte, Merkmal.BAUJAHR, fahrzeug.getBaujahr());
+            eintragen(werte, Merkmal.STANDORT, fahrzeug.getStandort() == null ? null : fahrzeug.getStandort().getId());
+            return new Eintrag(fahrzeug.getId(), werte, fahrzeug.getPreis());
+        }
+
+        private static void eintragen(Map<Merkmal, String> werte, Merkmal merkmal, Object wert) {
+            if (wert != null) {
+                werte.put(merkmal, String.valueOf(wert));
+            }
+        }
+    }
+}
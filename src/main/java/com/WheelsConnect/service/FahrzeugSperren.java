@@ -0,0 +1,72 @@
+package com.WheelsConnect.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gestreifte Sperren je Fahrzeug. Schreibzugriffe auf Buchungen desselben Fahrzeugs werden serialisiert,
+ * Buchungen verschiedener Fahrzeuge laufen parallel (bis auf seltene Kollisionen zweier Ids im selben Streifen).
+ * Die Sperren gelten nur innerhalb dieser JVM.
+ */
+@Component
+public class FahrzeugSperren {
+
+    private final ReentrantLock[] streifen;
+
+    public FahrzeugSperren() {
+        this(Runtime.getRuntime().availableProcessors() * 16);
+    }
+
+    public FahrzeugSperren(int anzahl) {
+        // auf eine Zweierpotenz runden, damit der Streifen per Bitmaske bestimmt werden kann
+        int groesse = Integer.highestOneBit(Math.max(1, anzahl - 1)) << 1;
+        streifen = new ReentrantLock[groesse];
+        for (int i = 0; i < groesse; i++) {
+            streifen[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Sperrt die Streifen aller übergebenen Fahrzeuge in fester Reihenfolge, damit sich zwei Aufrufer
+     * mit denselben Fahrzeugen nicht gegenseitig blockieren können. {@code null}-Ids werden ignoriert.
+     */
+    public Sperre sperren(Long... fahrzeugIds) {
+        int[] indizes = Arrays.stream(fahrzeugIds)
+                .filter(id -> id != null)
+                .mapToInt(this::streifenIndex)
+                .distinct()
+                .sorted()
+                .toArray();
+        int gesperrt = 0;
+        try {
+            for (int index : indizes) {
+                streifen[index].lock();
+                gesperrt++;
+            }
+        } finally {
+            if (gesperrt < indizes.length) {
+                freigeben(indizes, gesperrt);
+            }
+        }
+        return () -> freigeben(indizes, indizes.length);
+    }
+
+    private void freigeben(int[] indizes, int anzahl) {
+        for (int i = anzahl - 1; i >= 0; i--) {
+            streifen[indizes[i]].unlock();
+        }
+    }
+
+    private int streifenIndex(Long fahrzeugId) {
+        int hash = fahrzeugId.hashCode();
+        return (hash ^ (hash >>> 16)) & (streifen.length - 1);
+    }
+
+    @FunctionalInterface
+    public interface Sperre extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,271 @@
+package com.WheelsConnect.service;
+
+import com.WheelsConnect.model.Buchung;
+import com.WheelsConnect.model.Fahrzeug;
+import com.WheelsConnect.model.Kunde;
+import com.WheelsConnect.repository.KundeRepository;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Legt mehrere Buchungen gemeinsam an, z.B. für Firmenkunden mit vielen Fahrzeugen. Geprüft wird im Speicher gegen
+ * den {@link BuchungIndex} und zwischen den Buchungen der Anfrage; geschrieben wird in einem JDBC-Batch und einer
+ * Transaktion. Entweder werden alle Buchungen angelegt oder keine. Wie bei einzelnen Buchungen hat die Transaktion ihre
+ * Verbindung schon, bevor die Fahrzeugsperren genommen werden, und gibt sie erst nach dem Eintragen in den Index frei.
+ */
+@Service
+public class Gruppenbuchung {
+
+    public static final int MAX_BUCHUNGEN = 500;
+
+    private static final String BUCHUNG_INSERT = "insert into buchung (startdatum, enddatum, gesamtpreis, buchungsstatus, kunde_id, fahrzeug_id, version, geaendert_am) "
+            + "values (?, ?, ?, ?, ?, ?, 0, ?)";
+
+    private final DataSource dataSource;
+    private final BuchungIndex buchungIndex;
+    private final FahrzeugSperren fahrzeugSperren;
+    private final Preisberechnung preisberechnung;
+    private final DashboardStatistik dashboardStatistik;
+    private final LiveAenderungen liveAenderungen;
+    private final Aenderungen aenderungen;
+    private final StammdatenCache stammdatenCache;
+    private final KundeRepository kundeRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public Gruppenbuchung(DataSource dataSource, BuchungIndex buchungIndex, FahrzeugSperren fahrzeugSperren,
+                          Preisberechnung preisberechnung, DashboardStatistik dashboardStatistik,
+                          LiveAenderungen liveAenderungen, Aenderungen aenderungen, StammdatenCache stammdatenCache,
+                          KundeRepository kundeRepository, PlatformTransactionManager transactionManager) {
+        this.dataSource = dataSource;
+        this.buchungIndex = buchungIndex;
+        this.fahrzeugSperren = fahrzeugSperren;
+        this.preisberechnung = preisberechnung;
+        this.dashboardStatistik = dashboardStatistik;
+        this.liveAenderungen = liveAenderungen;
+        this.aenderungen = aenderungen;
+        this.stammdatenCache = stammdatenCache;
+        this.kundeRepository = kundeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Die Preise werden wie bei einzelnen Buchungen nach dem Tarif berechnet. Ist eine Buchung ungültig oder belegt,
+     * wird keine angelegt und das Ergebnis nennt alle betroffenen Positionen der Anfrage. Kunde und Fahrzeug werden
+     * vorab nachgeschlagen und in die Buchungen übernommen, die Antwort und die Live-Änderungen enthalten sie vollständig.
+     */
+    public Ergebnis anlegen(List<Buchung> buchungen) {
+        Map<Long, Kunde> kunden = kundeRepository.findAllById(buchungen.stream()
+                        .map(buchung -> buchung.getKunde() == null ? null : buchung.getKunde().getId())
+                        .filter(Objects::nonNull).distinct().toList())
+                .stream().collect(Collectors.toMap(Kunde::getId, Function.identity()));
+        List<Problem> ungueltig = new ArrayList<>();
+        for (int i = 0; i < buchungen.size(); i++) {
+            Buchung buchung = buchungen.get(i);
+            String zeitraum = Buchungszeitraum.pruefen(buchung.getStartdatum(), buchung.getEnddatum());
+            if (zeitraum != null) {
+                ungueltig.add(new Problem(i, zeitraum, null, null));
+                continue;
+            }
+            if (buchung.getKunde() != null) {
+                Kunde kunde = kunden.get(buchung.getKunde().getId());
+                if (kunde == null) {
+                    ungueltig.add(new Problem(i, "Der Kunde existiert nicht", null, null));
+                    continue;
+                }
+                buchung.setKunde(kunde);
+            }
+            if (buchung.getFahrzeug() != null) {
+                Optional<Fahrzeug> fahrzeug = buchung.getFahrzeug().getId() == null
+                        ? Optional.empty() : stammdatenCache.fahrzeug(buchung.getFahrzeug().getId());
+                if (fahrzeug.isEmpty()) {
+                    ungueltig.add(new Problem(i, "Das Fahrzeug existiert nicht", null, null));
+                    continue;
+                }
+                buchung.setFahrzeug(fahrzeug.get());
+            }
+            OptionalDouble gesamtpreis = gesamtpreis(buchung);
+            if (gesamtpreis.isEmpty()) {
+                ungueltig.add(new Problem(i, "Das Fahrzeug existiert nicht", null, null));
+                continue;
+            }
+            buchung.setGesamtpreis(gesamtpreis.getAsDouble());
+        }
+        if (!ungueltig.isEmpty()) {
+            return new Ergebnis(Status.UNGUELTIG, List.of(), ungueltig);
+        }
+
+        Long[] fahrzeugIds = buchungen.stream().map(Gruppenbuchung::fahrzeugId).distinct().toArray(Long[]::new);
+        return transactionTemplate.execute(transaktion -> {
+            // alle beteiligten Fahrzeuge bis nach dem Commit sperren, wie bei einzelnen Buchungen
+            FahrzeugSperren.Sperre sperre = fahrzeugSperren.sperren(fahrzeugIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    sperre.close();
+                }
+            });
+            List<Problem> konflikte = konflikte(buchungen);
+            if (!konflikte.isEmpty()) {
+                return new Ergebnis(Status.KONFLIKT, List.of(), konflikte);
+            }
+            speichern(buchungen);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    for (Buchung buchung : buchungen) {
+                        buchungIndex.aktualisieren(buchung);
+                        dashboardStatistik.buchungGezaehlt(buchung.getStartdatum(), fahrzeugId(buchung), 1);
+                        liveAenderungen.angelegt(Buchung.class, buchung.getId(), buchung);
+                    }
+                    // die Inserts laufen an Hibernate vorbei, der AenderungsListener bekommt sie nicht mit
+                    aenderungen.geaendert(Buchung.class);
+                }
+            });
+            return new Ergebnis(Status.ANGELEGT, buchungen, List.of());
+        });
+    }
+
+    /**
+     * Konflikte mit bestehenden Buchungen und innerhalb der Anfrage. Je Fahrzeug werden die Buchungen nach Startdatum
+     * sortiert; eine Buchung kollidiert mit der bis dahin am längsten laufenden. Stornierte Buchungen belegen nichts.
+     */
+    private List<Problem> konflikte(List<Buchung> buchungen) {
+        Map<Long, List<Integer>> jeFahrzeug = new HashMap<>();
+        for (int i = 0; i < buchungen.size(); i++) {
+            Buchung buchung = buchungen.get(i);
+            if (fahrzeugId(buchung) != null && !BuchungIndex.STORNIERT.equals(buchung.getBuchungsstatus())) {
+                jeFahrzeug.computeIfAbsent(fahrzeugId(buchung), id -> new ArrayList<>()).add(i);
+            }
+        }
+
+        Map<Integer, Integer> ueberschneidungen = new HashMap<>();
+        for (List<Integer> indizes : jeFahrzeug.values()) {
+            indizes.sort(Comparator.comparing(i -> buchungen.get(i).getStartdatum()));
+            int laengste = indizes.get(0);
+            for (int i : indizes.subList(1, indizes.size())) {
+                Buchung buchung = buchungen.get(i);
+                if (!buchung.getStartdatum().isAfter(buchungen.get(laengste).getEnddatum())) {
+                    ueberschneidungen.put(i, laengste);
+                }
+                if (buchung.getEnddatum().isAfter(buchungen.get(laengste).getEnddatum())) {
+                    laengste = i;
+                }
+            }
+        }
+
+        List<Problem> konflikte = new ArrayList<>();
+        for (List<Integer> indizes : jeFahrzeug.values()) {
+            for (int i : indizes) {
+                Buchung buchung = buchungen.get(i);
+                Long konfliktBuchungId = buchungIndex.findeKonflikt(fahrzeugId(buchung), buchung.getStartdatum(), buchung.getEnddatum(), null);
+                Integer konfliktIndex = ueberschneidungen.get(i);
+                if (konfliktBuchungId != null || konfliktIndex != null) {
+                    konflikte.add(new Problem(i, konfliktBuchungId != null
+                            ? "Das Fahrzeug ist im angegebenen Zeitraum bereits gebucht"
+                            : "Überschneidet sich mit einer anderen Buchung dieser Anfrage", konfliktBuchungId, konfliktIndex));
+                }
+            }
+        }
+        konflikte.sort(Comparator.comparingInt(Problem::index));
+        return konflikte;
+    }
+
+    /**
+     * Schreibt über die Verbindung der laufenden Transaktion; Commit und Rollback übernimmt die Transaktion.
+     */
+    private void speichern(List<Buchung> buchungen) {
+        Timestamp jetzt = Timestamp.from(Instant.now());
+        Connection verbindung = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement insert = verbindung.prepareStatement(BUCHUNG_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            for (Buchung buchung : buchungen) {
+                insert.setDate(1, Date.valueOf(buchung.getStartdatum()));
+                insert.setDate(2, Date.valueOf(buchung.getEnddatum()));
+                insert.setDouble(3, buchung.getGesamtpreis());
+                setzen(insert, 4, buchung.getBuchungsstatus());
+                setzen(insert, 5, buchung.getKunde() == null ? null : buchung.getKunde().getId());
+                setzen(insert, 6, fahrzeugId(buchung));
+                insert.setTimestamp(7, jetzt);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+            List<Long> ids = new ArrayList<>(buchungen.size());
+            try (ResultSet schluessel = insert.getGeneratedKeys()) {
+                while (schluessel.next()) {
+                    ids.add(schluessel.getLong(1));
+                }
+            }
+            if (ids.size() != buchungen.size()) {
+                throw new SQLException("Es wurden " + ids.size() + " statt " + buchungen.size() + " Ids vergeben");
+            }
+            for (int i = 0; i < buchungen.size(); i++) {
+                buchungen.get(i).setId(ids.get(i));
+                buchungen.get(i).setVersion(0L);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Gruppenbuchung abgebrochen, es wurde keine Buchung angelegt", e);
+        } finally {
+            DataSourceUtils.releaseConnection(verbindung, dataSource);
+        }
+    }
+
+    private OptionalDouble gesamtpreis(Buchung buchung) {
+        Long fahrzeugId = fahrzeugId(buchung);
+        return fahrzeugId == null ? OptionalDouble.of(0) : preisberechnung.gesamtpreis(fahrzeugId, buchung.getStartdatum(), buchung.getEnddatum());
+    }
+
+    private static void setzen(PreparedStatement insert, int index, Object wert) throws SQLException {
+        if (wert == null) {
+            insert.setNull(index, Types.NULL);
+        } else {
+            insert.setObject(index, wert);
+        }
+    }
+
+    private static Long fahrzeugId(Buchung buchung) {
+        return buchung.getFahrzeug() == null ? null : buchung.getFahrzeug().getId();
+    }
+
+    public enum Status {
+        ANGELEGT, UNGUELTIG, KONFLIKT
+    }
+
+    /**
+     * {@code buchungen} enthält nur beim Status {@code ANGELEGT} die gespeicherten Buchungen, {@code probleme} sonst
+     * die Gründe je Position.
+     */
+    public record Ergebnis(Status status, List<Buchung> buchungen, List<Problem> probleme) {
+    }
+
+    /**
+     * @param index              Position in der Anfrage, beginnend bei 0
+     * @param konfliktBuchungId  bestehende Buchung, mit der sich der Zeitraum überschneidet
+     * @param konfliktIndex      Position einer früher beginnenden Buchung derselben Anfrage mit überschneidendem Zeitraum
+     */
+    public record Problem(int index, String meldung, Long konfliktBuchungId, Integer konfliktIndex) {
+    }
+}
@@ -0,0 +1,353 @@
+package com.WheelsConnect.service;
+
+import com.WheelsConnect.model.Kunde;
+import com.WheelsConnect.repository.KundeRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+import java.util.regex.Pattern;
+
+/**
+ * Tippfehlertolerante Kundensuche im Speicher über Vorname, Nachname, E-Mail, Telefonnummer und PLZ.
+ * Jedes Wort wird normalisiert (klein, ohne Akzente, ß als ss) und in Trigramme zerlegt, mit Randmarken am
+ * Wortanfang, damit auch ein oder zwei eingegebene Zeichen als Präfix treffen. Ein Kunde passt, wenn er
+ * mindestens {@link #MIN_ANTEIL} der Trigramme der Eingabe enthält; bewertet wird nach Trigrammtreffern und
+ * vollständigen Wortpräfixen. Pro Kunde werden höchstens {@link #MAX_FELDLAENGE} Zeichen je Feld indiziert.
+ */
+@Service
+public class KundenSuche {
+
+    public static final int MAX_TREFFER = 50;
+    static final int MAX_FELDLAENGE = 64;
+    static final double MIN_ANTEIL = 0.7;
+    // Vielfaches von k, das nach Trigrammtreffern vorausgewählt und dann genauer bewertet wird
+    static final int VORAUSWAHL = 4;
+
+    private static final Pattern AKZENTE = Pattern.compile("\\p{M}+");
+    private static final Pattern TRENNER = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern TELEFON = Pattern.compile("\\s*\\+?[\\d\\s/()-]*\\d[\\d\\s/()-]*");
+    private static final char RAND = '\u0001';
+
+    private final KundeRepository kundeRepository;
+
+    private final ReadWriteLock sperre = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> slotJeKunde = new HashMap<>();
+    private final Map<Long, Slots> index = new HashMap<>();
+    // Slot -> Eintrag; gelöschte Kunden hinterlassen null, bis neu aufgebaut wird
+    private Eintrag[] eintraege = new Eintrag[0];
+    private int belegt;
+    private int geloescht;
+
+    // Trefferzähler je Slot, pro Thread wiederverwendet; nur berührte Slots werden zurückgesetzt
+    private final ThreadLocal<int[]> zaehler = ThreadLocal.withInitial(() -> new int[0]);
+
+    public KundenSuche(KundeRepository kundeRepository) {
+        this.kundeRepository = kundeRepository;
+    }
+
+    @PostConstruct
+    public void laden() {
+        List<Kunde> kunden = kundeRepository.findAll();
+        sperre.writeLock().lock();
+        try {
+            slotJeKunde.clear();
+            index.clear();
+            eintraege = new Eintrag[Math.max(16, kunden.size() + kunden.size() / 4)];
+            belegt = 0;
+            geloescht = 0;
+            for (Kunde kunde : kunden) {
+                hinzufuegen(Eintrag.aus(kunde));
+            }
+        } finally {
+            sperre.writeLock().unlock();
+        }
+    }
+
+    public void gespeichert(Kunde kunde) {
+        Eintrag eintrag = Eintrag.aus(kunde);
+        sperre.writeLock().lock();
+        try {
+            entfernen(kunde.getId());
+            hinzufuegen(eintrag);
+        } finally {
+            sperre.writeLock().unlock();
+        }
+    }
+
+    public void geloescht(Long kundeId) {
+        sperre.writeLock().lock();
+        try {
+            entfernen(kundeId);
+        } finally {
+            sperre.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Bis zu {@code anzahl} Kunden, bestbewertete zuerst; bei gleicher Bewertung nach Kundennummer.
+     */
+    public List<Treffer> suchen(String eingabe, int anzahl) {
+        // Reine Ziffernfolgen wie "030 1234" sind eine Telefonnummer und werden wie beim Indizieren zusammengezogen
+        List<String> woerter = eingabe != null && TELEFON.matcher(eingabe).matches()
+                ? List.of(eingabe.replaceAll("\\D", ""))
+                : woerter(eingabe);
+        Set<Long> trigramme = new LinkedHashSet<>();
+        for (String wort : woerter) {
+            trigramme(wort, trigramme::add);
+        }
+        if (trigramme.isEmpty() || anzahl <= 0) {
+            return List.of();
+        }
+        int mindestens = Math.max(1, (int) Math.ceil(trigramme.size() * MIN_ANTEIL));
+
+        sperre.readLock().lock();
+        try {
+            int[] treffer = zaehler.get();
+            if (treffer.length < belegt) {
+                treffer = new int[eintraege.length];
+                zaehler.set(treffer);
+            }
+            // Kürzeste Listen zuerst: ein Treffer muss in mindestens einer der ersten (n - mindestens + 1) Listen stehen,
+            // die längeren Listen zählen nur noch für diese Kandidaten mit
+            Slots[] listen = new Slots[trigramme.size()];
+            int n = 0;
+            for (Long trigramm : trigramme) {
+                listen[n++] = index.getOrDefault(trigramm, Slots.LEER);
+            }
+            Arrays.sort(listen, Comparator.comparingInt(slots -> slots.anzahl));
+            int sammeln = n - mindestens + 1;
+
+            int[] beruehrt = new int[64];
+            int anzahlBeruehrt = 0;
+            for (int l = 0; l < n; l++) {
+                Slots slots = listen[l];
+                if (l < sammeln) {
+                    for (int i = 0; i < slots.anzahl; i++) {
+                        int slot = slots.werte[i];
+                        if (treffer[slot]++ == 0) {
+                            if (anzahlBeruehrt == beruehrt.length) {
+                                beruehrt = Arrays.copyOf(beruehrt, anzahlBeruehrt * 2);
+                            }
+                            beruehrt[anzahlBeruehrt++] = slot;
+                        }
+                    }
+                } else if ((long) anzahlBeruehrt * 32 < slots.anzahl) {
+                    // Wenige Kandidaten: in der sortierten Liste nachschlagen statt sie ganz zu lesen
+                    for (int i = 0; i < anzahlBeruehrt; i++) {
+                        if (Arrays.binarySearch(slots.werte, 0, slots.anzahl, beruehrt[i]) >= 0) {
+                            treffer[beruehrt[i]]++;
+                        }
+                    }
+                } else {
+                    for (int i = 0; i < slots.anzahl; i++) {
+                        int slot = slots.werte[i];
+                        if (treffer[slot] > 0) {
+                            treffer[slot]++;
+                        }
+                    }
+                }
+            }
+
+            // Vorauswahl nur über Zähler und Slotnummer, ohne die Einträge selbst zu lesen; k ist klein,
+            // Einfügen per Verschieben reicht
+            int vorauswahl = Math.min(anzahl * VORAUSWAHL, anzahlBeruehrt);
+            int[] besteTreffer = new int[vorauswahl];
+            int[] besteSlots = new int[vorauswahl];
+            int vorgemerkt = 0;
+            for (int i = 0; i < anzahlBeruehrt; i++) {
+                int slot = beruehrt[i];
+                int anzahlTreffer = treffer[slot];
+                treffer[slot] = 0;
+                if (anzahlTreffer < mindestens || eintraege[slot] == null) {
+                    continue;
+                }
+                int j;
+                if (vorgemerkt < vorauswahl) {
+                    j = vorgemerkt++;
+                } else if (anzahlTreffer > besteTreffer[vorauswahl - 1]
+                        || anzahlTreffer == besteTreffer[vorauswahl - 1] && slot < besteSlots[vorauswahl - 1]) {
+                    j = vorauswahl - 1;
+                } else {
+                    continue;
+                }
+                for (; j > 0 && (anzahlTreffer > besteTreffer[j - 1]
+                        || anzahlTreffer == besteTreffer[j - 1] && slot < besteSlots[j - 1]); j--) {
+                    besteTreffer[j] = besteTreffer[j - 1];
+                    besteSlots[j] = besteSlots[j - 1];
+                }
+                besteTreffer[j] = anzahlTreffer;
+                besteSlots[j] = slot;
+            }
+
+            // Feinbewertung der Vorauswahl: vollständige Wortpräfixe zählen zusätzlich
+            List<Kandidat> kandidaten = new ArrayList<>(vorgemerkt);
+            for (int i = 0; i < vorgemerkt; i++) {
+                Eintrag eintrag = eintraege[besteSlots[i]];
+                kandidaten.add(new Kandidat(eintrag, besteTreffer[i] * 2 + eintrag.praefixTreffer(woerter)));
+            }
+            kandidaten.sort(Comparator.comparingInt(Kandidat::bewertung).reversed()
+                    .thenComparingLong(kandidat -> kandidat.eintrag().id()));
+            int gefunden = Math.min(anzahl, kandidaten.size());
+
+            List<Treffer> ergebnis = new ArrayList<>(gefunden);
+            for (int i = 0; i < gefunden; i++) {
+                ergebnis.add(kandidaten.get(i).eintrag().treffer());
+            }
+            return ergebnis;
+        } finally {
+            sperre.readLock().unlock();
+        }
+    }
+
+    private void hinzufuegen(Eintrag eintrag) {
+        if (belegt == eintraege.length) {
+            eintraege = Arrays.copyOf(eintraege, eintraege.length * 2);
+        }
+        int slot = belegt++;
+        eintraege[slot] = eintrag;
+        slotJeKunde.put(eintrag.id(), slot);
+        Set<Long> trigramme = new LinkedHashSet<>();
+        for (String wort : eintrag.woerter()) {
+            trigramme(wort, trigramme::add);
+        }
+        for (Long trigramm : trigramme) {
+            index.computeIfAbsent(trigramm, t -> new Slots()).hinzufuegen(slot);
+        }
+    }
+
+    private void entfernen(Long kundeId) {
+        Integer slot = slotJeKunde.remove(kundeId);
+        if (slot != null) {
+            eintraege[slot] = null;
+            // Postings verweisen weiter auf den Slot; ab einem Viertel Leichen wird kompaktiert
+            if (++geloescht > belegt / 4 + 1000) {
+                neuAufbauen();
+            }
+        }
+    }
+
+    private void neuAufbauen() {
+        Eintrag[] bisher = Arrays.copyOf(eintraege, belegt);
+        slotJeKunde.clear();
+        index.clear();
+        eintraege = new Eintrag[Math.max(16, (belegt - geloescht) * 5 / 4)];
+        belegt = 0;
+        geloescht = 0;
+        for (Eintrag eintrag : bisher) {
+            if (eintrag != null) {
+                hinzufuegen(eintrag);
+            }
+        }
+    }
+
+    static List<String> woerter(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalisiert = AKZENTE.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT).replace("ß", "ss");
+        List<String> woerter = new ArrayList<>();
+        for (String wort : TRENNER.split(normalisiert)) {
+            if (!wort.isEmpty()) {
+                woerter.add(wort);
+            }
+        }
+        return woerter;
+    }
+
+    /**
+     * Trigramme eines Wortes mit zwei Randmarken vorn, je Zeichen 21 Bit in einem long.
+     */
+    private static void trigramme(String wort, LongConsumer ziel) {
+        int a = RAND;
+        int b = RAND;
+        for (int i = 0; i < wort.length(); i++) {
+            int c = wort.charAt(i);
+            ziel.accept(((long) a << 42) | ((long) b << 21) | c);
+            a = b;
+            b = c;
+        }
+    }
+
+    public record Treffer(Long id, String vorname, String nachname, String email, String telefonnummer, String plz) {
+    }
+
+    private record Eintrag(long id, String vorname, String nachname, String email, String telefonnummer, String plz,
+                           String[] woerter) {
+
+        static Eintrag aus(Kunde kunde) {
+            String vorname = kuerzen(kunde.getVorname());
+            String nachname = kuerzen(kunde.getNachname());
+            String email = kuerzen(kunde.getEmail());
+            String telefonnummer = kuerzen(kunde.getTelefonnummer());
+            String plz = kuerzen(kunde.getPlz());
+            List<String> woerter = new ArrayList<>();
+            for (String feld : new String[]{vorname, nachname, email, plz}) {
+                woerter.addAll(KundenSuche.woerter(feld));
+            }
+            // Telefonnummern ohne Trennzeichen, passend zur Aufbereitung der Eingabe in suchen()
+            if (telefonnummer != null && !telefonnummer.isBlank()) {
+                woerter.add(telefonnummer.replaceAll("\\D", ""));
+            }
+            return new Eintrag(kunde.getId(), vorname, nachname, email, telefonnummer, plz,
+                    woerter.stream().filter(wort -> !wort.isEmpty()).distinct().toArray(String[]::new));
+        }
+
+        private static String kuerzen(String wert) {
+            return wert == null || wert.length() <= MAX_FELDLAENGE ? wert : wert.substring(0, MAX_FELDLAENGE);
+        }
+
+        /**
+         * Anzahl der eingegebenen Wörter, mit denen ein Wort des Kunden vollständig beginnt.
+         */
+        int praefixTreffer(List<String> eingabe) {
+            int treffer = 0;
+            for (String gesucht : eingabe) {
+                for (String wort : woerter) {
+                    if (wort.startsWith(gesucht)) {
+                        treffer++;
+                        break;
+                    }
+                }
+            }
+            return treffer;
+        }
+
+        Treffer treffer() {
+            return new Treffer(id, vorname, nachname, email, telefonnummer, plz);
+        }
+    }
+
+    private record Kandidat(Eintrag eintrag, int bewertung) {
+    }
+
+    /**
+     * Slots eines Trigramms, aufsteigend, da neue Einträge immer den nächsten freien Slot bekommen.
+     */
+    private static final class Slots {
+        static final Slots LEER = new Slots();
+
+        private int[] werte = new int[4];
+        private int anzahl;
+
+        void hinzufuegen(int slot) {
+            if (anzahl == werte.length) {
+                werte = Arrays.copyOf(werte, anzahl * 2);
+            }
+            werte[anzahl++] = slot;
+        }
+    }
+}
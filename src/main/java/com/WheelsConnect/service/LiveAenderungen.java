@@ -0,0 +1,140 @@
+package com.WheelsConnect.service;
+
+import com.WheelsConnect.model.Buchung;
+import com.WheelsConnect.model.Fahrzeug;
+import com.WheelsConnect.model.Kunde;
+import com.WheelsConnect.model.Standort;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Verteilt Änderungen an Buchungen, Fahrzeugen, Kunden und Standorten über STOMP an {@code /topic/<pfad>}, z.B.
+ * {@code /topic/buchungen}. Die Controller melden jede Änderung nach dem Speichern; gesendet wird gesammelt im Takt
+ * von {@code wheelsconnect.live.intervall}. Mehrere Änderungen desselben Eintrags innerhalb eines Takts werden dabei
+ * zu einer zusammengefasst, bei mehr als {@value #MAX_JE_SENDUNG} Einträgen wird nur noch zum Neuladen aufgefordert.
+ */
+@Service
+public class LiveAenderungen {
+
+    public static final String TOPIC = "/topic/";
+    public static final int MAX_JE_SENDUNG = 500;
+
+    public static final String ANGELEGT = "angelegt";
+    public static final String GEAENDERT = "geaendert";
+    public static final String GELOESCHT = "geloescht";
+
+    private static final Map<Class<?>, String> PFADE = Map.of(
+            Buchung.class, "buchungen",
+            Fahrzeug.class, "fahrzeuge",
+            Kunde.class, "kunden",
+            Standort.class, "standorte");
+
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Offen> offen = new LinkedHashMap<>();
+
+    public LiveAenderungen(SimpMessageSendingOperations messagingTemplate, ObjectMapper objectMapper) {
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        PFADE.values().forEach(pfad -> offen.put(pfad, new Offen()));
+    }
+
+    /**
+     * Der Eintrag wird sofort im Thread der Anfrage serialisiert, damit der gesendete Stand dem gespeicherten
+     * entspricht und Lazy-Zuordnungen noch geladen werden können.
+     */
+    public void angelegt(Class<?> typ, Long id, Object eintrag) {
+        offen(typ).vormerken(new Delta(ANGELEGT, id, objectMapper.valueToTree(eintrag)));
+    }
+
+    public void geaendert(Class<?> typ, Long id, Object eintrag) {
+        offen(typ).vormerken(new Delta(GEAENDERT, id, objectMapper.valueToTree(eintrag)));
+    }
+
+    public void geloescht(Class<?> typ, Long id) {
+        offen(typ).vormerken(new Delta(GELOESCHT, id, null));
+    }
+
+    /**
+     * Für Massenänderungen wie Importe: die Clients laden die ganze Liste neu.
+     */
+    public void neuLaden(Class<?> typ) {
+        offen(typ).neuLaden();
+    }
+
+    @Scheduled(fixedDelayString = "${wheelsconnect.live.intervall:200}")
+    public void senden() {
+        offen.forEach((pfad, wartend) -> {
+            Sendung sendung = wartend.entnehmen();
+            if (sendung != null) {
+                messagingTemplate.convertAndSend(TOPIC + pfad, sendung);
+            }
+        });
+    }
+
+    private Offen offen(Class<?> typ) {
+        String pfad = PFADE.get(typ);
+        if (pfad == null) {
+            throw new IllegalArgumentException("Keine Live-Änderungen für " + typ.getSimpleName());
+        }
+        return offen.get(pfad);
+    }
+
+    public record Delta(String aktion, Long id, JsonNode daten) {
+    }
+
+    /**
+     * Bei {@code neuLaden} ist {@code aenderungen} leer und der Client holt die Liste neu.
+     */
+    public record Sendung(List<Delta> aenderungen, boolean neuLaden) {
+    }
+
+    private static final class Offen {
+        private Map<Long, Delta> deltas = new LinkedHashMap<>();
+        private boolean neuLaden;
+
+        synchronized void vormerken(Delta delta) {
+            if (neuLaden) {
+                return;
+            }
+            Delta vorher = deltas.remove(delta.id());
+            if (vorher != null && ANGELEGT.equals(vorher.aktion())) {
+                // Innerhalb eines Takts angelegt und wieder gelöscht: die Clients müssen davon nichts erfahren
+                if (GELOESCHT.equals(delta.aktion())) {
+                    return;
+                }
+                delta = new Delta(ANGELEGT, delta.id(), delta.daten());
+            }
+            deltas.put(delta.id(), delta);
+            if (deltas.size() > MAX_JE_SENDUNG) {
+                neuLaden();
+            }
+        }
+
+        synchronized void neuLaden() {
+            neuLaden = true;
+            deltas.clear();
+        }
+
+        synchronized Sendung entnehmen() {
+            if (neuLaden) {
+                neuLaden = false;
+                return new Sendung(List.of(), true);
+            }
+            if (deltas.isEmpty()) {
+                return null;
+            }
+            Sendung sendung = new Sendung(new ArrayList<>(deltas.values()), false);
+            deltas = new LinkedHashMap<>();
+            return sendung;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.WheelsConnect.service;
+
+import com.WheelsConnect.model.Fahrzeug;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalDouble;
+
+/**
+ * Berechnet Buchungspreise serverseitig nach dem {@link Tarif}. Tagespreis und Standort des Fahrzeugs kommen aus
+ * dem {@link StammdatenCache}, ein Fahrzeug ohne Preis kostet nichts.
+ */
+@Service
+@EnableConfigurationProperties(TarifRegeln.class)
+public class Preisberechnung {
+
+    public static final int MAX_ANFRAGEN = 1000;
+
+    private final Tarif tarif;
+    private final StammdatenCache stammdatenCache;
+
+    public Preisberechnung(TarifRegeln regeln, StammdatenCache stammdatenCache) {
+        this.tarif = Tarif.kompilieren(regeln);
+        this.stammdatenCache = stammdatenCache;
+    }
+
+    /**
+     * Leer, wenn es das Fahrzeug nicht gibt.
+     */
+    public OptionalDouble gesamtpreis(Long fahrzeugId, LocalDate startdatum, LocalDate enddatum) {
+        Optional<Fahrzeug> fahrzeug = stammdatenCache.fahrzeug(fahrzeugId);
+        if (fahrzeug.isEmpty()) {
+            return OptionalDouble.empty();
+        }
+        Double tagespreis = fahrzeug.get().getPreis();
+        Long standortId = fahrzeug.get().getStandort() == null ? null : fahrzeug.get().getStandort().getId();
+        return OptionalDouble.of(tagespreis == null ? 0 : tarif.preis(tagespreis, standortId, startdatum, enddatum));
+    }
+
+    /**
+     * Preise für eine ganze Ergebnisliste; die Antworten stehen in der Reihenfolge der Anfragen, ungültige Anfragen
+     * enthalten statt eines Preises eine Fehlermeldung.
+     */
+    public List<Angebot> angebote(List<Anfrage> anfragen) {
+        List<Angebot> angebote = new ArrayList<>(anfragen.size());
+        for (Anfrage anfrage : anfragen) {
+            angebote.add(angebot(anfrage));
+        }
+        return angebote;
+    }
+
+    private Angebot angebot(Anfrage anfrage) {
+        if (anfrage.fahrzeugId() == null || anfrage.startdatum() == null || anfrage.enddatum() == null) {
+            return anfrage.fehler("Fahrzeug, Startdatum und Enddatum sind erforderlich");
+        }
+        String ungueltig = Buchungszeitraum.pruefen(anfrage.startdatum(), anfrage.enddatum());
+        if (ungueltig != null) {
+            return anfrage.fehler(ungueltig);
+        }
+        OptionalDouble preis = gesamtpreis(anfrage.fahrzeugId(), anfrage.startdatum(), anfrage.enddatum());
+        if (preis.isEmpty()) {
+            return anfrage.fehler("Das Fahrzeug existiert nicht");
+        }
+        long tage = ChronoUnit.DAYS.between(anfrage.startdatum(), anfrage.enddatum()) + 1;
+        return new Angebot(anfrage.fahrzeugId(), anfrage.startdatum(), anfrage.enddatum(), tage, preis.getAsDouble(), null);
+    }
+
+    public record Anfrage(Long fahrzeugId, LocalDate startdatum, LocalDate enddatum) {
+
+        Angebot fehler(String meldung) {
+            return new Angebot(fahrzeugId, startdatum, enddatum, null, null, meldung);
+        }
+    }
+
+    public record Angebot(Long fahrzeugId, LocalDate startdatum, LocalDate enddatum, Long tage, Double gesamtpreis, String fehler) {
+    }
+}
@@ -0,0 +1,85 @@
+package com.WheelsConnect.service;
+
+import com.WheelsConnect.model.Fahrzeug;
+import com.WheelsConnect.model.Standort;
+import com.WheelsConnect.repository.FahrzeugRepository;
+import com.WheelsConnect.repository.StandortRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Lesezugriffe auf Standorte und Fahrzeuge über den Caffeine-Cache. Die Controller melden jede Änderung,
+ * damit genau die betroffenen Einträge verworfen werden. Für Änderungen wird immer frisch aus dem Repository
+ * geladen, damit keine Instanz aus dem Cache verändert wird.
+ */
+@Service
+public class StammdatenCache {
+
+    public static final String STANDORT = "standort";
+    public static final String STANDORTE = "standorte";
+    public static final String FAHRZEUG = "fahrzeug";
+    public static final String FAHRZEUGE = "fahrzeuge";
+    public static final String FAHRZEUG_FILTER = "fahrzeugFilter";
+
+    private final StandortRepository standortRepository;
+    private final FahrzeugRepository fahrzeugRepository;
+
+    public StammdatenCache(StandortRepository standortRepository, FahrzeugRepository fahrzeugRepository) {
+        this.standortRepository = standortRepository;
+        this.fahrzeugRepository = fahrzeugRepository;
+    }
+
+    @Cacheable(cacheNames = STANDORTE, key = "'alle'")
+    public List<Standort> standorte() {
+        return standortRepository.findAll();
+    }
+
+    @Cacheable(cacheNames = STANDORT)
+    public Optional<Standort> standort(Long id) {
+        return standortRepository.findById(id);
+    }
+
+    @Cacheable(cacheNames = FAHRZEUGE, key = "'alle'")
+    public List<Fahrzeug> fahrzeuge() {
+        return fahrzeugRepository.findAll();
+    }
+
+    @Cacheable(cacheNames = FAHRZEUG)
+    public Optional<Fahrzeug> fahrzeug(Long id) {
+        return fahrzeugRepository.findById(id);
+    }
+
+    @Cacheable(cacheNames = FAHRZEUG_FILTER)
+    public List<Fahrzeug> fahrzeuge(Long standortId, String typ, String marke, Double maxPreis) {
+        return fahrzeugRepository.findByFilter(standortId, typ, marke, maxPreis);
+    }
+
+    @Caching(evict = {
+            @CacheEvict(cacheNames = FAHRZEUG, key = "#fahrzeugId"),
+            @CacheEvict(cacheNames = {FAHRZEUGE, FAHRZEUG_FILTER}, allEntries = true)
+    })
+    public void fahrzeugGeaendert(Long fahrzeugId) {
+    }
+
+    /**
+     * Nach einem Massenimport; verwirft auch zwischengespeicherte Fehltreffer für die neu vergebenen Ids.
+     */
+    @CacheEvict(cacheNames = {FAHRZEUG, FAHRZEUGE, FAHRZEUG_FILTER}, allEntries = true)
+    public void fahrzeugeImportiert() {
+    }
+
+    /**
+     * Fahrzeuge enthalten ihren Standort, deshalb werden bei einer Standortänderung auch die Fahrzeugeinträge verworfen.
+     */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = STANDORT, key = "#standortId"),
+            @CacheEvict(cacheNames = {STANDORTE, FAHRZEUG, FAHRZEUGE, FAHRZEUG_FILTER}, allEntries = true)
+    })
+    public void standortGeaendert(Long standortId) {
+    }
+}
@@ -0,0 +1,485 @@
+package com.WheelsConnect.service;
+
+import com.WheelsConnect.model.Fahrzeug;
+import com.WheelsConnect.model.Kunde;
+import com.WheelsConnect.model.Standort;
+import com.WheelsConnect.repository.StandortRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Massenimport von Fahrzeugen und Kunden aus CSV oder NDJSON. Die Eingabe wird Datensatz für Datensatz gelesen,
+ * geprüft und in JDBC-Batches geschrieben; jeder Batch wird einzeln committet. Fehlerhafte Zeilen werden gemeldet
+ * und übersprungen, der Rest des Imports läuft weiter.
+ * <p>
+ * Die Tabellen behalten ihre Auto-Increment-Ids: Hibernate kann IDENTITY-Inserts nicht bündeln, JDBC schon, und
+ * liefert die vergebenen Ids für den ganzen Batch zurück (bei MySQL zusammen mit {@code rewriteBatchedStatements}).
+ */
+@Service
+public class StammdatenImport {
+
+    public static final int BATCH_GROESSE = 500;
+    public static final int MAX_GEMELDETE_FEHLER = 1000;
+
+    private static final DateTimeFormatter DEUTSCHES_DATUM = DateTimeFormatter.ofPattern("d.M.uuuu");
+
+    private static final String FAHRZEUG_INSERT = "insert into fahrzeug (marke, modell, typ, baujahr, farbe, preis, standort_id, version, geaendert_am) "
+            + "values (?, ?, ?, ?, ?, ?, ?, 0, ?)";
+    private static final String KUNDE_INSERT = "insert into kunde (vorname, nachname, geburtsdatum, adresse, stadt, plz, land, telefonnummer, email, version, geaendert_am) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?)";
+
+    private final DataSource dataSource;
+    private final StandortRepository standortRepository;
+    private final ObjectMapper objectMapper;
+    private final DashboardStatistik dashboardStatistik;
+    private final StammdatenCache stammdatenCache;
+    private final Aenderungen aenderungen;
+
+    public StammdatenImport(DataSource dataSource, StandortRepository standortRepository, ObjectMapper objectMapper,
+                            DashboardStatistik dashboardStatistik, StammdatenCache stammdatenCache, Aenderungen aenderungen) {
+        this.dataSource = dataSource;
+        this.standortRepository = standortRepository;
+        this.objectMapper = objectMapper;
+        this.dashboardStatistik = dashboardStatistik;
+        this.stammdatenCache = stammdatenCache;
+        this.aenderungen = aenderungen;
+    }
+
+    public ImportErgebnis fahrzeuge(InputStream eingabe, Format format) throws IOException {
+        Map<String, Standort> standorte = standortVerzeichnis();
+        Ziel<Fahrzeug> ziel = new Ziel<>(Fahrzeug.class, FAHRZEUG_INSERT, felder -> fahrzeug(felder, standorte),
+                StammdatenImport::fahrzeugBinden, Fahrzeug::setId, dashboardStatistik::fahrzeugGespeichert);
+        return importieren(eingabe, format, ziel, stammdatenCache::fahrzeugeImportiert);
+    }
+
+    public ImportErgebnis kunden(InputStream eingabe, Format format) throws IOException {
+        Ziel<Kunde> ziel = new Ziel<>(Kunde.class, KUNDE_INSERT, StammdatenImport::kunde,
+                StammdatenImport::kundeBinden, Kunde::setId, kunde -> dashboardStatistik.kundeAngelegt());
+        return importieren(eingabe, format, ziel, () -> {
+        });
+    }
+
+    private <T> ImportErgebnis importieren(InputStream eingabe, Format format, Ziel<T> ziel, Runnable nachBatch) throws IOException {
+        long beginn = System.nanoTime();
+        Fehlerliste fehler = new Fehlerliste();
+        int gelesen = 0;
+        int angelegt = 0;
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(eingabe, StandardCharsets.UTF_8));
+        Quelle quelle = format == Format.CSV ? new CsvQuelle(reader) : new NdjsonQuelle(reader, objectMapper);
+        try (Connection verbindung = dataSource.getConnection()) {
+            boolean autoCommit = verbindung.getAutoCommit();
+            verbindung.setAutoCommit(false);
+            try (PreparedStatement insert = verbindung.prepareStatement(ziel.sql(), Statement.RETURN_GENERATED_KEYS)) {
+                List<Zeile<T>> batch = new ArrayList<>(BATCH_GROESSE);
+                for (Datensatz datensatz = quelle.naechster(); datensatz != null; datensatz = quelle.naechster()) {
+                    gelesen++;
+                    if (datensatz.fehler() != null) {
+                        fehler.melden(datensatz.zeile(), datensatz.fehler());
+                        continue;
+                    }
+                    try {
+                        batch.add(new Zeile<>(datensatz.zeile(), ziel.umwandeln().apply(datensatz.felder())));
+                    } catch (IllegalArgumentException e) {
+                        fehler.melden(datensatz.zeile(), e.getMessage());
+                        continue;
+                    }
+                    if (batch.size() == BATCH_GROESSE) {
+                        angelegt += schreiben(verbindung, insert, batch, ziel, fehler, nachBatch);
+                        batch.clear();
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    angelegt += schreiben(verbindung, insert, batch, ziel, fehler, nachBatch);
+                }
+            } finally {
+                verbindung.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Import nach " + angelegt + " angelegten Zeilen abgebrochen", e);
+        }
+
+        long dauerNanos = System.nanoTime() - beginn;
+        long zeilenProSekunde = dauerNanos == 0 ? 0 : Math.round(gelesen * 1e9 / dauerNanos);
+        return new ImportErgebnis(gelesen, angelegt, fehler.anzahl, fehler.gemeldet, dauerNanos / 1_000_000, zeilenProSekunde);
+    }
+
+    private <T> int schreiben(Connection verbindung, PreparedStatement insert, List<Zeile<T>> batch, Ziel<T> ziel,
+                              Fehlerliste fehler, Runnable nachBatch) throws SQLException {
+        int angelegt;
+        try {
+            for (Zeile<T> zeile : batch) {
+                ziel.binden().binden(insert, zeile.wert());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+            List<Long> ids = ids(insert);
+            if (ids.size() != batch.size()) {
+                throw new SQLException("Es wurden " + ids.size() + " statt " + batch.size() + " Ids vergeben");
+            }
+            verbindung.commit();
+            for (int i = 0; i < batch.size(); i++) {
+                ziel.id().accept(batch.get(i).wert(), ids.get(i));
+            }
+            angelegt = batch.size();
+        } catch (SQLException e) {
+            verbindung.rollback();
+            insert.clearBatch();
+            // einzeln wiederholen, damit nur die Zeilen verworfen werden, die die Datenbank ablehnt
+            angelegt = einzelnSchreiben(verbindung, insert, batch, ziel, fehler);
+        }
+
+        for (Zeile<T> zeile : batch) {
+            if (zeile.angelegt()) {
+                ziel.angelegt().accept(zeile.wert());
+            }
+        }
+        aenderungen.geaendert(ziel.typ());
+        nachBatch.run();
+        return angelegt;
+    }
+
+    private <T> int einzelnSchreiben(Connection verbindung, PreparedStatement insert, List<Zeile<T>> batch, Ziel<T> ziel,
+                                     Fehlerliste fehler) throws SQLException {
+        int angelegt = 0;
+        for (Zeile<T> zeile : batch) {
+            try {
+                ziel.binden().binden(insert, zeile.wert());
+                insert.executeUpdate();
+                List<Long> ids = ids(insert);
+                verbindung.commit();
+                ziel.id().accept(zeile.wert(), ids.get(0));
+                angelegt++;
+            } catch (SQLException e) {
+                verbindung.rollback();
+                zeile.verwerfen();
+                fehler.melden(zeile.nummer(), e.getMessage());
+            }
+        }
+        return angelegt;
+    }
+
+    private static List<Long> ids(PreparedStatement insert) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (ResultSet schluessel = insert.getGeneratedKeys()) {
+            while (schluessel.next()) {
+                ids.add(schluessel.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    private Map<String, Standort> standortVerzeichnis() {
+        Map<String, Standort> verzeichnis = new HashMap<>();
+        for (Standort standort : standortRepository.findAll()) {
+            verzeichnis.put("#" + standort.getId(), standort);
+            if (standort.getName() != null) {
+                // gleichnamige Standorte bleiben als null eingetragen und müssen per Id angegeben werden
+                String name = standort.getName().trim().toLowerCase(Locale.ROOT);
+                verzeichnis.put(name, verzeichnis.containsKey(name) ? null : standort);
+            }
+        }
+        return verzeichnis;
+    }
+
+    private static Fahrzeug fahrzeug(Map<String, String> felder, Map<String, Standort> standorte) {
+        Standort standort = null;
+        String standortId = text(felder, "standortid");
+        String standortName = text(felder, "standort");
+        if (standortId != null) {
+            standort = standorte.get("#" + zahl(standortId, "standortId"));
+            if (standort == null) {
+                throw new IllegalArgumentException("Standort " + standortId + " existiert nicht");
+            }
+        } else if (standortName != null) {
+            standort = standorte.get(standortName.toLowerCase(Locale.ROOT));
+            if (standort == null) {
+                throw new IllegalArgumentException("Standort '" + standortName + "' existiert nicht oder ist nicht eindeutig");
+            }
+        }
+
+        String baujahrText = pflicht(felder, "baujahr");
+        int baujahr = (int) zahl(baujahrText, "baujahr");
+        if (baujahr < 1900 || baujahr > Year.now().getValue() + 1) {
+            throw new IllegalArgumentException("Baujahr " + baujahr + " ist ungültig");
+        }
+
+        Fahrzeug fahrzeug = new Fahrzeug(pflicht(felder, "marke"), pflicht(felder, "modell"), text(felder, "typ"), baujahr,
+                text(felder, "farbe"), standort);
+        String preis = text(felder, "preis");
+        if (preis != null) {
+            double wert;
+            try {
+                wert = Double.parseDouble(preis.replace(',', '.'));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Preis '" + preis + "' ist keine Zahl");
+            }
+            if (wert < 0 || Double.isNaN(wert) || Double.isInfinite(wert)) {
+                throw new IllegalArgumentException("Preis " + preis + " ist ungültig");
+            }
+            fahrzeug.setPreis(wert);
+        }
+        return fahrzeug;
+    }
+
+    private static void fahrzeugBinden(PreparedStatement insert, Fahrzeug fahrzeug) throws SQLException {
+        setzen(insert, 1, fahrzeug.getMarke());
+        setzen(insert, 2, fahrzeug.getModell());
+        setzen(insert, 3, fahrzeug.getTyp());
+        insert.setInt(4, fahrzeug.getBaujahr());
+        setzen(insert, 5, fahrzeug.getFarbe());
+        setzen(insert, 6, fahrzeug.getPreis());
+        setzen(insert, 7, fahrzeug.getStandort() == null ? null : fahrzeug.getStandort().getId());
+        insert.setTimestamp(8, Timestamp.from(Instant.now()));
+    }
+
+    private static Kunde kunde(Map<String, String> felder) {
+        String email = text(felder, "email");
+        if (email != null && !email.contains("@")) {
+            throw new IllegalArgumentException("E-Mail '" + email + "' ist ungültig");
+        }
+        return new Kunde(null, pflicht(felder, "vorname"), pflicht(felder, "nachname"), datum(text(felder, "geburtsdatum")),
+                text(felder, "adresse"), text(felder, "stadt"), text(felder, "plz"), text(felder, "land"),
+                text(felder, "telefonnummer"), email);
+    }
+
+    private static void kundeBinden(PreparedStatement insert, Kunde kunde) throws SQLException {
+        setzen(insert, 1, kunde.getVorname());
+        setzen(insert, 2, kunde.getNachname());
+        setzen(insert, 3, kunde.getGeburtsdatum() == null ? null : Date.valueOf(kunde.getGeburtsdatum()));
+        setzen(insert, 4, kunde.getAdresse());
+        setzen(insert, 5, kunde.getStadt());
+        setzen(insert, 6, kunde.getPlz());
+        setzen(insert, 7, kunde.getLand());
+        setzen(insert, 8, kunde.getTelefonnummer());
+        setzen(insert, 9, kunde.getEmail());
+        insert.setTimestamp(10, Timestamp.from(Instant.now()));
+    }
+
+    private static void setzen(PreparedStatement insert, int index, Object wert) throws SQLException {
+        if (wert == null) {
+            insert.setNull(index, Types.NULL);
+        } else {
+            insert.setObject(index, wert);
+        }
+    }
+
+    private static String text(Map<String, String> felder, String name) {
+        String wert = felder.get(name);
+        return wert == null || wert.isBlank() ? null : wert.trim();
+    }
+
+    private static String pflicht(Map<String, String> felder, String name) {
+        String wert = text(felder, name);
+        if (wert == null) {
+            throw new IllegalArgumentException("Pflichtfeld '" + name + "' fehlt");
+        }
+        return wert;
+    }
+
+    private static long zahl(String wert, String name) {
+        try {
+            return Long.parseLong(wert);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " '" + wert + "' ist keine ganze Zahl");
+        }
+    }
+
+    private static LocalDate datum(String wert) {
+        if (wert == null) {
+            return null;
+        }
+        try {
+            return wert.contains(".") ? LocalDate.parse(wert, DEUTSCHES_DATUM) : LocalDate.parse(wert);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Datum '" + wert + "' ist ungültig");
+        }
+    }
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format aus(String contentType) {
+            if (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("text/csv")) {
+                return CSV;
+            }
+            return NDJSON;
+        }
+    }
+
+    public record Fehler(long zeile, String meldung) {
+    }
+
+    public record ImportErgebnis(int gelesen, int angelegt, int fehlerAnzahl, List<Fehler> fehler, long dauerMillis,
+                                 long zeilenProSekunde) {
+    }
+
+    private record Ziel<T>(Class<T> typ, String sql, Function<Map<String, String>, T> umwandeln, Binder<T> binden,
+                           BiConsumer<T, Long> id, Consumer<T> angelegt) {
+    }
+
+    @FunctionalInterface
+    private interface Binder<T> {
+        void binden(PreparedStatement insert, T wert) throws SQLException;
+    }
+
+    private static final class Zeile<T> {
+        private final long nummer;
+        private final T wert;
+        private boolean angelegt = true;
+
+        Zeile(long nummer, T wert) {
+            this.nummer = nummer;
+            this.wert = wert;
+        }
+
+        long nummer() {
+            return nummer;
+        }
+
+        T wert() {
+            return wert;
+        }
+
+        boolean angelegt() {
+            return angelegt;
+        }
+
+        void verwerfen() {
+            angelegt = false;
+        }
+    }
+
+    private static final class Fehlerliste {
+        private final List<Fehler> gemeldet = new ArrayList<>();
+        private int anzahl;
+
+        void melden(long zeile, String meldung) {
+            anzahl++;
+            if (gemeldet.size() < MAX_GEMELDETE_FEHLER) {
+                gemeldet.add(new Fehler(zeile, meldung));
+            }
+        }
+    }
+
+    /**
+     * Felder eines Datensatzes mit kleingeschriebenen Namen, oder die Fehlermeldung, wenn er nicht lesbar war.
+     */
+    private record Datensatz(long zeile, Map<String, String> felder, String fehler) {
+    }
+
+    private interface Quelle {
+        Datensatz naechster() throws IOException;
+    }
+
+    private static final class CsvQuelle implements Quelle {
+        private final CsvLeser leser;
+        private final List<String> spalten = new ArrayList<>();
+
+        CsvQuelle(BufferedReader reader) throws IOException {
+            reader.mark(1);
+            if (reader.read() != '\uFEFF') {
+                reader.reset();
+            }
+            this.leser = new CsvLeser(reader);
+            List<String> kopf = leser.naechsterDatensatz();
+            if (kopf != null) {
+                kopf.forEach(spalte -> spalten.add(spalte.trim().toLowerCase(Locale.ROOT)));
+            }
+        }
+
+        @Override
+        public Datensatz naechster() throws IOException {
+            List<String> werte = leser.naechsterDatensatz();
+            if (werte == null) {
+                return null;
+            }
+            if (werte.size() != spalten.size()) {
+                return new Datensatz(leser.getZeile(), null, werte.size() + " statt " + spalten.size() + " Spalten");
+            }
+            Map<String, String> felder = new HashMap<>();
+            for (int i = 0; i < werte.size(); i++) {
+                felder.put(spalten.get(i), werte.get(i));
+            }
+            return new Datensatz(leser.getZeile(), felder, null);
+        }
+    }
+
+    private static final class NdjsonQuelle implements Quelle {
+        private final BufferedReader reader;
+        private final ObjectMapper objectMapper;
+        private long zeile;
+
+        NdjsonQuelle(BufferedReader reader, ObjectMapper objectMapper) {
+            this.reader = reader;
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public Datensatz naechster() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                zeile++;
+            } while (text != null && text.isBlank());
+            if (text == null) {
+                return null;
+            }
+
+            JsonNode objekt;
+            try {
+                objekt = objectMapper.readTree(text);
+            } catch (JsonProcessingException e) {
+                return new Datensatz(zeile, null, "Ungültiges JSON: " + e.getOriginalMessage());
+            }
+            if (!objekt.isObject()) {
+                return new Datensatz(zeile, null, "Erwartet wird ein JSON-Objekt je Zeile");
+            }
+            Map<String, String> felder = new HashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> eintraege = objekt.fields();
+            while (eintraege.hasNext()) {
+                Map.Entry<String, JsonNode> eintrag = eintraege.next();
+                String name = eintrag.getKey().toLowerCase(Locale.ROOT);
+                JsonNode wert = eintrag.getValue();
+                if (wert.isObject() && wert.hasNonNull("id")) {
+                    // Zuordnungen in der Form der REST-Antworten, z.B. "standort": {"id": 3}
+                    felder.put(name + "id", wert.get("id").asText());
+                } else if (wert.isValueNode() && !wert.isNull()) {
+                    felder.put(name, wert.asText());
+                }
+            }
+            return new Datensatz(zeile, felder, null);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.WheelsConnect.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.Year;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aus {@link TarifRegeln} übersetzter Tarif. Wochenend- und Saisonfaktoren werden je Kalenderjahr einmal zu
+ * Präfixsummen über die Tage zusammengefasst; ein Preis kostet danach unabhängig von der Mietdauer nur zwei
+ * Array-Zugriffe je berührtem Jahr und erzeugt keine Objekte.
+ */
+public final class Tarif {
+
+    static final int MAX_JAHRE = 64;
+
+    private final double wochenendeFaktor;
+    private final MonthDay[] saisonVon;
+    private final MonthDay[] saisonBis;
+    private final double[] saisonFaktor;
+    private final int[] langzeitAbTagen;
+    private final double[] langzeitRabatt;
+    private final Map<Long, Double> standortFaktor = new HashMap<>();
+    private final Map<Integer, double[]> jahre = new ConcurrentHashMap<>();
+
+    private Tarif(TarifRegeln regeln) {
+        wochenendeFaktor = regeln.wochenendeFaktor();
+
+        List<TarifRegeln.Saison> saisons = regeln.saisons() == null ? List.of() : regeln.saisons();
+        saisonVon = new MonthDay[saisons.size()];
+        saisonBis = new MonthDay[saisons.size()];
+        saisonFaktor = new double[saisons.size()];
+        for (int i = 0; i < saisons.size(); i++) {
+            saisonVon[i] = MonthDay.parse("--" + saisons.get(i).von());
+            saisonBis[i] = MonthDay.parse("--" + saisons.get(i).bis());
+            saisonFaktor[i] = saisons.get(i).faktor();
+        }
+
+        List<TarifRegeln.Langzeit> langzeit = regeln.langzeit() == null ? List.of() : regeln.langzeit().stream()
+                .sorted(Comparator.comparingInt(TarifRegeln.Langzeit::abTagen))
+                .toList();
+        langzeitAbTagen = new int[langzeit.size()];
+        langzeitRabatt = new double[langzeit.size()];
+        for (int i = 0; i < langzeit.size(); i++) {
+            langzeitAbTagen[i] = langzeit.get(i).abTagen();
+            langzeitRabatt[i] = langzeit.get(i).rabatt();
+        }
+
+        if (regeln.standortAufschlag() != null) {
+            regeln.standortAufschlag().forEach((standortId, aufschlag) -> standortFaktor.put(standortId, 1 + aufschlag));
+        }
+    }
+
+    public static Tarif kompilieren(TarifRegeln regeln) {
+        return new Tarif(regeln);
+    }
+
+    /**
+     * Gesamtpreis in Euro, auf Cent gerundet. Start- und Endtag zählen beide als Miettag.
+     */
+    public double preis(double tagespreis, Long standortId, LocalDate startdatum, LocalDate enddatum) {
+        long tage = ChronoUnit.DAYS.between(startdatum, enddatum) + 1;
+        double summe = tagespreis * tagesfaktoren(startdatum, enddatum)
+                * (standortId == null ? 1 : standortFaktor.getOrDefault(standortId, 1.0))
+                * (1 - rabatt(tage));
+        return Math.round(summe * 100) / 100.0;
+    }
+
+    double tagesfaktoren(LocalDate startdatum, LocalDate enddatum) {
+        double summe = 0;
+        for (int jahr = startdatum.getYear(); jahr <= enddatum.getYear(); jahr++) {
+            double[] praefix = jahr(jahr);
+            int von = jahr == startdatum.getYear() ? startdatum.getDayOfYear() : 1;
+            int bis = jahr == enddatum.getYear() ? enddatum.getDayOfYear() : praefix.length - 1;
+            summe += praefix[bis] - praefix[von - 1];
+        }
+        return summe;
+    }
+
+    double rabatt(long tage) {
+        double rabatt = 0;
+        for (int i = 0; i < langzeitAbTagen.length && langzeitAbTagen[i] <= tage; i++) {
+            rabatt = langzeitRabatt[i];
+        }
+        return rabatt;
+    }
+
+    /**
+     * Zwischengespeichert werden höchstens {@value #MAX_JAHRE} Jahre, weitere werden bei Bedarf neu berechnet.
+     */
+    private double[] jahr(int jahr) {
+        double[] praefix = jahre.get(jahr);
+        if (praefix == null) {
+            praefix = jahrKompilieren(jahr);
+            if (jahre.size() < MAX_JAHRE) {
+                jahre.putIfAbsent(jahr, praefix);
+            }
+        }
+        return praefix;
+    }
+
+    private double[] jahrKompilieren(int jahr) {
+        int tage = Year.of(jahr).length();
+        double[] praefix = new double[tage + 1];
+        LocalDate tag = LocalDate.ofYearDay(jahr, 1);
+        for (int i = 1; i <= tage; i++, tag = tag.plusDays(1)) {
+            praefix[i] = praefix[i - 1] + faktor(tag);
+        }
+        return praefix;
+    }
+
+    private double faktor(LocalDate tag) {
+        double faktor = tag.getDayOfWeek() == DayOfWeek.SATURDAY || tag.getDayOfWeek() == DayOfWeek.SUNDAY ? wochenendeFaktor : 1;
+        MonthDay monatTag = MonthDay.from(tag);
+        for (int i = 0; i < saisonFaktor.length; i++) {
+            boolean inSaison = saisonVon[i].isAfter(saisonBis[i])
+                    ? !monatTag.isBefore(saisonVon[i]) || !monatTag.isAfter(saisonBis[i])
+                    : !monatTag.isBefore(saisonVon[i]) && !monatTag.isAfter(saisonBis[i]);
+            if (inSaison) {
+                faktor *= saisonFaktor[i];
+            }
+        }
+        return faktor;
+    }
+}
@@ -0,0 +1,30 @@
+package com.WheelsConnect.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tarifregeln aus {@code wheelsconnect.tarif.*}. Alle Faktoren wirken auf den Tagespreis des Fahrzeugs:
+ * <ul>
+ *     <li>{@code wochenende-faktor} für Samstage und Sonntage,</li>
+ *     <li>{@code saisons[n].von}/{@code bis} als {@code MM-TT} (einschließlich, auch über den Jahreswechsel) mit {@code faktor};
+ *     überlappende Saisons werden multipliziert,</li>
+ *     <li>{@code langzeit[n].ab-tagen}/{@code rabatt}: es gilt der höchste erreichte Rabatt auf den ganzen Zeitraum,</li>
+ *     <li>{@code standort-aufschlag.<standortId>} als Anteil, z.B. {@code 0.1} für 10 % Aufschlag.</li>
+ * </ul>
+ */
+@ConfigurationProperties("wheelsconnect.tarif")
+public record TarifRegeln(@DefaultValue("1.0") double wochenendeFaktor,
+                          List<Saison> saisons,
+                          List<Langzeit> langzeit,
+                          Map<Long, Double> standortAufschlag) {
+
+    public record Saison(String von, String bis, double faktor) {
+    }
+
+    public record Langzeit(int abTagen, double rabatt) {
+    }
+}
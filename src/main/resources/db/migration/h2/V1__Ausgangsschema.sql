@@ -0,0 +1,63 @@
+-- H2-Fassung von mysql/V1 für Tests und den Lasttest; Änderungen an den MySQL-Migrationen werden hier gespiegelt.
+
+create table standort (
+    id bigint generated by default as identity,
+    name varchar(255),
+    kapazitaet integer not null,
+    adresse varchar(255),
+    stadt varchar(255),
+    plz integer not null,
+    land varchar(255),
+    telefonnummer varchar(255),
+    oeffnungszeiten varchar(255),
+    primary key (id)
+);
+
+create table fahrzeug (
+    id bigint generated by default as identity,
+    marke varchar(255),
+    modell varchar(255),
+    typ varchar(255),
+    baujahr integer not null,
+    farbe varchar(255),
+    preis double precision,
+    standort_id bigint,
+    primary key (id)
+);
+
+create table kunde (
+    id bigint generated by default as identity,
+    vorname varchar(255),
+    nachname varchar(255),
+    geburtsdatum date,
+    adresse varchar(255),
+    stadt varchar(255),
+    plz varchar(255),
+    land varchar(255),
+    telefonnummer varchar(255),
+    email varchar(255),
+    primary key (id)
+);
+
+create table buchung (
+    id bigint generated by default as identity,
+    startdatum date,
+    enddatum date,
+    gesamtpreis double precision not null,
+    buchungsstatus varchar(255),
+    kunde_id bigint,
+    fahrzeug_id bigint,
+    primary key (id)
+);
+
+create table users (
+    id bigint generated by default as identity,
+    username varchar(255) not null,
+    password varchar(255) not null,
+    primary key (id),
+    constraint uk_users_username unique (username)
+);
+
+alter table fahrzeug add constraint fk_fahrzeug_standort foreign key (standort_id) references standort (id);
+alter table buchung add constraint fk_buchung_kunde foreign key (kunde_id) references kunde (id);
+alter table buchung add constraint fk_buchung_fahrzeug foreign key (fahrzeug_id) references fahrzeug (id);
@@ -0,0 +1,9 @@
+-- H2-Fassung von mysql/V2
+alter table standort add column version bigint default 0 not null;
+alter table standort add column geaendert_am timestamp(6) with time zone;
+alter table fahrzeug add column version bigint default 0 not null;
+alter table fahrzeug add column geaendert_am timestamp(6) with time zone;
+alter table kunde add column version bigint default 0 not null;
+alter table kunde add column geaendert_am timestamp(6) with time zone;
+alter table buchung add column version bigint default 0 not null;
+alter table buchung add column geaendert_am timestamp(6) with time zone;
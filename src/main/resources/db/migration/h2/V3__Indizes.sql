@@ -0,0 +1,7 @@
+-- Verfügbarkeitsprüfung und Buchungslisten je Fahrzeug: Gleichheit auf fahrzeug_id, Bereich auf dem Zeitraum
+create index idx_buchung_fahrzeug_zeitraum on buchung (fahrzeug_id, startdatum, enddatum);
+
+-- Listen nach Buchungsstatus, eingegrenzt bzw. sortiert über das Startdatum
+create index idx_buchung_status_start on buchung (buchungsstatus, startdatum);
+
+-- Die Fremdschlüssel kunde_id, fahrzeug_id und standort_id indiziert H2 beim Anlegen der Constraints selbst
@@ -0,0 +1,64 @@
+-- Schema, wie es bisher ddl-auto=update angelegt hat. Bestehende Datenbanken werden auf diese Version gesetzt
+-- (baseline-on-migrate) und überspringen das Skript.
+
+create table standort (
+    id bigint not null auto_increment,
+    name varchar(255),
+    kapazitaet integer not null,
+    adresse varchar(255),
+    stadt varchar(255),
+    plz integer not null,
+    land varchar(255),
+    telefonnummer varchar(255),
+    oeffnungszeiten varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table fahrzeug (
+    id bigint not null auto_increment,
+    marke varchar(255),
+    modell varchar(255),
+    typ varchar(255),
+    baujahr integer not null,
+    farbe varchar(255),
+    preis double,
+    standort_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table kunde (
+    id bigint not null auto_increment,
+    vorname varchar(255),
+    nachname varchar(255),
+    geburtsdatum date,
+    adresse varchar(255),
+    stadt varchar(255),
+    plz varchar(255),
+    land varchar(255),
+    telefonnummer varchar(255),
+    email varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table buchung (
+    id bigint not null auto_increment,
+    startdatum date,
+    enddatum date,
+    gesamtpreis double not null,
+    buchungsstatus varchar(255),
+    kunde_id bigint,
+    fahrzeug_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table users (
+    id bigint not null auto_increment,
+    username varchar(255) not null,
+    password varchar(255) not null,
+    primary key (id),
+    constraint uk_users_username unique (username)
+) engine=InnoDB;
+
+alter table fahrzeug add constraint fk_fahrzeug_standort foreign key (standort_id) references standort (id);
+alter table buchung add constraint fk_buchung_kunde foreign key (kunde_id) references kunde (id);
+alter table buchung add constraint fk_buchung_fahrzeug foreign key (fahrzeug_id) references fahrzeug (id);
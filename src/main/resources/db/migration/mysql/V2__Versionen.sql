@@ -0,0 +1,5 @@
+-- Version (ETag, optimistisches Sperren) und Änderungszeitpunkt (Last-Modified); bestehende Zeilen starten mit Version 0
+alter table standort add column version bigint default 0 not null, add column geaendert_am timestamp(6) null;
+alter table fahrzeug add column version bigint default 0 not null, add column geaendert_am timestamp(6) null;
+alter table kunde add column version bigint default 0 not null, add column geaendert_am timestamp(6) null;
+alter table buchung add column version bigint default 0 not null, add column geaendert_am timestamp(6) null;
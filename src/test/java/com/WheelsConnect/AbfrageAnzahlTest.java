@@ -0,0 +1,161 @@
+package com.WheelsConnect;
+
+import com.WheelsConnect.model.Buchung;
+import com.WheelsConnect.model.Fahrzeug;
+import com.WheelsConnect.model.Kunde;
+import com.WheelsConnect.model.Standort;
+import com.WheelsConnect.repository.BuchungRepository;
+import com.WheelsConnect.repository.FahrzeugRepository;
+import com.WheelsConnect.repository.KeysetAbfrage;
+import com.WheelsConnect.service.Aenderungen;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Stellt sicher, dass die Listen- und Detail-Endpunkte eine feste Anzahl SQL-Anweisungen absetzen,
+ * unabhängig davon, wie viele Buchungen, Kunden und Fahrzeuge betroffen sind (kein N+1).
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@Import({KeysetAbfrage.class, Aenderungen.class})
+public class AbfrageAnzahlTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private BuchungRepository buchungRepository;
+    @Autowired
+    private FahrzeugRepository fahrzeugRepository;
+    @Autowired
+    private KeysetAbfrage keysetAbfrage;
+
+    private Statistics statistics;
+    private Long ersteBuchungId;
+
+    @BeforeEach
+    public void setUp() {
+        List<Standort> standorte = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            standorte.add(entityManager.persist(new Standort("Standort " + i, "Straße " + i, "0800" + i)));
+        }
+        List<Fahrzeug> fahrzeuge = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            fahrzeuge.add(entityManager.persist(new Fahrzeug("Skoda", "Modell " + i, "SUV", 2020 + i % 3, "schwarz", standorte.get(i % 3))));
+        }
+        List<Kunde> kunden = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Kunde kunde = new Kunde();
+            kunde.setVorname("Vorname " + i);
+            kunde.setNachname("Nachname " + i);
+            kunden.add(entityManager.persist(kunde));
+        }
+        LocalDate start = LocalDate.of(2023, 8, 1);
+        for (int i = 0; i < 20; i++) {
+            Buchung buchung = new Buchung(start.plusDays(i), start.plusDays(i + 2), 100, kunden.get(i % 5), fahrzeuge.get(i % 6));
+            buchung.setBuchungsstatus(i % 4 == 0 ? "Storniert" : "Reserviert");
+            buchung = entityManager.persist(buchung);
+            if (ersteBuchungId == null) {
+                ersteBuchungId = buchung.getId();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void testGetBuchungen() {
+        List<Buchung> buchungen = buchungRepository.findAll();
+        buchungen.forEach(AbfrageAnzahlTest::zuordnungenLesen);
+
+        assertEquals(20, buchungen.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testGetBuchung() {
+        zuordnungenLesen(buchungRepository.findById(ersteBuchungId).orElseThrow());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testGetBuchungenSeite() {
+        List<Buchung> seite = keysetAbfrage.seite(Buchung.class, null, "id", false, null, 10, BuchungRepository.MIT_ZUORDNUNGEN);
+        seite.forEach(AbfrageAnzahlTest::zuordnungenLesen);
+        assertEquals(10, seite.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        // der Cursor enthält den Sortwert, auch mit Sortierfeld bleibt es bei einer Abfrage
+        statistics.clear();
+        String cursor = keysetAbfrage.cursor(seite.get(seite.size() - 1), "startdatum");
+        keysetAbfrage.seite(Buchung.class, null, "startdatum", true, cursor, 10, BuchungRepository.MIT_ZUORDNUNGEN)
+                .forEach(AbfrageAnzahlTest::zuordnungenLesen);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testStreamBuchungen() {
+        List<Long> ids = new ArrayList<>();
+        keysetAbfrage.streamen(Buchung.class, null, "id", false, buchung -> {
+            zuordnungenLesen(buchung);
+            ids.add(buchung.getId());
+        }, BuchungRepository.MIT_ZUORDNUNGEN);
+
+        assertEquals(20, ids.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testCheckAvailabilityIndexLaedtKeineEntities() {
+        assertEquals(15, buchungRepository.findAktiveIntervalle().size());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    public void testVersionsstandLaedtKeineEntities() {
+        List<Object[]> zeilen = buchungRepository.findVersionsstand(ersteBuchungId);
+
+        assertEquals(1, zeilen.size());
+        assertEquals(8, zeilen.get(0).length);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    public void testGetFahrzeuge() {
+        fahrzeugRepository.findAll().forEach(fahrzeug -> fahrzeug.getStandort().getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        fahrzeugRepository.findByFilter(null, "SUV", null, null).forEach(fahrzeug -> fahrzeug.getStandort().getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private static void zuordnungenLesen(Buchung buchung) {
+        buchung.getKunde().getNachname();
+        buchung.getFahrzeug().getStandort().getName();
+    }
+}
@@ -0,0 +1,104 @@
+package com.WheelsConnect;
+
+import com.WheelsConnect.controller.BedingteAnfragen;
+import com.WheelsConnect.controller.KundeController;
+import com.WheelsConnect.model.Kunde;
+import com.WheelsConnect.repository.KundeRepository;
+import com.WheelsConnect.service.Aenderungen;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+public class BedingteAnfragenTest {
+
+    private final Aenderungen aenderungen = new Aenderungen();
+    private final KundeRepository kundeRepository = mock(KundeRepository.class);
+    private BedingteAnfragen bedingteAnfragen;
+
+    @BeforeEach
+    public void setUp() {
+        ListableBeanFactory beanFactory = mock(ListableBeanFactory.class);
+        when(beanFactory.getBean(KundeRepository.class)).thenReturn(kundeRepository);
+        bedingteAnfragen = new BedingteAnfragen(aenderungen, beanFactory);
+    }
+
+    @Test
+    public void testListeOhneAenderungLiefert304() throws Exception {
+        HandlerMethod liste = handler("getKunden");
+        MockHttpServletResponse erste = new MockHttpServletResponse();
+        assertTrue(bedingteAnfragen.preHandle(get("/kunden"), erste, liste));
+        String etag = erste.getHeader("ETag");
+        assertNotNull(etag);
+
+        MockHttpServletRequest wiederholt = get("/kunden");
+        wiederholt.addHeader("If-None-Match", etag);
+        MockHttpServletResponse zweite = new MockHttpServletResponse();
+        assertFalse(bedingteAnfragen.preHandle(wiederholt, zweite, liste));
+        assertEquals(304, zweite.getStatus());
+        verifyNoInteractions(kundeRepository);
+    }
+
+    @Test
+    public void testListeNachAenderungWirdNeuGeladen() throws Exception {
+        HandlerMethod liste = handler("getKunden");
+        MockHttpServletResponse erste = new MockHttpServletResponse();
+        bedingteAnfragen.preHandle(get("/kunden"), erste, liste);
+
+        aenderungen.geaendert(Kunde.class);
+
+        MockHttpServletRequest wiederholt = get("/kunden");
+        wiederholt.addHeader("If-None-Match", erste.getHeader("ETag"));
+        assertTrue(bedingteAnfragen.preHandle(wiederholt, new MockHttpServletResponse(), liste));
+    }
+
+    @Test
+    public void testEintragVerwendetVersionsspalten() throws Exception {
+        HandlerMethod eintrag = handler("getKunde", Long.class);
+        when(kundeRepository.findVersionsstand(5L)).thenReturn(List.<Object[]>of(new Object[]{3L, Instant.parse("2023-07-01T10:00:00Z")}));
+
+        MockHttpServletRequest anfrage = get("/kunden/5");
+        anfrage.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("id", "5"));
+        anfrage.addHeader("If-None-Match", "\"v3\"");
+        MockHttpServletResponse antwort = new MockHttpServletResponse();
+        assertFalse(bedingteAnfragen.preHandle(anfrage, antwort, eintrag));
+        assertEquals(304, antwort.getStatus());
+
+        MockHttpServletRequest seitDatum = get("/kunden/5");
+        seitDatum.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("id", "5"));
+        seitDatum.addHeader("If-Modified-Since", "Sat, 01 Jul 2023 09:00:00 GMT");
+        assertTrue(bedingteAnfragen.preHandle(seitDatum, new MockHttpServletResponse(), eintrag));
+    }
+
+    @Test
+    public void testUnbekannterEintragGehtAnDenController() throws Exception {
+        when(kundeRepository.findVersionsstand(9L)).thenReturn(List.of());
+        MockHttpServletRequest anfrage = get("/kunden/9");
+        anfrage.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("id", "9"));
+
+        assertTrue(bedingteAnfragen.preHandle(anfrage, new MockHttpServletResponse(), handler("getKunde", Long.class)));
+    }
+
+    private static MockHttpServletRequest get(String pfad) {
+        return new MockHttpServletRequest("GET", pfad);
+    }
+
+    private static HandlerMethod handler(String name, Class<?>... parameter) throws NoSuchMethodException {
+        return new HandlerMethod(mock(KundeController.class), KundeController.class.getMethod(name, parameter));
+    }
+}
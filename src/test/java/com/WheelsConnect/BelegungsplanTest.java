@@ -0,0 +1,227 @@
+package com.WheelsConnect;
+
+import com.WheelsConnect.model.Buchung;
+import com.WheelsConnect.model.Fahrzeug;
+import com.WheelsConnect.model.Standort;
+import com.WheelsConnect.repository.BuchungIntervall;
+import com.WheelsConnect.repository.BuchungRepository;
+import com.WheelsConnect.repository.FahrzeugRepository;
+import com.WheelsConnect.repository.FahrzeugStammdaten;
+import com.WheelsConnect.service.Belegungsplan;
+import com.WheelsConnect.service.BuchungIndex;
+import com.WheelsConnect.service.StammdatenCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BelegungsplanTest {
+
+    private static final LocalDate JUNI = LocalDate.of(2023, 6, 1);
+
+    private final List<Standort> standorte = new ArrayList<>();
+    private final List<FahrzeugStammdaten> fahrzeuge = new ArrayList<>();
+    private final List<BuchungIntervall> intervalle = new ArrayList<>();
+    private BuchungIndex buchungIndex;
+    private Belegungsplan belegungsplan;
+
+    @BeforeEach
+    public void setUp() {
+        standort(1L, 10);
+        standort(2L, 3);
+        fahrzeug(10L, 1L);
+        fahrzeug(11L, 1L);
+        fahrzeug(20L, 2L);
+        intervalle.add(intervall(1L, 10L, JUNI, JUNI.plusDays(2)));
+        intervalle.add(intervall(2L, 11L, JUNI.plusDays(1), JUNI.plusDays(1)));
+        intervalle.add(intervall(3L, 20L, JUNI.minusDays(5), JUNI.plusDays(3)));
+
+        BuchungRepository buchungRepository = mock(BuchungRepository.class);
+        when(buchungRepository.findAktiveIntervalle()).thenAnswer(aufruf -> new ArrayList<>(intervalle));
+        FahrzeugRepository fahrzeugRepository = mock(FahrzeugRepository.class);
+        when(fahrzeugRepository.findAllStammdaten()).thenAnswer(aufruf -> new ArrayList<>(fahrzeuge));
+        StammdatenCache stammdatenCache = mock(StammdatenCache.class);
+        when(stammdatenCache.standorte()).thenReturn(standorte);
+
+        buchungIndex = new BuchungIndex(buchungRepository);
+        buchungIndex.laden();
+        belegungsplan = new Belegungsplan(buchungIndex, fahrzeugRepository, stammdatenCache);
+        belegungsplan.laden();
+    }
+
+    @Test
+    public void testTageswerteAusGeladenenBuchungen() {
+        Belegungsplan.Auswertung auswertung = belegungsplan.auswerten(JUNI, JUNI.plusDays(4), null);
+
+        Belegungsplan.Standortverlauf eins = auswertung.standorte().get(0);
+        assertEquals(2, eins.fahrzeuge());
+        assertArrayEquals(new int[]{1, 2, 1, 0, 0}, eins.vermietet());
+        assertArrayEquals(new int[]{1, 0, 1, 2, 2}, eins.vorOrt());
+        assertArrayEquals(new int[]{9, 10, 9, 8, 8}, eins.frei());
+        assertArrayEquals(new int[]{1, 1, 1, 1, 0}, auswertung.standorte().get(1).vermietet());
+    }
+
+    @Test
+    public void testBuchungenUndStandortwechselWirkenSofort() {
+        buchungIndex.aktualisieren(buchung(4L, 11L, JUNI.plusDays(3), JUNI.plusDays(4)));
+        buchungIndex.entfernen(1L);
+        assertArrayEquals(new int[]{0, 1, 0, 1, 1}, belegungsplan.auswerten(JUNI, JUNI.plusDays(4), 1L).standorte().get(0).vermietet());
+
+        // Fahrzeug 11 zieht mit beiden Buchungen nach Standort 2 um
+        Fahrzeug fahrzeug = new Fahrzeug();
+        fahrzeug.setId(11L);
+        fahrzeug.setStandort(standorte.get(1));
+        belegungsplan.fahrzeugGespeichert(fahrzeug);
+
+        Belegungsplan.Auswertung auswertung = belegungsplan.auswerten(JUNI, JUNI.plusDays(4), null);
+        assertArrayEquals(new int[]{0, 0, 0, 0, 0}, auswertung.standorte().get(0).vermietet());
+        assertEquals(1, auswertung.standorte().get(0).fahrzeuge());
+        assertArrayEquals(new int[]{1, 2, 1, 2, 1}, auswertung.standorte().get(1).vermietet());
+        assertEquals(2, auswertung.standorte().get(1).fahrzeuge());
+    }
+
+    @Test
+    public void testBuchungWeitAusserhalbVergroessertDieAchse() {
+        LocalDate spaet = LocalDate.now().plusYears(5);
+        buchungIndex.aktualisieren(buchung(5L, 10L, spaet, spaet.plusDays(1)));
+        LocalDate frueh = LocalDate.now().minusYears(10);
+        buchungIndex.aktualisieren(buchung(6L, 20L, frueh, frueh));
+
+        assertArrayEquals(new int[]{0, 1, 1, 0}, belegungsplan.auswerten(spaet.minusDays(1), spaet.plusDays(2), 1L).standorte().get(0).vermietet());
+        assertArrayEquals(new int[]{1, 0}, belegungsplan.auswerten(frueh, frueh.plusDays(1), 2L).standorte().get(0).vermietet());
+        assertArrayEquals(new int[]{1, 2, 1, 0, 0}, belegungsplan.auswerten(JUNI, JUNI.plusDays(4), 1L).standorte().get(0).vermietet());
+    }
+
+    @Test
+    public void testExtremeDatenWerdenAbgeschnitten() {
+        buchungIndex.aktualisieren(buchung(7L, 10L, LocalDate.MIN, LocalDate.MAX));
+        buchungIndex.aktualisieren(buchung(8L, 11L, LocalDate.MAX.minusDays(1), LocalDate.MAX));
+        buchungIndex.aktualisieren(buchung(9L, 20L, LocalDate.of(-999_999, 1, 1), LocalDate.of(-999_999, 1, 2)));
+
+        assertArrayEquals(new int[]{2, 3, 2, 1, 1}, belegungsplan.auswerten(JUNI, JUNI.plusDays(4), 1L).standorte().get(0).vermietet());
+        assertArrayEquals(new int[]{0, 0}, belegungsplan.auswerten(LocalDate.MAX.minusDays(1), LocalDate.MAX, 1L).standorte().get(0).vermietet());
+
+        buchungIndex.entfernen(7L);
+        buchungIndex.entfernen(8L);
+        assertArrayEquals(new int[]{1, 2, 1, 0, 0}, belegungsplan.auswerten(JUNI, JUNI.plusDays(4), 1L).standorte().get(0).vermietet());
+    }
+
+    @Test
+    public void testStandortwechselWaehrendBuchungenZaehltNichtDoppelt() throws Exception {
+        Fahrzeug fahrzeug = new Fahrzeug();
+        fahrzeug.setId(11L);
+        Thread umzuege = new Thread(() -> {
+            for (int i = 0; i < 2_000; i++) {
+                fahrzeug.setStandort(standorte.get(i % 2));
+                belegungsplan.fahrzeugGespeichert(fahrzeug);
+            }
+        });
+        umzuege.start();
+        for (long id = 100; id < 2_100; id++) {
+            buchungIndex.aktualisieren(buchung(id, 11L, JUNI.plusDays(3), JUNI.plusDays(3)));
+            buchungIndex.entfernen(id - 1);
+        }
+        umzuege.join();
+
+        // übrig sind Buchung 2 (Tag 1) und Buchung 2099 (Tag 3) von Fahrzeug 11, jetzt an Standort 2
+        Belegungsplan.Auswertung auswertung = belegungsplan.auswerten(JUNI, JUNI.plusDays(4), null);
+        assertArrayEquals(new int[]{1, 1, 1, 0, 0}, auswertung.standorte().get(0).vermietet());
+        assertArrayEquals(new int[]{1, 2, 1, 2, 0}, auswertung.standorte().get(1).vermietet());
+    }
+
+    @Test
+    public void testGleichWieNaivesZaehlen() {
+        Random zufall = new Random(7);
+        for (long standortId = 3; standortId < 200; standortId++) {
+            standort(standortId, 20);
+            for (int i = 0; i < 10; i++) {
+                fahrzeug(standortId * 100 + i, standortId);
+            }
+        }
+        for (long id = 100; id < 40_000; id++) {
+            LocalDate von = JUNI.plusDays(zufall.nextInt(365));
+            intervalle.add(intervall(id, (3 + zufall.nextInt(197)) * 100L + zufall.nextInt(10), von, von.plusDays(zufall.nextInt(10))));
+        }
+        buchungIndex.laden();
+
+        Belegungsplan.Auswertung auswertung = belegungsplan.auswerten(JUNI, JUNI.plusDays(364), null);
+
+        Belegungsplan.Standortverlauf verlauf = auswertung.standorte().get(100);
+        for (int tag = 0; tag < 365; tag++) {
+            LocalDate datum = JUNI.plusDays(tag);
+            long erwartet = intervalle.stream()
+                    .filter(intervall -> intervall.getFahrzeugId() / 100 == verlauf.standortId())
+                    .filter(intervall -> !intervall.getStartdatum().isAfter(datum) && !intervall.getEnddatum().isBefore(datum))
+                    .count();
+            assertEquals(erwartet, verlauf.vermietet()[tag], "Tag " + datum);
+        }
+    }
+
+    private void standort(Long id, int kapazitaet) {
+        Standort standort = new Standort("Standort " + id, "Straße " + id, "030");
+        standort.setId(id);
+        standort.setKapazitaet(kapazitaet);
+        standorte.add(standort);
+    }
+
+    private void fahrzeug(Long id, Long standortId) {
+        fahrzeuge.add(new FahrzeugStammdaten() {
+            public Long getId() {
+                return id;
+            }
+
+            public String getMarke() {
+                return "VW";
+            }
+
+            public String getModell() {
+                return "Golf";
+            }
+
+            public Double getPreis() {
+                return 50.0;
+            }
+
+            public Long getStandortId() {
+                return standortId;
+            }
+        });
+    }
+
+    private static Buchung buchung(Long id, Long fahrzeugId, LocalDate start, LocalDate ende) {
+        Fahrzeug fahrzeug = new Fahrzeug();
+        fahrzeug.setId(fahrzeugId);
+        Buchung buchung = new Buchung(start, ende, 0, null, fahrzeug);
+        buchung.setId(id);
+        buchung.setBuchungsstatus("Reserviert");
+        return buchung;
+    }
+
+    private static BuchungIntervall intervall(Long id, Long fahrzeugId, LocalDate start, LocalDate ende) {
+        return new BuchungIntervall() {
+            public Long getId() {
+                return id;
+            }
+
+            public Long getFahrzeugId() {
+                return fahrzeugId;
+            }
+
+            public LocalDate getStartdatum() {
+                return start;
+            }
+
+            public LocalDate getEnddatum() {
+                return ende;
+            }
+        };
+    }
+}
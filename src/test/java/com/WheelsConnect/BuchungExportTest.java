@@ -0,0 +1,95 @@
+package com.WheelsConnect;
+
+import com.WheelsConnect.model.Buchung;
+import com.WheelsConnect.model.Fahrzeug;
+import com.WheelsConnect.model.Kunde;
+import com.WheelsConnect.model.Standort;
+import com.WheelsConnect.service.Aenderungen;
+import com.WheelsConnect.service.BuchungExport;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@Import({BuchungExport.class, Aenderungen.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+public class BuchungExportTest {
+
+    private static final LocalDate JULI = LocalDate.of(2023, 7, 1);
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private BuchungExport buchungExport;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    public void setUp() {
+        Standort standort = entityManager.persist(new Standort("Berlin, Mitte", "Hauptstraße 1", "030"));
+        Fahrzeug fahrzeug = entityManager.persist(new Fahrzeug("VW", "Golf \"GTI\"", "Kompakt", 2021, "rot", standort));
+        Kunde kunde = new Kunde();
+        kunde.setVorname("Anna");
+        kunde.setNachname("Schmidt");
+        kunde = entityManager.persist(kunde);
+
+        buchung(JULI, JULI.plusDays(3), 199.5, "Bestätigt", kunde, fahrzeug);
+        buchung(JULI.plusDays(10), JULI.plusDays(12), 89.0, "Storniert", kunde, fahrzeug);
+        buchung(JULI.plusMonths(1), JULI.plusMonths(1).plusDays(1), 1e7, "Bestätigt", kunde, null);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void testCsvMitFilterUndMaskierung() throws IOException {
+        String[] zeilen = exportieren(BuchungExport.Format.CSV, JULI, JULI.plusDays(31), "Bestätigt").split("\r\n");
+
+        assertEquals(2, zeilen.length);
+        assertEquals(String.join(",", BuchungExport.SPALTEN), zeilen[0]);
+        assertTrue(zeilen[1].matches("\\d+,2023-07-01,2023-07-04,199.5,Bestätigt,\\d+,Anna,Schmidt,,\\d+,VW,\"Golf \"\"GTI\"\"\",Kompakt,\\d+,\"Berlin, Mitte\""),
+                zeilen[1]);
+    }
+
+    @Test
+    public void testNdjsonOhneFilter() throws IOException {
+        String[] zeilen = exportieren(BuchungExport.Format.NDJSON, null, null, null).split("\n");
+
+        assertEquals(3, zeilen.length);
+        JsonNode erste = objectMapper.readTree(zeilen[0]);
+        assertEquals("2023-07-01", erste.get("startdatum").asText());
+        assertEquals("Golf \"GTI\"", erste.get("fahrzeug_modell").asText());
+        JsonNode ohneFahrzeug = objectMapper.readTree(zeilen[2]);
+        assertTrue(ohneFahrzeug.get("fahrzeug_id").isNull());
+        assertEquals("10000000", ohneFahrzeug.get("gesamtpreis").asText());
+    }
+
+    private String exportieren(BuchungExport.Format format, LocalDate von, LocalDate bis, String status) throws IOException {
+        ByteArrayOutputStream ausgabe = new ByteArrayOutputStream();
+        buchungExport.exportieren(format, von, bis, status, ausgabe);
+        return ausgabe.toString(StandardCharsets.UTF_8);
+    }
+
+    private void buchung(LocalDate von, LocalDate bis, double preis, String status, Kunde kunde, Fahrzeug fahrzeug) {
+        Buchung buchung = new Buchung(von, bis, preis, kunde, fahrzeug);
+        buchung.setBuchungsstatus(status);
+        entityManager.persist(buchung);
+    }
+}
@@ -0,0 +1,101 @@
+package com.WheelsConnect;
+
+import com.WheelsConnect.model.Buchung;
+import com.WheelsConnect.model.Fahrzeug;
+import com.WheelsConnect.repository.BuchungIntervall;
+import com.WheelsConnect.repository.BuchungRepository;
+import com.WheelsConnect.service.BuchungIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BuchungIndexTest {
+
+    private static final LocalDate JUNI = LocalDate.of(2023, 6, 1);
+
+    private BuchungIndex buchungIndex;
+
+    @BeforeEach
+    public void setUp() {
+        BuchungRepository buchungRepository = mock(BuchungRepository.class);
+        when(buchungRepository.findAktiveIntervalle()).thenReturn(List.of(
+                intervall(1L, 10L, JUNI, JUNI.plusDays(4)),
+                intervall(2L, 10L, JUNI.plusDays(10), JUNI.plusDays(12)),
+                intervall(3L, 20L, JUNI, JUNI.plusDays(30))));
+        buchungIndex = new BuchungIndex(buchungRepository);
+        buchungIndex.laden();
+    }
+
+    @Test
+    public void testVerfuegbarkeitAusGeladenenBuchungen() {
+        // Ränder zählen als belegt, genau wie bei der bisherigen Datenbankabfrage
+        assertFalse(buchungIndex.istVerfuegbar(10L, JUNI.plusDays(4), JUNI.plusDays(6)));
+        assertFalse(buchungIndex.istVerfuegbar(10L, JUNI.minusDays(3), JUNI));
+        assertTrue(buchungIndex.istVerfuegbar(10L, JUNI.plusDays(5), JUNI.plusDays(9)));
+        assertFalse(buchungIndex.istVerfuegbar(10L, JUNI.plusDays(2), JUNI.plusDays(20)));
+        assertTrue(buchungIndex.istVerfuegbar(30L, JUNI, JUNI.plusDays(100)));
+    }
+
+    @Test
+    public void testLangeBuchungWirdUeberMaxEndeGefunden() {
+        // Buchung 3 beginnt früh und endet spät; die Suche muss über maxEnde nach links laufen
+        buchungIndex.aktualisieren(buchung(4L, 20L, JUNI.plusDays(1), JUNI.plusDays(2), "Reserviert"));
+        assertEquals(3L, buchungIndex.findeKonflikt(20L, JUNI.plusDays(20), JUNI.plusDays(21), null));
+    }
+
+    @Test
+    public void testAenderungVerschiebtBuchungZwischenFahrzeugen() {
+        buchungIndex.aktualisieren(buchung(1L, 30L, JUNI, JUNI.plusDays(4), "Reserviert"));
+
+        assertTrue(buchungIndex.istVerfuegbar(10L, JUNI, JUNI.plusDays(4)));
+        assertEquals(1L, buchungIndex.findeKonflikt(30L, JUNI.plusDays(1), JUNI.plusDays(1), null));
+        assertNull(buchungIndex.findeKonflikt(30L, JUNI.plusDays(1), JUNI.plusDays(1), 1L));
+    }
+
+    @Test
+    public void testStornierteUndGeloeschteBuchungenBlockierenNicht() {
+        buchungIndex.aktualisieren(buchung(2L, 10L, JUNI.plusDays(10), JUNI.plusDays(12), BuchungIndex.STORNIERT));
+        assertTrue(buchungIndex.istVerfuegbar(10L, JUNI.plusDays(10), JUNI.plusDays(12)));
+
+        buchungIndex.entfernen(1L);
+        assertTrue(buchungIndex.istVerfuegbar(10L, JUNI, JUNI.plusDays(20)));
+    }
+
+    private static Buchung buchung(Long id, Long fahrzeugId, LocalDate start, LocalDate ende, String status) {
+        Fahrzeug fahrzeug = new Fahrzeug();
+        fahrzeug.setId(fahrzeugId);
+        Buchung buchung = new Buchung(start, ende, 0, null, fahrzeug);
+        buchung.setId(id);
+        buchung.setBuchungsstatus(status);
+        return buchung;
+    }
+
+    private static BuchungIntervall intervall(Long id, Long fahrzeugId, LocalDate start, LocalDate ende) {
+        return new BuchungIntervall() {
+            public Long getId() {
+                return id;
+            }
+
+            public Long getFahrzeugId() {
+                return fahrzeugId;
+            }
+
+            public LocalDate getStartdatum() {
+                return start;
+            }
+
+            public LocalDate getEnddatum() {
+                return ende;
+            }
+        };
+    }
+}
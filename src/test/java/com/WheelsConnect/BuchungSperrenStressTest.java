@@ -0,0 +1,155 @@
+package com.WheelsConnect;
+
+import com.WheelsConnect.controller.BuchungController;
+import com.WheelsConnect.controller.Teilaenderungen;
+import com.WheelsConnect.model.Buchung;
+import com.WheelsConnect.model.Fahrzeug;
+import com.WheelsConnect.repository.BuchungRepository;
+import com.WheelsConnect.repository.FahrzeugRepository;
+import com.WheelsConnect.repository.KundeRepository;
+import com.WheelsConnect.repository.StandortRepository;
+import com.WheelsConnect.service.BuchungIndex;
+import com.WheelsConnect.service.DashboardStatistik;
+import com.WheelsConnect.service.FahrzeugSperren;
+import com.WheelsConnect.service.LiveAenderungen;
+import com.WheelsConnect.service.Preisberechnung;
+import com.WheelsConnect.service.StammdatenCache;
+import com.WheelsConnect.service.TarifRegeln;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Belastet createBuchung aus vielen Threads gleichzeitig. Das Repository ist durch einen Speicher mit
+ * künstlicher Latenz ersetzt, damit sich der Test auf die Sperrlogik konzentriert. Den Durchsatz misst
+ * {@code BuchungSperrenBenchmark} im JMH-Profil.
+ */
+public class BuchungSperrenStressTest {
+
+    private static final LocalDate START = LocalDate.of(2023, 7, 1);
+    private static final long DB_LATENZ_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Map<Long, Buchung> gespeichert = new ConcurrentHashMap<>();
+    private final AtomicLong naechsteId = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BuchungController buchungController;
+
+    @BeforeEach
+    public void setUp() {
+        BuchungRepository buchungRepository = mock(BuchungRepository.class);
+        when(buchungRepository.findAktiveIntervalle()).thenReturn(List.of());
+        when(buchungRepository.saveAndFlush(any(Buchung.class))).thenAnswer(aufruf -> {
+            Buchung buchung = aufruf.getArgument(0);
+            LockSupport.parkNanos(DB_LATENZ_NANOS);
+            buchung.setId(naechsteId.incrementAndGet());
+            gespeichert.put(buchung.getId(), buchung);
+            return buchung;
+        });
+
+        BuchungIndex buchungIndex = new BuchungIndex(buchungRepository);
+        buchungIndex.laden();
+        StammdatenCache stammdatenCache = mock(StammdatenCache.class);
+        when(stammdatenCache.fahrzeug(anyLong())).thenReturn(Optional.of(new Fahrzeug()));
+        buchungController = new BuchungController(buchungRepository, buchungIndex, new FahrzeugSperren(), null,
+                new DashboardStatistik(mock(KundeRepository.class), buchungRepository, mock(FahrzeugRepository.class), mock(StandortRepository.class)), null,
+                new Preisberechnung(new TarifRegeln(1.0, null, null, null), stammdatenCache), mock(LiveAenderungen.class),
+                null, new Teilaenderungen(new ObjectMapper(), null, new LeereTransaktionen()), meterRegistry);
+    }
+
+    @Test
+    public void testKeineDoppelbuchungenUnterLast() throws Exception {
+        int threads = 16;
+        int versucheJeThread = 200;
+        AtomicInteger angelegt = new AtomicInteger();
+        AtomicInteger abgelehnt = new AtomicInteger();
+
+        ausfuehren(threads, thread -> {
+            ThreadLocalRandom zufall = ThreadLocalRandom.current();
+            for (int i = 0; i < versucheJeThread; i++) {
+                LocalDate von = START.plusDays(zufall.nextInt(60));
+                Buchung buchung = buchung(zufall.nextLong(1, 5), von, von.plusDays(zufall.nextInt(4)));
+                ResponseEntity<?> antwort = buchungController.createBuchung(buchung);
+                if (antwort.getStatusCode().value() == 201) {
+                    angelegt.incrementAndGet();
+                } else if (antwort.getStatusCode().value() == 409) {
+                    abgelehnt.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(threads * versucheJeThread, angelegt.get() + abgelehnt.get());
+        assertEquals(angelegt.get(), gespeichert.size());
+        assertTrue(abgelehnt.get() > 0, "Bei vier Fahrzeugen und 60 Tagen muss es Konflikte geben");
+        assertEquals(angelegt.get(), meterRegistry.get(BuchungController.METRIK_ANLEGEN).tag("ergebnis", "angelegt").timer().count());
+        assertEquals(abgelehnt.get(), meterRegistry.get(BuchungController.METRIK_ANLEGEN).tag("ergebnis", "konflikt").timer().count());
+
+        Map<Long, List<Buchung>> jeFahrzeug = gespeichert.values().stream()
+                .collect(Collectors.groupingBy(buchung -> buchung.getFahrzeug().getId()));
+        for (List<Buchung> buchungen : jeFahrzeug.values()) {
+            buchungen.sort(Comparator.comparing(Buchung::getStartdatum));
+            for (int i = 1; i < buchungen.size(); i++) {
+                assertTrue(buchungen.get(i - 1).getEnddatum().isBefore(buchungen.get(i).getStartdatum()),
+                        "Doppelbuchung: " + buchungen.get(i - 1).getId() + " und " + buchungen.get(i).getId());
+            }
+        }
+    }
+
+    private static void ausfuehren(int threads, ThreadAufgabe aufgabe) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch startsignal = new CountDownLatch(1);
+        List<Future<?>> ergebnisse = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            ergebnisse.add(executor.submit(() -> {
+                startsignal.await();
+                aufgabe.ausfuehren(thread);
+                return null;
+            }));
+        }
+        startsignal.countDown();
+        for (Future<?> ergebnis : ergebnisse) {
+            ergebnis.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+    }
+
+    private static Buchung buchung(long fahrzeugId, LocalDate von, LocalDate bis) {
+        Fahrzeug fahrzeug = new Fahrzeug();
+        fahrzeug.setId(fahrzeugId);
+        Buchung buchung = new Buchung(von, bis, 0, null, fahrzeug);
+        buchung.setBuchungsstatus("Reserviert");
+        return buchung;
+    }
+
+    @FunctionalInterface
+    private interface ThreadAufgabe {
+        void ausfuehren(int thread) throws Exception;
+    }
+}
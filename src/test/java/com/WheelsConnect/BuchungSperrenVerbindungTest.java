@@ -0,0 +1,147 @@
+package com.WheelsConnect;
+
+import com.WheelsConnect.controller.BuchungController;
+import com.WheelsConnect.controller.Teilaenderungen;
+import com.WheelsConnect.model.Buchung;
+import com.WheelsConnect.model.Fahrzeug;
+import com.WheelsConnect.model.Standort;
+import com.WheelsConnect.repository.BuchungRepository;
+import com.WheelsConnect.repository.FahrzeugRepository;
+import com.WheelsConnect.repository.StandortRepository;
+import com.WheelsConnect.service.Aenderungen;
+import com.WheelsConnect.service.BuchungIndex;
+import com.WheelsConnect.service.DashboardStatistik;
+import com.WheelsConnect.service.FahrzeugSperren;
+import com.WheelsConnect.service.LiveAenderungen;
+import com.WheelsConnect.service.Preisberechnung;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@code PUT} und {@code POST} auf dasselbe Fahrzeug gleichzeitig, mit nur einer Verbindung im Pool. Nähme einer der
+ * Wege die Fahrzeugsperre vor der Verbindung, warteten beide aufeinander, bis Hikari nach dem Verbindungs-Timeout
+ * aufgibt.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sperrenverbindung;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=1",
+        "spring.datasource.hikari.connection-timeout=2000",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({Teilaenderungen.class, BuchungIndex.class, FahrzeugSperren.class, Aenderungen.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+public class BuchungSperrenVerbindungTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 3, 1);
+    private static final int ANLEGER = 3;
+    private static final int DURCHLAEUFE = 50;
+
+    @Autowired
+    private Teilaenderungen teilaenderungen;
+    @Autowired
+    private BuchungIndex buchungIndex;
+    @Autowired
+    private FahrzeugSperren fahrzeugSperren;
+    @Autowired
+    private BuchungRepository buchungRepository;
+    @Autowired
+    private FahrzeugRepository fahrzeugRepository;
+    @Autowired
+    private StandortRepository standortRepository;
+
+    private BuchungController buchungController;
+    private Fahrzeug fahrzeug;
+    private Long id;
+
+    @BeforeEach
+    public void setUp() {
+        Standort standort = standortRepository.save(new Standort("Berlin Mitte", "Hauptstraße 1", "030"));
+        fahrzeug = fahrzeugRepository.save(new Fahrzeug("VW", "Golf", "Kompakt", 2022, "blau", standort));
+        id = buchungRepository.save(buchung(0, 1)).getId();
+        buchungIndex.laden();
+
+        Preisberechnung preisberechnung = mock(Preisberechnung.class);
+        when(preisberechnung.gesamtpreis(anyLong(), any(), any())).thenReturn(OptionalDouble.of(100));
+        buchungController = new BuchungController(buchungRepository, buchungIndex, fahrzeugSperren, null,
+                mock(DashboardStatistik.class), null, preisberechnung, mock(LiveAenderungen.class), null, teilaenderungen,
+                new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        buchungRepository.deleteAll();
+        fahrzeugRepository.deleteAll();
+        standortRepository.deleteAll();
+    }
+
+    @Test
+    public void testPutUndPostAufDasselbeFahrzeug() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(ANLEGER + 1);
+        CountDownLatch startsignal = new CountDownLatch(1);
+        List<Future<?>> ergebnisse = new ArrayList<>();
+        // verschiebt die bestehende Buchung hin und her
+        ergebnisse.add(executor.submit(() -> {
+            startsignal.await();
+            for (int i = 0; i < DURCHLAEUFE; i++) {
+                int von = i % 2 == 0 ? 2 : 0;
+                assertEquals(HttpStatus.OK, buchungController.updateBuchung(id, buchung(von, von + 1), null).getStatusCode());
+            }
+            return null;
+        }));
+        // legt dahinter überschneidungsfreie Buchungen an
+        for (int t = 0; t < ANLEGER; t++) {
+            int anleger = t;
+            ergebnisse.add(executor.submit(() -> {
+                startsignal.await();
+                for (int i = 0; i < DURCHLAEUFE; i++) {
+                    int von = 10 + 2 * (anleger * DURCHLAEUFE + i);
+                    assertEquals(HttpStatus.CREATED, buchungController.createBuchung(buchung(von, von)).getStatusCode());
+                }
+                return null;
+            }));
+        }
+        startsignal.countDown();
+        for (Future<?> ergebnis : ergebnisse) {
+            ergebnis.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(1 + ANLEGER * DURCHLAEUFE, buchungRepository.count());
+    }
+
+    private Buchung buchung(int von, int bis) {
+        Buchung buchung = new Buchung(START.plusDays(von), START.plusDays(bis), 0, null, fahrzeug);
+        buchung.setBuchungsstatus("Reserviert");
+        return buchung;
+    }
+}
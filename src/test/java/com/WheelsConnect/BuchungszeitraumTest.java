@@ -0,0 +1,60 @@
+package com.WheelsConnect;
+
+import com.WheelsConnect.model.Fahrzeug;
+import com.WheelsConnect.service.Buchungszeitraum;
+import com.WheelsConnect.service.Preisberechnung;
+import com.WheelsConnect.service.StammdatenCache;
+import com.WheelsConnect.service.TarifRegeln;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BuchungszeitraumTest {
+
+    private static final LocalDate HEUTE = LocalDate.of(2026, 10, 17);
+
+    @Test
+    public void testZulaessigeZeitraeume() {
+        assertNull(Buchungszeitraum.pruefen(HEUTE, HEUTE, HEUTE));
+        assertNull(Buchungszeitraum.pruefen(LocalDate.of(2016, 1, 1), LocalDate.of(2016, 12, 31), HEUTE));
+        assertNull(Buchungszeitraum.pruefen(LocalDate.of(2031, 1, 1), LocalDate.of(2031, 12, 31), HEUTE));
+        assertNull(Buchungszeitraum.pruefen(HEUTE, HEUTE.plusDays(Buchungszeitraum.MAX_MIETTAGE - 1), HEUTE));
+    }
+
+    @Test
+    public void testUnzulaessigeZeitraeume() {
+        assertEquals("Das Enddatum darf nicht vor dem Startdatum liegen", Buchungszeitraum.pruefen(HEUTE, HEUTE.minusDays(1), HEUTE));
+        assertNotNull(Buchungszeitraum.pruefen(null, HEUTE, HEUTE));
+        assertNotNull(Buchungszeitraum.pruefen(HEUTE, HEUTE.plusDays(Buchungszeitraum.MAX_MIETTAGE), HEUTE));
+        assertNotNull(Buchungszeitraum.pruefen(LocalDate.of(2015, 12, 31), LocalDate.of(2016, 1, 1), HEUTE));
+        assertNotNull(Buchungszeitraum.pruefen(LocalDate.of(2031, 12, 31), LocalDate.of(2032, 1, 1), HEUTE));
+        assertNotNull(Buchungszeitraum.pruefen(LocalDate.MAX, LocalDate.MAX, HEUTE));
+        assertNotNull(Buchungszeitraum.pruefen(LocalDate.MIN, LocalDate.MAX, HEUTE));
+    }
+
+    @Test
+    public void testQuoteLehntExtremeDatenAbOhneZuRechnen() {
+        StammdatenCache stammdatenCache = mock(StammdatenCache.class);
+        Fahrzeug fahrzeug = new Fahrzeug();
+        fahrzeug.setPreis(50.0);
+        when(stammdatenCache.fahrzeug(anyLong())).thenReturn(Optional.of(fahrzeug));
+        Preisberechnung preisberechnung = new Preisberechnung(new TarifRegeln(1.0, null, null, null), stammdatenCache);
+
+        List<Preisberechnung.Angebot> angebote = preisberechnung.angebote(List.of(
+                new Preisberechnung.Anfrage(1L, LocalDate.now(), LocalDate.MAX),
+                new Preisberechnung.Anfrage(1L, LocalDate.now(), LocalDate.now().plusDays(1))));
+
+        assertNotNull(angebote.get(0).fehler());
+        assertNull(angebote.get(0).gesamtpreis());
+        assertEquals(100.0, angebote.get(1).gesamtpreis());
+    }
+}
@@ -0,0 +1,132 @@
+package com.WheelsConnect;
+
+import com.WheelsConnect.model.Fahrzeug;
+import com.WheelsConnect.model.Standort;
+import com.WheelsConnect.repository.FahrzeugRepository;
+import com.WheelsConnect.service.FahrzeugKatalog;
+import com.WheelsConnect.service.StammdatenCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class FahrzeugKatalogTest {
+
+    private final Map<Long, Fahrzeug> fahrzeuge = new HashMap<>();
+    private FahrzeugKatalog fahrzeugKatalog;
+
+    @BeforeEach
+    public void setUp() {
+        fahrzeug(1L, "BMW", "X5", "SUV", 2021, "Schwarz", 120.0, 1L);
+        fahrzeug(2L, "BMW", "320i", "Limousine", 2019, "Weiß", 80.0, 1L);
+        fahrzeug(3L, "Audi", "Q5", "SUV", 2021, "Schwarz", 110.0, 2L);
+        fahrzeug(4L, "VW", "Golf", "Kompakt", 2020, "Blau", 45.0, 2L);
+        fahrzeug(5L, "Audi", "A4", "Limousine", 2022, "Schwarz", 95.0, 1L);
+
+        FahrzeugRepository fahrzeugRepository = mock(FahrzeugRepository.class);
+        when(fahrzeugRepository.findAll()).thenAnswer(aufruf -> new ArrayList<>(fahrzeuge.values()));
+        StammdatenCache stammdatenCache = mock(StammdatenCache.class);
+        when(stammdatenCache.fahrzeug(anyLong())).thenAnswer(aufruf -> Optional.ofNullable(fahrzeuge.get(aufruf.<Long>getArgument(0))));
+
+        fahrzeugKatalog = new FahrzeugKatalog(fahrzeugRepository, stammdatenCache);
+        fahrzeugKatalog.laden();
+    }
+
+    @Test
+    public void testOderInnerhalbUndZwischenMerkmalen() {
+        FahrzeugKatalog.Ergebnis ergebnis = suchen(List.of("BMW", "Audi"), null, List.of("Schwarz"), null, null);
+
+        assertEquals(List.of(1L, 3L, 5L), ids(ergebnis));
+        assertEquals(3, ergebnis.anzahl());
+    }
+
+    @Test
+    public void testFacettenOhneEigeneBedingung() {
+        FahrzeugKatalog.Ergebnis ergebnis = suchen(List.of("BMW"), null, null, null, null);
+
+        // Die Marken zählen über alle Fahrzeuge, die übrigen Merkmale nur über die BMW
+        assertEquals(Map.of("Audi", 2, "BMW", 2, "VW", 1), ergebnis.facetten().get("marke"));
+        assertEquals(Map.of("SUV", 1, "Limousine", 1), ergebnis.facetten().get("typ"));
+        assertEquals(Map.of("1", 2), ergebnis.facetten().get("standortId"));
+        assertEquals(Map.of("50-100", 1, "100-150", 1), ergebnis.facetten().get("preis"));
+    }
+
+    @Test
+    public void testPreisbereichUndStandort() {
+        FahrzeugKatalog.Ergebnis ergebnis = suchen(null, null, null, 90.0, 115.0);
+        assertEquals(List.of(3L, 5L), ids(ergebnis));
+
+        ergebnis = fahrzeugKatalog.suchen(new FahrzeugKatalog.Suche(null, null, null, null, List.of(2021), List.of(2L), null, null), null, 10);
+        assertEquals(List.of(3L), ids(ergebnis));
+    }
+
+    @Test
+    public void testUmgekehrterOderUngueltigerPreisbereich() {
+        FahrzeugKatalog.Ergebnis ergebnis = suchen(null, null, null, 200.0, 100.0);
+        assertEquals(List.of(), ids(ergebnis));
+        assertEquals(0, ergebnis.anzahl());
+        assertEquals(List.of(), ids(suchen(null, null, null, Double.NaN, 100.0)));
+        assertEquals(List.of(), ids(suchen(null, null, null, null, Double.NaN)));
+    }
+
+    @Test
+    public void testAenderungenUndLoeschungen() {
+        Fahrzeug golf = fahrzeuge.get(4L);
+        golf.setFarbe("Schwarz");
+        fahrzeugKatalog.gespeichert(golf);
+        fahrzeugKatalog.geloescht(1L);
+        fahrzeuge.remove(1L);
+
+        FahrzeugKatalog.Ergebnis ergebnis = suchen(null, null, List.of("Schwarz"), null, null);
+        assertEquals(List.of(3L, 4L, 5L), ids(ergebnis));
+        assertEquals(Map.of("Schwarz", 3, "Weiß", 1), ergebnis.facetten().get("farbe"));
+    }
+
+    @Test
+    public void testSeitenweise() {
+        FahrzeugKatalog.Ergebnis ergebnis = fahrzeugKatalog.suchen(leer(), null, 2);
+        assertEquals(List.of(1L, 2L), ids(ergebnis));
+        assertEquals(5, ergebnis.anzahl());
+
+        ergebnis = fahrzeugKatalog.suchen(leer(), 2L, 2);
+        assertEquals(List.of(3L, 4L), ids(ergebnis));
+    }
+
+    @Test
+    public void testCursorAusserhalbDesIdBereichs() {
+        assertEquals(List.of(1L, 2L), ids(fahrzeugKatalog.suchen(leer(), -1L, 2)));
+        assertEquals(List.of(1L, 2L), ids(fahrzeugKatalog.suchen(leer(), Long.MIN_VALUE, 2)));
+        assertEquals(List.of(), ids(fahrzeugKatalog.suchen(leer(), (long) Integer.MAX_VALUE, 2)));
+        assertEquals(List.of(), ids(fahrzeugKatalog.suchen(leer(), Long.MAX_VALUE, 2)));
+    }
+
+    private FahrzeugKatalog.Ergebnis suchen(List<String> marke, List<String> typ, List<String> farbe, Double minPreis, Double maxPreis) {
+        return fahrzeugKatalog.suchen(new FahrzeugKatalog.Suche(marke, null, typ, farbe, null, null, minPreis, maxPreis), null, 10);
+    }
+
+    private static FahrzeugKatalog.Suche leer() {
+        return new FahrzeugKatalog.Suche(null, null, null, null, null, null, null, null);
+    }
+
+    private static List<Long> ids(FahrzeugKatalog.Ergebnis ergebnis) {
+        return ergebnis.fahrzeuge().stream().map(Fahrzeug::getId).toList();
+    }
+
+    private void fahrzeug(Long id, String marke, String modell, String typ, int baujahr, String farbe, double preis, Long standortId) {
+        Standort standort = new Standort("Standort " + standortId, "Straße " + standortId, "030");
+        standort.setId(standortId);
+        Fahrzeug fahrzeug = new Fahrzeug(marke, modell, typ, baujahr, farbe, standort);
+        fahrzeug.setId(id);
+        fahrzeug.setPreis(preis);
+        fahrzeuge.put(id, fahrzeug);
+    }
+}
@@ -0,0 +1,210 @@
+package com.WheelsConnect;
+
+import com.WheelsConnect.model.Buchung;
+import com.WheelsConnect.model.Fahrzeug;
+import com.WheelsConnect.model.Kunde;
+import com.WheelsConnect.model.Standort;
+import com.WheelsConnect.repository.BuchungRepository;
+import com.WheelsConnect.repository.FahrzeugRepository;
+import com.WheelsConnect.repository.KundeRepository;
+import com.WheelsConnect.repository.StandortRepository;
+import com.WheelsConnect.service.Aenderungen;
+import com.WheelsConnect.service.BuchungIndex;
+import com.WheelsConnect.service.DashboardStatistik;
+import com.WheelsConnect.service.FahrzeugSperren;
+import com.WheelsConnect.service.Gruppenbuchung;
+import com.WheelsConnect.service.Gruppenbuchung.Problem;
+import com.WheelsConnect.service.Gruppenbuchung.Status;
+import com.WheelsConnect.service.LiveAenderungen;
+import com.WheelsConnect.service.Preisberechnung;
+import com.WheelsConnect.service.StammdatenCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalDouble;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Gruppenbuchungen gegen eine H2-Datenbank. Läuft ohne Testtransaktion, da die Gruppenbuchung selbst committet.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({Gruppenbuchung.class, BuchungIndex.class, FahrzeugSperren.class, Aenderungen.class})
+public class GruppenbuchungTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 3, 1);
+
+    @Autowired
+    private Gruppenbuchung gruppenbuchung;
+    @Autowired
+    private BuchungIndex buchungIndex;
+    @Autowired
+    private BuchungRepository buchungRepository;
+    @Autowired
+    private FahrzeugRepository fahrzeugRepository;
+    @Autowired
+    private KundeRepository kundeRepository;
+    @Autowired
+    private StandortRepository standortRepository;
+    @MockBean
+    private Preisberechnung preisberechnung;
+    @MockBean
+    private DashboardStatistik dashboardStatistik;
+    @MockBean
+    private LiveAenderungen liveAenderungen;
+    @MockBean
+    private StammdatenCache stammdatenCache;
+
+    private Kunde kunde;
+    private Fahrzeug golf;
+    private Fahrzeug passat;
+
+    @BeforeEach
+    public void setUp() {
+        Standort standort = standortRepository.save(new Standort("Berlin Mitte", "Hauptstraße 1", "030"));
+        golf = fahrzeugRepository.save(new Fahrzeug("VW", "Golf", "Kompakt", 2022, "blau", standort));
+        passat = fahrzeugRepository.save(new Fahrzeug("VW", "Passat", "Kombi", 2021, "grau", standort));
+        kunde = kundeRepository.save(new Kunde(null, "Firma", "Beispiel GmbH", null, "Weg 1", "Berlin", "10115", "DE", null, null));
+        when(preisberechnung.gesamtpreis(anyLong(), any(), any())).thenReturn(OptionalDouble.of(100));
+        when(stammdatenCache.fahrzeug(anyLong())).thenAnswer(aufruf -> fahrzeugRepository.findById(aufruf.getArgument(0)));
+        buchungIndex.laden();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        buchungRepository.deleteAll();
+        kundeRepository.deleteAll();
+        fahrzeugRepository.deleteAll();
+        standortRepository.deleteAll();
+    }
+
+    @Test
+    public void testAlleAngelegt() {
+        Gruppenbuchung.Ergebnis ergebnis = gruppenbuchung.anlegen(List.of(
+                buchung(golf, 0, 2), buchung(passat, 0, 2), buchung(golf, 3, 4)));
+
+        assertEquals(Status.ANGELEGT, ergebnis.status());
+        assertEquals(3, buchungRepository.count());
+        for (Buchung buchung : ergebnis.buchungen()) {
+            assertNotNull(buchung.getId());
+            assertEquals(100, buchung.getGesamtpreis());
+            assertEquals(0L, buchungRepository.findById(buchung.getId()).orElseThrow().getVersion());
+        }
+        assertFalse(buchungIndex.istVerfuegbar(golf.getId(), START.plusDays(4), START.plusDays(5)));
+    }
+
+    @Test
+    public void testKonflikteVerhindernAlleBuchungen() {
+        Buchung bestehend = buchungRepository.save(buchung(passat, 5, 6));
+        buchungIndex.aktualisieren(bestehend);
+
+        Gruppenbuchung.Ergebnis ergebnis = gruppenbuchung.anlegen(List.of(
+                buchung(golf, 0, 3), buchung(passat, 0, 1), buchung(golf, 3, 4), buchung(passat, 6, 8)));
+
+        assertEquals(Status.KONFLIKT, ergebnis.status());
+        assertEquals(List.of(
+                new Problem(2, "Überschneidet sich mit einer anderen Buchung dieser Anfrage", null, 0),
+                new Problem(3, "Das Fahrzeug ist im angegebenen Zeitraum bereits gebucht", bestehend.getId(), null)
+        ), ergebnis.probleme());
+        assertEquals(1, buchungRepository.count());
+    }
+
+    @Test
+    public void testStornierteBelegenNichts() {
+        Buchung storniert = buchung(golf, 0, 3);
+        storniert.setBuchungsstatus(BuchungIndex.STORNIERT);
+
+        Gruppenbuchung.Ergebnis ergebnis = gruppenbuchung.anlegen(List.of(buchung(golf, 0, 3), storniert));
+
+        assertEquals(Status.ANGELEGT, ergebnis.status());
+        assertEquals(2, buchungRepository.count());
+    }
+
+    @Test
+    public void testUngueltigeBuchungen() {
+        when(preisberechnung.gesamtpreis(passat.getId(), START, START)).thenReturn(OptionalDouble.empty());
+
+        Gruppenbuchung.Ergebnis ergebnis = gruppenbuchung.anlegen(List.of(
+                buchung(golf, 3, 1), buchung(golf, 5, 5), buchung(passat, 0, 0)));
+
+        assertEquals(Status.UNGUELTIG, ergebnis.status());
+        assertEquals(List.of(0, 2), ergebnis.probleme().stream().map(Problem::index).toList());
+        assertEquals(0, buchungRepository.count());
+    }
+
+    @Test
+    public void testUnbekannteKundenUndFahrzeuge() {
+        Kunde unbekannt = new Kunde();
+        unbekannt.setId(-1L);
+        Buchung mitUnbekanntemKunde = buchung(passat, 0, 1);
+        mitUnbekanntemKunde.setKunde(unbekannt);
+        Fahrzeug geloescht = new Fahrzeug();
+        geloescht.setId(-1L);
+
+        Gruppenbuchung.Ergebnis ergebnis = gruppenbuchung.anlegen(List.of(
+                buchung(golf, 0, 1), mitUnbekanntemKunde, buchung(geloescht, 0, 1)));
+
+        assertEquals(Status.UNGUELTIG, ergebnis.status());
+        assertEquals(List.of(
+                new Problem(1, "Der Kunde existiert nicht", null, null),
+                new Problem(2, "Das Fahrzeug existiert nicht", null, null)
+        ), ergebnis.probleme());
+        assertEquals(0, buchungRepository.count());
+    }
+
+    @Test
+    public void testKundeUndFahrzeugVollstaendigInDerAntwort() {
+        Kunde nurId = new Kunde();
+        nurId.setId(kunde.getId());
+        Fahrzeug nurFahrzeugId = new Fahrzeug();
+        nurFahrzeugId.setId(golf.getId());
+        Buchung buchung = new Buchung(START, START.plusDays(1), 0, nurId, nurFahrzeugId);
+
+        Gruppenbuchung.Ergebnis ergebnis = gruppenbuchung.anlegen(List.of(buchung));
+
+        assertEquals(Status.ANGELEGT, ergebnis.status());
+        assertEquals("Beispiel GmbH", ergebnis.buchungen().get(0).getKunde().getNachname());
+        assertEquals("Golf", ergebnis.buchungen().get(0).getFahrzeug().getModell());
+    }
+
+    /**
+     * Ein Fahrzeug, das zwischen Prüfung und Insert gelöscht wird, scheitert erst am Fremdschlüssel.
+     */
+    @Test
+    public void testDatenbankfehlerRolltZurueck() {
+        Fahrzeug geloescht = new Fahrzeug();
+        geloescht.setId(-1L);
+        when(stammdatenCache.fahrzeug(-1L)).thenReturn(Optional.of(geloescht));
+
+        assertThrows(IllegalStateException.class, () -> gruppenbuchung.anlegen(List.of(buchung(golf, 0, 1), buchung(geloescht, 0, 1))));
+        assertEquals(0, buchungRepository.count());
+        assertTrue(buchungIndex.istVerfuegbar(golf.getId(), START, START.plusDays(1)));
+    }
+
+    private Buchung buchung(Fahrzeug fahrzeug, int von, int bis) {
+        Buchung buchung = new Buchung(START.plusDays(von), START.plusDays(bis), 0, kunde, fahrzeug);
+        buchung.setBuchungsstatus("Reserviert");
+        return buchung;
+    }
+}
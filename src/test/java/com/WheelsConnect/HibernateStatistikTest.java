@@ -0,0 +1,68 @@
+package com.WheelsConnect;
+
+import com.WheelsConnect.config.HibernateStatistikEndpoint;
+import com.WheelsConnect.config.HibernateStatistikKonfiguration;
+import com.WheelsConnect.config.LangsameAbfragen;
+import com.WheelsConnect.model.Fahrzeug;
+import com.WheelsConnect.model.Standort;
+import com.WheelsConnect.repository.FahrzeugRepository;
+import com.WheelsConnect.service.Aenderungen;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "wheelsconnect.hibernate-statistik.aktiv=true",
+        "wheelsconnect.hibernate-statistik.langsam-ab=0ms",
+        "wheelsconnect.hibernate-statistik.puffer=8"
+})
+@Import({HibernateStatistikKonfiguration.class, Aenderungen.class})
+public class HibernateStatistikTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private FahrzeugRepository fahrzeugRepository;
+    @Autowired
+    private HibernateStatistikEndpoint endpoint;
+
+    @Test
+    public void testAbfragenEntitaetenUndLangsameAnweisungen() {
+        Standort standort = entityManager.persist(new Standort("Berlin", "Hauptstraße 1", "030"));
+        for (int i = 0; i < 3; i++) {
+            Fahrzeug fahrzeug = new Fahrzeug("VW", "Golf " + i, "Kompakt", 2021, "blau", standort);
+            fahrzeug.setPreis(40.0 + i);
+            entityManager.persist(fahrzeug);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        endpoint.zuruecksetzen();
+
+        fahrzeugRepository.findByFilter(standort.getId(), "Kompakt", null, 41.0);
+        fahrzeugRepository.findByFilter(standort.getId(), null, "VW", null);
+
+        HibernateStatistikEndpoint.Bericht bericht = endpoint.bericht(null);
+        assertTrue(bericht.aktiv());
+        HibernateStatistikEndpoint.Abfrage filter = bericht.abfragen().stream()
+                .filter(abfrage -> abfrage.hql().contains("from Fahrzeug f")).findFirst().orElseThrow();
+        assertEquals(2, filter.ausfuehrungen());
+        assertEquals(5, filter.zeilen());
+        assertTrue(bericht.entitaeten().stream().anyMatch(entitaet -> entitaet.name().equals("Fahrzeug") && entitaet.geladen() >= 3));
+
+        List<LangsameAbfragen.Abfrage> langsam = bericht.langsameAbfragen().letzte();
+        assertEquals(2, langsam.size());
+        assertTrue(langsam.get(0).sql().toLowerCase().contains("fahrzeug"), langsam.get(0).sql());
+        assertTrue(langsam.get(0).parameter().contains("Long"), langsam.get(0).parameter().toString());
+        assertTrue(langsam.get(0).parameter().contains("null"), langsam.get(0).parameter().toString());
+    }
+}
@@ -0,0 +1,127 @@
+package com.WheelsConnect;
+
+import com.WheelsConnect.model.Kunde;
+import com.WheelsConnect.repository.KeysetAbfrage;
+import com.WheelsConnect.repository.KundeRepository;
+import com.WheelsConnect.service.Aenderungen;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Blättern über alle Seiten mit Gleichständen und Null-Werten im Sortierfeld, auf- und absteigend.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@Import({KeysetAbfrage.class, Aenderungen.class})
+public class KeysetAbfrageTest {
+
+    private static final Comparator<Kunde> NACH_NACHNAME = Comparator
+            .comparing(Kunde::getNachname, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(Kunde::getId);
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private KundeRepository kundeRepository;
+    @Autowired
+    private KeysetAbfrage keysetAbfrage;
+
+    private List<Kunde> kunden;
+
+    @BeforeEach
+    public void setUp() {
+        String[] nachnamen = {"Meyer", "Meyer", null, "Adler", "Meyer", null, "Zander", "Bauer", "Meyer", null, "Adler", "Zander", "Meyer"};
+        kunden = new ArrayList<>();
+        for (int i = 0; i < nachnamen.length; i++) {
+            kunden.add(entityManager.persist(new Kunde(null, "Vorname " + i, nachnamen[i], i % 2 == 0 ? null : LocalDate.of(1980 + i, 1, 1),
+                    null, null, null, null, null, null)));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void testAufsteigendAlleSeitenOhneLueckenUndDoppelte() {
+        List<Long> erwartet = kunden.stream().sorted(NACH_NACHNAME).map(Kunde::getId).toList();
+        for (int limit : new int[]{1, 2, 3, 5}) {
+            assertEquals(erwartet, blaettern("nachname", false, limit), "limit " + limit);
+        }
+    }
+
+    @Test
+    public void testAbsteigendAlleSeitenOhneLueckenUndDoppelte() {
+        List<Long> erwartet = kunden.stream().sorted(NACH_NACHNAME.reversed()).map(Kunde::getId).toList();
+        for (int limit : new int[]{1, 2, 3, 5}) {
+            assertEquals(erwartet, blaettern("nachname", true, limit), "limit " + limit);
+        }
+    }
+
+    @Test
+    public void testNullsUndGleichstaendeBeiDatum() {
+        Comparator<Kunde> nachGeburtsdatum = Comparator
+                .comparing(Kunde::getGeburtsdatum, Comparator.nullsFirst(Comparator.<LocalDate>naturalOrder()))
+                .thenComparing(Kunde::getId);
+        assertEquals(kunden.stream().sorted(nachGeburtsdatum).map(Kunde::getId).toList(), blaettern("geburtsdatum", false, 4));
+        assertEquals(kunden.stream().sorted(nachGeburtsdatum.reversed()).map(Kunde::getId).toList(), blaettern("geburtsdatum", true, 4));
+    }
+
+    @Test
+    public void testCursorUeberlebtLoeschenUndAendernDerLetztenZeile() {
+        List<Kunde> erste = keysetAbfrage.seite(Kunde.class, null, "nachname", false, null, 7);
+        Kunde letzte = erste.get(erste.size() - 1);
+        String cursor = keysetAbfrage.cursor(letzte, "nachname");
+
+        // eine andere Zeile mit gleichem Nachnamen wandert ans Ende, die Cursor-Zeile verschwindet
+        Kunde verschoben = kunden.stream()
+                .filter(kunde -> kunde.getNachname() != null && kunde.getNachname().equals(letzte.getNachname()) && kunde.getId() > letzte.getId())
+                .findFirst().orElseThrow();
+        Kunde geaendert = kundeRepository.findById(verschoben.getId()).orElseThrow();
+        geaendert.setNachname("Zz");
+        kundeRepository.deleteById(letzte.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Long> rest = keysetAbfrage.seite(Kunde.class, null, "nachname", false, cursor, 100).stream().map(Kunde::getId).toList();
+        List<Long> erwartet = kunden.stream()
+                .filter(kunde -> kunde.getId() != letzte.getId().longValue())
+                .map(kunde -> kunde.getId().equals(geaendert.getId()) ? geaendert : kunde)
+                .sorted(NACH_NACHNAME)
+                .dropWhile(kunde -> NACH_NACHNAME.compare(kunde, letzte) < 0)
+                .map(Kunde::getId)
+                .toList();
+        assertEquals(erwartet, rest);
+    }
+
+    @Test
+    public void testUngueltigerCursor() {
+        assertThrows(IllegalArgumentException.class, () -> keysetAbfrage.seite(Kunde.class, null, "nachname", false, "%%%", 5));
+        assertThrows(IllegalArgumentException.class, () -> keysetAbfrage.seite(Kunde.class, null, "id", false, "abc", 5));
+    }
+
+    private List<Long> blaettern(String sortFeld, boolean absteigend, int limit) {
+        List<Long> ids = new ArrayList<>();
+        String after = null;
+        while (true) {
+            List<Kunde> seite = keysetAbfrage.seite(Kunde.class, null, sortFeld, absteigend, after, limit);
+            seite.forEach(kunde -> ids.add(kunde.getId()));
+            if (seite.size() < limit) {
+                return ids;
+            }
+            after = keysetAbfrage.cursor(seite.get(seite.size() - 1), sortFeld);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.WheelsConnect;
+
+import com.WheelsConnect.model.Kunde;
+import com.WheelsConnect.repository.KundeRepository;
+import com.WheelsConnect.service.KundenSuche;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class KundenSucheTest {
+
+    private final List<Kunde> kunden = new ArrayList<>();
+    private KundenSuche kundenSuche;
+
+    @BeforeEach
+    public void setUp() {
+        kunden.add(kunde(1L, "Anna", "Schmidt", "anna.schmidt@example.com", "030 123456", "10115"));
+        kunden.add(kunde(2L, "Anna", "Schulz", "a.schulz@example.com", "040 987654", "20095"));
+        kunden.add(kunde(3L, "Jürgen", "Müller", "juergen@example.com", "089 555000", "80331"));
+        kunden.add(kunde(4L, "Maria", "Weiß", "maria.weiss@example.com", "0221 44332", "50667"));
+
+        KundeRepository kundeRepository = mock(KundeRepository.class);
+        when(kundeRepository.findAll()).thenAnswer(aufruf -> new ArrayList<>(kunden));
+        kundenSuche = new KundenSuche(kundeRepository);
+        kundenSuche.laden();
+    }
+
+    @Test
+    public void testVollstaendigerNameVorTeiltreffer() {
+        assertEquals(List.of(1L), ids(kundenSuche.suchen("anna schmidt", 10)));
+        assertEquals(List.of(1L, 2L), ids(kundenSuche.suchen("anna sch", 10)));
+    }
+
+    @Test
+    public void testPraefixAbErstemZeichen() {
+        assertEquals(List.of(4L), ids(kundenSuche.suchen("ma", 10)));
+        assertEquals(List.of(1L, 2L), ids(kundenSuche.suchen("Sch", 10)));
+    }
+
+    @Test
+    public void testTippfehlerUndUmlaute() {
+        assertEquals(1L, kundenSuche.suchen("Schmitd", 10).get(0).id());
+        assertEquals(List.of(3L), ids(kundenSuche.suchen("juergen muller", 10)));
+        assertEquals(List.of(4L), ids(kundenSuche.suchen("weiss", 10)));
+    }
+
+    @Test
+    public void testEmailTelefonUndPlz() {
+        assertEquals(List.of(3L), ids(kundenSuche.suchen("juergen@", 10)));
+        assertEquals(List.of(2L), ids(kundenSuche.suchen("040 9876", 10)));
+        assertEquals(List.of(1L), ids(kundenSuche.suchen("1011", 10)));
+    }
+
+    @Test
+    public void testAenderungenUndLoeschungen() {
+        kundenSuche.gespeichert(kunde(2L, "Anna", "Krause", "a.krause@example.com", "040 987654", "20095"));
+        kundenSuche.gespeichert(kunde(5L, "Klaus", "Schmitz", "klaus@example.com", "0211 1234", "40213"));
+        kundenSuche.geloescht(1L);
+
+        assertEquals(List.of(5L), ids(kundenSuche.suchen("schmi", 10)));
+        assertEquals(List.of(2L), ids(kundenSuche.suchen("krause", 10)));
+        assertTrue(kundenSuche.suchen("schulz", 10).isEmpty());
+    }
+
+    @Test
+    public void testLimitUndLeereEingabe() {
+        assertEquals(1, kundenSuche.suchen("example", 1).size());
+        assertTrue(kundenSuche.suchen("  ", 10).isEmpty());
+        assertTrue(kundenSuche.suchen("xyzxyz", 10).isEmpty());
+    }
+
+    private static List<Long> ids(List<KundenSuche.Treffer> treffer) {
+        return treffer.stream().map(KundenSuche.Treffer::id).toList();
+    }
+
+    private static Kunde kunde(Long id, String vorname, String nachname, String email, String telefonnummer, String plz) {
+        return new Kunde(id, vorname, nachname, LocalDate.of(1990, 1, 1), "Hauptstraße 1", "Berlin", plz, "Deutschland",
+                telefonnummer, email);
+    }
+}
@@ -0,0 +1,251 @@
+package com.WheelsConnect;
+
+import com.WheelsConnect.model.Buchung;
+import com.WheelsConnect.model.Fahrzeug;
+import com.WheelsConnect.model.Kunde;
+import com.WheelsConnect.model.Standort;
+import com.WheelsConnect.repository.BuchungRepository;
+import com.WheelsConnect.repository.FahrzeugRepository;
+import com.WheelsConnect.repository.KundeRepository;
+import com.WheelsConnect.repository.StandortRepository;
+import com.WheelsConnect.security.User;
+import com.WheelsConnect.security.UserRepository;
+import com.WheelsConnect.service.BuchungIndex;
+import com.WheelsConnect.service.DashboardStatistik;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Latenz- und Durchsatz-Regressionstest vor einem Deployment: startet die Anwendung mit dem Profil {@code lasttest}
+ * gegen H2, legt einen realistischen Datenbestand an und vergleicht p50, p99 und Durchsatz je Endpunkt mit der
+ * gespeicherten Baseline. Läuft über {@code mvn -Plasttest test}; Parameter siehe README.
+ */
+@EnabledIfSystemProperty(named = "lasttest", matches = "true")
+public class LastRegressionTest {
+
+    private static final int STANDORTE = 20;
+    private static final int FAHRZEUGE = 1_000;
+    private static final int KUNDEN = 5_000;
+    private static final int BUCHUNGEN = 30_000;
+    private static final LocalDate START = LocalDate.of(2023, 1, 1);
+    private static final String PASSWORT = "lasttest";
+
+    private static final int NUTZER = Integer.getInteger("lasttest.nutzer", 32);
+    private static final Duration AUFWAERMEN = Duration.ofSeconds(Integer.getInteger("lasttest.aufwaermen", 15));
+    private static final Duration DAUER = Duration.ofSeconds(Integer.getInteger("lasttest.dauer", 60));
+    private static final Duration DENKZEIT = Duration.ofMillis(Integer.getInteger("lasttest.denkzeit", 20));
+    private static final double TOLERANZ = Double.parseDouble(System.getProperty("lasttest.toleranz", "0.25"));
+    // Unterhalb dieser Abweichung in Millisekunden gilt eine Latenz nie als Regression, sonst schlägt Rauschen bei
+    // Antwortzeiten um 1 ms an
+    private static final double MIN_ABWEICHUNG_MILLIS = 2;
+    private static final Path BASELINE = Path.of(System.getProperty("lasttest.baseline", "src/test/resources/lasttest-baseline.properties"));
+    private static final Path ERGEBNIS = Path.of("target", "lasttest-ergebnis.properties");
+
+    @Test
+    public void testLatenzUndDurchsatzGegenBaseline() throws Exception {
+        SpringApplicationBuilder anwendung = new SpringApplicationBuilder(WheelsConnectApplication.class).profiles("lasttest");
+        if (System.getProperty("lasttest.datenbank") != null) {
+            // Eine Datei-Datenbank wird geleert, damit jeder Lauf wie im Speicher mit den Migrationen und demselben Bestand beginnt
+            Flyway.configure().dataSource(System.getProperty("lasttest.datenbank"), "sa", "").cleanDisabled(false).load().clean();
+            anwendung.properties("spring.datasource.url=" + System.getProperty("lasttest.datenbank"));
+        }
+        Map<String, Lastgenerator.Messung> messungen;
+        try (ConfigurableApplicationContext context = anwendung.run()) {
+            String basis = "http://localhost:" + ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            Bestand bestand = bestandAnlegen(context);
+            String token = "Bearer " + anmelden(context, basis);
+            messungen = new Lastgenerator(mischung(basis, token, bestand), NUTZER, DENKZEIT).laufen(AUFWAERMEN, DAUER);
+        }
+
+        System.out.printf("%-22s %10s %10s %10s %10s %8s%n", "Endpunkt", "Anfragen", "Anfr./s", "p50 ms", "p99 ms", "Fehler");
+        messungen.forEach((name, messung) -> System.out.printf("%-22s %10d %10.1f %10.1f %10.1f %8d%n", name, messung.anzahl(),
+                messung.proSekunde(), messung.p50Millis(), messung.p99Millis(), messung.fehler()));
+        schreiben(messungen, ERGEBNIS);
+
+        assertEquals(0, messungen.get(Lastgenerator.GESAMT).fehler(), "Fehlerhafte Antworten unter Last");
+        if (Boolean.getBoolean("lasttest.baseline.schreiben")) {
+            schreiben(messungen, BASELINE);
+            System.out.println("Baseline geschrieben: " + BASELINE.toAbsolutePath());
+        } else if (!Files.exists(BASELINE)) {
+            System.out.println("Keine Baseline unter " + BASELINE.toAbsolutePath() + ", anlegen mit -Dlasttest.baseline.schreiben=true");
+        } else {
+            List<String> regressionen = vergleichen(messungen, lesen(BASELINE));
+            assertTrue(regressionen.isEmpty(), "Regression gegenüber " + BASELINE + ":\n" + String.join("\n", regressionen));
+        }
+    }
+
+    /**
+     * Mischung aus Lese- und Schreibzugriffen, grob nach dem Verhalten der Oberfläche: Listen und Verfügbarkeit
+     * überwiegen, jede zehnte Anfrage legt eine Buchung an, Logins sind selten.
+     */
+    private static List<Lastgenerator.Anfrage> mischung(String basis, String token, Bestand bestand) {
+        return List.of(
+                new Lastgenerator.Anfrage("buchungen", 35, zufall -> anfrage(token, basis + "/buchungen?limit=50&after="
+                        + bestand.buchungIds().get(zufall.nextInt(bestand.buchungIds().size()))).GET().build()),
+                new Lastgenerator.Anfrage("check-availability", 30, zufall -> json(anfrage(token, basis + "/buchungen/check-availability"),
+                        "{\"fahrzeugId\":\"" + zufaellig(bestand.fahrzeugIds(), zufall) + "\"," + zeitraum(zufall) + "}")),
+                new Lastgenerator.Anfrage("fahrzeuge", 20, zufall -> anfrage(token, basis + "/fahrzeuge?limit=50&standortId="
+                        + zufaellig(bestand.standortIds(), zufall)).GET().build()),
+                new Lastgenerator.Anfrage("buchung-anlegen", 10, zufall -> json(anfrage(token, basis + "/buchungen"),
+                        "{\"fahrzeug\":{\"id\":" + zufaellig(bestand.fahrzeugIds(), zufall) + "},\"kunde\":{\"id\":"
+                                + zufaellig(bestand.kundeIds(), zufall) + "},\"buchungsstatus\":\"Reserviert\"," + zeitraum(zufall) + "}")),
+                new Lastgenerator.Anfrage("login", 5, zufall -> json(HttpRequest.newBuilder(URI.create(basis + "/login"))
+                        .timeout(Duration.ofSeconds(30)), "{\"username\":\"" + PASSWORT + "\",\"password\":\"" + PASSWORT + "\"}")));
+    }
+
+    private static HttpRequest.Builder anfrage(String token, String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).header("Authorization", token).timeout(Duration.ofSeconds(30));
+    }
+
+    private static HttpRequest json(HttpRequest.Builder anfrage, String inhalt) {
+        return anfrage.header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(inhalt)).build();
+    }
+
+    private static String zeitraum(Random zufall) {
+        LocalDate von = START.plusDays(zufall.nextInt(365));
+        return "\"startdatum\":\"" + von + "\",\"enddatum\":\"" + von.plusDays(zufall.nextInt(14)) + "\"";
+    }
+
+    private static Long zufaellig(List<Long> ids, Random zufall) {
+        return ids.get(zufall.nextInt(ids.size()));
+    }
+
+    /**
+     * Fester Zufallsstartwert, damit jeder Lauf denselben Bestand misst. Index und Dashboard-Zähler werden danach neu
+     * geladen, da die Daten an den Controllern vorbei angelegt werden.
+     */
+    private static Bestand bestandAnlegen(ConfigurableApplicationContext context) {
+        Random zufall = new Random(42);
+        List<Standort> standorte = new ArrayList<>();
+        for (int i = 0; i < STANDORTE; i++) {
+            standorte.add(new Standort("Standort " + i, "Hauptstraße " + i, "030 " + i));
+        }
+        standorte = context.getBean(StandortRepository.class).saveAll(standorte);
+
+        String[] marken = {"VW", "BMW", "Audi", "Opel", "Ford", "Skoda", "Toyota", "Renault"};
+        String[] typen = {"Kleinwagen", "Kompakt", "Kombi", "SUV", "Transporter"};
+        List<Fahrzeug> fahrzeuge = new ArrayList<>();
+        for (int i = 0; i < FAHRZEUGE; i++) {
+            Fahrzeug fahrzeug = new Fahrzeug(marken[i % marken.length], "Modell " + i, typen[zufall.nextInt(typen.length)],
+                    2015 + zufall.nextInt(9), "blau", standorte.get(zufall.nextInt(STANDORTE)));
+            fahrzeug.setPreis(29.0 + zufall.nextInt(120));
+            fahrzeuge.add(fahrzeug);
+        }
+        fahrzeuge = context.getBean(FahrzeugRepository.class).saveAll(fahrzeuge);
+
+        List<Kunde> kunden = new ArrayList<>();
+        for (int i = 0; i < KUNDEN; i++) {
+            kunden.add(new Kunde(null, "Vorname" + i, "Nachname" + i, START.minusYears(20 + zufall.nextInt(50)),
+                    "Weg " + i, "Berlin", String.valueOf(10115 + zufall.nextInt(900)), "DE", null, "kunde" + i + "@example.org"));
+        }
+        kunden = context.getBean(KundeRepository.class).saveAll(kunden);
+
+        List<Buchung> buchungen = new ArrayList<>();
+        for (int i = 0; i < BUCHUNGEN; i++) {
+            LocalDate von = START.plusDays(zufall.nextInt(365));
+            Fahrzeug fahrzeug = fahrzeuge.get(zufall.nextInt(FAHRZEUGE));
+            int tage = 1 + zufall.nextInt(10);
+            Buchung buchung = new Buchung(von, von.plusDays(tage - 1), tage * fahrzeug.getPreis(), kunden.get(zufall.nextInt(KUNDEN)), fahrzeug);
+            buchung.setBuchungsstatus(i % 10 == 0 ? BuchungIndex.STORNIERT : "Bestätigt");
+            buchungen.add(buchung);
+        }
+        List<Long> buchungIds = context.getBean(BuchungRepository.class).saveAll(buchungen).stream().map(Buchung::getId).toList();
+
+        User user = new User();
+        user.setUsername(PASSWORT);
+        user.setPassword(context.getBean(PasswordEncoder.class).encode(PASSWORT));
+        context.getBean(UserRepository.class).save(user);
+
+        context.getBean(BuchungIndex.class).laden();
+        context.getBean(DashboardStatistik.class).laden();
+        return new Bestand(standorte.stream().map(Standort::getId).toList(), fahrzeuge.stream().map(Fahrzeug::getId).toList(),
+                kunden.stream().map(Kunde::getId).toList(), buchungIds);
+    }
+
+    private static String anmelden(ConfigurableApplicationContext context, String basis) throws IOException, InterruptedException {
+        HttpResponse<String> antwort = HttpClient.newHttpClient().send(json(HttpRequest.newBuilder(URI.create(basis + "/login")),
+                "{\"username\":\"" + PASSWORT + "\",\"password\":\"" + PASSWORT + "\"}"), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, antwort.statusCode(), antwort.body());
+        return context.getBean(ObjectMapper.class).readTree(antwort.body()).get("token").asText();
+    }
+
+    /**
+     * Eine Latenz gilt als Regression, wenn sie die Baseline um mehr als die Toleranz und mindestens
+     * {@value #MIN_ABWEICHUNG_MILLIS} ms übersteigt; der Durchsatz, wenn er um mehr als die Toleranz fällt.
+     */
+    private static List<String> vergleichen(Map<String, Lastgenerator.Messung> messungen, Properties baseline) {
+        List<String> regressionen = new ArrayList<>();
+        messungen.forEach((name, messung) -> {
+            latenzPruefen(regressionen, name + ".p50", messung.p50Millis(), baseline);
+            latenzPruefen(regressionen, name + ".p99", messung.p99Millis(), baseline);
+            String schluessel = name + ".pro-sekunde";
+            if (baseline.containsKey(schluessel)) {
+                double erwartet = Double.parseDouble(baseline.getProperty(schluessel));
+                if (messung.proSekunde() < erwartet * (1 - TOLERANZ)) {
+                    regressionen.add(String.format(Locale.ROOT, "%s: %.1f/s statt mindestens %.1f/s", schluessel,
+                            messung.proSekunde(), erwartet * (1 - TOLERANZ)));
+                }
+            }
+        });
+        return regressionen;
+    }
+
+    private static void latenzPruefen(List<String> regressionen, String schluessel, double millis, Properties baseline) {
+        if (!baseline.containsKey(schluessel)) {
+            return;
+        }
+        double erwartet = Double.parseDouble(baseline.getProperty(schluessel));
+        double grenze = Math.max(erwartet * (1 + TOLERANZ), erwartet + MIN_ABWEICHUNG_MILLIS);
+        if (millis > grenze) {
+            regressionen.add(String.format(Locale.ROOT, "%s: %.1f ms statt höchstens %.1f ms (Baseline %.1f ms)", schluessel,
+                    millis, grenze, erwartet));
+        }
+    }
+
+    private static Properties lesen(Path datei) throws IOException {
+        Properties werte = new Properties();
+        try (Reader reader = Files.newBufferedReader(datei, StandardCharsets.UTF_8)) {
+            werte.load(reader);
+        }
+        return werte;
+    }
+
+    private static void schreiben(Map<String, Lastgenerator.Messung> messungen, Path datei) throws IOException {
+        StringBuilder inhalt = new StringBuilder(String.format(Locale.ROOT, "# %d Nutzer, %d s Messung, %d ms Denkzeit, Java %s%n",
+                NUTZER, DAUER.toSeconds(), DENKZEIT.toMillis(), Runtime.version()));
+        messungen.forEach((name, messung) -> inhalt.append(String.format(Locale.ROOT, "%s.p50=%.2f%n%s.p99=%.2f%n%s.pro-sekunde=%.1f%n",
+                name, messung.p50Millis(), name, messung.p99Millis(), name, messung.proSekunde())));
+        Files.createDirectories(datei.toAbsolutePath().getParent());
+        Files.writeString(datei, inhalt, StandardCharsets.UTF_8);
+    }
+
+    private record Bestand(List<Long> standortIds, List<Long> fahrzeugIds, List<Long> kundeIds, List<Long> buchungIds) {
+    }
+}
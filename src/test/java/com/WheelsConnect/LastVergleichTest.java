@@ -0,0 +1,184 @@
+package com.WheelsConnect;
+
+import com.WheelsConnect.config.VirtuelleThreads;
+import com.WheelsConnect.model.Fahrzeug;
+import com.WheelsConnect.model.Kunde;
+import com.WheelsConnect.model.Standort;
+import com.WheelsConnect.repository.FahrzeugRepository;
+import com.WheelsConnect.repository.KundeRepository;
+import com.WheelsConnect.repository.StandortRepository;
+import com.WheelsConnect.security.Tokens;
+import com.WheelsConnect.security.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Vergleicht Plattform- und virtuelle Threads unter Last auf den Buchungs-Endpunkten. Startet die Anwendung je Modus
+ * einmal gegen H2; nur mit {@code -Dlasttest=true}, der virtuelle Modus zusätzlich nur auf Java 21 oder neuer. Durchsatz
+ * und Latenzen je Modus stehen danach in {@code target/lastvergleich-ergebnis.properties}.
+ */
+@EnabledIfSystemProperty(named = "lasttest", matches = "true")
+public class LastVergleichTest {
+
+    private static final int CLIENTS = 400;
+    private static final Duration DAUER = Duration.ofSeconds(15);
+    private static final int FAHRZEUGE = 50;
+    private static final LocalDate START = LocalDate.of(2023, 7, 1);
+    private static final Path ERGEBNIS = Path.of("target", "lastvergleich-ergebnis.properties");
+
+    @Test
+    public void testPlattformGegenVirtuelleThreads() throws Exception {
+        List<Ergebnis> ergebnisse = new ArrayList<>();
+        ergebnisse.add(messen("plattform", false));
+        StringBuilder inhalt = new StringBuilder(String.format(Locale.ROOT, "# %d Clients, %d s Messung, Java %s%n",
+                CLIENTS, DAUER.toSeconds(), Runtime.version()));
+        if (VirtuelleThreads.verfuegbar()) {
+            ergebnisse.add(messen("virtuell", true));
+        } else {
+            inhalt.append("# virtuelle Threads übersprungen, erst ab Java 21\n");
+        }
+
+        for (Ergebnis ergebnis : ergebnisse) {
+            inhalt.append(String.format(Locale.ROOT, "%1$s.pro-sekunde=%2$.1f%n%1$s.p50=%3$.2f%n%1$s.p99=%4$.2f%n%1$s.fehler=%5$d%n",
+                    ergebnis.modus(), ergebnis.proSekunde(), ergebnis.p50Millis(), ergebnis.p99Millis(), ergebnis.fehler()));
+        }
+        Files.createDirectories(ERGEBNIS.toAbsolutePath().getParent());
+        Files.writeString(ERGEBNIS, inhalt, StandardCharsets.UTF_8);
+        for (Ergebnis ergebnis : ergebnisse) {
+            assertEquals(0, ergebnis.fehler(), ergebnis.modus() + ": Serverfehler unter Last");
+        }
+    }
+
+    private Ergebnis messen(String modus, boolean virtuell) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(WheelsConnectApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:last-" + modus + ";DB_CLOSE_DELAY=-1",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "spring.jpa.hibernate.ddl-auto=none",
+                        "logging.level.org.springframework.web=INFO",
+                        "wheelsconnect.virtuelle-threads.aktiv=" + virtuell)
+                .run()) {
+            String basis = "http://localhost:" + ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            String token = "Bearer " + anmelden(context);
+            List<Long> fahrzeugIds = stammdatenAnlegen(context);
+
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+            AtomicLong fehler = new AtomicLong();
+            long ende = System.nanoTime() + DAUER.toNanos();
+            ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+            List<Future<long[]>> laufzeiten = new ArrayList<>();
+            long beginn = System.nanoTime();
+            try {
+                for (int i = 0; i < CLIENTS; i++) {
+                    laufzeiten.add(executor.submit(() -> lastErzeugen(client, basis, token, fahrzeugIds, ende, fehler)));
+                }
+                long[] alle = new long[0];
+                for (Future<long[]> teilergebnis : laufzeiten) {
+                    long[] teil = teilergebnis.get(DAUER.toSeconds() + 60, TimeUnit.SECONDS);
+                    int alt = alle.length;
+                    alle = Arrays.copyOf(alle, alt + teil.length);
+                    System.arraycopy(teil, 0, alle, alt, teil.length);
+                }
+                double sekunden = (System.nanoTime() - beginn) / 1e9;
+                Arrays.sort(alle);
+                return new Ergebnis(modus, alle.length / sekunden, perzentil(alle, 0.5), perzentil(alle, 0.99), fehler.get());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Mischung je Client: 70 % Seiten der Buchungsliste, 20 % Verfügbarkeitsprüfungen, 10 % neue Buchungen.
+     */
+    private static long[] lastErzeugen(HttpClient client, String basis, String token, List<Long> fahrzeugIds, long ende, AtomicLong fehler) {
+        ThreadLocalRandom zufall = ThreadLocalRandom.current();
+        long[] laufzeiten = new long[1024];
+        int anzahl = 0;
+        while (System.nanoTime() < ende) {
+            long fahrzeugId = fahrzeugIds.get(zufall.nextInt(fahrzeugIds.size()));
+            LocalDate von = START.plusDays(zufall.nextInt(365));
+            String zeitraum = "\"startdatum\":\"" + von + "\",\"enddatum\":\"" + von.plusDays(zufall.nextInt(7)) + "\"";
+            int wahl = zufall.nextInt(10);
+            HttpRequest.Builder anfrage = HttpRequest.newBuilder().header("Authorization", token).timeout(Duration.ofSeconds(30));
+            if (wahl < 7) {
+                anfrage.uri(URI.create(basis + "/buchungen?limit=50")).GET();
+            } else if (wahl < 9) {
+                anfrage.uri(URI.create(basis + "/buchungen/check-availability")).header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"fahrzeugId\":\"" + fahrzeugId + "\"," + zeitraum + "}"));
+            } else {
+                anfrage.uri(URI.create(basis + "/buchungen")).header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"fahrzeug\":{\"id\":" + fahrzeugId + "},\"buchungsstatus\":\"Reserviert\"," + zeitraum + "}"));
+            }
+            long beginn = System.nanoTime();
+            try {
+                int status = client.send(anfrage.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status >= 500 || status == 401) {
+                    fehler.incrementAndGet();
+                }
+            } catch (Exception e) {
+                fehler.incrementAndGet();
+            }
+            if (anzahl == laufzeiten.length) {
+                laufzeiten = Arrays.copyOf(laufzeiten, anzahl * 2);
+            }
+            laufzeiten[anzahl++] = System.nanoTime() - beginn;
+        }
+        return Arrays.copyOf(laufzeiten, anzahl);
+    }
+
+    private static String anmelden(ConfigurableApplicationContext context) {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("lasttest");
+        return context.getBean(Tokens.class).ausstellen(user).token();
+    }
+
+    private static List<Long> stammdatenAnlegen(ConfigurableApplicationContext context) {
+        Standort standort = context.getBean(StandortRepository.class).save(new Standort("Berlin", "Hauptstraße 1", "030"));
+        context.getBean(KundeRepository.class).save(new Kunde(null, "Anna", "Schmidt", null, "Weg 1", "Berlin", "10115", "DE", null, null));
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < FAHRZEUGE; i++) {
+            Fahrzeug fahrzeug = new Fahrzeug("VW", "Golf " + i, "Kompakt", 2021, "blau", standort);
+            fahrzeug.setPreis(49.0);
+            ids.add(context.getBean(FahrzeugRepository.class).save(fahrzeug).getId());
+        }
+        return ids;
+    }
+
+    private static double perzentil(long[] sortiert, double anteil) {
+        return sortiert.length == 0 ? 0 : sortiert[(int) Math.min(sortiert.length - 1, Math.floor(sortiert.length * anteil))] / 1e6;
+    }
+
+    private record Ergebnis(String modus, double proSekunde, double p50Millis, double p99Millis, long fehler) {
+    }
+}
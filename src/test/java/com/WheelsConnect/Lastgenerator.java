@@ -0,0 +1,158 @@
+package com.WheelsConnect;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Lastgenerator mit geschlossener Schleife: jeder simulierte Nutzer schickt erst nach der Antwort und einer
+ * exponentiell verteilten Denkzeit die nächste Anfrage. Gemessen wird erst nach der Aufwärmphase.
+ */
+final class Lastgenerator {
+
+    static final String GESAMT = "gesamt";
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final List<Anfrage> mischung;
+    private final int gewichtGesamt;
+    private final int nutzer;
+    private final Duration denkzeit;
+
+    Lastgenerator(List<Anfrage> mischung, int nutzer, Duration denkzeit) {
+        this.mischung = mischung;
+        this.gewichtGesamt = mischung.stream().mapToInt(Anfrage::gewicht).sum();
+        this.nutzer = nutzer;
+        this.denkzeit = denkzeit;
+    }
+
+    /**
+     * Liefert je Anfrageart und unter {@link #GESAMT} über alle Arten die Messwerte der Messphase.
+     */
+    Map<String, Messung> laufen(Duration aufwaermen, Duration dauer) throws Exception {
+        long messbeginn = System.nanoTime() + aufwaermen.toNanos();
+        long ende = messbeginn + dauer.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(nutzer);
+        try {
+            List<Future<Aufzeichnung>> nutzerErgebnisse = new ArrayList<>();
+            for (int i = 0; i < nutzer; i++) {
+                nutzerErgebnisse.add(executor.submit(() -> nutzerSimulieren(messbeginn, ende)));
+            }
+            Aufzeichnung alle = new Aufzeichnung(mischung.size() + 1);
+            for (Future<Aufzeichnung> ergebnis : nutzerErgebnisse) {
+                alle.hinzufuegen(ergebnis.get(aufwaermen.plus(dauer).toSeconds() + 60, TimeUnit.SECONDS));
+            }
+
+            double sekunden = dauer.toNanos() / 1e9;
+            Map<String, Messung> messungen = new LinkedHashMap<>();
+            for (int i = 0; i < mischung.size(); i++) {
+                messungen.put(mischung.get(i).name(), alle.messung(i, sekunden));
+            }
+            messungen.put(GESAMT, alle.messung(mischung.size(), sekunden));
+            return messungen;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Aufzeichnung nutzerSimulieren(long messbeginn, long ende) throws InterruptedException {
+        ThreadLocalRandom zufall = ThreadLocalRandom.current();
+        Aufzeichnung aufzeichnung = new Aufzeichnung(mischung.size() + 1);
+        while (System.nanoTime() < ende) {
+            int art = auswaehlen(zufall);
+            HttpRequest anfrage = mischung.get(art).erzeugen().apply(zufall);
+            long beginn = System.nanoTime();
+            boolean fehler;
+            try {
+                int status = client.send(anfrage, HttpResponse.BodyHandlers.discarding()).statusCode();
+                // 409 ist bei Buchungen ein regulärer Konflikt, alles andere ab 400 ein Fehler des Servers oder der Mischung
+                fehler = status >= 400 && status != 409;
+            } catch (Exception e) {
+                fehler = true;
+            }
+            long ankunft = System.nanoTime();
+            if (beginn >= messbeginn && ankunft <= ende) {
+                aufzeichnung.eintragen(art, ankunft - beginn, fehler);
+                aufzeichnung.eintragen(mischung.size(), ankunft - beginn, fehler);
+            }
+            if (!denkzeit.isZero()) {
+                Thread.sleep((long) (-Math.log(1 - zufall.nextDouble()) * denkzeit.toMillis()));
+            }
+        }
+        return aufzeichnung;
+    }
+
+    private int auswaehlen(ThreadLocalRandom zufall) {
+        int wert = zufall.nextInt(gewichtGesamt);
+        for (int i = 0; i < mischung.size(); i++) {
+            wert -= mischung.get(i).gewicht();
+            if (wert < 0) {
+                return i;
+            }
+        }
+        return mischung.size() - 1;
+    }
+
+    /**
+     * Eine Anfrageart der Mischung; {@code gewicht} ist relativ zu den übrigen Arten.
+     */
+    record Anfrage(String name, int gewicht, Function<ThreadLocalRandom, HttpRequest> erzeugen) {
+    }
+
+    record Messung(long anzahl, long fehler, double proSekunde, double p50Millis, double p99Millis) {
+    }
+
+    private static final class Aufzeichnung {
+        private final long[][] laufzeiten;
+        private final int[] anzahl;
+        private final long[] fehler;
+
+        Aufzeichnung(int arten) {
+            laufzeiten = new long[arten][256];
+            anzahl = new int[arten];
+            fehler = new long[arten];
+        }
+
+        void eintragen(int art, long nanos, boolean fehlerhaft) {
+            if (anzahl[art] == laufzeiten[art].length) {
+                laufzeiten[art] = Arrays.copyOf(laufzeiten[art], anzahl[art] * 2);
+            }
+            laufzeiten[art][anzahl[art]++] = nanos;
+            if (fehlerhaft) {
+                fehler[art]++;
+            }
+        }
+
+        void hinzufuegen(Aufzeichnung andere) {
+            for (int art = 0; art < anzahl.length; art++) {
+                if (anzahl[art] + andere.anzahl[art] > laufzeiten[art].length) {
+                    laufzeiten[art] = Arrays.copyOf(laufzeiten[art], anzahl[art] + andere.anzahl[art]);
+                }
+                System.arraycopy(andere.laufzeiten[art], 0, laufzeiten[art], anzahl[art], andere.anzahl[art]);
+                anzahl[art] += andere.anzahl[art];
+                fehler[art] += andere.fehler[art];
+            }
+        }
+
+        Messung messung(int art, double sekunden) {
+            long[] sortiert = Arrays.copyOf(laufzeiten[art], anzahl[art]);
+            Arrays.sort(sortiert);
+            return new Messung(sortiert.length, fehler[art], sortiert.length / sekunden, perzentil(sortiert, 0.5), perzentil(sortiert, 0.99));
+        }
+
+        private static double perzentil(long[] sortiert, double anteil) {
+            return sortiert.length == 0 ? 0 : sortiert[(int) Math.min(sortiert.length - 1, Math.floor(sortiert.length * anteil))] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.WheelsConnect;
+
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+/**
+ * Transaktionen ohne Datenbank für Tests und Benchmarks mit gemockten Repositories. Die Synchronisationen, an denen
+ * {@code Teilaenderungen} Sperren und Index hängt, laufen wie bei einer echten Transaktion.
+ */
+public class LeereTransaktionen extends AbstractPlatformTransactionManager {
+
+    @Override
+    protected Object doGetTransaction() {
+        return new Object();
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+    }
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {
+    }
+}
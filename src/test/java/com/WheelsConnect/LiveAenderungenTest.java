@@ -0,0 +1,90 @@
+package com.WheelsConnect;
+
+import com.WheelsConnect.model.Fahrzeug;
+import com.WheelsConnect.model.Kunde;
+import com.WheelsConnect.service.LiveAenderungen;
+import com.WheelsConnect.service.LiveAenderungen.Sendung;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class LiveAenderungenTest {
+
+    private SimpMessageSendingOperations messagingTemplate;
+    private LiveAenderungen liveAenderungen;
+
+    @BeforeEach
+    public void setUp() {
+        messagingTemplate = mock(SimpMessageSendingOperations.class);
+        liveAenderungen = new LiveAenderungen(messagingTemplate, new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    @Test
+    public void testAenderungenEinesTaktsWerdenZusammengefasst() {
+        liveAenderungen.angelegt(Fahrzeug.class, 1L, fahrzeug(1L, "blau"));
+        liveAenderungen.geaendert(Fahrzeug.class, 1L, fahrzeug(1L, "rot"));
+        liveAenderungen.geaendert(Fahrzeug.class, 2L, fahrzeug(2L, "grün"));
+        liveAenderungen.geaendert(Fahrzeug.class, 2L, fahrzeug(2L, "gelb"));
+        liveAenderungen.geloescht(Fahrzeug.class, 3L);
+        liveAenderungen.angelegt(Fahrzeug.class, 4L, fahrzeug(4L, "weiß"));
+        liveAenderungen.geloescht(Fahrzeug.class, 4L);
+
+        liveAenderungen.senden();
+
+        List<LiveAenderungen.Delta> deltas = gesendet("/topic/fahrzeuge").aenderungen();
+        assertEquals(3, deltas.size());
+        assertEquals(new LiveAenderungen.Delta(LiveAenderungen.ANGELEGT, 1L, deltas.get(0).daten()), deltas.get(0));
+        assertEquals("rot", deltas.get(0).daten().get("farbe").asText());
+        assertEquals(LiveAenderungen.GEAENDERT, deltas.get(1).aktion());
+        assertEquals("gelb", deltas.get(1).daten().get("farbe").asText());
+        assertEquals(LiveAenderungen.GELOESCHT, deltas.get(2).aktion());
+        verify(messagingTemplate, never()).convertAndSend(eq("/topic/kunden"), any(Object.class));
+    }
+
+    @Test
+    public void testOhneAenderungenWirdNichtsGesendet() {
+        liveAenderungen.senden();
+
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+    }
+
+    @Test
+    public void testZuVieleAenderungenFordernZumNeuladenAuf() {
+        for (long id = 1; id <= LiveAenderungen.MAX_JE_SENDUNG + 1; id++) {
+            liveAenderungen.geloescht(Kunde.class, id);
+        }
+        liveAenderungen.geloescht(Kunde.class, 10_000L);
+
+        liveAenderungen.senden();
+
+        Sendung sendung = gesendet("/topic/kunden");
+        assertTrue(sendung.neuLaden());
+        assertTrue(sendung.aenderungen().isEmpty());
+    }
+
+    private Sendung gesendet(String topic) {
+        ArgumentCaptor<Object> sendung = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate).convertAndSend(eq(topic), sendung.capture());
+        return (Sendung) sendung.getValue();
+    }
+
+    private static Fahrzeug fahrzeug(Long id, String farbe) {
+        Fahrzeug fahrzeug = new Fahrzeug("VW", "Golf", "Kompakt", 2021, farbe, null);
+        fahrzeug.setId(id);
+        return fahrzeug;
+    }
+}
@@ -0,0 +1,116 @@
+package com.WheelsConnect;
+
+import com.WheelsConnect.security.LoginController;
+import com.WheelsConnect.security.LoginDrossel;
+import com.WheelsConnect.security.Tokens;
+import com.WheelsConnect.security.User;
+import com.WheelsConnect.security.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class LoginDrosselTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong jetzt = new AtomicLong();
+
+    @Test
+    public void testKapazitaetUndNachfuellen() {
+        LoginDrossel drossel = drossel(new LoginDrossel.Regel(3, 6));
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, drossel.ipPruefen("10.0.0.1"));
+        }
+        long warten = drossel.ipPruefen("10.0.0.1");
+        assertEquals(TimeUnit.SECONDS.toNanos(10), warten);
+        assertEquals(10, LoginDrossel.sekunden(warten));
+        assertEquals(0, drossel.ipPruefen("10.0.0.2"), "Jede Adresse hat ihren eigenen Eimer");
+
+        jetzt.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertEquals(0, drossel.ipPruefen("10.0.0.1"));
+        assertTrue(drossel.ipPruefen("10.0.0.1") > 0);
+        assertEquals(2.0, meterRegistry.get(LoginDrossel.METRIK).tag("grund", "ip").counter().count());
+    }
+
+    @Test
+    public void testNutzernameOhneGrossKleinschreibung() {
+        LoginDrossel drossel = drossel(new LoginDrossel.Regel(2, 1));
+
+        assertEquals(0, drossel.nutzerPruefen("Admin"));
+        assertEquals(0, drossel.nutzerPruefen("admin"));
+        assertTrue(drossel.nutzerPruefen("ADMIN") > 0);
+        assertEquals(1.0, meterRegistry.get(LoginDrossel.METRIK).tag("grund", "nutzer").counter().count());
+    }
+
+    @Test
+    public void testGleichzeitigeVersucheUeberschreitenNieDieKapazitaet() throws Exception {
+        LoginDrossel drossel = drossel(new LoginDrossel.Regel(100, 1));
+        AtomicInteger erlaubt = new AtomicInteger();
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> ergebnisse = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                ergebnisse.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 1_000; i++) {
+                        if (drossel.nutzerPruefen("admin") == 0) {
+                            erlaubt.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> ergebnis : ergebnisse) {
+                ergebnis.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(100, erlaubt.get());
+    }
+
+    @Test
+    public void testGedrosselterLoginFragtKeineDatenbank() {
+        UserRepository userRepository = mock(UserRepository.class);
+        LoginDrossel drossel = drossel(new LoginDrossel.Regel(1, 1));
+        LoginController loginController = new LoginController(userRepository, new BCryptPasswordEncoder(),
+                new Tokens(new byte[32], Duration.ofHours(1), Clock.systemUTC()), drossel, meterRegistry);
+        drossel.nutzerPruefen("admin");
+
+        User user = new User();
+        user.setUsername("admin");
+        user.setPassword("geheim");
+        ResponseEntity<?> antwort = loginController.loginUser(user);
+
+        assertEquals(429, antwort.getStatusCode().value());
+        assertEquals("60", antwort.getHeaders().getFirst("Retry-After"));
+        verify(userRepository, never()).findByUsername(anyString());
+    }
+
+    private LoginDrossel drossel(LoginDrossel.Regel regel) {
+        return new LoginDrossel(meterRegistry, regel, regel, jetzt::get);
+    }
+}
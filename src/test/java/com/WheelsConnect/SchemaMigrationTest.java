@@ -0,0 +1,144 @@
+package com.WheelsConnect;
+
+import com.WheelsConnect.service.Aenderungen;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prüft die H2-Fassung der Migrationen: alle Versionen laufen, auch auf einer bestehenden Datenbank ab V1, die
+ * Verfügbarkeits- und Statusabfragen nutzen ihre Indizes und die Fremdschlüssel sind indiziert.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@Import(Aenderungen.class)
+public class SchemaMigrationTest {
+
+    private static final LocalDate START = LocalDate.of(2023, 1, 1);
+    private static final String[] STATUS = {"Angelegt", "Reserviert", "Abgeholt", "Zurückgegeben", "Storniert"};
+
+    @Autowired
+    private Flyway flyway;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testAlleMigrationenAngewendet() {
+        assertEquals("3", flyway.info().current().getVersion().getVersion());
+        assertEquals(0, flyway.info().pending().length);
+    }
+
+    /**
+     * Eine Datenbank aus der Zeit von ddl-auto=update hat das Schema von V1, aber keine Flyway-Historie; nach dem
+     * Baseline auf V1 müssen die späteren Migrationen die Versionsspalten und Indizes nachziehen.
+     */
+    @Test
+    public void testBestehendeDatenbankWirdNachgezogen() throws SQLException {
+        DriverManagerDataSource bestand = new DriverManagerDataSource("jdbc:h2:mem:bestand;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Connection verbindung = bestand.getConnection()) {
+            ScriptUtils.executeSqlScript(verbindung, new ClassPathResource("db/migration/h2/V1__Ausgangsschema.sql"));
+        }
+        JdbcTemplate alt = new JdbcTemplate(bestand);
+        alt.update("insert into kunde (vorname, nachname) values ('Anna', 'Schmidt')");
+
+        Flyway.configure().dataSource(bestand).locations("classpath:db/migration/h2")
+                .baselineOnMigrate(true).baselineVersion("1").load().migrate();
+
+        assertEquals(0L, alt.queryForObject("select version from kunde", Long.class));
+        for (String tabelle : List.of("standort", "fahrzeug", "kunde", "buchung")) {
+            alt.queryForList("select version, geaendert_am from " + tabelle);
+        }
+        assertTrue(alt.queryForObject("select count(*) from information_schema.indexes "
+                + "where index_name = 'IDX_BUCHUNG_FAHRZEUG_ZEITRAUM'", Integer.class) > 0);
+        alt.execute("shutdown");
+    }
+
+    @Test
+    public void testVerfuegbarkeitsabfrageNutztIndex() {
+        befuellen();
+        String plan = plan("select id from buchung where fahrzeug_id = 7 "
+                + "and startdatum <= date '2023-06-10' and enddatum >= date '2023-06-01'");
+        assertTrue(plan.contains("IDX_BUCHUNG_FAHRZEUG_ZEITRAUM"), plan);
+    }
+
+    @Test
+    public void testStatusabfrageNutztIndex() {
+        befuellen();
+        String plan = plan("select id from buchung where buchungsstatus = 'Storniert' and startdatum >= date '2023-06-01'");
+        assertTrue(plan.contains("IDX_BUCHUNG_STATUS_START"), plan);
+    }
+
+    @Test
+    public void testFremdschluesselIndiziert() throws SQLException {
+        assertTrue(indizierteSpalten("BUCHUNG").containsAll(List.of("KUNDE_ID", "FAHRZEUG_ID")));
+        assertTrue(indizierteSpalten("FAHRZEUG").contains("STANDORT_ID"));
+    }
+
+    private void befuellen() {
+        Long standortId = einfuegen("standort", "insert into standort (name, kapazitaet, plz) values ('Mitte', 50, 10115)");
+        List<Long> fahrzeugIds = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            fahrzeugIds.add(einfuegen("fahrzeug", "insert into fahrzeug (marke, modell, typ, baujahr, preis, standort_id) "
+                    + "values ('VW', 'Golf', 'Kompakt', 2022, 59.0, " + standortId + ")"));
+        }
+        Long kundeId = einfuegen("kunde", "insert into kunde (vorname, nachname) values ('Anna', 'Schmidt')");
+        List<Object[]> buchungen = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            LocalDate von = START.plusDays(i % 360);
+            buchungen.add(new Object[]{Date.valueOf(von), Date.valueOf(von.plusDays(i % 7)), 100.0, STATUS[i % STATUS.length],
+                    kundeId, fahrzeugIds.get(i % fahrzeugIds.size())});
+        }
+        jdbcTemplate.batchUpdate("insert into buchung (startdatum, enddatum, gesamtpreis, buchungsstatus, kunde_id, fahrzeug_id) "
+                + "values (?, ?, ?, ?, ?, ?)", buchungen);
+        jdbcTemplate.execute("analyze");
+    }
+
+    private Long einfuegen(String tabelle, String sql) {
+        jdbcTemplate.update(sql);
+        return jdbcTemplate.queryForObject("select max(id) from " + tabelle, Long.class);
+    }
+
+    private String plan(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class));
+    }
+
+    /**
+     * Spalten, mit denen mindestens ein Index der Tabelle beginnt.
+     */
+    private Set<String> indizierteSpalten(String tabelle) throws SQLException {
+        Set<String> spalten = new HashSet<>();
+        try (Connection verbindung = dataSource.getConnection();
+             ResultSet indizes = verbindung.getMetaData().getIndexInfo(null, "PUBLIC", tabelle, false, false)) {
+            while (indizes.next()) {
+                if (indizes.getShort("ORDINAL_POSITION") == 1) {
+                    spalten.add(indizes.getString("COLUMN_NAME"));
+                }
+            }
+        }
+        return spalten;
+    }
+}
@@ -0,0 +1,137 @@
+package com.WheelsConnect;
+
+import com.WheelsConnect.model.Fahrzeug;
+import com.WheelsConnect.model.Standort;
+import com.WheelsConnect.repository.FahrzeugRepository;
+import com.WheelsConnect.repository.StandortRepository;
+import com.WheelsConnect.service.StammdatenCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringJUnitConfig
+public class StammdatenCacheTest {
+
+    @Configuration
+    @EnableCaching
+    static class Konfiguration {
+
+        @Bean
+        CacheManager cacheManager() {
+            CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+            cacheManager.setCaffeine(Caffeine.newBuilder().maximumSize(100).recordStats());
+            return cacheManager;
+        }
+
+        @Bean
+        StandortRepository standortRepository() {
+            return mock(StandortRepository.class);
+        }
+
+        @Bean
+        FahrzeugRepository fahrzeugRepository() {
+            return mock(FahrzeugRepository.class);
+        }
+
+        @Bean
+        StammdatenCache stammdatenCache(StandortRepository standortRepository, FahrzeugRepository fahrzeugRepository) {
+            return new StammdatenCache(standortRepository, fahrzeugRepository);
+        }
+    }
+
+    @Autowired
+    private StammdatenCache stammdatenCache;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private StandortRepository standortRepository;
+    @Autowired
+    private FahrzeugRepository fahrzeugRepository;
+
+    @BeforeEach
+    public void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        clearInvocations(standortRepository, fahrzeugRepository);
+        when(standortRepository.findAll()).thenReturn(List.of(new Standort("Berlin", "Hauptstraße 1", "030")));
+        when(fahrzeugRepository.findAll()).thenReturn(List.of(new Fahrzeug()));
+        when(fahrzeugRepository.findById(1L)).thenReturn(Optional.of(new Fahrzeug()));
+        when(fahrzeugRepository.findById(2L)).thenReturn(Optional.of(new Fahrzeug()));
+    }
+
+    @Test
+    public void testWiederholteLesezugriffeKommenAusDemCache() {
+        List<Standort> erste = stammdatenCache.standorte();
+        assertSame(erste, stammdatenCache.standorte());
+        stammdatenCache.fahrzeug(1L);
+        stammdatenCache.fahrzeug(1L);
+
+        verify(standortRepository, times(1)).findAll();
+        verify(fahrzeugRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    public void testFahrzeugaenderungVerwirftNurBetroffeneEintraege() {
+        stammdatenCache.fahrzeug(1L);
+        stammdatenCache.fahrzeug(2L);
+        stammdatenCache.fahrzeuge();
+        stammdatenCache.standorte();
+
+        stammdatenCache.fahrzeugGeaendert(1L);
+        stammdatenCache.fahrzeug(1L);
+        stammdatenCache.fahrzeug(2L);
+        stammdatenCache.fahrzeuge();
+        stammdatenCache.standorte();
+
+        verify(fahrzeugRepository, times(2)).findById(1L);
+        verify(fahrzeugRepository, times(1)).findById(2L);
+        verify(fahrzeugRepository, times(2)).findAll();
+        verify(standortRepository, times(1)).findAll();
+    }
+
+    @Test
+    public void testStandortaenderungVerwirftAuchFahrzeuge() {
+        stammdatenCache.fahrzeug(1L);
+        stammdatenCache.standorte();
+
+        stammdatenCache.standortGeaendert(7L);
+        stammdatenCache.fahrzeug(1L);
+        stammdatenCache.standorte();
+
+        verify(fahrzeugRepository, times(2)).findById(1L);
+        verify(standortRepository, times(2)).findAll();
+    }
+
+    @Test
+    public void testStatistikenWerdenGezaehlt() {
+        stammdatenCache.fahrzeug(1L);
+        Cache<?, ?> cache = (Cache<?, ?>) cacheManager.getCache(StammdatenCache.FAHRZEUG).getNativeCache();
+        CacheStats vorher = cache.stats();
+
+        stammdatenCache.fahrzeug(1L);
+        stammdatenCache.fahrzeug(2L);
+
+        CacheStats differenz = cache.stats().minus(vorher);
+        assertEquals(1, differenz.hitCount());
+        assertEquals(1, differenz.missCount());
+    }
+}
@@ -0,0 +1,164 @@
+package com.WheelsConnect;
+
+import com.WheelsConnect.config.LangsameAbfragen;
+import com.WheelsConnect.config.ProtokollierendeDataSource;
+import com.WheelsConnect.model.Fahrzeug;
+import com.WheelsConnect.model.Standort;
+import com.WheelsConnect.repository.FahrzeugRepository;
+import com.WheelsConnect.repository.KundeRepository;
+import com.WheelsConnect.repository.StandortRepository;
+import com.WheelsConnect.service.Aenderungen;
+import com.WheelsConnect.service.DashboardStatistik;
+import com.WheelsConnect.service.StammdatenCache;
+import com.WheelsConnect.service.StammdatenImport;
+import com.WheelsConnect.service.StammdatenImport.Format;
+import com.WheelsConnect.service.StammdatenImport.ImportErgebnis;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Import gegen eine H2-Datenbank. Läuft ohne Testtransaktion, da der Import eigene Verbindungen committet.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({StammdatenImport.class, Aenderungen.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+public class StammdatenImportTest {
+
+    @Autowired
+    private StammdatenImport stammdatenImport;
+    @Autowired
+    private StandortRepository standortRepository;
+    @Autowired
+    private FahrzeugRepository fahrzeugRepository;
+    @Autowired
+    private KundeRepository kundeRepository;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private Aenderungen aenderungen;
+    @MockBean
+    private DashboardStatistik dashboardStatistik;
+    @MockBean
+    private StammdatenCache stammdatenCache;
+
+    private Standort berlin;
+
+    @BeforeEach
+    public void setUp() {
+        berlin = standortRepository.save(new Standort("Berlin Mitte", "Hauptstraße 1", "030"));
+        standortRepository.save(new Standort("Hamburg", "Hafenstraße 2", "040"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        fahrzeugRepository.deleteAll();
+        kundeRepository.deleteAll();
+        standortRepository.deleteAll();
+    }
+
+    @Test
+    public void testCsvMitFehlerhaftenZeilen() throws IOException {
+        String csv = """
+                marke;modell;typ;baujahr;farbe;preis;standort
+                VW;Golf;Kompakt;2021;blau;49,90;Berlin Mitte
+                BMW;"3er; Touring";Kombi;2020;schwarz;79.5;hamburg
+                Audi;A4;Limousine;neu;grau;;Berlin Mitte
+                Opel;Corsa;Kleinwagen;2019;rot;;Köln
+                ;Polo;Kleinwagen;2022;weiß;;
+                """;
+
+        ImportErgebnis ergebnis = stammdatenImport.fahrzeuge(eingabe(csv), Format.CSV);
+
+        assertEquals(5, ergebnis.gelesen());
+        assertEquals(2, ergebnis.angelegt());
+        assertEquals(3, ergebnis.fehlerAnzahl());
+        assertEquals(List.of(4L, 5L, 6L), ergebnis.fehler().stream().map(StammdatenImport.Fehler::zeile).toList());
+
+        List<Fahrzeug> fahrzeuge = fahrzeugRepository.findAll();
+        assertEquals(2, fahrzeuge.size());
+        Fahrzeug golf = fahrzeuge.stream().filter(f -> f.getModell().equals("Golf")).findFirst().orElseThrow();
+        assertEquals(49.9, golf.getPreis());
+        assertEquals(berlin.getId(), golf.getStandort().getId());
+        assertNotNull(golf.getVersion());
+        assertTrue(fahrzeuge.stream().anyMatch(f -> f.getModell().equals("3er; Touring")));
+    }
+
+    @Test
+    public void testNdjsonKunden() throws IOException {
+        String ndjson = """
+                {"vorname": "Anna", "nachname": "Schmidt", "geburtsdatum": "1990-04-12", "email": "anna@example.org"}
+                {"vorname": "Ben", "nachname": "Meyer", "geburtsdatum": "03.11.1985"}
+
+                {"vorname": "Carla"
+                {"vorname": "Dora", "nachname": "Keller", "email": "keine-adresse"}
+                """;
+
+        ImportErgebnis ergebnis = stammdatenImport.kunden(eingabe(ndjson), Format.NDJSON);
+
+        assertEquals(4, ergebnis.gelesen());
+        assertEquals(2, ergebnis.angelegt());
+        assertEquals(List.of(4L, 5L), ergebnis.fehler().stream().map(StammdatenImport.Fehler::zeile).toList());
+        assertEquals(2, kundeRepository.count());
+    }
+
+    @Test
+    public void testImportSchreibtInBatches() throws IOException {
+        // mit Schwelle 0 landet jede Anweisung samt Anzahl der Parametersätze im Puffer
+        LangsameAbfragen anweisungen = new LangsameAbfragen(100, Duration.ZERO);
+        StammdatenImport protokolliert = new StammdatenImport(new ProtokollierendeDataSource(dataSource, anweisungen),
+                standortRepository, objectMapper, dashboardStatistik, stammdatenCache, aenderungen);
+        int anzahl = 2 * StammdatenImport.BATCH_GROESSE + 200;
+
+        ImportErgebnis ergebnis = protokolliert.kunden(eingabe(kundenCsv(anzahl)), Format.CSV);
+
+        assertEquals(anzahl, ergebnis.angelegt());
+        assertEquals(anzahl, kundeRepository.count());
+        List<Integer> batches = anweisungen.eintraege().stream()
+                .filter(anweisung -> anweisung.sql().startsWith("insert into kunde"))
+                .map(LangsameAbfragen.Abfrage::batch)
+                .sorted()
+                .toList();
+        // keine Einzel-Inserts (Batch 0), nur volle Batches und der Rest
+        assertEquals(List.of(200, StammdatenImport.BATCH_GROESSE, StammdatenImport.BATCH_GROESSE), batches);
+    }
+
+    private static String kundenCsv(int anzahl) {
+        StringBuilder csv = new StringBuilder("vorname,nachname,geburtsdatum,adresse,stadt,plz,land,email\n");
+        for (int i = 0; i < anzahl; i++) {
+            csv.append("Vorname").append(i).append(",Nachname").append(i).append(",1980-01-01,\"Weg ").append(i)
+                    .append(", Hinterhaus\",Berlin,10115,DE,kunde").append(i).append("@example.org\n");
+        }
+        return csv.toString();
+    }
+
+    private static ByteArrayInputStream eingabe(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
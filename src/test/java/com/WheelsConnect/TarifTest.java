@@ -0,0 +1,51 @@
+package com.WheelsConnect;
+
+import com.WheelsConnect.service.Tarif;
+import com.WheelsConnect.service.TarifRegeln;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TarifTest {
+
+    private static final LocalDate MONTAG = LocalDate.of(2023, 7, 3);
+
+    @Test
+    public void testOhneRegelnZaehltJederTag() {
+        Tarif tarif = Tarif.kompilieren(new TarifRegeln(1.0, null, null, null));
+
+        assertEquals(150.0, tarif.preis(50, null, MONTAG, MONTAG.plusDays(2)));
+        assertEquals(50.0, tarif.preis(50, null, MONTAG, MONTAG));
+        assertEquals(30.0, tarif.preis(10, null, LocalDate.of(2024, 2, 28), LocalDate.of(2024, 3, 1)));
+    }
+
+    @Test
+    public void testWochenendeUndSaisonUeberJahreswechsel() {
+        Tarif tarif = Tarif.kompilieren(new TarifRegeln(1.5,
+                List.of(new TarifRegeln.Saison("12-20", "01-06", 2.0)), null, null));
+
+        // Freitag bis Sonntag
+        assertEquals(200.0, tarif.preis(50, null, MONTAG.plusDays(4), MONTAG.plusDays(6)));
+        // Sa 30.12. bis Di 02.01., alle Tage in der Saison, zwei davon am Wochenende
+        assertEquals(100.0, tarif.preis(10, null, LocalDate.of(2023, 12, 30), LocalDate.of(2024, 1, 2)));
+        // Sa 06.01. liegt noch in der Saison, So 07.01. nicht mehr
+        assertEquals(45.0, tarif.preis(10, null, LocalDate.of(2024, 1, 6), LocalDate.of(2024, 1, 7)));
+    }
+
+    @Test
+    public void testLangzeitrabattUndStandortaufschlag() {
+        Tarif tarif = Tarif.kompilieren(new TarifRegeln(1.0, null,
+                List.of(new TarifRegeln.Langzeit(28, 0.2), new TarifRegeln.Langzeit(7, 0.1)), Map.of(1L, 0.1)));
+
+        assertEquals(60.0, tarif.preis(10, null, MONTAG, MONTAG.plusDays(5)));
+        assertEquals(63.0, tarif.preis(10, null, MONTAG, MONTAG.plusDays(6)));
+        assertEquals(240.0, tarif.preis(10, null, MONTAG, MONTAG.plusDays(29)));
+        assertEquals(33.0, tarif.preis(10, 1L, MONTAG, MONTAG.plusDays(2)));
+        assertEquals(30.0, tarif.preis(10, 2L, MONTAG, MONTAG.plusDays(2)));
+        assertEquals(59.97, tarif.preis(19.99, null, MONTAG, MONTAG.plusDays(2)));
+    }
+}
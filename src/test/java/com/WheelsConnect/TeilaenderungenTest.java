@@ -0,0 +1,213 @@
+package com.WheelsConnect;
+
+import com.WheelsConnect.controller.Teilaenderungen;
+import com.WheelsConnect.model.Kunde;
+import com.WheelsConnect.repository.KundeRepository;
+import com.WheelsConnect.service.Aenderungen;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * PATCH-Umsetzung gegen eine H2-Datenbank. Läuft ohne Testtransaktion, damit jeder Versuch wie im Betrieb in einer
+ * eigenen Transaktion committet; gleichzeitige Änderungen laufen in einer weiteren Transaktion.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({Teilaenderungen.class, Aenderungen.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+public class TeilaenderungenTest {
+
+    private static final Set<String> FELDER = Set.of("vorname", "nachname", "geburtsdatum", "stadt", "email");
+
+    @Autowired
+    private Teilaenderungen teilaenderungen;
+    @Autowired
+    private KundeRepository kundeRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long id;
+
+    @BeforeEach
+    public void setUp() {
+        id = kundeRepository.save(new Kunde(null, "Anna", "Schmidt", LocalDate.of(1990, 1, 1), "Hauptstraße 1", "Berlin",
+                "10115", "DE", "030 123456", "anna@example.com")).getId();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        kundeRepository.deleteAll();
+    }
+
+    @Test
+    public void testNurGeaenderteSpaltenWerdenGeschrieben() throws JsonProcessingException {
+        JsonNode patch = json("{\"stadt\": \"Hamburg\", \"email\": null}");
+        teilaenderungen.wiederholen(patch, null, Set.of(), () -> {
+            Kunde kunde = kundeRepository.findById(id).orElseThrow();
+            teilaenderungen.anwenden(kunde, Kunde::getVersion, patch, null, FELDER);
+            // eine Änderung an einer anderen Spalte ohne neue Version, z.B. ein Import am Versionszähler vorbei
+            gleichzeitig("update kunde set nachname = 'Schulz' where id = ?");
+            return kundeRepository.saveAndFlush(kunde);
+        });
+
+        Kunde gespeichert = kundeRepository.findById(id).orElseThrow();
+        assertEquals("Hamburg", gespeichert.getStadt());
+        assertNull(gespeichert.getEmail());
+        assertEquals("Schulz", gespeichert.getNachname());
+        assertEquals(LocalDate.of(1990, 1, 1), gespeichert.getGeburtsdatum());
+        assertEquals(1L, gespeichert.getVersion());
+    }
+
+    @Test
+    public void testVeralteteVersionErgibtKonflikt() throws JsonProcessingException {
+        JsonNode patch = json("{\"vorname\": \"Anne\"}");
+        patchen(patch, "\"v0\"", Set.of());
+
+        ResponseStatusException fehler = assertThrows(ResponseStatusException.class, () -> patchen(patch, "\"v0\"", Set.of()));
+        assertEquals(HttpStatus.CONFLICT, fehler.getStatusCode());
+        fehler = assertThrows(ResponseStatusException.class, () -> patchen(json("{\"vorname\": \"Ann\", \"version\": 0}"), null, Set.of()));
+        assertEquals(HttpStatus.CONFLICT, fehler.getStatusCode());
+
+        // ETags von GET /kunden/{id} enthalten nach der Version ggf. weitere Stände
+        assertEquals(2L, patchen(json("{\"vorname\": \"Ann\"}"), "W/\"v1.4\"", Set.of()).getVersion());
+    }
+
+    @Test
+    public void testUnbekannteFelderWerdenAbgelehnt() {
+        for (String patch : new String[]{"{\"id\": 7}", "{\"geaendertAm\": null}", "[]", "{\"version\": \"x\"}"}) {
+            ResponseStatusException fehler = assertThrows(ResponseStatusException.class, () -> patchen(json(patch), null, Set.of()));
+            assertEquals(HttpStatus.BAD_REQUEST, fehler.getStatusCode(), patch);
+        }
+    }
+
+    @Test
+    public void testWiederholungNurFuerVertauschbareFelder() throws JsonProcessingException {
+        AtomicInteger versuche = new AtomicInteger();
+        JsonNode patch = json("{\"stadt\": \"Köln\"}");
+        Kunde kunde = teilaenderungen.wiederholen(patch, null, Set.of("stadt"), () -> versuch(patch, versuche));
+        assertEquals(2, versuche.get());
+        assertEquals("Köln", kunde.getStadt());
+
+        versuche.set(0);
+        JsonNode mitName = json("{\"stadt\": \"Bonn\", \"nachname\": \"Weber\"}");
+        ResponseStatusException fehler = assertThrows(ResponseStatusException.class,
+                () -> teilaenderungen.wiederholen(mitName, null, Set.of("stadt"), () -> versuch(mitName, versuche)));
+        assertEquals(HttpStatus.CONFLICT, fehler.getStatusCode());
+        assertEquals(1, versuche.get());
+    }
+
+    @Test
+    public void testErsetzenPrueftVersionAusIfMatchOderKoerper() {
+        assertEquals("Köln", ersetzen("Köln", 0L, null).getStadt());
+
+        ResponseStatusException fehler = assertThrows(ResponseStatusException.class, () -> ersetzen("Bonn", 0L, null));
+        assertEquals(HttpStatus.CONFLICT, fehler.getStatusCode());
+        // If-Match geht der Version im Körper vor
+        fehler = assertThrows(ResponseStatusException.class, () -> ersetzen("Bonn", 1L, "\"v0\""));
+        assertEquals(HttpStatus.CONFLICT, fehler.getStatusCode());
+        assertEquals("Köln", kundeRepository.findById(id).orElseThrow().getStadt());
+
+        assertEquals(2L, ersetzen("Bonn", 0L, "W/\"v1.3\"").getVersion());
+        // ohne erwartete Version wird wie bisher überschrieben
+        assertEquals("Aachen", ersetzen("Aachen", null, null).getStadt());
+    }
+
+    @Test
+    public void testMeldungenNachDemCommitSperreBisZumAbschluss() throws JsonProcessingException {
+        List<String> ablauf = new ArrayList<>();
+        JsonNode patch = json("{\"stadt\": \"Köln\"}");
+        teilaenderungen.wiederholen(patch, null, Set.of(), () -> {
+            teilaenderungen.bisZumAbschluss(() -> ablauf.add("freigegeben"));
+            Kunde kunde = kundeRepository.findById(id).orElseThrow();
+            teilaenderungen.anwenden(kunde, Kunde::getVersion, patch, null, FELDER);
+            Kunde gespeichert = kundeRepository.saveAndFlush(kunde);
+            teilaenderungen.nachCommit(() -> ablauf.add("gemeldet"));
+            ablauf.add("gespeichert");
+            return gespeichert;
+        });
+        assertEquals(List.of("gespeichert", "gemeldet", "freigegeben"), ablauf);
+
+        // eine Antwort außerhalb von 2xx rollt zurück: keine Meldung, die Sperre wird trotzdem frei
+        ablauf.clear();
+        teilaenderungen.wiederholen(patch, null, Set.of(), () -> {
+            teilaenderungen.bisZumAbschluss(() -> ablauf.add("freigegeben"));
+            teilaenderungen.nachCommit(() -> ablauf.add("gemeldet"));
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        });
+        assertEquals(List.of("freigegeben"), ablauf);
+    }
+
+    /**
+     * Beim ersten Versuch ändert eine zweite Anfrage den Kunden zwischen Laden und Speichern.
+     */
+    private Kunde versuch(JsonNode patch, AtomicInteger versuche) {
+        Kunde kunde = kundeRepository.findById(id).orElseThrow();
+        teilaenderungen.anwenden(kunde, Kunde::getVersion, patch, null, FELDER);
+        if (versuche.incrementAndGet() == 1) {
+            gleichzeitig("update kunde set telefonnummer = '040 1', version = version + 1 where id = ?");
+        }
+        return kundeRepository.saveAndFlush(kunde);
+    }
+
+    private Kunde ersetzen(String stadt, Long version, String ifMatch) {
+        return teilaenderungen.einmal(() -> {
+            Kunde kunde = kundeRepository.findById(id).orElseThrow();
+            teilaenderungen.versionPruefen(kunde, Kunde::getVersion, version, ifMatch);
+            kunde.setStadt(stadt);
+            return kundeRepository.saveAndFlush(kunde);
+        });
+    }
+
+    private Kunde patchen(JsonNode patch, String ifMatch, Set<String> vertauschbar) {
+        return teilaenderungen.wiederholen(patch, ifMatch, vertauschbar, () -> {
+            Kunde kunde = kundeRepository.findById(id).orElseThrow();
+            teilaenderungen.anwenden(kunde, Kunde::getVersion, patch, ifMatch, FELDER);
+            return kundeRepository.saveAndFlush(kunde);
+        });
+    }
+
+    private void gleichzeitig(String update) {
+        TransactionTemplate andere = new TransactionTemplate(transactionManager);
+        andere.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        andere.executeWithoutResult(status -> jdbcTemplate.update(update, id));
+    }
+
+    private JsonNode json(String text) throws JsonProcessingException {
+        return objectMapper.readTree(text);
+    }
+}
@@ -0,0 +1,106 @@
+package com.WheelsConnect;
+
+import com.WheelsConnect.security.TokenFilter;
+import com.WheelsConnect.security.Tokens;
+import com.WheelsConnect.security.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TokensTest {
+
+    private static final byte[] GEHEIMNIS = new byte[32];
+    private static final Instant JETZT = Instant.parse("2023-07-01T10:00:00Z");
+
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        user = new User();
+        user.setId(7L);
+        user.setUsername("admin:zentrale");
+    }
+
+    @Test
+    public void testAusgestelltesTokenIstGueltig() {
+        Tokens tokens = tokens(JETZT);
+        Tokens.Ausgestellt ausgestellt = tokens.ausstellen(user);
+
+        Tokens.Angemeldet angemeldet = tokens.pruefen(ausgestellt.token()).orElseThrow();
+        assertEquals(7L, angemeldet.userId());
+        assertEquals("admin:zentrale", angemeldet.username());
+        assertEquals(JETZT.plus(Duration.ofHours(8)), ausgestellt.ablauf());
+    }
+
+    @Test
+    public void testVeraenderteUndFremdeTokensWerdenAbgelehnt() {
+        String token = tokens(JETZT).ausstellen(user).token();
+        String veraendert = (token.charAt(0) == 'A' ? 'B' : 'A') + token.substring(1);
+        byte[] andererSchluessel = Arrays.copyOf(GEHEIMNIS, 32);
+        andererSchluessel[0] = 1;
+
+        assertTrue(tokens(JETZT).pruefen(veraendert).isEmpty());
+        assertTrue(new Tokens(andererSchluessel, Duration.ofHours(8), Clock.fixed(JETZT, ZoneOffset.UTC)).pruefen(token).isEmpty());
+        assertTrue(tokens(JETZT).pruefen("kein-token").isEmpty());
+        assertTrue(tokens(JETZT).pruefen(null).isEmpty());
+    }
+
+    @Test
+    public void testAbgelaufenesToken() {
+        String token = tokens(JETZT).ausstellen(user).token();
+
+        assertTrue(tokens(JETZT.plus(Duration.ofHours(8)).minusSeconds(1)).pruefen(token).isPresent());
+        assertTrue(tokens(JETZT.plus(Duration.ofHours(8))).pruefen(token).isEmpty());
+    }
+
+    @Test
+    public void testWiderrufenesToken() {
+        Tokens tokens = tokens(JETZT);
+        String abgemeldet = tokens.ausstellen(user).token();
+        String anderes = tokens.ausstellen(user).token();
+
+        tokens.widerrufen(abgemeldet);
+
+        assertTrue(tokens.pruefen(abgemeldet).isEmpty());
+        assertTrue(tokens.pruefen(anderes).isPresent());
+    }
+
+    @Test
+    public void testActuatorNurHealthOhneToken() throws Exception {
+        Tokens tokens = tokens(JETZT);
+        TokenFilter filter = new TokenFilter(tokens, "/actuator/health");
+
+        assertEquals(200, status(filter, "/actuator/health", null));
+        assertEquals(200, status(filter, "/actuator/health/liveness", null));
+        assertEquals(401, status(filter, "/actuator/healthcheck", null));
+        assertEquals(401, status(filter, "/actuator/caches", null));
+        assertEquals(401, status(filter, "/actuator/prometheus", null));
+        assertEquals(200, status(filter, "/actuator/prometheus", tokens.ausstellen(user).token()));
+    }
+
+    private static int status(TokenFilter filter, String pfad, String token) throws Exception {
+        MockHttpServletRequest anfrage = new MockHttpServletRequest("GET", pfad);
+        anfrage.setServletPath(pfad);
+        if (token != null) {
+            anfrage.addHeader("Authorization", "Bearer " + token);
+        }
+        MockHttpServletResponse antwort = new MockHttpServletResponse();
+        filter.doFilter(anfrage, antwort, new MockFilterChain());
+        return antwort.getStatus();
+    }
+
+    private static Tokens tokens(Instant jetzt) {
+        return new Tokens(GEHEIMNIS, Duration.ofHours(8), Clock.fixed(jetzt, ZoneOffset.UTC));
+    }
+}
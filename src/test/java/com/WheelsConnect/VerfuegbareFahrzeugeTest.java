@@ -0,0 +1,148 @@
+package com.WheelsConnect;
+
+import com.WheelsConnect.controller.FahrzeugController;
+import com.WheelsConnect.model.Buchung;
+import com.WheelsConnect.model.Fahrzeug;
+import com.WheelsConnect.model.Standort;
+import com.WheelsConnect.repository.BuchungRepository;
+import com.WheelsConnect.repository.FahrzeugRepository;
+import com.WheelsConnect.repository.StandortRepository;
+import com.WheelsConnect.service.Aenderungen;
+import com.WheelsConnect.service.BuchungIndex;
+import com.WheelsConnect.service.StammdatenCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * {@code GET /fahrzeuge/verfuegbar} mit den Stammdatenfiltern aus dem {@link StammdatenCache} und der Belegung aus dem
+ * {@link BuchungIndex}, gegen eine H2-Datenbank mit dem migrierten Schema.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({StammdatenCache.class, BuchungIndex.class, Aenderungen.class})
+public class VerfuegbareFahrzeugeTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 3, 1);
+
+    @Autowired
+    private StammdatenCache stammdatenCache;
+    @Autowired
+    private BuchungIndex buchungIndex;
+    @Autowired
+    private BuchungRepository buchungRepository;
+    @Autowired
+    private FahrzeugRepository fahrzeugRepository;
+    @Autowired
+    private StandortRepository standortRepository;
+
+    private FahrzeugController fahrzeugController;
+    private Standort mitte;
+    private Fahrzeug golf;
+    private Fahrzeug passat;
+    private Fahrzeug x3;
+    private Fahrzeug polo;
+    private Buchung golfBuchung;
+
+    @BeforeEach
+    public void setUp() {
+        mitte = standortRepository.save(new Standort("Berlin Mitte", "Hauptstraße 1", "030"));
+        Standort ost = standortRepository.save(new Standort("Berlin Ost", "Frankfurter Allee 1", "030"));
+        golf = fahrzeug("VW", "Golf", "Kompakt", 50.0, mitte);
+        passat = fahrzeug("VW", "Passat", "Kombi", 80.0, mitte);
+        x3 = fahrzeug("BMW", "X3", "SUV", 120.0, mitte);
+        polo = fahrzeug("VW", "Polo", "Kompakt", 40.0, ost);
+
+        golfBuchung = buchung(golf, 4, 6, "Reserviert");
+        buchung(passat, 0, 9, BuchungIndex.STORNIERT);
+        buchung(polo, 7, 8, "Reserviert");
+        buchungIndex.laden();
+
+        fahrzeugController = new FahrzeugController(fahrzeugRepository, buchungIndex, null, null, stammdatenCache, null,
+                null, null, null, null);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        buchungRepository.deleteAll();
+        fahrzeugRepository.deleteAll();
+        standortRepository.deleteAll();
+    }
+
+    @Test
+    public void testBelegteFahrzeugeFehlen() {
+        assertEquals(List.of(passat.getId(), x3.getId(), polo.getId()), verfuegbar(4, 4, null, null, null, null));
+    }
+
+    @Test
+    public void testZeitraumGrenzen() {
+        // endet am Tag vor bzw. beginnt am Tag nach der Buchung
+        assertEquals(List.of(golf.getId(), passat.getId(), x3.getId(), polo.getId()), verfuegbar(0, 3, null, null, null, null));
+        assertEquals(List.of(golf.getId(), passat.getId(), x3.getId()), verfuegbar(7, 7, null, null, null, null));
+        // Start- und Enddatum der Buchung zählen mit
+        assertEquals(List.of(passat.getId(), x3.getId(), polo.getId()), verfuegbar(0, 4, null, null, null, null));
+        assertEquals(List.of(passat.getId(), x3.getId(), polo.getId()), verfuegbar(6, 6, null, null, null, null));
+        assertEquals(List.of(passat.getId(), x3.getId()), verfuegbar(6, 8, null, null, null, null));
+    }
+
+    @Test
+    public void testFilter() {
+        assertEquals(List.of(passat.getId(), x3.getId()), verfuegbar(4, 4, mitte.getId(), null, null, null));
+        assertEquals(List.of(golf.getId(), polo.getId()), verfuegbar(10, 12, null, "Kompakt", null, null));
+        assertEquals(List.of(x3.getId()), verfuegbar(10, 12, null, null, "BMW", null));
+        // der Höchstpreis ist inklusive
+        assertEquals(List.of(golf.getId(), polo.getId()), verfuegbar(10, 12, null, null, "VW", 50.0));
+        assertEquals(List.of(golf.getId()), verfuegbar(10, 12, mitte.getId(), "Kompakt", "VW", 50.0));
+        assertEquals(List.of(), verfuegbar(4, 4, mitte.getId(), "Kompakt", null, null));
+    }
+
+    @Test
+    public void testStornierteBuchungenBelegenNichts() {
+        assertEquals(List.of(passat.getId()), verfuegbar(2, 2, null, "Kombi", null, null));
+
+        golfBuchung.setBuchungsstatus(BuchungIndex.STORNIERT);
+        buchungIndex.aktualisieren(buchungRepository.save(golfBuchung));
+        assertEquals(List.of(golf.getId(), passat.getId(), x3.getId(), polo.getId()), verfuegbar(4, 4, null, null, null, null));
+    }
+
+    @Test
+    public void testEnddatumVorStartdatum() {
+        ResponseEntity<?> antwort = fahrzeugController.getVerfuegbareFahrzeuge(START.plusDays(2), START.plusDays(1),
+                null, null, null, null);
+        assertEquals(HttpStatus.BAD_REQUEST, antwort.getStatusCode());
+    }
+
+    private List<Long> verfuegbar(int von, int bis, Long standortId, String typ, String marke, Double maxPreis) {
+        ResponseEntity<?> antwort = fahrzeugController.getVerfuegbareFahrzeuge(START.plusDays(von), START.plusDays(bis),
+                standortId, typ, marke, maxPreis);
+        assertEquals(HttpStatus.OK, antwort.getStatusCode());
+        return ((List<?>) antwort.getBody()).stream().map(fahrzeug -> ((Fahrzeug) fahrzeug).getId()).sorted().toList();
+    }
+
+    private Fahrzeug fahrzeug(String marke, String modell, String typ, double preis, Standort standort) {
+        Fahrzeug fahrzeug = new Fahrzeug(marke, modell, typ, 2022, "blau", standort);
+        fahrzeug.setPreis(preis);
+        return fahrzeugRepository.save(fahrzeug);
+    }
+
+    private Buchung buchung(Fahrzeug fahrzeug, int von, int bis, String status) {
+        Buchung buchung = new Buchung(START.plusDays(von), START.plusDays(bis), 100, null, fahrzeug);
+        buchung.setBuchungsstatus(status);
+        return buchungRepository.save(buchung);
+    }
+}